@@ -129,8 +129,8 @@ public final class BXQueryService implements XPathQueryService {
         qp.sc.ns.add(token(entry.getKey()), token(entry.getValue()), null);
       }
       // perform query and return result
-      qp.register(ctx);
       try {
+        qp.register(ctx);
         return new BXResourceSet(qp.value(), coll);
       } finally {
         qp.close();
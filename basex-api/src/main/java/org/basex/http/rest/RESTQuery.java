@@ -6,6 +6,8 @@ import java.util.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.http.*;
+import org.basex.io.out.*;
+import org.basex.io.serial.*;
 import org.basex.query.value.type.*;
 
 /**
@@ -47,6 +49,7 @@ class RESTQuery extends RESTCmd {
     final HTTPConnection conn = session.conn;
     context.options.set(MainOptions.SERIALIZER, conn.sopts());
     conn.initResponse();
+    final boolean profile = context.options.get(MainOptions.PROFILE);
 
     for(final Command cmd : session) {
       if(cmd instanceof XQuery) {
@@ -61,6 +64,15 @@ class RESTQuery extends RESTCmd {
           if(val.length == 1) xq.bind(key, val[0]);
         });
 
+        if(profile) {
+          // discard the result and return the query plan with the profiling information
+          run(cmd, new NullOutput());
+          try(Serializer ser = Serializer.get(conn.res.getOutputStream(), conn.sopts())) {
+            ser.serialize(xq.plan());
+          }
+          continue;
+        }
+
         // initializes the response with query serialization options
         conn.sopts().assign(xq.parameters(context));
         conn.initResponse();
@@ -67,8 +67,9 @@ public final class RestXqResponse extends WebResponse {
     final RestXqSingleton singleton = sngl != null ? new RestXqSingleton(conn, sngl, qc) : null;
     String redirect = null, forward = null;
 
-    qc.register(ctx);
     try {
+      // register query (may be rejected by the lock queue)
+      qc.register(ctx);
       // evaluate query
       final Iter iter = qc.iter();
       // handle response element
@@ -55,8 +55,9 @@ public final class WsResponse extends WebResponse {
 
   @Override
   public boolean serialize() throws QueryException, IOException {
-    qc.register(ctx);
     try {
+      // register query (may be rejected by the lock queue)
+      qc.register(ctx);
       final ArrayList<Object> values = serialize(qc.iter(), func.output);
       // don't send anything if the WebSocket connection has been closed
       if(!func.matches(Annotation._WS_CLOSE, null) &&
@@ -103,6 +103,17 @@ public final class RESTGetTest extends RESTTest {
     assertMediaType(mediaType("?query=1&media-type=xxx"), new MediaType("xxx"));
   }
 
+  /**
+   * Profiled query plan.
+   * @throws IOException I/O exception
+   */
+  @Test public void profile() throws IOException {
+    final String plan = get("?query=for+$i+in+1+to+3+return+$i*2&" +
+        MainOptions.PROFILE.name() + "=true");
+    assertContains(plan, "<QueryPlan");
+    assertContains(plan, "calls=\"3\"");
+  }
+
   /**
    * Specify options.
    * @throws IOException I/O exception
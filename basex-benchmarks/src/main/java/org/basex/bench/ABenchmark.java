@@ -0,0 +1,56 @@
+package org.basex.bench;
+
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Base class for all benchmarks. The benchmarks are run in a sandbox with a fresh
+ * database context.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ABenchmark extends Sandbox {
+  /** Size of the generated data. */
+  @Param("1000")
+  public int size;
+
+  /**
+   * Creates the sandbox and initializes the benchmark.
+   * @throws Exception exception
+   */
+  @Setup(Level.Trial)
+  public final void setup() throws Exception {
+    initSandbox();
+    init(new Generator());
+  }
+
+  /**
+   * Finishes the benchmark and removes the sandbox.
+   */
+  @TearDown(Level.Trial)
+  public final void tearDown() {
+    finish();
+    finishSandbox();
+  }
+
+  /**
+   * Initializes the benchmark.
+   * @param generator data generator
+   * @throws Exception exception
+   */
+  protected abstract void init(Generator generator) throws Exception;
+
+  /**
+   * Finishes the benchmark.
+   */
+  protected void finish() { }
+}
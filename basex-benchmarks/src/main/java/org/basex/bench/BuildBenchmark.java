@@ -0,0 +1,48 @@
+package org.basex.bench;
+
+import java.io.*;
+
+import org.basex.build.*;
+import org.basex.build.xml.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for parsing documents and building databases.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class BuildBenchmark extends ABenchmark {
+  /** Document. */
+  private IOContent doc;
+
+  @Override
+  protected void init(final Generator generator) {
+    doc = new IOContent(generator.auction(size));
+  }
+
+  /**
+   * Builds a main-memory database.
+   * @return database
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public Data memory() throws IOException {
+    return MemBuilder.build(NAME, new XMLParser(doc, context.options));
+  }
+
+  /**
+   * Builds a disk-based database.
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public void disk() throws IOException {
+    final Data data = new DiskBuilder(NAME, new XMLParser(doc, context.options),
+        context.soptions, context.options).build();
+    data.close();
+    DropDB.drop(NAME, context.soptions);
+  }
+}
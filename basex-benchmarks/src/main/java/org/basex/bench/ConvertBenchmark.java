@@ -0,0 +1,65 @@
+package org.basex.bench;
+
+import java.io.*;
+
+import org.basex.build.csv.*;
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
+import org.basex.io.*;
+import org.basex.io.parse.csv.*;
+import org.basex.io.parse.json.*;
+import org.basex.query.value.item.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for converting CSV and JSON input.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class ConvertBenchmark extends ABenchmark {
+  /** CSV input. */
+  private IOContent csv;
+  /** JSON input. */
+  private IOContent json;
+
+  @Override
+  protected void init(final Generator generator) {
+    csv = new IOContent(generator.csv(size));
+    json = new IOContent(generator.json(size));
+  }
+
+  /**
+   * Converts CSV input to XML.
+   * @return result
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public Item csv() throws IOException {
+    final CsvParserOptions copts = new CsvParserOptions();
+    copts.set(CsvOptions.HEADER, true);
+    return CsvConverter.get(copts).convert(csv);
+  }
+
+  /**
+   * Converts JSON input to XML.
+   * @return result
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public Item json() throws IOException {
+    return JsonConverter.get(new JsonParserOptions()).convert(json);
+  }
+
+  /**
+   * Converts JSON input to maps and arrays.
+   * @return result
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public Item jsonXQuery() throws IOException {
+    final JsonParserOptions jopts = new JsonParserOptions();
+    jopts.set(JsonOptions.FORMAT, JsonFormat.XQUERY);
+    return JsonConverter.get(jopts).convert(json);
+  }
+}
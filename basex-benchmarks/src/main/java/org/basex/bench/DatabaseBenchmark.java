@@ -0,0 +1,29 @@
+package org.basex.bench;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+
+/**
+ * Base class for benchmarks on a database with an auction document.
+ * All index structures are created.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public abstract class DatabaseBenchmark extends ABenchmark {
+  /** Database. */
+  protected Data data;
+
+  @Override
+  protected void init(final Generator generator) throws Exception {
+    execute(new Set(MainOptions.FTINDEX, true));
+    execute(new CreateDB(NAME, generator.auction(size)));
+    data = context.data();
+  }
+
+  @Override
+  protected void finish() {
+    execute(new DropDB(NAME));
+  }
+}
@@ -0,0 +1,149 @@
+package org.basex.bench;
+
+import java.util.*;
+
+/**
+ * Generator for synthetic benchmark data. All documents are created with a fixed seed,
+ * so results of different runs can be compared.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class Generator {
+  /** Words. */
+  private static final String[] WORDS = {
+    "auction", "bid", "buyer", "category", "closed", "description", "europe", "gold",
+    "increase", "interest", "item", "mail", "name", "open", "person", "price", "quantity",
+    "region", "reserve", "seller", "shipping", "silver", "street", "text", "watch"
+  };
+  /** Regions. */
+  private static final String[] REGIONS = {
+    "africa", "asia", "australia", "europe", "namerica", "samerica"
+  };
+
+  /** Random generator. */
+  private final Random random = new Random(0);
+
+  /**
+   * Creates a document with the structure of the XMark auction documents.
+   * @param size number of persons (the number of items and auctions is derived from it)
+   * @return document
+   */
+  String auction(final int size) {
+    final StringBuilder sb = new StringBuilder("<site><regions>");
+    final int items = size * 2, auctions = size;
+    for(final String region : REGIONS) {
+      sb.append('<').append(region).append('>');
+      for(int i = 0; i < items / REGIONS.length; i++) {
+        final int id = random.nextInt(items);
+        sb.append("<item id='item").append(id).append("'>");
+        sb.append("<location>").append(word()).append("</location>");
+        sb.append("<quantity>").append(1 + random.nextInt(5)).append("</quantity>");
+        sb.append("<name>").append(words(2)).append("</name>");
+        sb.append("<description><text>").append(words(20)).append("</text></description>");
+        sb.append("</item>");
+      }
+      sb.append("</").append(region).append('>');
+    }
+    sb.append("</regions><people>");
+    for(int p = 0; p < size; p++) {
+      sb.append("<person id='person").append(p).append("'>");
+      sb.append("<name>").append(words(2)).append("</name>");
+      sb.append("<emailaddress>mailto:").append(word()).append(p).append("@example.com");
+      sb.append("</emailaddress>");
+      if(random.nextBoolean()) {
+        sb.append("<profile income='").append(random.nextInt(100000)).append("'>");
+        sb.append("<interest category='category").append(random.nextInt(20)).append("'/>");
+        sb.append("<age>").append(18 + random.nextInt(60)).append("</age>");
+        sb.append("</profile>");
+      }
+      sb.append("</person>");
+    }
+    sb.append("</people><open_auctions>");
+    for(int a = 0; a < auctions; a++) {
+      sb.append("<open_auction id='open_auction").append(a).append("'>");
+      sb.append("<initial>").append(random.nextInt(200)).append("</initial>");
+      final int bidders = random.nextInt(5);
+      for(int b = 0; b < bidders; b++) {
+        sb.append("<bidder><personref person='person").append(random.nextInt(size));
+        sb.append("'/><increase>").append(1 + random.nextInt(50)).append("</increase></bidder>");
+      }
+      sb.append("<reserve>").append(random.nextInt(500)).append("</reserve>");
+      sb.append("<itemref item='item").append(random.nextInt(items)).append("'/>");
+      sb.append("</open_auction>");
+    }
+    sb.append("</open_auctions><closed_auctions>");
+    for(int a = 0; a < auctions; a++) {
+      sb.append("<closed_auction>");
+      sb.append("<buyer person='person").append(random.nextInt(size)).append("'/>");
+      sb.append("<itemref item='item").append(random.nextInt(items)).append("'/>");
+      sb.append("<price>").append(random.nextInt(100)).append("</price>");
+      sb.append("<annotation><description><text>").append(words(10));
+      sb.append("</text></description></annotation>");
+      sb.append("</closed_auction>");
+    }
+    return sb.append("</closed_auctions></site>").toString();
+  }
+
+  /**
+   * Creates a CSV document with a header line.
+   * @param size number of records
+   * @return CSV string
+   */
+  String csv(final int size) {
+    final StringBuilder sb = new StringBuilder("id,name,price,text\n");
+    for(int r = 0; r < size; r++) {
+      sb.append(r).append(',').append(word()).append(',').append(random.nextInt(1000));
+      sb.append(",\"").append(words(8)).append("\"\n");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a JSON document.
+   * @param size number of objects
+   * @return JSON string
+   */
+  String json(final int size) {
+    final StringBuilder sb = new StringBuilder("[");
+    for(int r = 0; r < size; r++) {
+      if(r > 0) sb.append(',');
+      sb.append("{\"id\":").append(r).append(",\"name\":\"").append(word());
+      sb.append("\",\"price\":").append(random.nextDouble() * 1000);
+      sb.append(",\"active\":").append(random.nextBoolean());
+      sb.append(",\"tags\":[\"").append(word()).append("\",\"").append(word()).append("\"]}");
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Returns a random word.
+   * @return word
+   */
+  String word() {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+
+  /**
+   * Returns the specified number of random words, separated by spaces.
+   * @param count number of words
+   * @return words
+   */
+  String words(final int count) {
+    final StringBuilder sb = new StringBuilder();
+    for(int c = 0; c < count; c++) {
+      if(c > 0) sb.append(' ');
+      sb.append(word());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a random integer.
+   * @param max maximum value (exclusive)
+   * @return integer
+   */
+  int nextInt(final int max) {
+    return random.nextInt(max);
+  }
+}
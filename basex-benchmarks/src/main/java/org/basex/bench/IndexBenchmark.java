@@ -0,0 +1,83 @@
+package org.basex.bench;
+
+import static org.basex.util.Token.*;
+
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.util.ft.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+/**
+ * Benchmarks for index lookups.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class IndexBenchmark extends DatabaseBenchmark {
+  /** Number of lookups. */
+  private static final int LOOKUPS = 1000;
+  /** Texts to be looked up. */
+  private byte[][] texts;
+  /** Attribute values to be looked up. */
+  private byte[][] attributes;
+  /** Words to be looked up. */
+  private byte[][] words;
+
+  @Override
+  protected void init(final Generator generator) throws Exception {
+    super.init(generator);
+    texts = new byte[LOOKUPS][];
+    attributes = new byte[LOOKUPS][];
+    words = new byte[LOOKUPS][];
+    for(int l = 0; l < LOOKUPS; l++) {
+      texts[l] = token(generator.nextInt(100));
+      attributes[l] = token("person" + generator.nextInt(size));
+      words[l] = token(generator.word());
+    }
+  }
+
+  /**
+   * Looks up text nodes.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void text(final Blackhole bh) {
+    for(final byte[] text : texts) consume(new StringToken(IndexType.TEXT, text), bh);
+  }
+
+  /**
+   * Looks up attribute values.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void attribute(final Blackhole bh) {
+    for(final byte[] attribute : attributes) {
+      consume(new StringToken(IndexType.ATTRIBUTE, attribute), bh);
+    }
+  }
+
+  /**
+   * Looks up full-text tokens.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void fulltext(final Blackhole bh) {
+    final FTLexer lexer = new FTLexer(new FTOpt().assign(data.meta));
+    for(final byte[] word : words) {
+      lexer.init(word);
+      lexer.hasNext();
+      lexer.nextToken();
+      consume(lexer, bh);
+    }
+  }
+
+  /**
+   * Iterates over all index results.
+   * @param token index token
+   * @param bh blackhole
+   */
+  private void consume(final IndexToken token, final Blackhole bh) {
+    for(final IndexIterator iter = data.iter(token); iter.more();) bh.consume(iter.pre());
+  }
+}
@@ -0,0 +1,99 @@
+package org.basex.bench;
+
+import org.basex.query.*;
+import org.basex.query.value.array.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+/**
+ * Benchmarks for operations on maps and arrays.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class MapArrayBenchmark extends ABenchmark {
+  /** Map with integer keys. */
+  private XQMap map;
+  /** Map with string keys. */
+  private XQMap strings;
+  /** Array. */
+  private XQArray array;
+
+  @Override
+  protected void init(final Generator generator) throws QueryException {
+    map = intMap();
+    strings = stringMap();
+    array = array();
+  }
+
+  /**
+   * Builds a map with integer keys.
+   * @return map
+   * @throws QueryException query exception
+   */
+  @Benchmark
+  public XQMap intMap() throws QueryException {
+    XQMap mp = XQMap.EMPTY;
+    for(int s = 0; s < size; s++) mp = mp.put(Int.get(s), Int.get(s), null);
+    return mp;
+  }
+
+  /**
+   * Builds a map with string keys.
+   * @return map
+   * @throws QueryException query exception
+   */
+  @Benchmark
+  public XQMap stringMap() throws QueryException {
+    XQMap mp = XQMap.EMPTY;
+    for(int s = 0; s < size; s++) mp = mp.put(Str.get("key" + s), Int.get(s), null);
+    return mp;
+  }
+
+  /**
+   * Looks up all entries of the maps.
+   * @param bh blackhole
+   * @throws QueryException query exception
+   */
+  @Benchmark
+  public void mapGet(final Blackhole bh) throws QueryException {
+    for(int s = 0; s < size; s++) {
+      bh.consume(map.get(Int.get(s), null));
+      bh.consume(strings.get(Str.get("key" + s), null));
+    }
+  }
+
+  /**
+   * Builds an array by appending members.
+   * @return array
+   */
+  @Benchmark
+  public XQArray array() {
+    XQArray arr = XQArray.empty();
+    for(int s = 0; s < size; s++) arr = arr.snoc(Int.get(s));
+    return arr;
+  }
+
+  /**
+   * Accesses all members of the array.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void arrayGet(final Blackhole bh) {
+    final long as = array.arraySize();
+    for(long a = 0; a < as; a++) bh.consume(array.get(a));
+  }
+
+  /**
+   * Prepends and removes members.
+   * @return array
+   */
+  @Benchmark
+  public XQArray arrayConsTail() {
+    XQArray arr = array;
+    for(int s = 0; s < size; s++) arr = arr.cons(Int.get(s)).tail();
+    return arr;
+  }
+}
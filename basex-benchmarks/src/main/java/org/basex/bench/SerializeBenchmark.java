@@ -0,0 +1,77 @@
+package org.basex.bench;
+
+import java.io.*;
+
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
+import org.basex.io.*;
+import org.basex.io.out.*;
+import org.basex.io.parse.json.*;
+import org.basex.io.serial.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.util.options.Options.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for serializing database nodes and JSON items.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class SerializeBenchmark extends DatabaseBenchmark {
+  /** JSON item. */
+  private Item json;
+
+  @Override
+  protected void init(final Generator generator) throws Exception {
+    super.init(generator);
+    final JsonParserOptions jopts = new JsonParserOptions();
+    jopts.set(JsonOptions.FORMAT, JsonFormat.XQUERY);
+    json = JsonConverter.get(jopts).convert(new IOContent(generator.json(size)));
+  }
+
+  /**
+   * Serializes the database document as XML.
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public void xml() throws IOException {
+    serialize(new DBNode(data), SerializerMode.NOINDENT.get());
+  }
+
+  /**
+   * Serializes the database document with indentation.
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public void indent() throws IOException {
+    final SerializerOptions sopts = new SerializerOptions();
+    sopts.set(SerializerOptions.INDENT, YesNo.YES);
+    serialize(new DBNode(data), sopts);
+  }
+
+  /**
+   * Serializes maps and arrays as JSON.
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public void json() throws IOException {
+    final SerializerOptions sopts = new SerializerOptions();
+    sopts.set(SerializerOptions.METHOD, SerialMethod.JSON);
+    serialize(json, sopts);
+  }
+
+  /**
+   * Serializes an item.
+   * @param item item
+   * @param sopts serialization parameters
+   * @throws IOException I/O exception
+   */
+  private static void serialize(final Item item, final SerializerOptions sopts)
+      throws IOException {
+    try(Serializer ser = Serializer.get(new NullOutput(), sopts)) {
+      ser.serialize(item);
+    }
+  }
+}
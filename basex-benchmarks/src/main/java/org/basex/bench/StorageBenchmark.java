@@ -0,0 +1,54 @@
+package org.basex.bench;
+
+import org.basex.data.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+/**
+ * Benchmarks for reading entries of the database table and texts.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class StorageBenchmark extends DatabaseBenchmark {
+  /** Number of random accesses. */
+  private static final int ACCESSES = 10000;
+  /** Random pre values. */
+  private int[] pres;
+
+  @Override
+  protected void init(final Generator generator) throws Exception {
+    super.init(generator);
+    final int ds = data.meta.size;
+    pres = new int[ACCESSES];
+    for(int a = 0; a < ACCESSES; a++) pres[a] = generator.nextInt(ds);
+  }
+
+  /**
+   * Sequentially reads the kinds, names and texts of all nodes.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void scan(final Blackhole bh) {
+    final int ds = data.meta.size;
+    for(int pre = 0; pre < ds; pre++) {
+      final int kind = data.kind(pre);
+      if(kind == Data.ELEM) bh.consume(data.name(pre, kind));
+      else if(kind == Data.TEXT) bh.consume(data.text(pre, true));
+      else if(kind == Data.ATTR) bh.consume(data.text(pre, false));
+    }
+  }
+
+  /**
+   * Reads the kinds, parents and sizes of random nodes.
+   * @param bh blackhole
+   */
+  @Benchmark
+  public void random(final Blackhole bh) {
+    for(final int pre : pres) {
+      final int kind = data.kind(pre);
+      bh.consume(data.parent(pre, kind));
+      bh.consume(data.size(pre, kind));
+    }
+  }
+}
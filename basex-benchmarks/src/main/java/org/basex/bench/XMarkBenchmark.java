@@ -0,0 +1,74 @@
+package org.basex.bench;
+
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for XMark queries. The queries are adapted to the structure of the
+ * generated auction document.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class XMarkBenchmark extends DatabaseBenchmark {
+  /** Queries. */
+  private static final String[] QUERIES = {
+    // Q1: exact match
+    "for $b in /site/people/person[@id = 'person0'] return $b/name/text()",
+    // Q2: ordered access
+    "for $b in /site/open_auctions/open_auction " +
+    "return <increase>{ $b/bidder[1]/increase/text() }</increase>",
+    // Q3: positional predicates
+    "for $b in /site/open_auctions/open_auction " +
+    "where zero-or-one($b/bidder[1]/increase/text()) * 2 <= $b/bidder[last()]/increase/text() " +
+    "return <increase first='{ $b/bidder[1]/increase/text() }' " +
+    "last='{ $b/bidder[last()]/increase/text() }'/>",
+    // Q5: casting
+    "count(for $i in /site/closed_auctions/closed_auction " +
+    "where $i/price/text() >= 40 return $i/price)",
+    // Q6: regular path expressions
+    "for $b in //site/regions return count($b//item)",
+    // Q7: descendant steps
+    "for $p in /site return count($p//description) + count($p//annotation) + " +
+    "count($p//emailaddress)",
+    // Q8: join on values
+    "for $p in /site/people/person " +
+    "let $a := for $t in /site/closed_auctions/closed_auction " +
+    "where $t/buyer/@person = $p/@id return $t " +
+    "return <item person='{ $p/name/text() }'>{ count($a) }</item>",
+    // Q11: value-based join with comparison
+    "for $p in /site/people/person " +
+    "let $l := for $i in /site/open_auctions/open_auction/initial " +
+    "where $p/profile/@income > 5000 * exactly-one($i/text()) return $i " +
+    "return <items name='{ $p/name/text() }'>{ count($l) }</items>",
+    // Q14: string search
+    "for $i in /site//item where contains(string(exactly-one($i/description)), 'gold') " +
+    "return $i/name/text()",
+    // Q19: sorting
+    "for $b in /site/regions//item let $k := $b/name/text() order by zero-or-one($b/location) " +
+    "return <item name='{ $k }'>{ $b/location/text() }</item>",
+    // Q20: aggregation
+    "<result><preferred>{ count(/site/people/person/profile[@income >= 100000]) }" +
+    "</preferred><standard>{ count(/site/people/person/profile[@income < 100000 and " +
+    "@income >= 30000]) }</standard><challenge>{ count(/site/people/person/profile" +
+    "[@income < 30000]) }</challenge><na>{ count(for $p in /site/people/person " +
+    "where empty($p/profile/@income) return $p) }</na></result>"
+  };
+
+  /** Query number (offset in the list of queries). */
+  @Param({ "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10" })
+  public int query;
+
+  /**
+   * Evaluates a query.
+   * @return result
+   * @throws QueryException query exception
+   */
+  @Benchmark
+  public Value xmark() throws QueryException {
+    try(QueryProcessor qp = new QueryProcessor(QUERIES[query], context)) {
+      return qp.value();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 
 import org.basex.api.client.*;
@@ -23,14 +24,18 @@ import org.basex.util.*;
  * @author Andreas Weiler
  */
 public final class BaseXServer extends CLI implements Runnable {
-  /** New sessions. */
-  private final HashSet<ClientListener> authorizing = new HashSet<>();
+  /** New sessions, and tasks for stopping their authentication after a timeout. */
+  private final HashMap<ClientListener, TimerTask> authorizing = new HashMap<>();
+  /** Timer for stopping the authentication of new sessions. */
+  private final Timer timeout = new Timer(true);
   /** Indicates if server is running. */
   private volatile boolean running;
   /** Indicates if server is to be stopped. */
   private volatile boolean stop;
   /** Server socket. */
   private ServerSocket socket;
+  /** Selector for client sessions ({@code null} if one thread is used per session). */
+  private ClientSelector selector;
   /** Start as service. */
   private boolean service;
   /** Daemon flag. */
@@ -95,7 +100,14 @@ public final class BaseXServer extends CLI implements Runnable {
     }
 
     try {
-      socket = new ServerSocket();
+      // use selector and bounded worker pool if maximum number of threads is specified
+      final int threads = sopts.get(StaticOptions.SERVERTHREADS);
+      if(threads > 0) {
+        selector = new ClientSelector(threads);
+        socket = ServerSocketChannel.open().socket();
+      } else {
+        socket = new ServerSocket();
+      }
       socket.setReuseAddress(true);
       socket.bind(new InetSocketAddress(addr, port));
       stopFile = stopFile(getClass(), port);
@@ -151,15 +163,24 @@ public final class BaseXServer extends CLI implements Runnable {
           // create client listener, stop authentication after timeout
           final ClientListener cl = new ClientListener(s, context, this);
           if(ka > 0) {
-            cl.timeout.schedule(new TimerTask() {
+            final TimerTask task = new TimerTask() {
               @Override
               public void run() {
                 cl.close();
               }
-            }, ka);
-            authorizing.add(cl);
+            };
+            synchronized(authorizing) {
+              authorizing.put(cl, task);
+            }
+            timeout.schedule(task, ka);
+          }
+          if(selector != null) {
+            selector.add(cl);
+          } else {
+            final Thread thread = new Thread(cl);
+            thread.setDaemon(true);
+            thread.start();
           }
-          cl.start();
         }
       } catch(final SocketException ex) {
         Util.debug(ex);
@@ -189,11 +210,17 @@ public final class BaseXServer extends CLI implements Runnable {
   private synchronized void close() {
     if(!running) return;
 
-    for(final ClientListener cl : authorizing) {
+    final ArrayList<ClientListener> clients;
+    synchronized(authorizing) {
+      clients = new ArrayList<>(authorizing.keySet());
+    }
+    for(final ClientListener cl : clients) {
       remove(cl);
       cl.close();
     }
+    timeout.cancel();
     context.sessions.close();
+    if(selector != null) selector.close();
 
     try {
       // close interactive input if server was stopped by another process
@@ -341,9 +368,10 @@ public final class BaseXServer extends CLI implements Runnable {
    * @param client client to be removed
    */
   public void remove(final ClientListener client) {
+    final TimerTask task;
     synchronized(authorizing) {
-      client.timeout.cancel();
-      authorizing.remove(client);
+      task = authorizing.remove(client);
     }
+    if(task != null) task.cancel();
   }
 }
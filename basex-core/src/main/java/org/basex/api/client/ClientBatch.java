@@ -0,0 +1,283 @@
+package org.basex.api.client;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.io.in.*;
+import org.basex.io.out.*;
+import org.basex.query.value.type.*;
+import org.basex.query.value.type.Type.ID;
+import org.basex.server.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class assembles several queries and database commands, which will be sent to the
+ * server in a single request. The server evaluates the requests one after another and
+ * returns the results in the order of the requests. Compared to {@link ClientQuery}, only
+ * a single network roundtrip is required for all requests.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientBatch {
+  /** Client session. */
+  private final ClientSession cs;
+  /** Requests. */
+  private final ArrayList<Request> requests = new ArrayList<>();
+
+  /**
+   * Constructor.
+   * @param session client session
+   */
+  ClientBatch(final ClientSession session) {
+    cs = session;
+  }
+
+  /**
+   * Adds a database command.
+   * @param command command string
+   * @return self reference
+   */
+  public ClientBatch command(final String command) {
+    requests.add(new Request(command, null));
+    return this;
+  }
+
+  /**
+   * Adds a query, the result of which will be returned as a single string.
+   * @param query query string
+   * @return self reference
+   */
+  public ClientBatch query(final String query) {
+    return query(query, false);
+  }
+
+  /**
+   * Adds a query.
+   * @param query query string
+   * @param full return all items of the result and their types
+   * @return self reference
+   */
+  public ClientBatch query(final String query, final boolean full) {
+    requests.add(new Request(query, full ? ServerCmd.FULL : ServerCmd.EXEC));
+    return this;
+  }
+
+  /**
+   * Binds a value to an external variable of the most recently added query.
+   * @param name name of variable
+   * @param value value to be bound
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch bind(final String name, final Object value) throws IOException {
+    return bind(name, value, "");
+  }
+
+  /**
+   * Binds a value with an optional type to an external variable of the most recently
+   * added query.
+   * @param name name of variable
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch bind(final String name, final Object value, final String type)
+      throws IOException {
+    final Request request = requests.isEmpty() ? null : requests.get(requests.size() - 1);
+    if(request == null || request.cmd == null)
+      throw new BaseXException("No query has been added yet.");
+    final String[] vt = ClientQuery.encode(value, type);
+    request.bindings.add(name == null ? "" : name).add(vt[0]).add(vt[1]);
+    return this;
+  }
+
+  /**
+   * Binds a value to the context value of the most recently added query.
+   * @param value value to be bound
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch context(final Object value) throws IOException {
+    return bind(null, value, "");
+  }
+
+  /**
+   * Binds a value with an optional type to the context value of the most recently
+   * added query.
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return self reference
+   * @throws IOException I/O exception
+   */
+  public ClientBatch context(final Object value, final String type) throws IOException {
+    return bind(null, value, type);
+  }
+
+  /**
+   * Returns the number of requests.
+   * @return number of requests
+   */
+  public int size() {
+    return requests.size();
+  }
+
+  /**
+   * Sends all requests to the server and receives the results.
+   * If a request fails, the remaining requests will still be evaluated, and an exception
+   * with the first error message will be raised after all results have been received.
+   * @throws IOException I/O exception
+   */
+  public void execute() throws IOException {
+    // send requests
+    cs.cancel();
+    final PrintOutput sout = cs.sout;
+    sout.write(ServerCmd.BATCH.code);
+    cs.send(Integer.toString(requests.size()));
+    for(final Request request : requests) {
+      if(request.cmd != null) {
+        sout.write(request.cmd.code);
+        cs.send(request.string);
+        final int bl = request.bindings.size();
+        cs.send(Integer.toString(bl / 3));
+        for(int b = 0; b < bl; b++) cs.send(request.bindings.get(b));
+      } else {
+        cs.send(request.string);
+      }
+    }
+    sout.flush();
+
+    // receive results
+    @SuppressWarnings("resource")
+    final BufferInput bi = BufferInput.get(cs.sin);
+    String error = null;
+    for(final Request request : requests) {
+      final ArrayOutput ao = new ArrayOutput();
+      if(request.cmd == ServerCmd.FULL) {
+        request.items = new TokenList();
+        request.types = new ByteList();
+        for(int t; (t = bi.read()) > 0;) {
+          // skip extended type information
+          final ID id = ID.get(t);
+          if(id != null && id.isExtended()) {
+            while(bi.read() > 0);
+          }
+          final ServerInput si = new ServerInput(bi);
+          for(int b; (b = si.read()) != -1;) ao.write(b);
+          request.items.add(ao.next());
+          request.types.add(t);
+        }
+      } else {
+        ClientSession.receive(bi, ao);
+        request.result = ao.toString();
+        if(request.cmd == null) request.info = bi.readString();
+      }
+      if(ClientSession.ok(bi)) {
+        request.error = null;
+      } else {
+        // commands: error is returned as info; queries: error follows the flag
+        request.error = request.cmd == null ? request.info : bi.readString();
+        if(error == null) error = request.error;
+      }
+    }
+    if(error != null) throw new BaseXException(error);
+  }
+
+  /**
+   * Returns the result of the specified request. For queries with full type information,
+   * the string representations of all items are returned, separated by newlines.
+   * @param index index of request
+   * @return result, or {@code null} if the request has not been executed yet
+   */
+  public String result(final int index) {
+    final Request request = requests.get(index);
+    if(request.items == null) return request.result;
+    final TokenBuilder tb = new TokenBuilder();
+    for(final byte[] item : request.items) {
+      if(!tb.isEmpty()) tb.add('\n');
+      tb.add(item);
+    }
+    return tb.toString();
+  }
+
+  /**
+   * Returns the string representations of the result items of the specified request.
+   * Only available for queries with full type information.
+   * @param index index of request
+   * @return items, or {@code null} if no items are available
+   */
+  public String[] items(final int index) {
+    final TokenList items = requests.get(index).items;
+    if(items == null) return null;
+    final StringList list = new StringList(items.size());
+    for(final byte[] item : items) list.add(Token.string(item));
+    return list.finish();
+  }
+
+  /**
+   * Returns the types of the result items of the specified request.
+   * Only available for queries with full type information.
+   * @param index index of request
+   * @return types, or {@code null} if no items are available
+   */
+  public Type[] types(final int index) {
+    final ByteList types = requests.get(index).types;
+    if(types == null) return null;
+    final int tl = types.size();
+    final Type[] tps = new Type[tl];
+    for(int t = 0; t < tl; t++) tps[t] = ID.getType(types.get(t));
+    return tps;
+  }
+
+  /**
+   * Returns the info string of the specified command.
+   * @param index index of request
+   * @return info, or {@code null} if the request is no command or has not been executed yet
+   */
+  public String info(final int index) {
+    return requests.get(index).info;
+  }
+
+  /**
+   * Returns the error message of the specified request.
+   * @param index index of request
+   * @return error message, or {@code null} if the request was successful
+   */
+  public String error(final int index) {
+    return requests.get(index).error;
+  }
+
+  /** Single request. */
+  private static final class Request {
+    /** Query or command string. */
+    private final String string;
+    /** Server command ({@link ServerCmd#EXEC}, {@link ServerCmd#FULL}, or {@code null}). */
+    private final ServerCmd cmd;
+    /** Bindings (name, value and type). */
+    private final StringList bindings = new StringList();
+
+    /** Result string. */
+    private String result;
+    /** Result items (queries with full type information). */
+    private TokenList items;
+    /** Result types (queries with full type information). */
+    private ByteList types;
+    /** Command info. */
+    private String info;
+    /** Error message. */
+    private String error;
+
+    /**
+     * Constructor.
+     * @param string query or command string
+     * @param cmd server command
+     */
+    private Request(final String string, final ServerCmd cmd) {
+      this.string = string;
+      this.cmd = cmd;
+    }
+  }
+}
@@ -28,6 +28,13 @@ public class ClientQuery extends Query {
   /** Query id. */
   final String id;
 
+  /** Number of results to be retrieved per request ({@code 0}: all results at once). */
+  private int fetch;
+  /** Indicates if further results may be available on the server. */
+  private boolean pending;
+  /** Retrieve full type information of the current results. */
+  private boolean full;
+
   /**
    * Standard constructor.
    * @param query query to be run
@@ -57,10 +64,37 @@ public class ClientQuery extends Query {
     return Boolean.parseBoolean(cs.exec(ServerCmd.UPDATING, id, null));
   }
 
+  /**
+   * Specifies the number of results that will be retrieved per request when iterating
+   * through the results. By default, all results are retrieved at once. If a positive
+   * number is assigned, the server suspends the evaluation after each chunk until further
+   * results are requested, and the memory consumption on both sides remains bounded.
+   * Until all results have been retrieved, locks of the query will be kept.
+   * Sending another request via the same session cancels the query.
+   * @param size number of results per request ({@code 0}: all results at once)
+   */
+  public void fetch(final int size) {
+    fetch = Math.max(0, size);
+  }
+
   @Override
   public void bind(final String name, final Object value, final String type) throws IOException {
     cache = null;
 
+    final String[] vt = encode(value, type);
+    final ServerCmd cmd = name == null ? ServerCmd.CONTEXT : ServerCmd.BIND;
+    final String n = name == null ? "" : name + '\0';
+    cs.exec(cmd, id + '\0' + n + vt[0] + '\0' + vt[1], null);
+  }
+
+  /**
+   * Encodes a value and its type for being sent to the server.
+   * @param value value to be bound
+   * @param type value type (may be {@code null})
+   * @return encoded value and type
+   * @throws IOException I/O exception
+   */
+  static String[] encode(final Object value, final String type) throws IOException {
     final Object vl = value instanceof BXNode ? ((BXNode) value).getNode() : value;
     String t = type == null ? "" : type;
     final String v;
@@ -87,10 +121,7 @@ public class ClientQuery extends Query {
     } else {
       v = value.toString();
     }
-
-    final ServerCmd cmd = name == null ? ServerCmd.CONTEXT : ServerCmd.BIND;
-    final String n = name == null ? "" : name + '\0';
-    cs.exec(cmd, id + '\0' + n + v + '\0' + t, null);
+    return new String[] { v, t };
   }
 
   @Override
@@ -110,6 +141,18 @@ public class ClientQuery extends Query {
 
   @Override
   public void cache(final boolean full) throws IOException {
+    cs.cancel();
+    if(fetch > 0) {
+      cs.sout.write(ServerCmd.CURSOR.code);
+      cs.send(id);
+      cs.send(Integer.toString(fetch));
+      cs.send(Boolean.toString(full));
+      cs.sout.flush();
+      this.full = full;
+      receive();
+      return;
+    }
+
     cs.sout.write((full ? ServerCmd.FULL : ServerCmd.RESULTS).code);
     cs.send(id);
     cs.sout.flush();
@@ -119,4 +162,46 @@ public class ClientQuery extends Query {
     cache(bi, full);
     if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
   }
+
+  @Override
+  boolean fetch() throws IOException {
+    if(!pending) return false;
+    // request next chunk
+    cs.sout.write(1);
+    cs.sout.flush();
+    receive();
+    return true;
+  }
+
+  /**
+   * Cancels the evaluation of a query with pending results.
+   * @throws IOException I/O exception
+   */
+  void cancel() throws IOException {
+    if(!pending) return;
+    pending = false;
+    cs.cursor = null;
+    cs.sout.write(0);
+    cs.sout.flush();
+
+    // skip end marker and success flag
+    @SuppressWarnings("resource")
+    final BufferInput bi = BufferInput.get(cs.sin);
+    if(bi.read() != 0 || !ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+  }
+
+  /**
+   * Receives a chunk of results.
+   * @throws IOException I/O exception
+   */
+  private void receive() throws IOException {
+    @SuppressWarnings("resource")
+    final BufferInput bi = BufferInput.get(cs.sin);
+    cache(bi, full);
+    // 0: success, 1: error, 2: further results may be available
+    final int flag = bi.read();
+    pending = flag == 2;
+    cs.cursor = pending ? this : null;
+    if(flag == 1) throw new BaseXException(bi.readString());
+  }
 }
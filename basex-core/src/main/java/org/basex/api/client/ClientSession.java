@@ -34,6 +34,9 @@ public class ClientSession extends Session {
   /** Server input. */
   final InputStream sin;
 
+  /** Query with pending results (can be {@code null}). */
+  ClientQuery cursor;
+
   /** Socket reference. */
   private final Socket socket;
 
@@ -149,6 +152,15 @@ public class ClientSession extends Session {
     return new ClientQuery(query, this, out);
   }
 
+  /**
+   * Returns a batch, which allows sending several queries and commands to the server
+   * in a single request.
+   * @return batch
+   */
+  public ClientBatch batch() {
+    return new ClientBatch(this);
+  }
+
   @Override
   public synchronized void close() throws IOException {
     socket.close();
@@ -156,6 +168,7 @@ public class ClientSession extends Session {
 
   @Override
   protected void execute(final String command, final OutputStream output) throws IOException {
+    cancel();
     send(command);
     sout.flush();
     receive(output);
@@ -212,6 +225,7 @@ public class ClientSession extends Session {
   private void send(final ServerCmd command, final InputStream input, final String... args)
       throws IOException {
 
+    cancel();
     sout.write(command.code);
     for(final String arg : args) send(arg);
     send(input);
@@ -228,6 +242,14 @@ public class ClientSession extends Session {
     for(int b; (b = si.read()) != -1;) output.write(b);
   }
 
+  /**
+   * Cancels a query with pending results.
+   * @throws IOException I/O exception
+   */
+  void cancel() throws IOException {
+    if(cursor != null) cursor.cancel();
+  }
+
   /**
    * Sends a string to the server.
    * @param string string to be sent
@@ -251,6 +273,7 @@ public class ClientSession extends Session {
       throws IOException {
 
     final OutputStream o = output == null ? new ArrayOutput() : output;
+    cancel();
     sout.write(command.code);
     send(arg);
     sout.flush();
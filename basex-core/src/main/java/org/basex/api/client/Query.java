@@ -73,9 +73,22 @@ public abstract class Query implements Closeable {
    */
   public boolean more() throws IOException {
     if(cache == null) cache(false);
-    if(pos < cache.size()) return true;
-    cache = null;
-    types = null;
+    while(pos == cache.size()) {
+      if(!fetch()) {
+        cache = null;
+        types = null;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Caches the next chunk of results, if further results are available.
+   * @return {@code true} if another chunk was requested
+   * @throws IOException I/O exception
+   */
+  boolean fetch() throws IOException {
     return false;
   }
 
@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.List;
 import java.util.regex.*;
 import java.util.zip.*;
 
@@ -55,6 +56,8 @@ public final class DirParser extends Parser {
   private Parser parser;
   /** Resource counter. */
   private int resources;
+  /** Files to be parsed ({@code null}: parse all files of the source). */
+  private List<IOFile> files;
 
   /**
    * Constructor.
@@ -93,11 +96,25 @@ public final class DirParser extends Parser {
     if(dbpath != null && (addRaw || rawParser)) rawPath = new IOFile(dbpath, IO.RAW);
   }
 
+  /**
+   * Restricts parsing to the specified descendant files of the source directory.
+   * @param list files to be parsed
+   * @return self reference
+   */
+  public DirParser files(final List<IOFile> list) {
+    files = list;
+    return this;
+  }
+
   @Override
   public void parse(final Builder build) throws IOException {
     build.meta.inputsize = 0;
     build.meta.original = original;
-    parse(build, source);
+    if(files == null) {
+      parse(build, source);
+    } else {
+      for(final IOFile file : files) parse(build, file);
+    }
   }
 
   /**
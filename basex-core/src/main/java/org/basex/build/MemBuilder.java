@@ -1,10 +1,15 @@
 package org.basex.build;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
+import org.basex.core.*;
 import org.basex.data.*;
+import org.basex.index.*;
 import org.basex.io.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * This class creates a database instance in main memory.
@@ -59,6 +64,55 @@ public final class MemBuilder extends Builder {
     return new MemBuilder(name, parser).build();
   }
 
+  /**
+   * Builds a main memory database instance from the specified input.
+   * If the input is a directory, and if more than one thread is specified, its files are
+   * listed once and split into contiguous ranges, which are parsed concurrently and appended
+   * in their original order. The number of threads is limited by the available processors.
+   * @param name name of database
+   * @param source input
+   * @param target target path
+   * @param options main options
+   * @param dbpath future database path (required for binary resources)
+   * @param threads maximum number of threads
+   * @return data database instance
+   * @throws IOException I/O exception
+   */
+  public static MemData build(final String name, final IO source, final String target,
+      final MainOptions options, final IOFile dbpath, final int threads) throws IOException {
+
+    final StringList paths = threads > 1 && source instanceof IOFile && source.isDir() ?
+      ((IOFile) source).descendants() : new StringList();
+    final int files = paths.size(), cpus = Runtime.getRuntime().availableProcessors();
+    final int parts = Math.min(Math.min(threads, cpus), files);
+    if(parts < 2) return build(name, new DirParser(source, options, dbpath).target(target));
+
+    final MemData[] datas = new MemData[parts];
+    final List<Callable<Void>> tasks = new ArrayList<>(parts);
+    for(int p = 0; p < parts; p++) {
+      // pass on the listed files (directory listings are not guaranteed to have the same order)
+      final List<IOFile> list = new ArrayList<>();
+      final int first = (int) ((long) files * p / parts);
+      final int last = (int) ((long) files * (p + 1) / parts);
+      for(int f = first; f < last; f++) list.add(new IOFile((IOFile) source, paths.get(f)));
+      final int part = p;
+      tasks.add(() -> {
+        datas[part] = build(name, new DirParser(source, options, dbpath).files(list).
+            target(target));
+        return null;
+      });
+    }
+    IndexBuilder.parallel(parts, tasks);
+
+    final MemData data = datas[0];
+    data.startUpdate(options);
+    for(int p = 1; p < parts; p++) {
+      if(datas[p].meta.size > 0) data.insert(data.meta.size, -1, new DataClip(datas[p]));
+    }
+    data.finishUpdate(options);
+    return data;
+  }
+
   @Override
   public MemData build() throws IOException {
     dataClip();
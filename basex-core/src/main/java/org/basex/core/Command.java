@@ -87,7 +87,11 @@ public abstract class Command extends Job {
     updating = updating(ctx);
 
     // register job
-    register(ctx);
+    try {
+      register(ctx);
+    } catch(final JobException ex) {
+      throw new BaseXException(ex.getMessage());
+    }
     try {
       // run command and return success flag
       if(!run(ctx, os)) {
@@ -43,6 +43,8 @@ public final class Context {
   public final Log log;
   /** Locking. */
   public final Locking locking;
+  /** Journal. */
+  public final Journal journal;
 
   /** Client info. Set to {@code null} in standalone/server mode. */
   private final ClientInfo client;
@@ -103,6 +105,7 @@ public final class Context {
     databases = ctx.databases;
     blocker = ctx.blocker;
     locking = ctx.locking;
+    journal = ctx.journal;
     users = ctx.users;
     repo = ctx.repo;
     log = ctx.log;
@@ -116,7 +119,8 @@ public final class Context {
   private Context(final StaticOptions soptions) {
     this.soptions = soptions;
     options = new MainOptions();
-    datas = new Datas();
+    journal = new Journal(soptions);
+    datas = new Datas(journal);
     sessions = new Sessions();
     blocker = new ClientBlocker();
     databases = new Databases(soptions);
@@ -156,6 +160,7 @@ public final class Context {
     jobs.close();
     sessions.close();
     datas.close();
+    journal.close();
     log.close();
     closeDB();
   }
@@ -4,17 +4,32 @@ import java.util.*;
 import java.util.Map.Entry;
 
 import org.basex.data.*;
+import org.basex.io.random.*;
 import org.basex.util.*;
 
 /**
  * This class organizes currently opened databases.
  *
+ * Databases with journaled updates will be kept open if they are not pinned anymore (see
+ * {@link Journal}). They will be closed if the journal is full, or if the database is to be
+ * accessed exclusively.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 public final class Datas {
   /** Pinned databases (data instance, number of pins). */
   private final IdentityHashMap<Data, Integer> list = new IdentityHashMap<>();
+  /** Journal. */
+  private final Journal journal;
+
+  /**
+   * Constructor.
+   * @param journal journal
+   */
+  Datas(final Journal journal) {
+    this.journal = journal;
+  }
 
   /**
    * Pins and returns a database with the specified name.
@@ -48,21 +63,44 @@ public final class Datas {
     if(pins == null) return;
 
     final int p = pins;
-    if(p == 1) {
-      data.close();
-      list.remove(data);
-    } else {
+    if(p > 1) {
       list.put(data, p - 1);
+    } else if(journal.full()) {
+      close(data);
+      // close other databases with journaled updates
+      for(final Data dt : new ArrayList<>(list.keySet())) {
+        if(list.get(dt) == 0) close(dt);
+      }
+    } else if(data instanceof DiskData && ((DiskData) data).journaled()) {
+      list.put(data, 0);
+    } else {
+      close(data);
     }
   }
 
   /**
    * Checks if the database with the specified name is pinned.
+   * A database that is only kept open because of journaled updates will be closed.
    * @param name name of the database
    * @return result of check
    */
   synchronized boolean pinned(final String name) {
-    return get(name) != null;
+    final Entry<Data, Integer> entry = get(name);
+    if(entry == null) return false;
+    if(entry.getValue() > 0) return true;
+    close(entry.getKey());
+    return false;
+  }
+
+  /**
+   * Copies journaled updates of the database with the specified name to the database files.
+   * Must be called before the files of a database are accessed directly.
+   * @param name name of the database
+   */
+  public synchronized void checkpoint(final String name) {
+    final Entry<Data, Integer> entry = get(name);
+    if(entry != null && entry.getKey() instanceof DiskData &&
+        ((DiskData) entry.getKey()).journaled()) entry.getKey().flush(true);
   }
 
   /**
@@ -84,6 +122,15 @@ public final class Datas {
     list.clear();
   }
 
+  /**
+   * Closes and removes the specified database.
+   * @param data data reference
+   */
+  private void close(final Data data) {
+    data.close();
+    list.remove(data);
+  }
+
   /**
    * Returns an entry for the database with the specified name.
    * @param name name of the database
@@ -22,6 +22,10 @@ public final class MainOptions extends Options {
   public static final BooleanOption MAINMEM = new BooleanOption("MAINMEM", false);
   /** Flag for closing a database after creating it. */
   public static final BooleanOption CREATEONLY = new BooleanOption("CREATEONLY", false);
+  /** Size of the page cache of a database table (in megabytes). */
+  public static final NumberOption TABLECACHE = new NumberOption("TABLECACHE", 1);
+  /** Flag for reading database files via memory mapping. */
+  public static final BooleanOption MEMORYMAP = new BooleanOption("MEMORYMAP", false);
 
   // Parsing
 
@@ -70,6 +74,8 @@ public final class MainOptions extends Options {
 
   /** Cache new documents before adding them to a database. */
   public static final BooleanOption ADDCACHE = new BooleanOption("ADDCACHE", false);
+  /** Number of threads for parsing new documents (limited by the available processors). */
+  public static final NumberOption ADDTHREADS = new NumberOption("ADDTHREADS", 1);
 
   // Indexing
 
@@ -101,6 +107,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption AUTOOPTIMIZE = new BooleanOption("AUTOOPTIMIZE", false);
   /** Index split size. */
   public static final NumberOption SPLITSIZE = new NumberOption("SPLITSIZE", 0);
+  /** Number of threads for building index structures. */
+  public static final NumberOption INDEXTHREADS = new NumberOption("INDEXTHREADS", 1);
 
   // Full-Text
 
@@ -143,6 +151,14 @@ public final class MainOptions extends Options {
   public static final BooleanOption ENFORCEINDEX = new BooleanOption("ENFORCEINDEX", false);
   /** Deep node copies. */
   public static final BooleanOption COPYNODE = new BooleanOption("COPYNODE", true);
+  /** Maximum number of parallel fork/join tasks per function call (0: size of pool). */
+  public static final NumberOption FORKJOINTASKS = new NumberOption("FORKJOINTASKS", 0);
+  /** Minimum number of items for evaluating side-effect free expressions in parallel (0: off). */
+  public static final NumberOption PARALLELIZE = new NumberOption("PARALLELIZE", 0);
+  /** Maximum number of tuples that will be sorted in main memory (0: no limit). */
+  public static final NumberOption SORTLIMIT = new NumberOption("SORTLIMIT", 0);
+  /** Maximum number of groups that will be built in main memory (0: no limit). */
+  public static final NumberOption GROUPLIMIT = new NumberOption("GROUPLIMIT", 0);
 
   // Serialize
 
@@ -163,6 +179,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption DOTPLAN = new BooleanOption("DOTPLAN", false);
   /** Compact dot representation. */
   public static final BooleanOption DOTCOMPACT = new BooleanOption("DOTCOMPACT", false);
+  /** Adds evaluation counts and times to the query plan. */
+  public static final BooleanOption PROFILE = new BooleanOption("PROFILE", false);
 
   /** Flushes the database after each update. */
   public static final BooleanOption AUTOFLUSH = new BooleanOption("AUTOFLUSH", true);
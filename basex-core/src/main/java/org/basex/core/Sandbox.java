@@ -221,8 +221,8 @@ public abstract class Sandbox {
     try(QueryProcessor qp = new QueryProcessor(query, BASEURI, context)) {
       // update flag will be set in parsing step
       qp.parse();
-      qp.register(context);
       try(Serializer ser = qp.getSerializer(ao)) {
+        qp.register(context);
         qp.value().serialize(ser);
       } finally {
         qp.unregister(context);
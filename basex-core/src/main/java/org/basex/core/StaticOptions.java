@@ -31,8 +31,25 @@ public final class StaticOptions extends Options {
   public static final BooleanOption LANGKEYS = new BooleanOption("LANGKEYS", false);
   /** Locking strategy. */
   public static final BooleanOption FAIRLOCK = new BooleanOption("FAIRLOCK", false);
+  /** Queued jobs that will be preferred if non-fair locking is used. */
+  public static final EnumOption<LockPriority> LOCKPRIORITY =
+      new EnumOption<>("LOCKPRIORITY", LockPriority.READ);
+  /** Defer write locks of queries that only add documents until updates are applied. */
+  public static final BooleanOption LOCKDEFER = new BooleanOption("LOCKDEFER", false);
+  /** Share database locks of updating queries with readers until updates are applied. */
+  public static final BooleanOption LOCKSNAPSHOT = new BooleanOption("LOCKSNAPSHOT", false);
+  /** Write updates of databases to a journal, and sync the journal when updates are committed. */
+  public static final BooleanOption JOURNAL = new BooleanOption("JOURNAL", false);
+  /** Size of the journal (MB) at which updated databases will be checkpointed. */
+  public static final NumberOption JOURNALSIZE = new NumberOption("JOURNALSIZE", 64);
   /** Timeout (seconds) for remembering result of asynchronous queries. */
   public static final NumberOption CACHETIMEOUT = new NumberOption("CACHETIMEOUT", 3600);
+  /** Number of threads of the fork/join pool (0: number of available processors). */
+  public static final NumberOption FORKJOINTHREADS = new NumberOption("FORKJOINTHREADS", 0);
+  /** Maximum number of threads for evaluating jobs (0: no limit). */
+  public static final NumberOption JOBSTHREADS = new NumberOption("JOBSTHREADS", 0);
+  /** Maximum number of jobs per user that are evaluated in parallel (0: no limit). */
+  public static final NumberOption JOBSPERUSER = new NumberOption("JOBSPERUSER", 0);
 
   /** Comment: written to options file. */
   public static final Comment C_CLIENT = new Comment("Client/Server Architecture");
@@ -64,12 +81,24 @@ public final class StaticOptions extends Options {
   public static final NumberOption TIMEOUT = new NumberOption("TIMEOUT", 30);
   /** Keep alive time (seconds) for clients; deactivated if set to 0. */
   public static final NumberOption KEEPALIVE = new NumberOption("KEEPALIVE", 600);
+  /** Server: maximum number of threads for processing client requests (0: one per client). */
+  public static final NumberOption SERVERTHREADS = new NumberOption("SERVERTHREADS", 0);
   /** Defines the number of parallel readers. */
   public static final NumberOption PARALLEL = new NumberOption("PARALLEL", 8);
+  /** Maximum number of jobs waiting for locks (0: no limit). */
+  public static final NumberOption LOCKQUEUE = new NumberOption("LOCKQUEUE", 0);
+  /** Maximum time (ms) jobs will be waiting for locks (0: no limit). */
+  public static final NumberOption LOCKWAIT = new NumberOption("LOCKWAIT", 0);
   /** Logging flag. */
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
   public static final NumberOption LOGMSGMAXLEN = new NumberOption("LOGMSGMAXLEN", 1000);
+  /** Maximum number of queued log entries (0: entries are written synchronously). */
+  public static final NumberOption LOGBUFFER = new NumberOption("LOGBUFFER", 0);
+  /** Maximum delay (ms) before queued log entries are flushed to disk. */
+  public static final NumberOption LOGFLUSH = new NumberOption("LOGFLUSH", 1000);
+  /** Discard log entries if the queue is full (otherwise, requests will be blocked). */
+  public static final BooleanOption LOGDROP = new BooleanOption("LOGDROP", false);
 
   /** Comment: written to options file. */
   public static final Comment C_HTTP = new Comment("HTTP Services");
@@ -105,6 +134,17 @@ public final class StaticOptions extends Options {
     }
   }
 
+  /** Preferred jobs in the lock queue. */
+  public enum LockPriority {
+    /** Readers. */ READ,
+    /** Writers. */ WRITE;
+
+    @Override
+    public String toString() {
+      return super.toString().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
   /**
    * Constructor, adopting system properties starting with "org.basex.".
    * @param file if {@code true}, options will be read from disk
@@ -499,6 +499,10 @@ public interface Text {
   String OUT_OF_MEM = lang("out_of_mem");
   /** Progress exception. */
   String INTERRUPTED = lang("interrupted");
+  /** Rejected job: queue is full. */
+  String QUEUE_FULL = lang("queue_full");
+  /** Rejected job: timeout. */
+  String QUEUE_TIMEOUT = lang("queue_timeout");
 
   /** Expecting command. */
   String EXPECTING_CMD = lang("expecting_cmd");
@@ -557,7 +561,7 @@ public interface Text {
   /** Resource replaced. */
   String RES_REPLACED_X_X = lang("res_replaced_%_%");
   /** Resource added. */
-  String RES_ADDED_X = lang("res_added_%");
+  String RES_ADDED_X_X_X = lang("res_added_%_%_%");
   /** "Resource Properties". */
   String RES_PROPS = lang("res_props");
 
@@ -1344,6 +1348,14 @@ public interface Text {
 
   /** Info on used main memory. */
   String USED_MEM = lang("used_mem");
+  /** Fork/join pool. */
+  String FORK_JOIN_POOL = lang("fork_join_pool");
+  /** Job pool. */
+  String JOB_POOL = lang("job_pool");
+  /** Lock queue. */
+  String LOCK_QUEUE = lang("lock_queue");
+  /** Journal. */
+  String JOURNAL = lang("journal");
   /** Memory information. */
   String TOTAL_MEM_C = lang("total_mem") + COLS;
   /** Memory information. */
@@ -19,6 +19,7 @@ import org.basex.query.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
 import org.basex.util.*;
 
 /**
@@ -66,6 +67,8 @@ public abstract class AQuery extends Command {
         final boolean run = options.get(MainOptions.RUNQUERY);
         final boolean serial = options.get(MainOptions.SERIALIZE);
         final boolean compplan = options.get(MainOptions.COMPPLAN);
+        // profiled plans will be created after evaluation
+        final boolean profile = options.get(MainOptions.PROFILE);
         final int runs = Math.max(1, options.get(MainOptions.RUNS));
         for(int r = 0; r < runs; ++r) {
           // reuse existing processor instance
@@ -74,7 +77,7 @@ public abstract class AQuery extends Command {
             popJob();
           }
           init(query, context);
-          if(!compplan) queryPlan();
+          if(!compplan && !profile) queryPlan();
 
           final Performance perf = new Performance();
           for(final Entry<String, Object> entry : vars.entrySet()) {
@@ -94,7 +97,7 @@ public abstract class AQuery extends Command {
 
           qp.compile();
           info.compiling += perf.ns();
-          if(compplan) queryPlan();
+          if(compplan && !profile) queryPlan();
           if(!run) continue;
 
           final PrintOutput po = r == 0 && serial ? out : new NullOutput();
@@ -118,6 +121,7 @@ public abstract class AQuery extends Command {
           qp.close();
           info.serializing += perf.ns();
         }
+        if(profile) queryPlan();
         return info(info.toString(qp, out.size(), hits, options.get(MainOptions.QUERYINFO)));
 
       } catch(final QueryException | IOException ex) {
@@ -220,6 +224,15 @@ public abstract class AQuery extends Command {
     return error(sb.toString());
   }
 
+  /**
+   * Returns the query plan of the last evaluated query.
+   * If {@link MainOptions#PROFILE} was enabled, it contains the profiling information.
+   * @return query plan or {@code null}
+   */
+  public final FDoc plan() {
+    return qp != null ? qp.plan() : null;
+  }
+
   /**
    * Creates query plans.
    */
@@ -57,13 +57,15 @@ public final class Add extends ACreate {
         @Override
         boolean run() {
           // skip update if fragment is empty
-          if(clip.data.meta.size > 1) {
+          final int docs = clip.data.meta.size > 1 ? clip.data.meta.ndocs : 0;
+          if(docs > 0) {
             context.invalidate();
             final AtomicUpdateCache auc = new AtomicUpdateCache(data);
             auc.addInsert(data.meta.size, -1, clip);
             auc.execute(false);
           }
-          return info(RES_ADDED_X, jc().performance);
+          final long ns = Math.max(1, jc().performance.ns());
+          return info(RES_ADDED_X_X_X, docs, Performance.getTime(ns, 1), docs * 1000000000L / ns);
         }
       });
     } finally {
@@ -114,8 +116,14 @@ public final class Add extends ACreate {
       parser.target(target);
 
       // create random database name for disk-based creation
+      final int threads = options.get(MainOptions.ADDTHREADS);
       if(cache(parser)) {
         build = new DiskBuilder(soptions.randomDbName(data.meta.name), parser, soptions, options);
+      } else if(threads > 1 && source.isDir()) {
+        // parse files of directories in parallel
+        clip = new DataClip(MemBuilder.build(name, source, target, options, data.meta.path,
+            threads));
+        return true;
       } else {
         build = new MemBuilder(name, parser);
       }
@@ -50,6 +50,7 @@ public final class Copy extends Command {
 
     // try to copy database
     try {
+      context.datas.checkpoint(src);
       copy(src, trg, soptions, this);
       return info(DB_COPIED_X, src, jc().performance);
     } catch(final IOException ex) {
@@ -49,6 +49,7 @@ public final class CreateBackup extends ABackup {
         ok = false;
       } else {
         try {
+          context.datas.checkpoint(db);
           backup(db, soptions, this);
           // backup was successful
           info(DB_BACKUP_X, db, jc().performance);
@@ -3,6 +3,9 @@ package org.basex.core.cmd;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.core.parse.*;
@@ -60,6 +63,7 @@ public final class CreateIndex extends ACreate {
     }
     data.meta.names(type, options);
     data.meta.splitsize = options.get(MainOptions.SPLITSIZE);
+    data.meta.indexthreads = options.get(MainOptions.INDEXTHREADS);
 
     return update(data, new Code() {
       @Override
@@ -82,10 +86,44 @@ public final class CreateIndex extends ACreate {
    * @throws IOException I/O exception
    */
   static void create(final Data data, final ACreate cmd) throws IOException {
-    if(data.meta.createtext) create(IndexType.TEXT, data, cmd);
-    if(data.meta.createattr) create(IndexType.ATTRIBUTE, data, cmd);
-    if(data.meta.createtoken) create(IndexType.TOKEN, data, cmd);
-    if(data.meta.createft) create(IndexType.FULLTEXT, data, cmd);
+    final List<IndexType> types = new ArrayList<>(4);
+    if(data.meta.createtext) types.add(IndexType.TEXT);
+    if(data.meta.createattr) types.add(IndexType.ATTRIBUTE);
+    if(data.meta.createtoken) types.add(IndexType.TOKEN);
+    if(data.meta.createft) types.add(IndexType.FULLTEXT);
+    create(types, data, cmd);
+  }
+
+  /**
+   * Builds the specified indexes. Indexes of databases on disk will be built concurrently
+   * if more than one index thread has been specified.
+   * @param types indexes to be built
+   * @param data data reference
+   * @param cmd calling command
+   * @throws IOException I/O exception
+   */
+  static void create(final List<IndexType> types, final Data data, final ACreate cmd)
+      throws IOException {
+
+    final int threads = data.inMemory() ? 1 : Math.min(data.meta.indexthreads, types.size());
+    // copy journaled updates to the database files once, before the indexes are rewritten
+    data.suspendJournal();
+    try {
+      if(threads > 1) {
+        final List<Callable<Void>> tasks = new ArrayList<>(types.size());
+        for(final IndexType type : types) {
+          tasks.add(() -> {
+            create(type, data, cmd);
+            return null;
+          });
+        }
+        IndexBuilder.parallel(threads, tasks);
+      } else {
+        for(final IndexType type : types) create(type, data, cmd);
+      }
+    } finally {
+      data.resumeJournal();
+    }
   }
 
   /**
@@ -48,6 +48,10 @@ public final class Info extends AInfo {
     info(tb, USED_MEM, Performance.getMemory());
 
     if(user.has(Perm.ADMIN)) {
+      info(tb, FORK_JOIN_POOL, context.jobs.forkJoinInfo());
+      info(tb, JOB_POOL, context.jobs.info());
+      info(tb, LOCK_QUEUE, context.locking.info());
+      info(tb, JOURNAL, context.journal.info());
       final StaticOptions sopts = context.soptions;
       tb.add(NL + GLOBAL_OPTIONS + COL + NL);
       for(final Option<?> o : sopts) info(tb, o.name(), sopts.get(o));
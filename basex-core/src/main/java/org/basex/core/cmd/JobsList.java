@@ -81,12 +81,10 @@ public final class JobsList extends Command {
    */
   public static TokenList entry(final byte[] key, final JobPool jobs, final int max) {
     final String id = string(key);
-    Job job = jobs.active.get(id);
+    final Job job = job(id, jobs);
+    if(job == null) return null;
     final QueryJobTask jt = jobs.tasks.get(id);
     final QueryJobResult jr = jobs.results.get(id);
-    if(job == null && jr != null) job = jr.job;
-    if(job == null && jt != null) job = jt.job;
-    if(job == null) return null;
 
     final JobContext jc = job.jc();
     final long ms = jc.performance != null
@@ -108,6 +106,21 @@ public final class JobsList extends Command {
     return tl;
   }
 
+  /**
+   * Returns the job with the specified id.
+   * @param id job id
+   * @param jobs job pool
+   * @return job, or {@code null} if the job does not exist
+   */
+  public static Job job(final String id, final JobPool jobs) {
+    final Job job = jobs.active.get(id);
+    if(job != null) return job;
+    final QueryJobResult jr = jobs.results.get(id);
+    if(jr != null) return jr.job;
+    final QueryJobTask jt = jobs.tasks.get(id);
+    return jt != null ? jt.job : null;
+  }
+
   /**
    * Returns a timezone-adjusted dateTime representation.
    * @param ms milliseconds since 01/01/1970
@@ -96,7 +96,7 @@ public final class Open extends Command {
         if(meta.updateFile().exists()) throw new BaseXException(DB_UPDATED_X, meta.name);
 
         // open database
-        data = new DiskData(meta);
+        data = new DiskData(meta, context.journal);
         context.datas.pin(data);
       }
       return data;
@@ -3,12 +3,15 @@ package org.basex.core.cmd;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.List;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.index.*;
 import org.basex.index.stats.*;
+import org.basex.index.value.*;
 import org.basex.util.list.*;
 
 /**
@@ -47,6 +50,7 @@ public final class Optimize extends ACreate {
           data.meta.autooptimize = autooptimize;
           data.meta.dirty = true;
         }
+        data.meta.indexthreads = options.get(MainOptions.INDEXTHREADS);
         optimize(data, Optimize.this);
         return info(DB_OPTIMIZED_X, meta.name, jc().performance);
       }
@@ -157,28 +161,35 @@ public final class Optimize extends ACreate {
     }
 
     // rebuild value indexes
-    optimize(IndexType.TEXT, data, meta.createtext, enforceText, cmd);
-    optimize(IndexType.ATTRIBUTE, data, meta.createattr, enforceAttr, cmd);
-    optimize(IndexType.TOKEN, data, meta.createtoken, enforceToken, cmd);
-    optimize(IndexType.FULLTEXT, data, meta.createft, enforceFt, cmd);
+    final List<IndexType> types = new ArrayList<>(4);
+    optimize(IndexType.TEXT, data, meta.createtext, enforceText, types);
+    optimize(IndexType.ATTRIBUTE, data, meta.createattr, enforceAttr, types);
+    optimize(IndexType.TOKEN, data, meta.createtoken, enforceToken, types);
+    optimize(IndexType.FULLTEXT, data, meta.createft, enforceFt, types);
+    CreateIndex.create(types, data, cmd);
+
+    // recreate statistics of updated value indexes
+    if(meta.textindex) ((ValueIndex) data.index(IndexType.TEXT)).refresh();
+    if(meta.attrindex) ((ValueIndex) data.index(IndexType.ATTRIBUTE)).refresh();
+    if(meta.tokenindex) ((ValueIndex) data.index(IndexType.TOKEN)).refresh();
   }
 
   /**
-   * Creates or deletes the specified index if the old and new state is different.
+   * Deletes the specified index, or schedules its creation, if the old and new state is different.
    * @param type index type
    * @param data data reference
    * @param create new flag
    * @param enforce enforce operation
-   * @param cmd calling command instance
+   * @param types indexes to be created
    * @throws IOException I/O exception
    */
   private static void optimize(final IndexType type, final Data data, final boolean create,
-      final boolean enforce, final Optimize cmd) throws IOException {
+      final boolean enforce, final List<IndexType> types) throws IOException {
 
     // check if flags have changed
     if(create == data.meta.index(type) && !enforce) return;
     // create or drop index
-    if(create) CreateIndex.create(type, data, cmd);
+    if(create) types.add(type);
     else DropIndex.drop(type, data);
   }
 
@@ -196,9 +207,11 @@ public final class Optimize extends ACreate {
 
     if(data.meta.updindex) {
       data.idmap = new IdPreMap(md.lastid);
-      if(data.meta.textindex) optimize(IndexType.TEXT, data, true, true, null);
-      if(data.meta.attrindex) optimize(IndexType.ATTRIBUTE, data, true, true, null);
-      if(data.meta.tokenindex) optimize(IndexType.TOKEN, data, true, true, null);
+      final List<IndexType> types = new ArrayList<>(3);
+      if(data.meta.textindex) types.add(IndexType.TEXT);
+      if(data.meta.attrindex) types.add(IndexType.ATTRIBUTE);
+      if(data.meta.tokenindex) types.add(IndexType.TOKEN);
+      CreateIndex.create(types, data, null);
     }
   }
 }
@@ -0,0 +1,137 @@
+package org.basex.core.jobs;
+
+import java.time.*;
+import java.time.temporal.*;
+import java.util.*;
+
+/**
+ * Cron-style schedule with five fields (minute, hour, day of month, month, day of week).
+ * Each field may contain asterisks, numbers, ranges ({@code 1-5}), lists ({@code 1,3,5})
+ * and steps ({@code *}{@code /15}, {@code 0-30/10}). Days of the week are numbered from
+ * {@code 0} (Sunday) to {@code 7} (Sunday). If both the day of the month and the day of the
+ * week are restricted (i.e., if not all values are covered), a day matches if one of the two
+ * fields matches.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Cron {
+  /** Minutes. */
+  private final BitSet minutes;
+  /** Hours. */
+  private final BitSet hours;
+  /** Days of the month. */
+  private final BitSet days;
+  /** Months. */
+  private final BitSet months;
+  /** Days of the week. */
+  private final BitSet weekdays;
+  /** Indicates if the day of the month is unrestricted. */
+  private final boolean anyDay;
+  /** Indicates if the day of the week is unrestricted. */
+  private final boolean anyWeekday;
+
+  /**
+   * Constructor.
+   * @param fields parsed fields
+   */
+  private Cron(final BitSet[] fields) {
+    minutes = fields[0];
+    hours = fields[1];
+    days = fields[2];
+    months = fields[3];
+    weekdays = fields[4];
+    // sunday may be specified as 0 or 7
+    if(weekdays.get(7)) weekdays.set(0);
+    // fields are unrestricted if they cover all values (e.g. '*', '*/1' or '1-31')
+    anyDay = days.nextClearBit(1) > 31;
+    anyWeekday = weekdays.nextClearBit(0) > 6;
+  }
+
+  /**
+   * Parses a cron expression.
+   * @param string cron expression
+   * @return schedule, or {@code null} if the expression is invalid
+   */
+  public static Cron get(final String string) {
+    final String[] strings = string.trim().split("\\s+");
+    if(strings.length != 5) return null;
+    final int[][] ranges = { { 0, 59 }, { 0, 23 }, { 1, 31 }, { 1, 12 }, { 0, 7 } };
+    final BitSet[] fields = new BitSet[5];
+    for(int f = 0; f < 5; f++) {
+      fields[f] = field(strings[f], ranges[f][0], ranges[f][1]);
+      if(fields[f] == null) return null;
+    }
+    return new Cron(fields);
+  }
+
+  /**
+   * Returns the next matching time after the specified time.
+   * @param time time (milliseconds since 01/01/1970)
+   * @return next time, or {@link Long#MAX_VALUE} if no matching time exists
+   */
+  public long next(final long time) {
+    final ZoneId zone = ZoneId.systemDefault();
+    LocalDateTime dt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone).
+        truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    // the day of the month and the day of the week match at least once in 28 years
+    final LocalDateTime max = dt.plusYears(28);
+    while(dt.isBefore(max)) {
+      if(!months.get(dt.getMonthValue())) {
+        dt = dt.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).plusMonths(1);
+      } else if(!day(dt)) {
+        dt = dt.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+      } else if(!hours.get(dt.getHour())) {
+        dt = dt.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+      } else if(!minutes.get(dt.getMinute())) {
+        dt = dt.plusMinutes(1);
+      } else {
+        return dt.atZone(zone).toInstant().toEpochMilli();
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Checks if the day of the specified date matches.
+   * @param dt date
+   * @return result of check
+   */
+  private boolean day(final LocalDateTime dt) {
+    final boolean day = days.get(dt.getDayOfMonth());
+    final boolean weekday = weekdays.get(dt.getDayOfWeek().getValue() % 7);
+    return anyDay ? weekday : anyWeekday ? day : day || weekday;
+  }
+
+  /**
+   * Parses a single field.
+   * @param string field string
+   * @param min minimum value
+   * @param max maximum value
+   * @return values, or {@code null} if the field is invalid
+   */
+  private static BitSet field(final String string, final int min, final int max) {
+    final BitSet values = new BitSet(max + 1);
+    for(final String entry : string.split(",", -1)) {
+      final int s = entry.indexOf('/');
+      final String range = s == -1 ? entry : entry.substring(0, s);
+      try {
+        final int step = s == -1 ? 1 : Integer.parseInt(entry.substring(s + 1));
+        final int start, end;
+        if(range.equals("*")) {
+          start = min;
+          end = max;
+        } else {
+          final int r = range.indexOf('-');
+          start = Integer.parseInt(r == -1 ? range : range.substring(0, r));
+          end = r == -1 ? s == -1 ? start : max : Integer.parseInt(range.substring(r + 1));
+        }
+        if(step < 1 || start < min || end > max || start > end) return null;
+        for(int v = start; v <= end; v += step) values.set(v);
+      } catch(final NumberFormatException ex) {
+        return null;
+      }
+    }
+    return values;
+  }
+}
@@ -38,12 +38,23 @@ public abstract class Job {
   /**
    * Registers the job (puts it on a queue).
    * @param ctx context
+   * @throws JobException if the job was rejected by the lock queue
    */
   public final void register(final Context ctx) {
     jc.context = ctx;
     ctx.jobs.register(this);
     state(JobState.QUEUED);
-    ctx.locking.acquire(this, ctx);
+    jc.queued = System.currentTimeMillis();
+    jc.locking = -1;
+    try {
+      ctx.locking.acquire(this, ctx);
+    } catch(final JobException ex) {
+      // job was rejected by the lock queue
+      ctx.jobs.unregister(this);
+      throw ex;
+    } finally {
+      jc.locking = System.currentTimeMillis() - jc.queued;
+    }
     state(JobState.RUNNING);
     jc.performance = new Performance();
     // non-admin users: stop process after timeout
@@ -65,7 +76,9 @@ public abstract class Job {
    * @return job
    */
   public final Job active() {
-    return children.isEmpty() ? this : children.get(0).active();
+    // take a snapshot, as child jobs may be added or removed by concurrent threads
+    final Job[] jobs = children.toArray(new Job[0]);
+    return jobs.length == 0 ? this : jobs[0].active();
   }
 
   /**
@@ -87,6 +100,14 @@ public abstract class Job {
     children.remove(children.size() - 1);
   }
 
+  /**
+   * Removes the specified job. Must be called if child jobs are run concurrently.
+   * @param job job to be removed
+   */
+  public final synchronized void popJob(final Job job) {
+    children.remove(job);
+  }
+
   /**
    * Stops a job or sub job.
    */
@@ -128,7 +149,8 @@ public abstract class Job {
    * @param js new state
    */
   public void state(final JobState js) {
-    for(final Job job : children) job.state(js);
+    // iterate over a copy, as child jobs may be added or removed by concurrent threads
+    for(final Job job : children.toArray(new Job[0])) job.state(js);
     state = js;
     if(js == JobState.STOPPED || js == JobState.TIMEOUT || js == JobState.MEMORY) {
       stopped = true;
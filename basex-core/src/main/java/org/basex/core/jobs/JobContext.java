@@ -27,6 +27,10 @@ public final class JobContext {
   public final Locks locks = new Locks();
   /** Time of creation. */
   public final long time = System.currentTimeMillis();
+  /** Time when the job was queued for acquiring locks ({@code 0}: job has not been queued). */
+  volatile long queued;
+  /** Time (ms) spent waiting for locks ({@code -1}: locks have not been acquired yet). */
+  volatile long locking = -1;
 
   /** Root job. */
   private final Job job;
@@ -66,6 +70,15 @@ public final class JobContext {
     return id;
   }
 
+  /**
+   * Returns the time spent waiting for locks.
+   * @return time (ms), or {@code -1} if the job has not been queued yet
+   */
+  public long locking() {
+    final long time = locking;
+    return time >= 0 ? time : queued != 0 ? System.currentTimeMillis() - queued : -1;
+  }
+
   /**
    * Sets a job type.
    * @param type type
@@ -2,9 +2,10 @@ package org.basex.core.jobs;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import org.basex.core.*;
-import org.basex.util.Performance;
+import org.basex.util.*;
 
 /**
  * Job pool.
@@ -19,13 +20,33 @@ public final class JobPool {
   public final Map<String, Job> active = new ConcurrentHashMap<>();
   /** Cached results. */
   public final Map<String, QueryJobResult> results = new ConcurrentHashMap<>();
-  /** Timer tasks. */
+  /** Scheduled tasks. */
   public final Map<String, QueryJobTask> tasks = new ConcurrentHashMap<>();
 
-  /** Timer. */
-  final Timer timer = new Timer(true);
+  /** Scheduler for starting jobs and discarding results. */
+  final ScheduledThreadPoolExecutor scheduler;
+  /** Worker threads for evaluating jobs. */
+  private final ThreadPoolExecutor workers;
+  /** Maximum number of worker threads (0: no limit). */
+  private final int workerThreads;
+  /** Maximum number of concurrently evaluated jobs per user (0: no limit). */
+  private final int userLimit;
+  /** Number of evaluated jobs per user. */
+  private final HashMap<String, Integer> userJobs = new HashMap<>();
+  /** Jobs waiting for the user limit. */
+  private final HashMap<String, PriorityQueue<Run>> userQueues = new HashMap<>();
+  /** Sequence number for jobs with the same priority. */
+  private final AtomicLong sequence = new AtomicLong();
+  /** Number of completed evaluations. */
+  private final AtomicLong completed = new AtomicLong();
+  /** Accumulated time spent by jobs waiting for evaluation (ns). */
+  private final AtomicLong waiting = new AtomicLong();
   /** Timeout (ms). */
   private final long timeout;
+  /** Number of threads of the fork/join pool. */
+  private final int threads;
+  /** Fork/join pool (lazily instantiated). */
+  private ForkJoinPool forkJoin;
 
   /**
    * Constructor.
@@ -33,6 +54,140 @@ public final class JobPool {
    */
   public JobPool(final StaticOptions sopts) {
     timeout = sopts.get(StaticOptions.CACHETIMEOUT) * 1000L;
+    final int fjt = sopts.get(StaticOptions.FORKJOINTHREADS);
+    threads = fjt > 0 ? fjt : Runtime.getRuntime().availableProcessors();
+    workerThreads = Math.max(0, sopts.get(StaticOptions.JOBSTHREADS));
+    userLimit = Math.max(0, sopts.get(StaticOptions.JOBSPERUSER));
+
+    final ThreadFactory factory = r -> {
+      final Thread thread = new Thread(r);
+      thread.setDaemon(true);
+      return thread;
+    };
+    scheduler = new ScheduledThreadPoolExecutor(1, factory);
+    scheduler.setRemoveOnCancelPolicy(true);
+    if(workerThreads > 0) {
+      // bounded number of threads: queued jobs are ordered by their priority
+      workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+          new PriorityBlockingQueue<>(), factory);
+      workers.allowCoreThreadTimeOut(true);
+    } else {
+      workers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+          new SynchronousQueue<>(), factory);
+    }
+  }
+
+  /**
+   * Returns the fork/join pool, which is shared by all queries.
+   * @return pool
+   */
+  public synchronized ForkJoinPool forkJoin() {
+    if(forkJoin == null) forkJoin = new ForkJoinPool(threads);
+    return forkJoin;
+  }
+
+  /**
+   * Returns information on the fork/join pool.
+   * @return info string
+   */
+  public synchronized String forkJoinInfo() {
+    final ForkJoinPool pool = forkJoin;
+    final TokenBuilder tb = new TokenBuilder().add("threads: ").addInt(threads);
+    if(pool != null) {
+      tb.add(", active: ").addInt(pool.getActiveThreadCount());
+      tb.add(", queued: ").addLong(pool.getQueuedTaskCount() +
+          pool.getQueuedSubmissionCount());
+      tb.add(", stolen: ").addLong(pool.getStealCount());
+    }
+    return tb.toString();
+  }
+
+  /**
+   * Returns information on the threads that evaluate jobs.
+   * @return info string
+   */
+  public String info() {
+    final TokenBuilder tb = new TokenBuilder().add("threads: ");
+    if(workerThreads > 0) tb.addInt(workerThreads);
+    else tb.add("unlimited");
+    final long runs = completed.get();
+    tb.add(", active: ").addInt(workers.getActiveCount());
+    tb.add(", queued: ").addInt(queued());
+    tb.add(", completed: ").addLong(runs);
+    if(runs > 0) tb.add(", average wait: ").add(Performance.getTime(waiting.get(), (int) runs));
+    return tb.toString();
+  }
+
+  /**
+   * Returns the number of jobs that wait for being evaluated.
+   * @return number of jobs
+   */
+  public int queued() {
+    int size = workers.getQueue().size();
+    synchronized(userJobs) {
+      for(final PriorityQueue<Run> queue : userQueues.values()) size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Schedules a job for evaluation. Jobs with higher priority will be evaluated first.
+   * If the maximum number of jobs of a user is being evaluated, the job will be queued
+   * until another job of this user has been completed.
+   * @param job job
+   */
+  void execute(final QueryJob job) {
+    final Run run = new Run(job, sequence.incrementAndGet());
+    job.state(JobState.QUEUED);
+    if(userLimit > 0) {
+      synchronized(userJobs) {
+        final int running = userJobs.getOrDefault(run.user, 0);
+        if(running >= userLimit) {
+          userQueues.computeIfAbsent(run.user, u -> new PriorityQueue<>()).add(run);
+          return;
+        }
+        userJobs.put(run.user, running + 1);
+      }
+    }
+    execute(run);
+  }
+
+  /**
+   * Passes on a job to the worker threads.
+   * @param run job to be evaluated
+   */
+  private void execute(final Run run) {
+    try {
+      workers.execute(run);
+    } catch(final RejectedExecutionException ex) {
+      // pool has been shut down
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Called after the evaluation of a job.
+   * @param run evaluated job
+   */
+  private void finished(final Run run) {
+    completed.incrementAndGet();
+    if(userLimit == 0) return;
+
+    Run next = null;
+    synchronized(userJobs) {
+      final PriorityQueue<Run> queue = userQueues.get(run.user);
+      if(queue != null) {
+        next = queue.poll();
+        if(queue.isEmpty()) userQueues.remove(run.user);
+      }
+      // no queued jobs: decrease number of evaluated jobs
+      if(next == null) {
+        final int running = userJobs.get(run.user) - 1;
+        if(running == 0) userJobs.remove(run.user);
+        else userJobs.put(run.user, running);
+      }
+    }
+    if(next != null) execute(next);
   }
 
   /**
@@ -56,10 +211,16 @@ public final class JobPool {
    * Stops all jobs before closing the application.
    */
   public synchronized void close() {
-    // stop running tasks and queries
-    timer.cancel();
+    // stop scheduler, discard queued jobs, stop running tasks and queries
+    scheduler.shutdownNow();
+    synchronized(userJobs) {
+      userQueues.clear();
+    }
+    workers.getQueue().clear();
+    workers.shutdown();
     for(final Job job : active.values()) job.stop();
     while(!active.isEmpty()) Performance.sleep(1);
+    if(forkJoin != null) forkJoin.shutdownNow();
   }
 
   /**
@@ -67,11 +228,54 @@ public final class JobPool {
    * @param job job
    */
   public void scheduleResult(final Job job) {
-    timer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        results.remove(job.jc().id());
+    try {
+      scheduler.schedule(() -> results.remove(job.jc().id()), timeout, TimeUnit.MILLISECONDS);
+    } catch(final RejectedExecutionException ex) {
+      // scheduler has been shut down
+      Util.debug(ex);
+    }
+  }
+
+  /** Job evaluation. */
+  private final class Run implements Runnable, Comparable<Run> {
+    /** Job. */
+    private final QueryJob job;
+    /** Priority. */
+    private final int priority;
+    /** Sequence number. */
+    private final long seq;
+    /** User. */
+    private final String user;
+    /** Time of scheduling (ns). */
+    private final long queued = System.nanoTime();
+
+    /**
+     * Constructor.
+     * @param job job
+     * @param seq sequence number
+     */
+    private Run(final QueryJob job, final long seq) {
+      this.job = job;
+      this.seq = seq;
+      priority = job.priority();
+      user = job.jc().context.user().name();
+    }
+
+    @Override
+    public void run() {
+      final long wait = System.nanoTime() - queued;
+      waiting.addAndGet(wait);
+      try {
+        job.run(wait);
+      } finally {
+        finished(this);
       }
-    }, timeout);
+    }
+
+    @Override
+    public int compareTo(final Run run) {
+      return priority != run.priority ? Integer.compare(run.priority, priority) :
+        Long.compare(seq, run.seq);
+    }
   }
 }
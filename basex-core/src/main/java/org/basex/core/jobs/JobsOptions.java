@@ -19,6 +19,10 @@ public final class JobsOptions extends Options {
   public static final StringOption END = new StringOption("end");
   /** Interval after which query will be repeated. */
   public static final StringOption INTERVAL = new StringOption("interval");
+  /** Cron schedule (minute, hour, day of month, month, day of week). */
+  public static final StringOption CRON = new StringOption("cron");
+  /** Priority (jobs with higher priority will be evaluated first). */
+  public static final NumberOption PRIORITY = new NumberOption("priority");
   /** Custom id string. */
   public static final StringOption ID = new StringOption("id");
   /** Register as service. */
@@ -33,4 +33,12 @@ public interface JobsText {
   byte[] WRITES = token("writes");
   /** Time of registering. */
   byte[] TIME = token("time");
+  /** Priority. */
+  byte[] PRIORITY = token("priority");
+  /** Number of evaluations. */
+  byte[] RUNS = token("runs");
+  /** Time spent waiting for evaluation. */
+  byte[] WAIT = token("wait");
+  /** Time spent waiting for locks. */
+  byte[] LOCKING = token("locking");
 }
@@ -5,6 +5,7 @@ import static org.basex.util.Token.*;
 
 import java.math.*;
 import java.util.Map.*;
+import java.util.concurrent.atomic.*;
 import java.util.function.*;
 
 import org.basex.core.*;
@@ -27,6 +28,15 @@ public final class QueryJob extends Job implements Runnable {
   private final QueryJobSpec job;
   /** Notify function. */
   private final Consumer<QueryJobResult> notify;
+  /** Priority. */
+  private final int priority;
+  /** Indicates if the job has been passed on for evaluation. */
+  private final AtomicBoolean submitted = new AtomicBoolean();
+
+  /** Number of completed evaluations. */
+  private volatile int runs;
+  /** Time spent waiting for the last evaluation (ns; {@code -1}: not evaluated yet). */
+  private volatile long wait = -1;
 
   /** Query processor. */
   private QueryProcessor qp;
@@ -48,8 +58,11 @@ public final class QueryJob extends Job implements Runnable {
     this.notify = notify;
     jc().context = ctx;
 
-    // check when job is to be started
     final JobsOptions opts = job.options;
+    final Integer prio = opts.get(JobsOptions.PRIORITY);
+    priority = prio != null ? prio : 0;
+
+    // check when job is to be started
     final String start = opts.get(JobsOptions.START);
     long delay = start == null || start.isEmpty() ? 0 : delay(start, 0, info);
 
@@ -63,6 +76,18 @@ public final class QueryJob extends Job implements Runnable {
     }
     if(delay < 0) throw JOBS_RANGE_X.get(info, start);
 
+    // check if job is to be started by a cron schedule
+    Cron cron = null;
+    final String crn = opts.get(JobsOptions.CRON);
+    if(crn != null && !crn.isEmpty()) {
+      if(interval > 0) throw JOBS_OPTIONS.get(info);
+      cron = Cron.get(crn);
+      if(cron == null) throw JOBS_RANGE_X.get(info, crn);
+      final long time = System.currentTimeMillis(), next = cron.next(time + delay);
+      if(next == Long.MAX_VALUE) throw JOBS_RANGE_X.get(info, crn);
+      delay = next - time;
+    }
+
     // check when job is to be stopped
     final String end = opts.get(JobsOptions.END);
     final long duration = end == null || end.isEmpty() ? Long.MAX_VALUE : delay(end, delay, info);
@@ -70,7 +95,7 @@ public final class QueryJob extends Job implements Runnable {
 
     // check job results are to be cached
     final boolean cache = opts.contains(JobsOptions.CACHE) && opts.get(JobsOptions.CACHE);
-    if(cache && interval > 0) throw JOBS_OPTIONS.get(info);
+    if(cache && (interval > 0 || cron != null)) throw JOBS_OPTIONS.get(info);
 
     final JobPool jobs = ctx.jobs;
     synchronized(jobs.tasks) {
@@ -90,13 +115,9 @@ public final class QueryJob extends Job implements Runnable {
       if(cache) jobs.results.put(id, result);
 
       // create and schedule job task
-      final QueryJobTask task = new QueryJobTask(this, jobs, delay, interval, duration);
+      final QueryJobTask task = new QueryJobTask(this, jobs, delay, interval, duration, cron);
       jobs.tasks.put(id, task);
-      if(interval > 0) {
-        jobs.timer.scheduleAtFixedRate(task, delay, interval);
-      } else {
-        jobs.timer.schedule(task, delay);
-      }
+      task.schedule(delay);
     }
   }
 
@@ -136,6 +157,47 @@ public final class QueryJob extends Job implements Runnable {
     return date.sec.multiply(BigDecimal.valueOf(1000)).longValue();
   }
 
+  /**
+   * Returns the priority of the job.
+   * @return priority
+   */
+  public int priority() {
+    return priority;
+  }
+
+  /**
+   * Returns the number of completed evaluations.
+   * @return number of evaluations
+   */
+  public int runs() {
+    return runs;
+  }
+
+  /**
+   * Returns the time the last evaluation waited for a worker thread.
+   * @return time (ns), or {@code -1} if the job has not been evaluated yet
+   */
+  public long waited() {
+    return wait;
+  }
+
+  /**
+   * Marks the job as submitted for evaluation.
+   * @return {@code false} if the job has already been submitted, and has not been completed yet
+   */
+  boolean submit() {
+    return submitted.compareAndSet(false, true);
+  }
+
+  /**
+   * Evaluates the job.
+   * @param time time the job waited for evaluation (ns)
+   */
+  void run(final long time) {
+    wait = time;
+    run();
+  }
+
   /**
    * Removes the job from the task list as soon as it has been activated.
    */
@@ -149,6 +211,7 @@ public final class QueryJob extends Job implements Runnable {
     final Context ctx = jc.context;
     final JobsOptions opts = job.options;
     qp = new QueryProcessor(job.query, opts.get(JobsOptions.BASE_URI), ctx);
+    boolean pushed = false, registered = false;
     try {
       // parse, push and register query. order is important!
       final Performance perf = new Performance();
@@ -164,7 +227,14 @@ public final class QueryJob extends Job implements Runnable {
 
       // register job
       pushJob(qp);
-      register(ctx);
+      pushed = true;
+      try {
+        register(ctx);
+      } catch(final JobException ex) {
+        // job was rejected by the lock queue
+        throw JOBS_REJECTED_X.get(null, ex.getMessage());
+      }
+      registered = true;
       if(remove) ctx.jobs.tasks.remove(jc.id());
 
       // retrieve result
@@ -177,6 +247,7 @@ public final class QueryJob extends Job implements Runnable {
     } catch(final Throwable ex) {
       result.exception = XQUERY_UNEXPECTED_X.get(null, ex);
     } finally {
+      runs++;
       // close and invalidate query after result has been assigned. order is important!
       final Boolean cache = opts.get(JobsOptions.CACHE);
       if(cache != null && cache) {
@@ -186,17 +257,18 @@ public final class QueryJob extends Job implements Runnable {
         state(JobState.SCHEDULED);
       }
 
-      if(ctx.jobs.active.containsKey(jc.id())) {
-        qp.close();
+      qp.close();
+      if(registered) {
         unregister(ctx);
-        popJob();
-        qp = null;
         result.time += jc.performance.ns();
         // invalidates the performance measurements
         jc.performance = null;
       }
+      if(pushed) popJob();
+      qp = null;
 
       if(remove) ctx.jobs.tasks.remove(jc.id());
+      submitted.set(false);
       if(notify != null) notify.accept(result);
     }
   }
@@ -1,6 +1,8 @@
 package org.basex.core.jobs;
 
-import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.util.*;
 
 /**
  * Scheduled job.
@@ -8,7 +10,7 @@ import java.util.*;
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
-public final class QueryJobTask extends TimerTask {
+public final class QueryJobTask implements Runnable {
   /** Job. */
   public final QueryJob job;
   /** Job pool. */
@@ -17,9 +19,16 @@ public final class QueryJobTask extends TimerTask {
   public final long interval;
   /** End time (@link {@link Long#MAX_VALUE}: no end). */
   public final long end;
+  /** Cron schedule (can be {@code null}). */
+  public final Cron cron;
 
   /** Next start time. */
-  public long start;
+  public volatile long start;
+
+  /** Scheduled future. */
+  private ScheduledFuture<?> future;
+  /** Cancel flag. */
+  private boolean cancelled;
 
   /**
    * Constructor.
@@ -28,27 +37,62 @@ public final class QueryJobTask extends TimerTask {
    * @param delay delay (ms)
    * @param interval interval (ms)
    * @param duration total duration (ms)
+   * @param cron cron schedule (can be {@code null})
    */
   public QueryJobTask(final QueryJob job, final JobPool jobs, final long delay,
-      final long interval, final long duration) {
+      final long interval, final long duration, final Cron cron) {
 
     this.job = job;
     this.jobs = jobs;
     this.interval = interval;
+    this.cron = cron;
     final long time = System.currentTimeMillis();
     start = time + delay;
     end = duration == Long.MAX_VALUE ? duration : time + duration;
   }
 
+  /**
+   * Schedules the task.
+   * @param delay delay (ms)
+   */
+  synchronized void schedule(final long delay) {
+    if(cancelled) return;
+    try {
+      future = interval > 0 ?
+        jobs.scheduler.scheduleAtFixedRate(this, delay, interval, TimeUnit.MILLISECONDS) :
+        jobs.scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+    } catch(final RejectedExecutionException ex) {
+      // scheduler has been shut down
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Cancels the task.
+   */
+  public synchronized void cancel() {
+    cancelled = true;
+    if(future != null) future.cancel(false);
+  }
+
   @Override
   public void run() {
+    synchronized(this) {
+      if(cancelled) return;
+    }
     // check if job needs to be evaluated repeatedly
-    start += interval;
-    if(interval == 0 || start >= end) {
+    if(cron != null) {
+      start = cron.next(start);
+    } else {
+      start += interval;
+    }
+    if(interval == 0 && cron == null || start >= end) {
       job.remove();
       cancel();
+    } else if(cron != null) {
+      schedule(Math.max(0, start - System.currentTimeMillis()));
     }
-    // skip execution if same job is still running
-    if(!jobs.active.containsKey(job.jc().id())) new Thread(job).start();
+    // skip execution if same job is still queued or running
+    if(!jobs.active.containsKey(job.jc().id()) && job.submit()) jobs.execute(job);
   }
 }
@@ -15,9 +15,11 @@ public final class FairLockQueue extends LockQueue {
   /**
    * Constructor.
    * @param parallel parallel jobs
+   * @param size maximum number of queued jobs (0: no limit)
+   * @param timeout maximum time (ms) a job will be queued (0: no limit)
    */
-  FairLockQueue(final int parallel) {
-    super(parallel);
+  FairLockQueue(final int parallel, final int size, final long timeout) {
+    super(parallel, size, timeout);
   }
 
   @Override
@@ -26,15 +28,18 @@ public final class FairLockQueue extends LockQueue {
 
     // add job id to queue and wait
     if(jobs >= parallel) {
+      final long start = enqueue();
       queue.add(id);
-
-      // loop until job is placed first
-      do {
-        wait();
-      } while(!id.equals(queue.peek()));
-
-      // remove job from queue
-      queue.remove(id);
+      try {
+        // loop until job is placed first
+        do {
+          await(start);
+        } while(jobs >= parallel || !id.equals(queue.peek()));
+      } finally {
+        // remove job from queue
+        queue.remove(id);
+        dequeue(start);
+      }
     }
     jobs++;
   }
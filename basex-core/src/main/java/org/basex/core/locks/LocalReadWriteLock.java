@@ -9,6 +9,8 @@ import java.util.concurrent.locks.*;
  * @author Christian Gruen
  */
 final class LocalReadWriteLock extends ReentrantReadWriteLock {
+  /** Exclusive lock for jobs that modify the resource (acquired before read or write locks). */
+  final ReentrantLock modify;
   /** Pins. */
   private int pins;
 
@@ -18,6 +20,7 @@ final class LocalReadWriteLock extends ReentrantReadWriteLock {
    */
   LocalReadWriteLock(final boolean fair) {
     super(fair);
+    modify = new ReentrantLock(fair);
   }
 
   /**
@@ -1,23 +1,47 @@
 package org.basex.core.locks;
 
+import org.basex.core.*;
+import org.basex.core.jobs.*;
+import org.basex.util.*;
+
 /**
  * Lock queue.
  *
+ * If the maximum number of queued jobs has been reached, new jobs will be rejected.
+ * Queued jobs will be rejected if they have waited longer than the specified time.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 public abstract class LockQueue {
   /** Maximum number of parallel jobs. */
   protected final int parallel;
+  /** Maximum number of queued jobs (0: no limit). */
+  private final int size;
+  /** Maximum time (ns) a job will be queued (0: no limit). */
+  private final long timeout;
+
   /** Number of currently running jobs. */
   protected int jobs;
+  /** Number of currently queued jobs. */
+  private int queued;
+  /** Number of jobs that have been queued. */
+  private long total;
+  /** Accumulated time (ns) spent by jobs in the queue. */
+  private long waited;
+  /** Number of rejected jobs. */
+  private long rejected;
 
   /**
    * Constructor.
    * @param parallel parallel jobs
+   * @param size maximum number of queued jobs (0: no limit)
+   * @param timeout maximum time (ms) a job will be queued (0: no limit)
    */
-  LockQueue(final int parallel) {
+  LockQueue(final int parallel, final int size, final long timeout) {
     this.parallel = parallel;
+    this.size = size;
+    this.timeout = timeout * 1000000;
   }
 
   /**
@@ -36,4 +60,60 @@ public abstract class LockQueue {
     notifyAll();
     jobs--;
   }
+
+  /**
+   * Returns information on the queue.
+   * @return info string
+   */
+  public final synchronized String info() {
+    final TokenBuilder tb = new TokenBuilder().add("jobs: ").addInt(jobs);
+    tb.add(", queued: ").addInt(queued).add(", rejected: ").addLong(rejected);
+    if(total > 0) tb.add(", average wait: ").add(Performance.getTime(waited, (int) total));
+    return tb.toString();
+  }
+
+  /**
+   * Adds a job to the queue. Must be called before a job starts waiting.
+   * @return time of queueing (ns)
+   * @throws JobException if the maximum number of queued jobs has been reached
+   */
+  final long enqueue() {
+    if(size > 0 && queued >= size) {
+      rejected++;
+      throw new JobException(Text.QUEUE_FULL);
+    }
+    queued++;
+    return System.nanoTime();
+  }
+
+  /**
+   * Removes a job from the queue. Must be called after a job has stopped waiting.
+   * @param start time of queueing (ns)
+   */
+  final void dequeue(final long start) {
+    queued--;
+    total++;
+    waited += System.nanoTime() - start;
+    // the job may have been the next one in the queue
+    notifyAll();
+  }
+
+  /**
+   * Waits until the job is notified.
+   * @param start time of queueing (ns)
+   * @throws InterruptedException interrupted exception
+   * @throws JobException if the job has been queued too long
+   */
+  final void await(final long start) throws InterruptedException {
+    if(timeout == 0) {
+      wait();
+    } else {
+      final long ns = timeout - (System.nanoTime() - start);
+      if(ns <= 0) {
+        rejected++;
+        throw new JobException(Text.QUEUE_TIMEOUT);
+      }
+      wait(ns / 1000000, (int) (ns % 1000000));
+    }
+  }
 }
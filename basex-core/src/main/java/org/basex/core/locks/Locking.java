@@ -8,6 +8,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.locks.*;
 
 import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
 import org.basex.core.jobs.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
@@ -18,6 +19,22 @@ import org.basex.util.list.*;
  * A maximum of {@link StaticOptions#PARALLEL} concurrent locking jobs is allowed.
  *
  * (Non-)fair locking can be adjusted via the {@link StaticOptions#FAIRLOCK} option.
+ * If non-fair locking is used, {@link StaticOptions#LOCKPRIORITY} specifies if queued readers
+ * or writers will be preferred.
+ *
+ * Queued jobs will be rejected if more than {@link StaticOptions#LOCKQUEUE} jobs are queued,
+ * or if they have been waiting longer than {@link StaticOptions#LOCKWAIT} milliseconds.
+ *
+ * If {@link StaticOptions#LOCKDEFER} is enabled, write locks of jobs that only add documents
+ * will be acquired after the documents have been parsed (see {@link #update()}). As such jobs
+ * hold no other locks, they can be evaluated in parallel without risking deadlocks, and the
+ * final modifications of the database will still be performed one after another.
+ *
+ * If {@link StaticOptions#LOCKSNAPSHOT} is enabled, the database locks of updating queries will
+ * be shared with readers until the updates are applied. Readers will see the last committed
+ * state of a database, and they will only be blocked while a database is modified. To serialize
+ * writers, all jobs that modify a resource acquire an exclusive modification lock before any
+ * read or write locks are assigned.
  *
  * This class prevents locking deadlocks by sorting all strings.
  *
@@ -77,13 +94,18 @@ public final class Locking {
     fair = soptions.get(StaticOptions.FAIRLOCK);
     globalLocks = new ReentrantReadWriteLock(fair);
     final int parallel = Math.max(soptions.get(StaticOptions.PARALLEL), 1);
-    queue = fair ? new FairLockQueue(parallel) : new NonfairLockQueue(parallel);
+    final int size = Math.max(soptions.get(StaticOptions.LOCKQUEUE), 0);
+    final long timeout = Math.max(soptions.get(StaticOptions.LOCKWAIT), 0);
+    queue = fair ? new FairLockQueue(parallel, size, timeout) :
+      new NonfairLockQueue(parallel, size, timeout,
+          soptions.get(StaticOptions.LOCKPRIORITY) == LockPriority.WRITE);
   }
 
   /**
    * Acquires locks for the specified job.
    * @param job job to be queued
    * @param ctx database context of client
+   * @throws JobException if the job was rejected by the lock queue
    */
   public void acquire(final Job job, final Context ctx) {
     // collect lock strings
@@ -104,6 +126,7 @@ public final class Locking {
    * The lists must have been prepared for locking (see {@link Locks#finish(Context)}).
    * @param locks locks
    * @throws InterruptedException interrupted exception
+   * @throws JobException if the job was rejected by the lock queue
    */
   void acquire(final Locks locks) throws InterruptedException {
     // one thread can only hold a single lock
@@ -113,10 +136,56 @@ public final class Locking {
 
     // queue job if the job limit has been reached
     final LockList reads = locks.reads, writes = locks.writes;
-    final boolean write = writes.locking(), read = reads.locking(), lock = read || write;
-    queue.acquire(id, read, write);
+    final boolean write = writes.locking() || locks.updates.locking(), read = reads.locking();
+    try {
+      queue.acquire(id, read, write);
+    } catch(final JobException ex) {
+      locked.remove(id);
+      throw ex;
+    }
+    lock(reads, writes, locks.snapshot);
+  }
 
+  /**
+   * Acquires exclusive locks before the updates of the current job are applied:
+   * write locks that have been deferred will be acquired, and shared write locks will be
+   * upgraded. Does nothing if the job holds no such locks.
+   */
+  public void update() {
+    final Locks locks = locked.get(Thread.currentThread().getId());
+    if(locks == null || locks.updating) return;
+
+    if(locks.updates.locking()) {
+      // no other locks exist: acquire deferred locks as write locks
+      try {
+        lock(locks.reads, locks.updates, false);
+      } catch(final InterruptedException ex) {
+        throw Util.notExpected("Thread was interrupted: %", ex);
+      }
+    } else if(locks.snapshot) {
+      // wait for completion of readers (no other job can modify the resources in the meantime)
+      for(final String string : locks.writes) {
+        if(shared(string)) {
+          final LocalReadWriteLock lock = lock(string);
+          lock.readLock().unlock();
+          lock.writeLock().lock();
+        }
+      }
+    }
+    locks.updating = true;
+  }
+
+  /**
+   * Acquires the specified read and write locks.
+   * @param reads read locks
+   * @param writes write locks
+   * @param snapshot share write locks of databases with readers
+   * @throws InterruptedException interrupted exception
+   */
+  private void lock(final LockList reads, final LockList writes, final boolean snapshot)
+      throws InterruptedException {
     // apply exclusive lock (global write), or shared lock otherwise
+    final boolean lock = reads.locking() || writes.locking();
     if(lock) (writes.global() ? globalLocks.writeLock() : globalLocks.readLock()).lock();
 
     synchronized(globalLock) {
@@ -132,30 +201,57 @@ public final class Locking {
       }
     }
 
-    // assign locks in sorted order (to ensure that write locks will be assigned first)
-    int w = 0, r = 0;
+    // pin locks, acquire modification locks in sorted order
     final int rs = reads.size(), ws = writes.size();
-    while(r < rs || w < ws) {
+    final LocalReadWriteLock[] rl = new LocalReadWriteLock[rs], wl = new LocalReadWriteLock[ws];
+    for(int w = 0, r = 0; r < rs || w < ws;) {
       if(w < ws && (r == rs || writes.get(w).compareTo(reads.get(r)) <= 0)) {
-        pin(writes.get(w++)).writeLock().lock();
+        wl[w] = pin(writes.get(w));
+        wl[w++].modify.lock();
       } else {
-        pin(reads.get(r++)).readLock().lock();
+        rl[r] = pin(reads.get(r));
+        // updating queries: prevent modifications of read resources until the job is finished
+        if(snapshot) rl[r].modify.lock();
+        r++;
+      }
+    }
+
+    // assign locks in sorted order (to ensure that write locks will be assigned first)
+    for(int w = 0, r = 0; r < rs || w < ws;) {
+      if(w < ws && (r == rs || writes.get(w).compareTo(reads.get(r)) <= 0)) {
+        (snapshot && shared(writes.get(w)) ? wl[w].readLock() : wl[w].writeLock()).lock();
+        w++;
+      } else {
+        rl[r++].readLock().lock();
       }
     }
   }
 
   /**
    * Removes locks for the specified job, all in reverse order.
+   * Does nothing if the job holds no locks (because it was rejected by the lock queue).
    */
   public void release() {
     final Long id = Thread.currentThread().getId();
     final Locks locks = locked.remove(id);
-    final LockList reads = locks.reads, writes = locks.writes;
+    if(locks == null) return;
+    final boolean deferred = locks.updating && locks.updates.locking();
+    final boolean snapshot = locks.snapshot && !deferred, shared = snapshot && !locks.updating;
+    final LockList reads = locks.reads, writes = deferred ? locks.updates : locks.writes;
+    locks.updating = false;
     final boolean lock = reads.locking() || writes.locking();
 
     // release all local locks
-    for(final String string : reads) unpin(string).readLock().unlock();
-    for(final String string : writes) unpin(string).writeLock().unlock();
+    for(final String string : reads) {
+      final LocalReadWriteLock rl = unpin(string);
+      rl.readLock().unlock();
+      if(snapshot) rl.modify.unlock();
+    }
+    for(final String string : writes) {
+      final LocalReadWriteLock wl = unpin(string);
+      (shared && shared(string) ? wl.readLock() : wl.writeLock()).unlock();
+      wl.modify.unlock();
+    }
 
     // allow next global reader to resume
     synchronized(globalLock) {
@@ -194,6 +290,29 @@ public final class Locking {
     }
   }
 
+  /**
+   * Returns the lock of a pinned lock string.
+   * @param string lock string
+   * @return lock
+   */
+  private LocalReadWriteLock lock(final String string) {
+    synchronized(localLocks) {
+      return localLocks.get(string);
+    }
+  }
+
+  /**
+   * Checks if the write lock of the specified string can be shared with readers until updates
+   * are applied. This is only the case for databases: internal, query and Java locks may be used
+   * to guard resources that are modified while a query is evaluated.
+   * @param string lock string
+   * @return result of check
+   */
+  private static boolean shared(final String string) {
+    return !string.startsWith(PREFIX) && !string.startsWith(QUERY_PREFIX) &&
+        !string.startsWith(JAVA_PREFIX);
+  }
+
   /**
    * Unpins a lock string. Removes a lock if pin count is zero.
    * @param string lock string
@@ -222,6 +341,14 @@ public final class Locking {
   }
 
 
+  /**
+   * Returns information on the lock queue.
+   * @return info string
+   */
+  public String info() {
+    return queue.info();
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder(NL).append("Locking").append(NL);
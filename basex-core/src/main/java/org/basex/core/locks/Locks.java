@@ -14,13 +14,26 @@ public final class Locks {
   public final LockList reads = new LockList();
   /** Write locks. */
   public final LockList writes = new LockList();
+  /** Write locks that will only be acquired when updates are applied. */
+  public final LockList updates = new LockList();
+  /** Indicates if write locks will be shared with readers until updates are applied. */
+  public boolean snapshot;
+  /** Indicates if the write locks of updates have been acquired. */
+  boolean updating;
 
   /**
    * Finalizes locks. Replaces context references with current database, sorts entries,
    * removes duplicates, assigns global read lock if global write lock exists.
+   * Write locks of updates will only be deferred if no other locks exist.
    * @param ctx database context
    */
   public void finish(final Context ctx) {
+    // locks of updates can only be deferred if no other locks are required
+    if(reads.locking() || writes.locking()) {
+      writes.add(updates);
+      updates.reset();
+    }
+
     // global write lock: no read locks required
     if(writes.global()) reads.reset();
 
@@ -29,6 +42,7 @@ public final class Locks {
     final String name = data == null ? null : data.meta.name;
     writes.finish(name);
     reads.finish(name);
+    updates.finish(name);
 
     // remove read locks that are also defined as write locks
     reads.remove(writes);
@@ -36,6 +50,6 @@ public final class Locks {
 
   @Override
   public String toString() {
-    return "Reads: " + reads + ", Writes: " + writes;
+    return "Reads: " + reads + ", Writes: " + writes + ", Updates: " + updates;
   }
 }
@@ -13,13 +13,20 @@ public final class NonfairLockQueue extends LockQueue {
   private final Queue<Long> readers = new LinkedList<>();
   /** Queued writers. */
   private final Queue<Long> writers = new LinkedList<>();
+  /** Prefer writers. */
+  private final boolean prefer;
 
   /**
    * Constructor.
    * @param parallel parallel jobs
+   * @param size maximum number of queued jobs (0: no limit)
+   * @param timeout maximum time (ms) a job will be queued (0: no limit)
+   * @param prefer prefer writers (otherwise, readers will be preferred)
    */
-  NonfairLockQueue(final int parallel) {
-    super(parallel);
+  NonfairLockQueue(final int parallel, final int size, final long timeout,
+      final boolean prefer) {
+    super(parallel, size, timeout);
+    this.prefer = prefer;
   }
 
   @Override
@@ -29,16 +36,20 @@ public final class NonfairLockQueue extends LockQueue {
     // only wait if job is locking
     if(jobs >= parallel && (read || write)) {
       // add job id to queue and wait
+      final long start = enqueue();
       final Queue<Long> queue = write ? writers : readers;
       queue.add(id);
-
-      // loop until job is placed first (prefer readers)
-      do {
-        wait();
-      } while(jobs >= parallel || write && !readers.isEmpty() || !id.equals(queue.peek()));
-
-      // remove job from queue
-      queue.remove(id);
+      try {
+        // loop until job is placed first (prefer readers or writers)
+        do {
+          await(start);
+        } while(jobs >= parallel || (prefer ? !write && !writers.isEmpty() :
+          write && !readers.isEmpty()) || !id.equals(queue.peek()));
+      } finally {
+        // remove job from queue
+        queue.remove(id);
+        dequeue(start);
+      }
     }
     jobs++;
   }
@@ -156,6 +156,19 @@ public abstract class Data {
    */
   public abstract void dropIndex(IndexType type) throws BaseXException;
 
+  /**
+   * Suspends the journaling of updates. Journaled updates are copied to the database files.
+   * Must be called before index files are rewritten or deleted. Calls can be nested, and each
+   * call must be followed by a call of {@link #resumeJournal()}.
+   * @throws IOException I/O exception
+   */
+  public abstract void suspendJournal() throws IOException;
+
+  /**
+   * Resumes the journaling of updates if it was enabled before it was suspended.
+   */
+  public abstract void resumeJournal();
+
   /**
    * Starts an update operation: writes a file to disk to indicate that an update is going on,
    * and exclusively locks the table file.
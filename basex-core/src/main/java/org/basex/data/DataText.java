@@ -14,7 +14,7 @@ public interface DataText {
   /** Database version; older version cannot open these instances. */
   String STORAGE = "9.0.1";
   /** Index version; older version cannot open indexes of these instances. */
-  String ISTORAGE = "8.6";
+  String ISTORAGE = "9.2";
 
   /** Database version. */
   String DBSTR = "STORAGE";
@@ -5,6 +5,7 @@ import static org.basex.data.DataText.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
 
 import org.basex.build.*;
 import org.basex.core.*;
@@ -16,6 +17,7 @@ import org.basex.index.path.*;
 import org.basex.index.value.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
+import org.basex.io.out.ArrayOutput;
 import org.basex.io.out.DataOutput;
 import org.basex.io.random.*;
 import org.basex.util.*;
@@ -56,14 +58,26 @@ public final class DiskData extends Data {
   private DataAccess texts;
   /** Values access file. */
   private DataAccess values;
+  /** Journal (can be {@code null}). */
+  private final Journal journal;
+  /** Indicates if updates are written to the journal. */
+  private boolean journaled;
+  /** Indicates if meta data has been written to the journal. */
+  private boolean logged;
+  /** Number of operations for which journaling has been suspended. */
+  private int suspended;
+  /** Indicates if journaling will be resumed. */
+  private boolean resume;
 
   /**
    * Default constructor, called from {@link Open#open}.
    * @param meta meta data
+   * @param journal journal (can be {@code null})
    * @throws IOException I/O Exception
    */
-  public DiskData(final MetaData meta) throws IOException {
+  public DiskData(final MetaData meta, final Journal journal) throws IOException {
     super(meta);
+    this.journal = journal;
 
     try(DataInput in = new DataInput(meta.dbfile(DATAINF))) {
       meta.read(in);
@@ -108,6 +122,7 @@ public final class DiskData extends Data {
       final PathIndex paths, final Namespaces nspaces) throws IOException {
 
     super(meta);
+    journal = null;
     this.elemNames = elemNames;
     this.attrNames = attrNames;
     this.paths = paths;
@@ -123,8 +138,8 @@ public final class DiskData extends Data {
    */
   private void init() throws IOException {
     table = new TableDiskAccess(meta, false);
-    texts = new DataAccess(meta.dbfile(DATATXT));
-    values = new DataAccess(meta.dbfile(DATAATV));
+    texts = new DataAccess(meta.dbfile(DATATXT), meta.memorymap);
+    values = new DataAccess(meta.dbfile(DATAATV), meta.memorymap);
   }
 
   /**
@@ -134,29 +149,65 @@ public final class DiskData extends Data {
   private void write() throws IOException {
     if(!meta.dirty) return;
 
-    try(DataOutput out = new DataOutput(meta.dbfile(DATAINF))) {
-      meta.write(out);
-      out.writeToken(token(DBTAGS));
-      elemNames.write(out);
-      out.writeToken(token(DBATTS));
-      attrNames.write(out);
-      out.writeToken(token(DBPATH));
-      paths.write(out);
-      out.writeToken(token(DBNS));
-      nspaces.write(out);
-      out.writeToken(token(DBDOCS));
-      resources.write(out);
-      out.write(0);
+    if(journaled) {
+      // write meta data and id/pre mapping to the journal
+      final ArrayOutput info = new ArrayOutput();
+      try(DataOutput out = new DataOutput(info)) {
+        write(out);
+      }
+      journal.contents(meta.dbfile(DATAINF), info.finish());
+      if(meta.updindex) {
+        final ArrayOutput ids = new ArrayOutput();
+        try(DataOutput out = new DataOutput(ids)) {
+          idmap.write(out);
+        }
+        journal.contents(meta.dbfile(DATAIDP), ids.finish());
+      }
+      logged = true;
+    } else {
+      try(DataOutput out = new DataOutput(meta.dbfile(DATAINF))) {
+        write(out);
+      }
+      if(meta.updindex) idmap.write(meta.dbfile(DATAIDP));
     }
-    if(meta.updindex) idmap.write(meta.dbfile(DATAIDP));
     meta.dirty = false;
   }
 
+  /**
+   * Writes all meta data to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  private void write(final DataOutput out) throws IOException {
+    meta.write(out);
+    out.writeToken(token(DBTAGS));
+    elemNames.write(out);
+    out.writeToken(token(DBATTS));
+    attrNames.write(out);
+    out.writeToken(token(DBPATH));
+    paths.write(out);
+    out.writeToken(token(DBNS));
+    nspaces.write(out);
+    out.writeToken(token(DBDOCS));
+    resources.write(out);
+    out.write(0);
+  }
+
+  /**
+   * Indicates if updates of this database have been written to the journal, and have not been
+   * copied to the database files yet.
+   * @return result of check
+   */
+  public synchronized boolean journaled() {
+    return journaled;
+  }
+
   @Override
   public synchronized void close() {
     if(closed) return;
     super.close();
     try {
+      checkpoint();
       write();
       table.close();
       texts.close();
@@ -185,27 +236,57 @@ public final class DiskData extends Data {
 
   @Override
   public void createIndex(final IndexType type, final Command cmd) throws IOException {
-    // close existing index
-    close(type);
-    final IndexBuilder ib;
-    switch(type) {
-      case TEXT: case ATTRIBUTE: case TOKEN: ib = new DiskValuesBuilder(this, type); break;
-      case FULLTEXT: ib = new FTBuilder(this); break;
-      default: throw Util.notExpected();
-    }
+    // index files will be rewritten: copy journaled updates to the database files
+    suspendJournal();
     try {
-      if(cmd != null) cmd.pushJob(ib);
-      set(type, ib.build());
+      // close existing index
+      close(type);
+      final IndexBuilder ib;
+      switch(type) {
+        case TEXT: case ATTRIBUTE: case TOKEN: ib = new DiskValuesBuilder(this, type); break;
+        case FULLTEXT: ib = new FTBuilder(this); break;
+        default: throw Util.notExpected();
+      }
+      try {
+        if(cmd != null) cmd.pushJob(ib);
+        set(type, ib.build());
+      } finally {
+        if(cmd != null) cmd.popJob(ib);
+      }
     } finally {
-      if(cmd != null) cmd.popJob();
+      resumeJournal();
     }
   }
 
   @Override
   public void dropIndex(final IndexType type) throws BaseXException {
-    close(type);
-    final Index index = index(type);
-    if(index != null && !index.drop()) throw new BaseXException(INDEX_NOT_DROPPED_X, type);
+    // index files will be deleted: copy journaled updates to the database files
+    try {
+      suspendJournal();
+    } catch(final IOException ex) {
+      throw new BaseXException(ex);
+    }
+    try {
+      close(type);
+      final Index index = index(type);
+      if(index != null && !index.drop()) throw new BaseXException(INDEX_NOT_DROPPED_X, type);
+    } finally {
+      resumeJournal();
+    }
+  }
+
+  @Override
+  public synchronized void suspendJournal() throws IOException {
+    if(suspended == 0) {
+      resume = journaled;
+      checkpoint();
+    }
+    suspended++;
+  }
+
+  @Override
+  public synchronized void resumeJournal() {
+    if(--suspended == 0 && resume) journal();
   }
 
   /**
@@ -227,7 +308,10 @@ public final class DiskData extends Data {
   @Override
   public void startUpdate(final MainOptions opts) throws BaseXException {
     if(!table.lock(true)) throw new BaseXException(DB_PINNED_X, meta.name);
-    if(opts.get(MainOptions.AUTOFLUSH)) {
+    if(journal != null && journal.enabled()) {
+      // updates will be written to the journal: no need to mark the database as updating
+      journal();
+    } else if(opts.get(MainOptions.AUTOFLUSH)) {
       final IOFile upd = meta.updateFile();
       if(upd.exists()) throw new BaseXException(DB_UPDATED_X, meta.name);
       if(!upd.touch()) throw Util.notExpected("%: could not create lock file.", meta.name);
@@ -239,34 +323,107 @@ public final class DiskData extends Data {
     // OPTIMIZE ALL / db:optimize(..., true) will close the database before this function is called
     if(closed) return;
 
-    // remove updating file
-    final boolean auto = opts.get(MainOptions.AUTOFLUSH);
-    if(auto) {
-      final IOFile upd = meta.updateFile();
-      if(!upd.exists()) throw Util.notExpected("%: lock file does not exist.", meta.name);
-      if(!upd.delete()) throw Util.notExpected("%: could not delete lock file.", meta.name);
+    if(journaled) {
+      // commit updates, copy them to the database files if the journal is full
+      try {
+        commit();
+        if(journal.full()) checkpoint();
+      } catch(final IOException ex) {
+        Util.stack(ex);
+      }
+    } else {
+      // remove updating file
+      final boolean auto = opts.get(MainOptions.AUTOFLUSH);
+      if(auto) {
+        final IOFile upd = meta.updateFile();
+        if(!upd.exists()) throw Util.notExpected("%: lock file does not exist.", meta.name);
+        if(!upd.delete()) throw Util.notExpected("%: could not delete lock file.", meta.name);
+      }
+      flush(auto);
     }
-
-    flush(auto);
     if(!table.lock(false)) throw Util.notExpected("Database '%': could not unlock.", meta.name);
   }
 
   @Override
   public synchronized void flush(final boolean all) {
     try {
-      table.flush(all);
-      if(all) {
-        write();
-        texts.flush();
-        values.flush();
-        if(textIndex != null) textIndex.flush();
-        if(attrIndex != null) attrIndex.flush();
-      }
+      if(journaled && all) checkpoint();
+      else store(all);
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Writes all buffered data to disk or, if updates are journaled, to the journal.
+   * @param all flush all data
+   * @throws IOException I/O exception
+   */
+  private void store(final boolean all) throws IOException {
+    table.flush(all);
+    if(all) {
+      write();
+      texts.flush();
+      values.flush();
+      for(final DiskValues index : valueIndexes()) index.flush();
+    }
+  }
+
+  /**
+   * Writes subsequent updates to the journal.
+   */
+  private synchronized void journal() {
+    if(journaled) return;
+    ((TableDiskAccess) table).journal(journal);
+    texts.journal(journal);
+    values.journal(journal);
+    for(final DiskValues index : valueIndexes()) index.journal(journal);
+    journaled = true;
+  }
+
+  /**
+   * Writes all updates to the journal and commits them.
+   * @throws IOException I/O exception
+   */
+  private void commit() throws IOException {
+    store(true);
+    journal.commit(meta.name);
+  }
+
+  /**
+   * Commits all updates, copies journaled updates to the database files, and stops journaling.
+   * @throws IOException I/O exception
+   */
+  private synchronized void checkpoint() throws IOException {
+    if(!journaled) return;
+    commit();
+    ((TableDiskAccess) table).checkpoint();
+    texts.checkpoint();
+    values.checkpoint();
+    for(final DiskValues index : valueIndexes()) index.checkpoint();
+    journaled = false;
+    if(logged) {
+      meta.dirty = true;
+      write();
+      Journal.sync(meta.dbfile(DATAINF));
+      if(meta.updindex) Journal.sync(meta.dbfile(DATAIDP));
+      logged = false;
+    }
+    journal.checkpoint(meta.name);
+  }
+
+  /**
+   * Returns the opened value indexes.
+   * @return value indexes
+   */
+  private DiskValues[] valueIndexes() {
+    final ArrayList<DiskValues> list = new ArrayList<>(3);
+    for(final ValueIndex index : new ValueIndex[] { textIndex, attrIndex, tokenIndex }) {
+      if(index instanceof DiskValues) list.add((DiskValues) index);
+    }
+    return list.toArray(new DiskValues[0]);
+  }
+
   @Override
   public byte[] text(final int pre, final boolean text) {
     final long value = textRef(pre);
@@ -291,9 +448,11 @@ public final class DiskData extends Data {
     if(Inline.inlined(value)) return Inline.unpackLength(value);
 
     final DataAccess da = text ? texts : values;
-    final int l = da.readNum(value & Compress.COMPRESS - 1);
-    // if text is compressed, read number of compressed bytes
-    return Compress.compressed(value) ? da.readNum() : l;
+    synchronized(da) {
+      final int l = da.readNum(value & Compress.COMPRESS - 1);
+      // if text is compressed, read number of compressed bytes
+      return Compress.compressed(value) ? da.readNum() : l;
+    }
   }
 
   /**
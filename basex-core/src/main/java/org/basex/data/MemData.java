@@ -101,6 +101,12 @@ public final class MemData extends Data {
     set(type, null);
   }
 
+  @Override
+  public void suspendJournal() { }
+
+  @Override
+  public void resumeJournal() { }
+
   /**
    * Assigns the specified index.
    * @param type index to be opened
@@ -85,6 +85,12 @@ public final class MetaData {
   public int maxlen;
   /** Split size for creating indexes. */
   public int splitsize;
+  /** Number of threads for building index structures. */
+  public int indexthreads;
+  /** Size of the table page cache (in megabytes). */
+  public int tablecache;
+  /** Flag for reading database files via memory mapping. */
+  public boolean memorymap;
 
   /** Language of full-text search index. */
   public Language language;
@@ -139,6 +145,9 @@ public final class MetaData {
     tokeninclude = options.get(MainOptions.TOKENINCLUDE);
     ftinclude = options.get(MainOptions.FTINCLUDE);
     splitsize = options.get(MainOptions.SPLITSIZE);
+    indexthreads = options.get(MainOptions.INDEXTHREADS);
+    tablecache = options.get(MainOptions.TABLECACHE);
+    memorymap = options.get(MainOptions.MEMORYMAP);
   }
 
   // STATIC METHODS ===============================================================================
@@ -416,8 +425,13 @@ public final class MetaData {
     if(!storage.equals(STORAGE) && new Version(storage).compareTo(new Version(
         STORAGE)) > 0) throw new BuildException(H_DB_FORMAT, storage);
     // check version of database indexes
-    oldindex = !istorage.equals(ISTORAGE) &&
-        new Version(istorage).compareTo(new Version(ISTORAGE)) > 0;
+    final int iv = new Version(istorage).compareTo(new Version(ISTORAGE));
+    oldindex = iv > 0;
+    // full-text indexes created with older versions have a different format
+    if(ftindex && iv < 0) {
+      ftindex = false;
+      oldindex = true;
+    }
     corrupt = dbfile(DATAUPD).exists();
   }
 
@@ -3,6 +3,8 @@ package org.basex.index;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.core.jobs.*;
@@ -153,6 +155,40 @@ public abstract class IndexBuilder extends Job {
     return type == IndexType.FULLTEXT ? 1000000 : 100000;
   }
 
+  /**
+   * Runs the specified tasks concurrently and waits until all of them have been finished.
+   * If tasks fail, the first error is rethrown.
+   * @param threads maximum number of threads
+   * @param tasks tasks to be run
+   * @throws IOException I/O exception
+   */
+  public static void parallel(final int threads, final List<Callable<Void>> tasks)
+      throws IOException {
+
+    final ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+    try {
+      final List<Future<Void>> futures = new ArrayList<>(tasks.size());
+      for(final Callable<Void> task : tasks) futures.add(pool.submit(task));
+
+      Throwable error = null;
+      for(final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch(final ExecutionException ex) {
+          if(error == null) error = ex.getCause();
+        } catch(final InterruptedException ex) {
+          if(error == null) error = ex;
+        }
+      }
+      if(error instanceof IOException) throw (IOException) error;
+      if(error instanceof RuntimeException) throw (RuntimeException) error;
+      if(error instanceof Error) throw (Error) error;
+      if(error != null) throw Util.notExpected(error);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
   @Override
   public final String shortInfo() {
     return CREATING_INDEXES;
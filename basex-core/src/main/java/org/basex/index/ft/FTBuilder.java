@@ -27,6 +27,10 @@ public final class FTBuilder extends IndexBuilder {
   private final FTLexer lexer;
   /** Number of indexed tokens. */
   private long ntok;
+  /** Number of indexed texts. */
+  private int texts;
+  /** Total length of indexed texts. */
+  private long length;
 
   /**
    * Constructor.
@@ -66,6 +70,7 @@ public final class FTBuilder extends IndexBuilder {
         final StopWords sw = lexer.ftOpt().sw;
         lexer.init(data.text(pre, true));
         int pos = -1;
+        final long n = ntok;
         while(lexer.hasNext()) {
           final byte[] tok = lexer.nextToken();
           ++pos;
@@ -80,6 +85,11 @@ public final class FTBuilder extends IndexBuilder {
             count++;
           }
         }
+        // text statistics (used for scoring)
+        if(ntok != n) {
+          texts++;
+          length += data.textLen(pre, true);
+        }
       }
 
       // finalize partial or all index structures
@@ -147,6 +157,7 @@ public final class FTBuilder extends IndexBuilder {
         outY.write4(merge(outZ, il, v));
       }
       writeInd(outX, ind, ind.get(ind.size() - 2) + 1, (int) outY.size());
+      writeStats(outX);
     }
   }
 
@@ -171,6 +182,16 @@ public final class FTBuilder extends IndexBuilder {
     outX.write4(lp);
   }
 
+  /**
+   * Writes the text statistics to disk.
+   * @param outX output
+   * @throws IOException I/O exception
+   */
+  private void writeStats(final DataOutput outX) throws IOException {
+    outX.write4(texts);
+    outX.write5(length);
+  }
+
   /**
    * Writes the current index to disk.
    * @param partial partial flag
@@ -203,12 +224,17 @@ public final class FTBuilder extends IndexBuilder {
         // write full-text data size (number of pre values)
         outY.write4(t.nextNumPre());
         // write compressed pre and pos arrays
-        writeFTData(outZ, t.nextPres(), t.nextPoss());
+        if(partial) {
+          writeFTData(outZ, t.nextPres(), t.nextPoss());
+        } else {
+          FTPostings.write(outZ, values(t.nextPres()), values(t.nextPoss()));
+        }
 
         dr = outZ.size();
         tr = (int) outY.size();
       }
       writeInd(outX, ind, ++j, tr);
+      if(!partial) writeStats(outX);
     }
     tree.initFT();
 
@@ -227,30 +253,34 @@ public final class FTBuilder extends IndexBuilder {
   private static int merge(final DataOutput out, final IntList il, final FTList[] list)
       throws IOException {
 
-    final ByteList tbp = new ByteList().add(new byte[4]), tbo = new ByteList().add(new byte[4]);
+    final IntList pres = new IntList(), poss = new IntList();
     // merge full-text data of all sorted lists with the same token
-    int s = 0;
     final int is = il.size();
     for(int j = 0; j < is; ++j) {
       final int m = il.get(j);
-      for(final int p : list[m].prv) tbp.add(Num.num(p));
-      for(final int p : list[m].pov) tbo.add(Num.num(p));
-      s += list[m].size;
+      pres.add(list[m].prv);
+      poss.add(list[m].pov);
       list[m].next();
     }
     // write compressed pre and pos arrays
-    final byte[] pr = tbp.finish();
-    Num.size(pr, pr.length);
-    final byte[] po = tbo.finish();
-    Num.size(po, po.length);
-
-    // write full-text data
-    writeFTData(out, pr, po);
-    return s;
+    FTPostings.write(out, pres, poss);
+    return pres.size();
+  }
+
+  /**
+   * Returns the values of a compressed integer array.
+   * @param array compressed values
+   * @return values
+   */
+  private static IntList values(final byte[] array) {
+    final IntList list = new IntList();
+    final int s = Num.size(array);
+    for(int p = 4; p < s; p += Num.length(array, p)) list.add(Num.get(array, p));
+    return list;
   }
 
   /**
-   * Writes full-text data for a single token to disk.
+   * Writes full-text data for a single token to a temporary file.
    * Format: {@code score? pre1 pos1 pre2 pos2 ... (0 score)? pre...}
    * @param out DataOutput for disk access
    * @param vpre compressed pre values
@@ -35,6 +35,8 @@ import org.basex.util.similarity.*;
  * Structure: {@code [l, p] ...}.
  * {@code l} is the length of a token [byte].
  * {@code p} is the pointer of the first token with length {@code l} [int].
+ * It is followed by the number of indexed texts [int] and their total length [long],
+ * which are used for scoring.
  * </li>
  * <li>File <b>y</b> contains the tokens and references.
  * Structure: {@code [t0, t1, ... tl, z, s]}
@@ -42,9 +44,9 @@ import org.basex.util.similarity.*;
  * {@code z} is the pointer on the data entries of the token [long]
  * {@code s} is the number of pre values, saved in data [int]
  * </li>
- * <li>File <b>z</b> contains the {@code id/pos} references.
- *   The values are ordered, but not distinct:
- *   {@code pre1/pos1, pre2/pos2, pre3/pos3, ...} [{@link Num}]</li>
+ * <li>File <b>z</b> contains the {@code id/pos} references of all tokens.
+ *   The values are ordered, but not distinct. They are divided into compressed blocks,
+ *   which are decoded on demand (see {@link FTPostings} for details).</li>
  * </ul>
  *
  * @author BaseX Team 2005-19, BSD License
@@ -71,6 +73,10 @@ public final class FTIndex extends ValueIndex {
   private final IndexCache cache = new IndexCache();
   /** Token positions. */
   private final int[] tp;
+  /** Number of indexed texts. */
+  private final int texts;
+  /** Average length of indexed texts. */
+  private final double avg;
 
   /**
    * Constructor, initializing the index structure.
@@ -91,6 +97,12 @@ public final class FTIndex extends ValueIndex {
       tp[p] = inX.read4();
     }
     tp[tl - 1] = (int) inY.length();
+    // skip entry for last token length, read text statistics
+    inX.readNum();
+    inX.read4();
+    texts = inX.read4();
+    final long length = inX.read5();
+    avg = texts == 0 ? 1 : Math.max(1, (double) length / texts);
   }
 
   @Override
@@ -118,7 +130,8 @@ public final class FTIndex extends ValueIndex {
 
     // return cached or new result
     final IndexEntry e = entry(tok);
-    return e.size > 0 ? iter(e.offset, e.size, inZ, tok) : FTIndexIterator.FTEMPTY;
+    return e.size > 0 ? new FTPostings(this, inZ, e.offset, e.size, tok) :
+      FTIndexIterator.FTEMPTY;
   }
 
   /**
@@ -319,8 +332,31 @@ public final class FTIndex extends ValueIndex {
     return inY.read4(pt + lt + 5);
   }
 
+  /**
+   * Returns the BM25 score of a token in a text node.
+   * @param tf number of occurrences of the token in the text
+   * @param df number of texts containing the token
+   * @param pre pre value of the text
+   * @return score
+   */
+  double score(final int tf, final int df, final int pre) {
+    return Scoring.bm25(tf, df, texts, data.textLen(pre, true), avg);
+  }
+
+  /**
+   * Returns the maximum BM25 score of a token.
+   * @param df number of texts containing the token
+   * @return score
+   */
+  double maxScore(final int df) {
+    return Scoring.bm25(df, texts);
+  }
+
   /**
    * Performs a fuzzy search for the specified token with a maximum number of errors.
+   * Tokens of the same length are sorted. The distances computed for a prefix are reused for
+   * all subsequent tokens with the same prefix, and all tokens are skipped whose prefix
+   * exceeds the number of allowed errors.
    * @param token token to look for
    * @param k number of errors allowed
    * @return iterator
@@ -330,16 +366,48 @@ public final class FTIndex extends ValueIndex {
     final int tokl = token.length, tl = tp.length;
     final int e = Math.min(tl - 1, tokl + k);
     int s = Math.max(1, tokl - k) - 1;
+    // number of allowed errors, or -1 if tokens need to be compared as a whole
+    final int err = ls.prepare(token, k);
 
     while(++s <= e) {
       int p = tp[s];
       if(p == -1) continue;
       int t = s + 1, r = -1;
       while(t < tl && r == -1) r = tp[t++];
+
+      // characters of the last token for which distances have been computed
+      byte[] last = EMPTY;
+      int valid = 0;
       while(p < r) {
-        if(ls.similar(inY.readBytes(p, s), token, k)) {
-          it = FTIndexIterator.union(iter(pointer(p, s), size(p, s), inZ, token), it);
+        final byte[] tok = inY.readBytes(p, s);
+        boolean found;
+        if(err == -1) {
+          found = ls.similar(tok, token, k);
+        } else {
+          // skip characters shared with the last token
+          int b = 0, c = 0;
+          for(; c < valid; c++) {
+            final int l = b + cl(tok, b);
+            int n = b;
+            while(n < l && tok[n] == last[n]) n++;
+            if(n < l) break;
+            b = l;
+          }
+          while(b < s && c < Levenshtein.MAX && ls.next(c, cp(tok, b)) <= err) {
+            b += cl(tok, b);
+            c++;
+          }
+          last = tok;
+          valid = c;
+          if(b < s) {
+            // skip all tokens starting with the current prefix
+            p = skip(substring(tok, 0, Math.min(s, b + cl(tok, b))), p, r, s);
+            continue;
+          }
+          found = ls.similar(c, err);
         }
+        if(found) it = FTIndexIterator.union(
+            new FTPostings(this, inZ, pointer(p, s), size(p, s), token), it);
         p += s + ENTRY;
       }
     }
@@ -348,6 +416,7 @@ public final class FTIndex extends ValueIndex {
 
   /**
    * Performs a wildcard search for the specified token.
+   * All tokens are skipped whose prefix cannot be extended to a match.
    * @param token token to look for
    * @return iterator
    */
@@ -373,11 +442,13 @@ public final class FTIndex extends ValueIndex {
         final byte[] t = inY.readBytes(i, ti);
         if(!startsWith(t, pref)) break;
         if(wc.match(t)) {
-          inZ.cursor(pointer(i, ti));
-          final int s = size(i, ti);
-          for(int d = 0; d < s; d++) {
-            pr.add(inZ.readNum());
-            ps.add(inZ.readNum());
+          new FTPostings(this, inZ, pointer(i, ti), size(i, ti), token).add(pr, ps);
+        } else {
+          final int v = wc.viable(t);
+          if(v < ti) {
+            // skip all tokens starting with the current prefix
+            i = skip(substring(t, 0, v + cl(t, v)), i, e, ti);
+            continue;
           }
         }
         i += ti + ENTRY;
@@ -387,22 +458,22 @@ public final class FTIndex extends ValueIndex {
   }
 
   /**
-   * Returns an iterator for an index entry.
-   * @param off offset on entries
-   * @param size number of id/pos entries
-   * @param da data source
-   * @param token index token
-   * @return iterator
+   * Skips all tokens with the specified prefix.
+   * @param prefix prefix
+   * @param start position of the first token, which must start with the prefix
+   * @param end end position
+   * @param ti entry length
+   * @return position of the first token that does not start with the prefix
    */
-  private static FTIndexIterator iter(final long off, final int size, final DataAccess da,
-      final byte[] token) {
-    da.cursor(off);
-    final IntList pr = new IntList(size), ps = new IntList(size);
-    for(int c = 0; c < size; c++) {
-      pr.add(da.readNum());
-      ps.add(da.readNum());
+  private int skip(final byte[] prefix, final int start, final int end, final int ti) {
+    final int tl = ti + ENTRY;
+    int l = 1, h = (end - start) / tl - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      if(startsWith(inY.readBytes(start + m * tl, ti), prefix)) l = m + 1;
+      else h = m - 1;
     }
-    return iter(new FTCache(pr, ps), token);
+    return start + l * tl;
   }
 
   /**
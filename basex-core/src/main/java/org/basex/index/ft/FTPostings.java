@@ -0,0 +1,270 @@
+package org.basex.index.ft;
+
+import java.io.*;
+
+import org.basex.index.query.*;
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+import org.basex.query.util.ft.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class reads and writes the compressed pre/pos entries of a single full-text token.
+ * The entries are sorted by pre and pos values and divided into blocks with a fixed number
+ * of entries. The data has the following format:</p>
+ *
+ * <ul>
+ * <li>The number of distinct pre values [int].</li>
+ * <li>If there is more than one block, a skip table is written first. It contains an entry
+ * for each block except for the first. Structure: {@code [p, o] ...}.
+ * {@code p} is the last pre value of the preceding block [int].
+ * {@code o} is the offset of the block, relative to the first block [int].</li>
+ * <li>Blocks with {@code pre/pos} entries. Pre values are stored as distances to the
+ * preceding pre value: {@code pre1-p/pos1, pre2-pre1/pos2, ...} [{@link Num}]</li>
+ * </ul>
+ *
+ * <p>Entries are decoded block by block while iterating. The skip table is consulted to
+ * jump to the block that may contain a specified pre value.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class FTPostings extends FTIndexIterator {
+  /** Number of entries per block. */
+  static final int BLOCK = 128;
+  /** Size of a skip table entry. */
+  private static final int SKIP = 8;
+
+  /** Index reference (used for synchronizing file access). */
+  private final FTIndex index;
+  /** Data source. */
+  private final DataAccess da;
+  /** Offset of the entries. */
+  private final long offset;
+  /** Index token. */
+  private final byte[] token;
+  /** Number of entries. */
+  private final int size;
+  /** Number of blocks. */
+  private final int blocks;
+  /** Offset of the first block. */
+  private final long start;
+  /** Decoded pre values of the current block. */
+  private final int[] pres;
+  /** Decoded pos values of the current block. */
+  private final int[] poss;
+
+  /** Matches of the current pre value. */
+  private final FTMatches all = new FTMatches();
+  /** Current block. */
+  private int block = -1;
+  /** Position in the current block. */
+  private int b;
+  /** Number of entries in the current block. */
+  private int bs;
+  /** Query position. */
+  private int pos;
+  /** Current pre value. */
+  private int pre;
+  /** Number of entries of the current pre value. */
+  private int tf;
+  /** Number of distinct pre values (lazily assigned). */
+  private int df = -1;
+
+  /**
+   * Constructor.
+   * @param index index reference
+   * @param da data source
+   * @param offset offset of the entries
+   * @param size number of entries
+   * @param token index token
+   */
+  FTPostings(final FTIndex index, final DataAccess da, final long offset, final int size,
+      final byte[] token) {
+    this.index = index;
+    this.da = da;
+    this.offset = offset;
+    this.size = size;
+    this.token = token;
+    blocks = (size + BLOCK - 1) / BLOCK;
+    start = offset + 4 + (long) Math.max(0, blocks - 1) * SKIP;
+    final int s = Math.min(size, BLOCK);
+    pres = new int[s];
+    poss = new int[s];
+  }
+
+  /**
+   * Writes the entries of a token.
+   * @param out output stream
+   * @param pres pre values
+   * @param poss pos values
+   * @throws IOException I/O exception
+   */
+  static void write(final DataOutput out, final IntList pres, final IntList poss)
+      throws IOException {
+
+    // write number of distinct pre values
+    final int size = pres.size();
+    int df = 0;
+    for(int i = 0; i < size; i++) {
+      if(i == 0 || pres.get(i) != pres.get(i - 1)) df++;
+    }
+    out.write4(df);
+
+    // write skip table
+    int prev = 0, off = 0;
+    for(int i = 0; i < size; i++) {
+      if(i > 0 && i % BLOCK == 0) {
+        out.write4(prev);
+        out.write4(off);
+      }
+      final int p = pres.get(i);
+      off += Num.length(p - prev) + Num.length(poss.get(i));
+      prev = p;
+    }
+    // write blocks
+    prev = 0;
+    for(int i = 0; i < size; i++) {
+      final int p = pres.get(i);
+      out.writeNum(p - prev);
+      out.writeNum(poss.get(i));
+      prev = p;
+    }
+  }
+
+  /**
+   * Adds all entries to the specified lists.
+   * @param pr pre values
+   * @param ps pos values
+   */
+  void add(final IntList pr, final IntList ps) {
+    while(load(block + 1)) {
+      for(int i = 0; i < bs; i++) {
+        pr.add(pres[i]);
+        ps.add(poss[i]);
+      }
+    }
+  }
+
+  @Override
+  public boolean more() {
+    if(b == bs && !load(block + 1)) return false;
+    all.reset(pos);
+    pre = pres[b];
+    all.or(poss[b++]);
+    tf = 1;
+    while((b < bs || load(block + 1)) && pres[b] == pre) {
+      all.or(poss[b++]);
+      tf++;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean skip(final int target) {
+    // find the last block that is preceded by smaller pre values only
+    int l = Math.max(1, block + 1), h = blocks - 1, k = -1;
+    if(l <= h) {
+      synchronized(index) {
+        while(l <= h) {
+          final int m = l + h >>> 1;
+          if(da.read4(entry(m)) < target) {
+            k = m;
+            l = m + 1;
+          } else {
+            h = m - 1;
+          }
+        }
+      }
+    }
+    if(k != -1) load(k);
+    return super.skip(target);
+  }
+
+  @Override
+  public double score() {
+    return index.score(tf, df(), pre);
+  }
+
+  @Override
+  public double maxScore() {
+    return index.maxScore(df());
+  }
+
+  @Override
+  public FTMatches matches() {
+    return all;
+  }
+
+  @Override
+  public int pre() {
+    return pre;
+  }
+
+  @Override
+  public void pos(final int p) {
+    pos = p;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return Strings.concat(token, '(', size, "x)");
+  }
+
+  /**
+   * Decodes the entries of the specified block.
+   * @param k block
+   * @return {@code true} if the block exists
+   */
+  private boolean load(final int k) {
+    if(k >= blocks) return false;
+    synchronized(index) {
+      int p = 0;
+      long off = start;
+      if(k > 0) {
+        final long s = entry(k);
+        p = da.read4(s);
+        off += da.read4(s + 4);
+      }
+      da.cursor(off);
+      final int n = Math.min(BLOCK, size - k * BLOCK);
+      for(int i = 0; i < n; i++) {
+        p += da.readNum();
+        pres[i] = p;
+        poss[i] = da.readNum();
+      }
+      bs = n;
+    }
+    block = k;
+    b = 0;
+    return true;
+  }
+
+  /**
+   * Returns the number of distinct pre values.
+   * @return number of pre values
+   */
+  private int df() {
+    if(df == -1) {
+      synchronized(index) {
+        df = da.read4(offset);
+      }
+    }
+    return df;
+  }
+
+  /**
+   * Returns the position of the skip table entry for the specified block.
+   * @param k block (must be larger than 0)
+   * @return position
+   */
+  private long entry(final int k) {
+    return start - (long) (blocks - k) * SKIP;
+  }
+}
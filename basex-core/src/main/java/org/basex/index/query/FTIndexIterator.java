@@ -29,6 +29,35 @@ public abstract class FTIndexIterator implements IndexIterator {
    */
   public abstract FTMatches matches();
 
+  /**
+   * Returns the score of the current entry.
+   * @return score
+   */
+  public double score() {
+    return 0;
+  }
+
+  /**
+   * Returns the maximum score of all entries.
+   * @return score
+   */
+  public double maxScore() {
+    return 0;
+  }
+
+  /**
+   * Skips all entries with a pre value smaller than the specified value.
+   * At least one entry will be consumed.
+   * @param pre pre value
+   * @return {@code true} if more entries are found
+   */
+  public boolean skip(final int pre) {
+    while(more()) {
+      if(pre() >= pre) return true;
+    }
+    return false;
+  }
+
   /**
    * Sets the position of the token in the query.
    * @param p query position
@@ -68,6 +97,16 @@ public abstract class FTIndexIterator implements IndexIterator {
         return next.pre();
       }
 
+      @Override
+      public double score() {
+        return diff == 0 ? ii1.score() + ii2.score() : next.score();
+      }
+
+      @Override
+      public double maxScore() {
+        return i1.maxScore() + i2.maxScore();
+      }
+
       @Override
       public void pos(final int p) {
         i1.pos(p);
@@ -104,8 +143,9 @@ public abstract class FTIndexIterator implements IndexIterator {
       public boolean more() {
         int d = 0;
         while(true) {
-          if(d <= 0) ii1 = i1.more() ? i1 : null;
-          if(d >= 0) ii2 = i2.more() ? i2 : null;
+          // skip entries that are smaller than the pre value of the other iterator
+          if(d <= 0) ii1 = (d == 0 ? i1.more() : i1.skip(ii2.pre())) ? i1 : null;
+          if(d >= 0) ii2 = (d == 0 ? i2.more() : i2.skip(ii1.pre())) ? i2 : null;
           if(ii1 == null || ii2 == null) return false;
           d = ii1.pre() - ii2.pre();
           if(d != 0) continue;
@@ -132,6 +172,16 @@ public abstract class FTIndexIterator implements IndexIterator {
         return ii1.pre();
       }
 
+      @Override
+      public double score() {
+        return ii1.score() + ii2.score();
+      }
+
+      @Override
+      public double maxScore() {
+        return i1.maxScore() + i2.maxScore();
+      }
+
       @Override
       public void pos(final int p) {
         i1.pos(p);
@@ -0,0 +1,227 @@
+package org.basex.index.query;
+
+import java.util.*;
+
+import org.basex.query.util.ft.*;
+import org.basex.util.*;
+
+/**
+ * <p>This class returns the entries with the highest scores from several index iterators,
+ * which are combined disjunctively. The MaxScore algorithm is applied: iterators are sorted
+ * by their maximum scores. As soon as the summed maximum scores of the first iterators are
+ * too small for a result to enter the top entries, these iterators will only be used to
+ * complete the scores of entries found in the remaining iterators. They are advanced by
+ * skipping, and many of their entries will never be decoded.</p>
+ *
+ * <p>Entries are ordered by descending scores and ascending pre values.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTTopK {
+  /** Maximum number of entries. */
+  private final int max;
+  /** Pre values (min-heap while entries are collected). */
+  private int[] pres = {};
+  /** Scores. */
+  private double[] scores = {};
+  /** Full-text matches. */
+  private FTMatches[] matches = {};
+  /** Number of entries. */
+  private int size;
+
+  /**
+   * Constructor.
+   * @param iters index iterators
+   * @param limit maximum number of entries
+   */
+  public FTTopK(final List<FTIndexIterator> iters, final int limit) {
+    final int is = iters.size();
+    max = Math.max(0, limit);
+    if(is == 0 || max == 0) return;
+
+    // sort iterators by their maximum scores, compute accumulated scores
+    final FTIndexIterator[] its = iters.toArray(new FTIndexIterator[is]);
+    final double[] bounds = new double[is];
+    for(int i = 0; i < is; i++) bounds[i] = its[i].maxScore();
+    final int[] order = Array.createOrder(bounds.clone(), true);
+    final double[] acc = new double[is];
+    final boolean[] more = new boolean[is];
+    final FTIndexIterator[] sorted = new FTIndexIterator[is];
+    for(int i = 0; i < is; i++) {
+      sorted[i] = its[order[i]];
+      acc[i] = (i == 0 ? 0 : acc[i - 1]) + sorted[i].maxScore();
+      more[i] = sorted[i].more();
+    }
+
+    // index of the first essential iterator
+    int e = 0;
+    while(true) {
+      // find smallest pre value of essential iterators
+      int pre = Integer.MAX_VALUE;
+      for(int i = e; i < is; i++) {
+        if(more[i]) pre = Math.min(pre, sorted[i].pre());
+      }
+      if(pre == Integer.MAX_VALUE) break;
+
+      // compute score and matches, advance essential iterators
+      final FTMatches ftm = new FTMatches();
+      double score = 0;
+      for(int i = e; i < is; i++) {
+        final FTIndexIterator it = sorted[i];
+        if(more[i] && it.pre() == pre) {
+          score += it.score();
+          add(ftm, it.matches());
+          more[i] = it.more();
+        }
+      }
+      // complete score with non-essential iterators, stop if entry will not be accepted
+      final double min = size == max ? scores[0] : -1;
+      for(int i = e - 1; i >= 0 && score + acc[i] > min; i--) {
+        final FTIndexIterator it = sorted[i];
+        if(more[i] && it.pre() < pre) more[i] = it.skip(pre);
+        if(more[i] && it.pre() == pre) {
+          score += it.score();
+          add(ftm, it.matches());
+        }
+      }
+      if(score > min) {
+        add(pre, score, ftm);
+        // update essential iterators
+        if(size == max) {
+          final double threshold = scores[0];
+          while(e < is && acc[e] <= threshold) e++;
+        }
+      }
+    }
+
+    // sort entries: move smallest entry to the end of the heap
+    for(int n = size - 1; n > 0; n--) {
+      swap(0, n);
+      down(n);
+    }
+  }
+
+  /**
+   * Returns the number of entries.
+   * @return number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the pre value of the specified entry.
+   * @param i index of entry
+   * @return pre value
+   */
+  public int pre(final int i) {
+    return pres[i];
+  }
+
+  /**
+   * Returns the score of the specified entry.
+   * @param i index of entry
+   * @return score
+   */
+  public double score(final int i) {
+    return scores[i];
+  }
+
+  /**
+   * Returns the full-text matches of the specified entry.
+   * @param i index of entry
+   * @return matches
+   */
+  public FTMatches matches(final int i) {
+    return matches[i];
+  }
+
+  /**
+   * Inserts an entry. If the maximum number of entries is exceeded, the smallest entry
+   * is replaced.
+   * @param pre pre value
+   * @param score score
+   * @param ftm full-text matches
+   */
+  private void add(final int pre, final double score, final FTMatches ftm) {
+    if(size < max) {
+      if(size == pres.length) {
+        final int s = (int) Math.min(max, Math.max(8L, (long) size << 1));
+        pres = Arrays.copyOf(pres, s);
+        scores = Arrays.copyOf(scores, s);
+        matches = Arrays.copyOf(matches, s);
+      }
+      int i = size++;
+      set(i, pre, score, ftm);
+      for(int p; i > 0 && smaller(i, p = i - 1 >>> 1); i = p) swap(i, p);
+    } else {
+      set(0, pre, score, ftm);
+      down(size);
+    }
+  }
+
+  /**
+   * Moves the first entry down the heap.
+   * @param n number of heap entries
+   */
+  private void down(final int n) {
+    for(int i = 0;;) {
+      final int l = (i << 1) + 1, r = l + 1;
+      int m = i;
+      if(l < n && smaller(l, m)) m = l;
+      if(r < n && smaller(r, m)) m = r;
+      if(m == i) return;
+      swap(i, m);
+      i = m;
+    }
+  }
+
+  /**
+   * Checks if an entry is ranked lower than another one.
+   * Entries with the same score are ranked by their pre values.
+   * @param i first entry
+   * @param j second entry
+   * @return result of check
+   */
+  private boolean smaller(final int i, final int j) {
+    return scores[i] < scores[j] || scores[i] == scores[j] && pres[i] > pres[j];
+  }
+
+  /**
+   * Assigns an entry.
+   * @param i index
+   * @param pre pre value
+   * @param score score
+   * @param ftm full-text matches
+   */
+  private void set(final int i, final int pre, final double score, final FTMatches ftm) {
+    pres[i] = pre;
+    scores[i] = score;
+    matches[i] = ftm;
+  }
+
+  /**
+   * Swaps two entries.
+   * @param i first entry
+   * @param j second entry
+   */
+  private void swap(final int i, final int j) {
+    final int p = pres[i];
+    final double s = scores[i];
+    final FTMatches m = matches[i];
+    set(i, pres[j], scores[j], matches[j]);
+    set(j, p, s, m);
+  }
+
+  /**
+   * Adds matches to the specified container. The match instances of iterators are reused,
+   * so the references need to be copied.
+   * @param ftm container
+   * @param all matches to be added
+   */
+  private static void add(final FTMatches ftm, final FTMatches all) {
+    if(ftm.isEmpty()) ftm.pos = all.pos;
+    for(final FTMatch m : all) ftm.add(m);
+  }
+}
@@ -12,6 +12,9 @@ import org.basex.data.*;
 import org.basex.index.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
 import org.basex.io.random.*;
 import org.basex.query.util.*;
 import org.basex.util.*;
@@ -26,6 +29,9 @@ import org.basex.util.list.*;
  * @author Christian Gruen
  */
 public class DiskValues extends ValueIndex {
+  /** Size of an entry in the file with numeric keys. */
+  private static final int NUMENTRY = 16;
+
   /** ID references. */
   final DataAccess idxr;
   /** ID lists. */
@@ -37,6 +43,13 @@ public class DiskValues extends ValueIndex {
   /** Number of current index entries. */
   final AtomicInteger size = new AtomicInteger();
 
+  /** Numeric keys ({@code null} if not available). */
+  private DataAccess idxn;
+  /** Histogram ({@code null} if not available yet). */
+  private Histogram histogram;
+  /** Total number of ids ({@code -1} if not available yet). */
+  private long total = -1;
+
   /** Synchronization object. */
   private final Object monitor = new Object();
 
@@ -63,6 +76,15 @@ public class DiskValues extends ValueIndex {
     idxl = new DataAccess(data.meta.dbfile(pref + 'l'));
     idxr = new DataAccess(data.meta.dbfile(pref + 'r'));
     size.set(idxl.read4());
+    final IOFile file = data.meta.dbfile(pref + 'n');
+    if(type != IndexType.TOKEN && file.exists()) idxn = new DataAccess(file);
+    final IOFile hist = data.meta.dbfile(pref + 'h');
+    if(hist.exists()) {
+      try(DataInput in = new DataInput(hist)) {
+        histogram = new Histogram(in);
+      }
+      total = histogram.ids();
+    }
   }
 
   @Override
@@ -93,12 +115,68 @@ public class DiskValues extends ValueIndex {
 
   @Override
   public final IndexCosts costs(final IndexToken it) {
+    if(it instanceof NumericRange) {
+      synchronized(monitor) {
+        if(idxn != null) {
+          // exact number of results
+          final NumericRange nr = (NumericRange) it;
+          final int first = number(nr.min, false), last = number(nr.max, true);
+          return IndexCosts.get(first < last ? ids(last - 1) - ids(first - 1) : 0);
+        }
+      }
+    }
+    if(it instanceof StringRange) {
+      // estimate number of results with histogram
+      final StringRange sr = (StringRange) it;
+      synchronized(monitor) {
+        final int min = get(sr.min), max = get(sr.max);
+        final int first = min < 0 ? -min - 1 : sr.mni ? min : min + 1;
+        final int end = max < 0 ? -max - 1 : sr.mxi ? max + 1 : max;
+        if(histogram != null) return IndexCosts.get(histogram.ids(first, end));
+        // histogram was dropped by updates: assume average number of ids per key
+        final long ids = first < end ? (long) (end - first) * average() : 0;
+        return IndexCosts.get((int) Math.min(Integer.MAX_VALUE, ids));
+      }
+    }
     return IndexCosts.get(
-      it instanceof StringRange ? Math.max(1, data.meta.size / 10) :
       it instanceof NumericRange ? Math.max(1, data.meta.size / 3) :
       entry(it.get()).size);
   }
 
+  @Override
+  public final int average() {
+    synchronized(monitor) {
+      final int entries = size();
+      if(entries == 0) return 0;
+      // total number of ids is unknown if an updated index has been reopened
+      return total == -1 ? super.average() : (int) Math.max(1, total / entries);
+    }
+  }
+
+  @Override
+  public final void refresh() throws IOException {
+    synchronized(monitor) {
+      if(histogram != null) return;
+      final int entries = size();
+      final IntList counts = new IntList(entries);
+      for(int index = 0; index < entries; index++) {
+        counts.add(idxl.readNum(idxr.read5(index * 5L)));
+      }
+      histogram = new Histogram(counts);
+      try(DataOutput out = new DataOutput(data.meta.dbfile(fileSuffix(type) + 'h'))) {
+        histogram.write(out);
+      }
+      total = histogram.ids();
+    }
+  }
+
+  @Override
+  public final boolean numeric() {
+    synchronized(monitor) {
+      return idxn != null;
+    }
+  }
+
   @Override
   public final IndexIterator iter(final IndexToken token) {
     final IntList pres;
@@ -133,6 +211,7 @@ public class DiskValues extends ValueIndex {
     synchronized(monitor) {
       idxl.close();
       idxr.close();
+      if(idxn != null) idxn.close();
     }
   }
 
@@ -160,6 +239,24 @@ public class DiskValues extends ValueIndex {
     idxr.flush();
   }
 
+  /**
+   * Writes subsequent updates to the specified journal.
+   * @param journal journal
+   */
+  public final void journal(final Journal journal) {
+    idxl.journal(journal);
+    idxr.journal(journal);
+  }
+
+  /**
+   * Copies journaled updates to the index files and stops journaling.
+   * @throws IOException I/O exception
+   */
+  public final void checkpoint() throws IOException {
+    idxl.checkpoint();
+    idxr.checkpoint();
+  }
+
   /**
    * Returns the {@code pre} value for the specified id.
    * @param id id value
@@ -202,6 +299,45 @@ public class DiskValues extends ValueIndex {
     return -(l + 1);
   }
 
+  /**
+   * Drops the numeric keys and the histogram. Called before the index is updated.
+   * The histogram will be recreated when the database is optimized (see {@link #refresh()}).
+   */
+  protected final void dropStatistics() {
+    synchronized(monitor) {
+      if(idxn != null) {
+        idxn.close();
+        idxn = null;
+        data.meta.drop(fileSuffix(type) + 'n');
+      }
+      if(histogram != null) {
+        histogram = null;
+        data.meta.drop(fileSuffix(type) + 'h');
+      }
+    }
+  }
+
+  /**
+   * Updates the total number of ids. Called when the index is updated.
+   * @param diff number of added or (if negative) deleted ids
+   */
+  protected final void total(final long diff) {
+    synchronized(monitor) {
+      if(total != -1) total += diff;
+    }
+  }
+
+  /**
+   * Returns a sortable bit representation of the specified number.
+   * @param number number
+   * @return bit representation
+   */
+  static long sortable(final double number) {
+    // treat negative and positive zero as equal
+    final long bits = Double.doubleToLongBits(number == 0 ? 0 : number);
+    return bits ^ bits >> 63 & Long.MAX_VALUE;
+  }
+
   // PRIVATE METHODS ==============================================================================
 
   /**
@@ -429,6 +565,23 @@ public class DiskValues extends ValueIndex {
    * @return results
    */
   private IntList idRange(final NumericRange tok) {
+    synchronized(monitor) {
+      if(idxn != null) {
+        // numeric keys: only visit keys in the range
+        final int first = number(tok.min, false), last = number(tok.max, true);
+        final IntList pres = new IntList(first < last ? ids(last - 1) - ids(first - 1) : 0);
+        for(int n = first; n < last; n++) {
+          final int index = idxn.read4(4 + n * (long) NUMENTRY + 8);
+          final int count = idxl.readNum(idxr.read5(index * 5L));
+          for(int c = 0, id = 0; c < count; c++) {
+            id += idxl.readNum();
+            pres.add(pre(id));
+          }
+        }
+        return pres.sort();
+      }
+    }
+
     // check if min and max are positive integers with the same number of digits
     final double min = tok.min, max = tok.max;
     final int len = max > 0 && (long) max == max ? token(max).length : 0;
@@ -461,6 +614,37 @@ public class DiskValues extends ValueIndex {
     return pres.sort();
   }
 
+  /**
+   * Returns the position of the first numeric key that is larger than or equal to
+   * (or larger than) the specified value.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param value value
+   * @param larger find first key that is larger than the value
+   * @return position
+   */
+  private int number(final double value, final boolean larger) {
+    final long key = sortable(value);
+    int l = 0, h = idxn.read4(0) - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final long pos = 4 + m * (long) NUMENTRY;
+      final long k = (long) idxn.read4(pos) << 32 | idxn.read4() & 0xFFFFFFFFL;
+      if(k < key || larger && k == key) l = m + 1;
+      else h = m - 1;
+    }
+    return l;
+  }
+
+  /**
+   * Returns the accumulated number of ids of all numeric keys up to the specified position.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param n position of numeric key (may be {@code -1})
+   * @return number of ids
+   */
+  private int ids(final int n) {
+    return n < 0 ? 0 : idxn.read4(4 + n * (long) NUMENTRY + 12);
+  }
+
   /**
    * Returns the specified key, considering tokenization.
    * @param id id of key
@@ -3,6 +3,8 @@ package org.basex.index.value;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
@@ -26,14 +28,45 @@ import org.basex.util.list.*;
  *   structure. Instead, they can be found by following the id references to
  *   the main table.
  * </li>
+ * <li> {@code DATATXT/ATV + 'n'}: contains all keys that can be converted to numbers, sorted by
+ *   their numeric values. The number of keys is stored in the first 4 bytes of the file.
+ *   Each key is represented by the sortable bit representation of its value (8 bytes),
+ *   the position of its key in the reference file (4 bytes), and the accumulated number of ids
+ *   of all keys up to and including the current one (4 bytes).
+ * </li>
+ * <li> {@code DATATXT/ATV + 'h'}: contains an equi-depth histogram of the keys, which is used
+ *   for estimating the number of results of range queries (see {@link Histogram}).
+ * </li>
  * </ul>
  *
+ * <p>If multiple index threads are specified, the table is split into partitions, which are
+ * indexed concurrently and written to temporary files. The files are merged afterwards.</p>
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 public final class DiskValuesBuilder extends ValuesBuilder {
+  /** Minimum number of nodes per partition. */
+  private static final int PARTITION = 1 << 16;
+
+  /** Main builder (only assigned if this builder indexes a partition). */
+  private final DiskValuesBuilder main;
+  /** First pre value to be indexed. */
+  private final int start;
+  /** Pre value after the last entry to be indexed. */
+  private final int end;
+  /** Number of temporary files written by all partitions (only used by the main builder). */
+  private int files;
   /** Temporary value tree. */
   private IndexTree index;
+  /** Number of written index entries. */
+  private int entries;
+  /** Numeric keys (sortable bit representations). */
+  private final LongList numbers = new LongList();
+  /** Positions of the index entries of numeric keys, and number of ids. */
+  private final IntList numEntries = new IntList(), numCounts = new IntList();
+  /** Number of ids of all written keys. */
+  private final IntList counts = new IntList();
 
   /**
    * Constructor.
@@ -41,7 +74,23 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    * @param type index type
    */
   public DiskValuesBuilder(final Data data, final IndexType type) {
+    this(data, type, null, 0, data.meta.size);
+  }
+
+  /**
+   * Constructor.
+   * @param data data reference
+   * @param type index type
+   * @param main main builder (if this builder indexes a partition)
+   * @param start first pre value to be indexed
+   * @param end pre value after the last entry to be indexed
+   */
+  private DiskValuesBuilder(final Data data, final IndexType type, final DiskValuesBuilder main,
+      final int start, final int end) {
     super(data, type);
+    this.main = main;
+    this.start = start;
+    this.end = end;
     index = new IndexTree(type);
   }
 
@@ -50,33 +99,43 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     Util.debug(detailedInfo());
 
     try {
-      final boolean updindex = data.meta.updindex;
-      for(pre = 0; pre < size; ++pre) {
-        if((pre & 0x0FFF) == 0) check();
-        if(indexEntry()) {
-          final int id = updindex ? data.id(pre) : pre;
-          if(tokenize) {
-            int pos = 0;
-            for(final byte[] token : distinctTokens(data.text(pre, text))) {
-              index.add(token, id, pos++);
-              count++;
-            }
-          } else if(data.textLen(pre, text) <= data.meta.maxlen) {
-            index.add(data.text(pre, text), id, 0);
-            count++;
-          }
+      final int partitions = Math.min(data.meta.indexthreads, size / PARTITION);
+      final boolean merge;
+      if(partitions > 1) {
+        // index partitions concurrently; temporary files will be merged
+        final DiskValuesBuilder[] builders = new DiskValuesBuilder[partitions];
+        final List<Callable<Void>> tasks = new ArrayList<>(partitions);
+        for(int p = 0; p < partitions; p++) {
+          final DiskValuesBuilder dvb = new DiskValuesBuilder(data, type, this,
+              (int) ((long) size * p / partitions), (int) ((long) size * (p + 1) / partitions));
+          builders[p] = dvb;
+          tasks.add(() -> {
+            dvb.index();
+            if(dvb.index.size() > 0) dvb.writeIndex(true);
+            return null;
+          });
         }
+        parallel(partitions, tasks);
+        for(final DiskValuesBuilder dvb : builders) count += dvb.count;
+        pre = size;
+        splits = files;
+        merge = splits > 0;
+        if(!merge) writeIndex(false);
+      } else {
+        index();
+        writeIndex(splits > 0);
+        merge = splits > 1;
       }
-
-      writeIndex(splits > 0);
-      if(splits > 1) {
+      if(merge) {
         index = null;
         clean();
         merge();
       }
 
+      writeNumbers();
+      writeHistogram();
       finishIndex();
-      return updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
+      return data.meta.updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
 
     } catch(final Throwable th) {
       // drop index files
@@ -85,9 +144,49 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     }
   }
 
+  /**
+   * Indexes all entries of the assigned pre range.
+   * @throws IOException I/O exception
+   */
+  private void index() throws IOException {
+    final boolean updindex = data.meta.updindex;
+    for(pre = start; pre < end; ++pre) {
+      if((pre & 0x0FFF) == 0) check();
+      if(indexEntry()) {
+        final int id = updindex ? data.id(pre) : pre;
+        if(tokenize) {
+          int pos = 0;
+          for(final byte[] token : distinctTokens(data.text(pre, text))) {
+            index.add(token, id, pos++);
+            count++;
+          }
+        } else if(data.textLen(pre, text) <= data.meta.maxlen) {
+          index.add(data.text(pre, text), id, 0);
+          count++;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of the next temporary file.
+   * @return file number
+   */
+  private synchronized int nextFile() {
+    return files++;
+  }
+
   @Override
   protected void check() throws IOException {
-    super.check();
+    if(main != null) {
+      // partition: check if the main builder was stopped, update progress
+      main.checkStop();
+      synchronized(main) {
+        main.pre += 0x1000;
+      }
+    } else {
+      super.check();
+    }
     // check if main memory is exhausted
     if(splitRequired()) {
       writeIndex(true);
@@ -102,7 +201,6 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    */
   private void merge() throws IOException {
     final String f = DiskValues.fileSuffix(type);
-    int entries = 0;
     try(DataOutput outL = new DataOutput(data.meta.dbfile(f + 'l'));
         DataOutput outR = new DataOutput(data.meta.dbfile(f + 'r'))) {
       outL.write4(0);
@@ -136,6 +234,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
         }
 
         // parse through all values, cache and sort id values
+        final byte[] key = vm[min].key;
         final int ms = ml.size();
         for(int m = 0; m < ms; ++m) {
           final DiskValuesMerger t = vm[ml.get(m)];
@@ -151,8 +250,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
           t.next();
         }
         // write final structure to disk
-        write(outL, outR, id, pos);
-        ++entries;
+        write(outL, outR, key, id, pos);
       }
     }
 
@@ -169,7 +267,8 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    */
   private void writeIndex(final boolean partial) throws IOException {
     // write id arrays and references
-    final String name = DiskValues.fileSuffix(type) + (partial ? splits : "");
+    final String name = DiskValues.fileSuffix(type) +
+        (partial ? main != null ? main.nextFile() : splits : "");
     try(DataOutput outL = new DataOutput(data.meta.dbfile(name + 'l'));
         DataOutput outR = new DataOutput(data.meta.dbfile(name + 'r'))) {
       outL.write4(index.size());
@@ -177,7 +276,8 @@ public final class DiskValuesBuilder extends ValuesBuilder {
       final IntList id = new IntList(), pos = tokenize ? new IntList() : null;
       index.init();
       while(index.more()) {
-        final byte[] values = index.ids.get(index.next());
+        final int i = index.next();
+        final byte[] values = index.ids.get(i);
         final int vs = Num.size(values);
 
         if(partial) {
@@ -194,7 +294,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
             }
           }
           // write final structure to disk
-          write(outL, outR, id, pos);
+          write(outL, outR, index.keys.get(i), id, pos);
         }
       }
     }
@@ -214,12 +314,13 @@ public final class DiskValuesBuilder extends ValuesBuilder {
    * Writes the final value structure to disk.
    * @param outL index values
    * @param outR references
+   * @param key key
    * @param id ids
    * @param pos positions (can be {@code null})
    * @throws IOException I/O exception
    */
-  private void write(final DataOutput outL, final DataOutput outR, final IntList id,
-      final IntList pos) throws IOException {
+  private void write(final DataOutput outL, final DataOutput outR, final byte[] key,
+      final IntList id, final IntList pos) throws IOException {
 
     // sort values before writing
     int[] order = null;
@@ -242,5 +343,48 @@ public final class DiskValuesBuilder extends ValuesBuilder {
     }
     id.reset();
     if(pos != null) pos.reset();
+
+    // remember number of ids and numeric keys
+    counts.add(is);
+    if(!tokenize) {
+      final double number = toDouble(key);
+      if(!Double.isNaN(number)) {
+        numbers.add(DiskValues.sortable(number));
+        numEntries.add(entries);
+        numCounts.add(is);
+      }
+    }
+    entries++;
+  }
+
+  /**
+   * Writes the numeric keys to disk.
+   * @throws IOException I/O exception
+   */
+  private void writeNumbers() throws IOException {
+    if(tokenize) return;
+
+    final int ns = numbers.size();
+    final long[] values = numbers.finish();
+    final int[] order = Array.createOrder(values, true);
+    try(DataOutput outN = new DataOutput(data.meta.dbfile(DiskValues.fileSuffix(type) + 'n'))) {
+      outN.write4(ns);
+      for(int n = 0, ids = 0; n < ns; n++) {
+        ids += numCounts.get(order[n]);
+        outN.write8(values[n]);
+        outN.write4(numEntries.get(order[n]));
+        outN.write4(ids);
+      }
+    }
+  }
+
+  /**
+   * Writes the histogram to disk.
+   * @throws IOException I/O exception
+   */
+  private void writeHistogram() throws IOException {
+    try(DataOutput outH = new DataOutput(data.meta.dbfile(DiskValues.fileSuffix(type) + 'h'))) {
+      new Histogram(counts).write(outH);
+    }
   }
 }
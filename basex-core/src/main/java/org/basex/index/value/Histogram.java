@@ -0,0 +1,113 @@
+package org.basex.index.value;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.list.*;
+
+/**
+ * <p>Equi-depth histogram of a value index. The sorted index keys are divided into buckets
+ * with approximately the same number of ids. For each bucket, the position of its last key
+ * and the accumulated number of ids of all keys up to and including this key is stored.</p>
+ *
+ * <p>The number of ids of a range of keys is estimated by interpolating the accumulated
+ * number of ids within the affected buckets. The estimate is exact at bucket boundaries.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class Histogram {
+  /** Maximum number of buckets. */
+  private static final int BUCKETS = 128;
+
+  /** Number of keys. */
+  private final int keys;
+  /** Positions of the last keys of all buckets. */
+  private final int[] last;
+  /** Accumulated number of ids up to and including the last keys of all buckets. */
+  private final int[] ids;
+
+  /**
+   * Constructor.
+   * @param counts number of ids of all keys, sorted by keys
+   */
+  Histogram(final IntList counts) {
+    keys = counts.size();
+    long total = 0;
+    for(int k = 0; k < keys; k++) total += counts.get(k);
+
+    final int bs = Math.min(BUCKETS, keys);
+    final IntList ls = new IntList(bs), is = new IntList(bs);
+    long acc = 0;
+    for(int k = 0, b = 1; k < keys; k++) {
+      acc += counts.get(k);
+      // close bucket if its share of ids has been reached
+      if(k == keys - 1 || acc * bs >= total * b) {
+        ls.add(k);
+        is.add((int) Math.min(Integer.MAX_VALUE, acc));
+        while(b <= bs && acc * bs >= total * b) b++;
+      }
+    }
+    last = ls.finish();
+    ids = is.finish();
+  }
+
+  /**
+   * Constructor, reading the histogram from disk.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  Histogram(final DataInput in) throws IOException {
+    keys = in.readNum();
+    last = in.readNums();
+    ids = in.readNums();
+  }
+
+  /**
+   * Writes the histogram to disk.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out) throws IOException {
+    out.writeNum(keys);
+    out.writeNums(last);
+    out.writeNums(ids);
+  }
+
+  /**
+   * Returns the total number of ids.
+   * @return number of ids
+   */
+  int ids() {
+    final int bs = ids.length;
+    return bs == 0 ? 0 : ids[bs - 1];
+  }
+
+  /**
+   * Estimates the number of ids of all keys in the specified range.
+   * @param first position of the first key (inclusive)
+   * @param end position of the last key (exclusive)
+   * @return estimated number of ids (at least 1 if the range is not empty)
+   */
+  int ids(final int first, final int end) {
+    return first < end ? (int) Math.max(1, acc(end) - acc(first)) : 0;
+  }
+
+  /**
+   * Estimates the number of ids of all keys before the specified position.
+   * @param k key position
+   * @return estimated number of ids
+   */
+  private long acc(final int k) {
+    if(k <= 0) return 0;
+    if(k >= keys) return ids();
+
+    // find first bucket containing the preceding key, interpolate ids within this bucket
+    int b = Arrays.binarySearch(last, k - 1);
+    if(b < 0) b = -b - 1;
+    final long pk = b == 0 ? 0 : last[b - 1] + 1, pi = b == 0 ? 0 : ids[b - 1];
+    return pi + (ids[b] - pi) * (k - pk) / (last[b] + 1 - pk);
+  }
+}
@@ -30,6 +30,10 @@ public final class MemValues extends ValueIndex {
   private IntList lenList;
   /** Order flags. */
   private BoolList reorder;
+  /** Number of indexed keys. */
+  private int keys;
+  /** Total number of ids. */
+  private long total;
 
   /**
    * Constructor.
@@ -118,19 +122,20 @@ public final class MemValues extends ValueIndex {
 
   @Override
   public int size() {
-    // returns the actual number of indexed entries
-    final int ll = lenList.size();
-    int s = 0;
-    for(int c = 1; c < ll; c++) {
-      if(lenList.get(c) > 0) s++;
-    }
-    return s;
+    return keys;
+  }
+
+  @Override
+  public int average() {
+    return keys == 0 ? 0 : (int) Math.max(1, total / keys);
   }
 
   @Override
   public boolean drop() {
     idsList = null;
     lenList = null;
+    keys = 0;
+    total = 0;
     return true;
   }
 
@@ -169,6 +174,8 @@ public final class MemValues extends ValueIndex {
     if(lenList.size() < id + 1) lenList.set(id, 0);
 
     final int len = lenList.get(id), size = len + vl;
+    if(len == 0) keys++;
+    total += vl;
     int[] ids = idsList.get(id);
     if(ids == null) {
       ids = vals;
@@ -208,7 +215,11 @@ public final class MemValues extends ValueIndex {
       else v++;
     }
     lenList.set(id, s);
-    if(s == 0) idsList.set(id, null);
+    total -= vl;
+    if(s == 0) {
+      idsList.set(id, null);
+      keys--;
+    }
   }
 
   /**
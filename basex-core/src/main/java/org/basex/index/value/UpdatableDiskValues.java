@@ -35,13 +35,16 @@ public final class UpdatableDiskValues extends DiskValues {
 
   @Override
   public synchronized void add(final ValueCache values) {
+    dropStatistics();
     // create a sorted list of the new keys and update the old keys
     final TokenList newKeys = new TokenList();
 
     // update id lists of keys (in ascending order; speeds up binary search)
     int index = 0;
     final int sz = size();
+    long added = 0;
     for(final byte[] key : values) {
+      added += values.ids(key).size();
       index = get(key, index, sz);
       if(index >= 0) {
         final IntList ids = values.ids(key), pos = values.pos(key);
@@ -85,22 +88,27 @@ public final class UpdatableDiskValues extends DiskValues {
       writeIds(key, values.ids(key), values.pos(key), newIndex--);
     }
     size(sz + ns);
+    total(added);
   }
 
   @Override
   public synchronized void delete(final ValueCache values) {
+    dropStatistics();
     // create a list of the indexes of the keys which should be completely deleted
     final IntList keys = new IntList();
     int p = 0;
     final int sz = size();
+    long deleted = 0;
     // update id lists of keys (in ascending order; speeds up binary search)
     for(final byte[] key : values) {
+      deleted += values.ids(key).size();
       p = get(key, p, sz);
       if(p < 0) throw Util.notExpected("Key does not exist: '%'", key);
       if(deleteIds(p, key, values)) keys.add(p);
       p++;
     }
     deleteKeys(keys);
+    total(-deleted);
   }
 
   @Override
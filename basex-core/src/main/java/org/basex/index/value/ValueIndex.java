@@ -1,5 +1,7 @@
 package org.basex.index.value;
 
+import java.io.*;
+
 import org.basex.data.*;
 import org.basex.index.*;
 
@@ -47,4 +49,28 @@ public abstract class ValueIndex implements Index {
    * Flushes the buffered data.
    */
   public abstract void flush();
+
+  /**
+   * Returns the average number of ids per index entry. Used for estimating the costs of
+   * index requests with search terms that are unknown at compile time.
+   * @return average number of ids
+   */
+  public int average() {
+    return Math.max(1, data.meta.size / 10);
+  }
+
+  /**
+   * Recreates statistics that have been dropped by updates. Called when the database is optimized.
+   * @throws IOException I/O exception
+   */
+  public void refresh() throws IOException { }
+
+  /**
+   * Indicates if numeric keys are indexed by their values.
+   * If this is the case, numeric ranges can be looked up without traversing all keys.
+   * @return result of check
+   */
+  public boolean numeric() {
+    return false;
+  }
 }
@@ -157,6 +157,14 @@ public class BufferInput extends InputStream {
     return bl.finish();
   }
 
+  /**
+   * Returns the number of bytes that can be read without accessing the underlying input stream.
+   * @return number of buffered bytes
+   */
+  public final int buffered() {
+    return bsize - bpos;
+  }
+
   @Override
   public final void close() throws IOException {
     if(in != null && !(in instanceof FilterInputStream)) in.close();
@@ -15,4 +15,8 @@ final class Buffer {
   long pos = -1;
   /** Dirty flag. */
   boolean dirty;
+  /** Reference flag, evaluated by the clock algorithm. */
+  boolean used;
+  /** Number of pins (pinned buffers will not be evicted). */
+  int pins;
 }
@@ -7,6 +7,8 @@ import org.basex.util.*;
 
 /**
  * This class allows positional read and write access to a database file.
+ * If the file is memory-mapped, it will be read from the mapped segments until
+ * the first write operation takes place.
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
@@ -16,12 +18,20 @@ public final class DataAccess implements Closeable {
   private final Buffers bm = new Buffers();
   /** Reference to the data input stream. */
   private final RandomAccessFile raf;
+  /** File. */
+  private final IOFile file;
   /** File length. */
   private long length;
   /** Changed flag. */
   private boolean changed;
   /** Offset. */
   private int off;
+  /** Memory-mapped file contents (can be {@code null}). */
+  private MappedFile mapped;
+  /** Cursor in the memory-mapped file. */
+  private long mpos;
+  /** Journaled file (if not {@code null}, updates will be written to the journal). */
+  private JournalFile journal;
 
   /**
    * Constructor, initializing the file reader.
@@ -29,12 +39,24 @@ public final class DataAccess implements Closeable {
    * @throws IOException I/O Exception
    */
   public DataAccess(final IOFile file) throws IOException {
+    this(file, false);
+  }
+
+  /**
+   * Constructor, initializing the file reader.
+   * @param file the file to be read
+   * @param map memory-map file
+   * @throws IOException I/O Exception
+   */
+  public DataAccess(final IOFile file, final boolean map) throws IOException {
+    this.file = file;
     RandomAccessFile f = null;
     try {
       f = new RandomAccessFile(file.file(), "rw");
       length = f.length();
       raf = f;
       cursor(0);
+      if(map) mapped = MappedFile.map(f.getChannel(), length);
     } catch(final IOException ex) {
       if(f != null) f.close();
       throw ex;
@@ -50,7 +72,8 @@ public final class DataAccess implements Closeable {
         if(b.dirty) writeBlock(b);
       }
       if(changed) {
-        raf.setLength(length);
+        if(journal != null) journal.length(length);
+        else raf.setLength(length);
         changed = false;
       }
     } catch(final IOException ex) {
@@ -58,9 +81,34 @@ public final class DataAccess implements Closeable {
     }
   }
 
+  /**
+   * Writes subsequent updates to the specified journal.
+   * @param jrnl journal
+   */
+  public synchronized void journal(final Journal jrnl) {
+    if(journal == null) journal = new JournalFile(jrnl, file);
+  }
+
+  /**
+   * Copies journaled updates to the file and stops journaling.
+   * All updates must have been committed before this function is called.
+   * @throws IOException I/O exception
+   */
+  public synchronized void checkpoint() throws IOException {
+    if(journal == null) return;
+    flush();
+    journal.checkpoint(raf.getChannel());
+    journal = null;
+  }
+
   @Override
   public synchronized void close() {
     flush();
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      mapped = null;
+      mf.unmap();
+    }
     try {
       raf.close();
     } catch(final IOException ex) {
@@ -73,7 +121,7 @@ public final class DataAccess implements Closeable {
    * @return position in the file
    */
   public long cursor() {
-    return buffer(false).pos + off;
+    return mapped != null ? mpos : buffer(false).pos + off;
   }
 
   /**
@@ -192,6 +240,12 @@ public final class DataAccess implements Closeable {
    * @return byte array
    */
   public synchronized byte[] readBytes(final int len) {
+    if(mapped != null) {
+      final byte[] b = new byte[len];
+      mapped.read(mpos, b, len);
+      mpos += len;
+      return b;
+    }
     int l = len, ll = IO.BLOCKSIZE - off;
     final byte[] b = new byte[l];
     Array.copyToStart(buffer(false).data, off, Math.min(l, ll), b);
@@ -213,6 +267,10 @@ public final class DataAccess implements Closeable {
    * @param pos read position
    */
   public void cursor(final long pos) {
+    if(mapped != null) {
+      mpos = pos;
+      return;
+    }
     off = (int) (pos & IO.BLOCKSIZE - 1);
     final long b = pos - off;
     if(!bm.cursor(b)) return;
@@ -221,9 +279,10 @@ public final class DataAccess implements Closeable {
     try {
       if(bf.dirty) writeBlock(bf);
       bf.pos = b;
+      if(journal != null && journal.read(b, bf.data)) return;
+      final long len = Math.min(length, raf.length());
       raf.seek(bf.pos);
-      if(bf.pos < raf.length())
-        raf.readFully(bf.data, 0, (int) Math.min(length - bf.pos, IO.BLOCKSIZE));
+      if(bf.pos < len) raf.readFully(bf.data, 0, (int) Math.min(len - bf.pos, IO.BLOCKSIZE));
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -306,6 +365,7 @@ public final class DataAccess implements Closeable {
    * @param len token length
    */
   public void writeBytes(final byte[] buffer, final int offset, final int len) {
+    unmap();
     final int last = offset + len;
     int o = offset;
 
@@ -340,6 +400,7 @@ public final class DataAccess implements Closeable {
    * @return new offset to store text
    */
   public long free(final long pos, final int size) {
+    unmap();
     // old text size (available space)
     int os = readNum(pos) + (int) (cursor() - pos);
 
@@ -388,6 +449,7 @@ public final class DataAccess implements Closeable {
    * @return next byte
    */
   private int read() {
+    if(mapped != null) return mapped.read1(mpos++) & 0xFF;
     final Buffer bf = buffer();
     return bf.data[off++] & 0xFF;
   }
@@ -397,6 +459,7 @@ public final class DataAccess implements Closeable {
    * @param value byte to be written
    */
   private void write(final int value) {
+    unmap();
     final Buffer bf = buffer();
     bf.dirty = true;
     bf.data[off++] = (byte) value;
@@ -404,6 +467,19 @@ public final class DataAccess implements Closeable {
     if(nl > length) length(nl);
   }
 
+  /**
+   * Switches from the memory-mapped file to buffered access.
+   * Called before the file is modified, as the mapped contents would get outdated.
+   */
+  private synchronized void unmap() {
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      mapped = null;
+      mf.unmap();
+      cursor(mpos);
+    }
+  }
+
   /**
    * Write a token to the file.
    * @param buffer buffer containing the token
@@ -422,8 +498,12 @@ public final class DataAccess implements Closeable {
    */
   private void writeBlock(final Buffer buffer) throws IOException {
     final long pos = buffer.pos, len = Math.min(IO.BLOCKSIZE, length - pos);
-    raf.seek(pos);
-    raf.write(buffer.data, 0, (int) len);
+    if(journal != null) {
+      journal.write(pos, buffer.data, (int) len);
+    } else {
+      raf.seek(pos);
+      raf.write(buffer.data, 0, (int) len);
+    }
     buffer.dirty = false;
   }
 
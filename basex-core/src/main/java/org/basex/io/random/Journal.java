@@ -0,0 +1,547 @@
+package org.basex.io.random;
+
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * Write-ahead log (journal) for the updates of disk-based databases.
+ *
+ * If journaling is enabled, modified pages of database files will not be written to the files
+ * themselves. Instead, they are appended to a single journal, which is shared by all databases.
+ * When updates are committed, a commit record is appended and the journal is synced.
+ * Concurrent commits are grouped: a single thread syncs all records that have been appended so
+ * far, and the other threads wait until their records have become durable.
+ *
+ * Pages that have been written to the journal will be read from the journal until they have
+ * been copied back to the database files (see {@link JournalFile}). Such checkpoints take place
+ * when a database is closed or flushed, or when the journal exceeds its maximum size. If no
+ * database has pending changes anymore, the journal is truncated.
+ *
+ * When the journal is opened, all committed changes that have not been checkpointed yet will be
+ * replayed. Records have the following format:
+ *
+ * <pre>
+ * [payload length: 4] [CRC32 checksum: 4] [type: 1] [database] [file name] [data]
+ * </pre>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Journal implements Closeable {
+  /** Name of the journal file. */
+  public static final String FILE = "journal" + IO.BASEXSUFFIX;
+
+  /** Record type: page (position, contents). */
+  private static final byte PAGE = 1;
+  /** Record type: contents of a file. */
+  private static final byte CONTENTS = 2;
+  /** Record type: length of a file. */
+  private static final byte LENGTH = 3;
+  /** Record type: commit. */
+  private static final byte COMMIT = 4;
+  /** Record type: checkpoint. */
+  private static final byte CHECKPOINT = 5;
+  /** Size of the record header (payload length, checksum). */
+  private static final int HEADER = 8;
+
+  /** Database path. */
+  private final IOFile dbpath;
+  /** Size of the journal at which checkpoints will be performed. */
+  private final long max;
+  /** Databases with changes that have not been checkpointed yet. */
+  private final HashSet<String> pending = new HashSet<>();
+  /** Monitor for syncing the journal. */
+  private final Object sync = new Object();
+
+  /** Journal channel ({@code null} if journaling is disabled). */
+  private FileChannel channel;
+  /** Lock of the journal file. */
+  private FileLock lock;
+  /** Size of the journal. */
+  private long size;
+  /** Logical offset of the journal (incremented whenever the journal is truncated). */
+  private long base;
+
+  /** Logical offset up to which the journal has been synced. */
+  private long synced;
+  /** Indicates if the journal is currently being synced. */
+  private boolean syncing;
+
+  /** Number of commits. */
+  private long commits;
+  /** Number of syncs. */
+  private long syncs;
+  /** Number of checkpoints. */
+  private long checkpoints;
+
+  /**
+   * Constructor. Opens the journal if journaling is enabled or if an existing journal needs to
+   * be replayed. Journaling will be disabled if the journal is locked by another instance.
+   * @param sopts static options
+   */
+  public Journal(final StaticOptions sopts) {
+    dbpath = sopts.dbPath();
+    max = (long) Math.max(1, sopts.get(StaticOptions.JOURNALSIZE)) << 20;
+
+    final IOFile file = new IOFile(dbpath, FILE);
+    final boolean enabled = sopts.get(StaticOptions.JOURNAL);
+    if(!enabled && !file.exists() || enabled && !dbpath.md()) return;
+
+    try {
+      final FileChannel fc = FileChannel.open(file.file().toPath(), CREATE, READ, WRITE);
+      FileLock fl;
+      try {
+        fl = fc.tryLock();
+      } catch(final OverlappingFileLockException ex) {
+        Util.debug(ex);
+        fl = null;
+      }
+      if(fl == null) {
+        fc.close();
+        return;
+      }
+      channel = fc;
+      lock = fl;
+      recover();
+      if(!enabled) close();
+    } catch(final IOException ex) {
+      // journal will be kept, and replayed when it is opened next time
+      Util.stack(ex);
+      release();
+    }
+  }
+
+  /**
+   * Indicates if journaling is enabled.
+   * @return result of check
+   */
+  public synchronized boolean enabled() {
+    return channel != null;
+  }
+
+  /**
+   * Indicates if the journal has exceeded its maximum size.
+   * @return result of check
+   */
+  public synchronized boolean full() {
+    return size > max;
+  }
+
+  /**
+   * Appends a page of a database file.
+   * @param file database file
+   * @param pos file position
+   * @param data page contents
+   * @param len number of bytes to write
+   * @return position of the page contents in the journal
+   * @throws IOException I/O exception
+   */
+  long page(final IOFile file, final long pos, final byte[] data, final int len)
+      throws IOException {
+    final ByteBuffer bb = record(PAGE, file, 8 + len);
+    bb.putLong(pos).put(data, 0, len);
+    return append(bb, db(file)) + bb.capacity() - len;
+  }
+
+  /**
+   * Appends the contents of a database file.
+   * @param file database file
+   * @param data file contents
+   * @throws IOException I/O exception
+   */
+  public void contents(final IOFile file, final byte[] data) throws IOException {
+    final ByteBuffer bb = record(CONTENTS, file, data.length);
+    bb.put(data);
+    append(bb, db(file));
+  }
+
+  /**
+   * Appends the length of a database file.
+   * @param file database file
+   * @param length file length
+   * @throws IOException I/O exception
+   */
+  void length(final IOFile file, final long length) throws IOException {
+    final ByteBuffer bb = record(LENGTH, file, 8);
+    bb.putLong(length);
+    append(bb, db(file));
+  }
+
+  /**
+   * Reads bytes from the journal.
+   * @param pos position in the journal
+   * @param data target array
+   * @param len number of bytes to read
+   * @throws IOException I/O exception
+   */
+  void read(final long pos, final byte[] data, final int len) throws IOException {
+    read(ByteBuffer.wrap(data, 0, len), pos);
+  }
+
+  /**
+   * Commits the changes of a database. Returns when all changes have been synced.
+   * @param db name of database
+   * @throws IOException I/O exception
+   */
+  public void commit(final String db) throws IOException {
+    final long lsn;
+    synchronized(this) {
+      append(record(COMMIT, db, ""), db);
+      lsn = base + size;
+      commits++;
+    }
+    sync(lsn);
+  }
+
+  /**
+   * Marks the changes of a database as checkpointed. Must be called after all changes have been
+   * copied to the database files, and after these files have been synced.
+   * If no other database has pending changes, the journal will be truncated.
+   * The checkpoint is durable when this function returns: afterwards, the database files may be
+   * modified without journaling, and the checkpointed changes will not be replayed anymore.
+   * @param db name of database
+   * @throws IOException I/O exception
+   */
+  public synchronized void checkpoint(final String db) throws IOException {
+    if(!pending.contains(db)) return;
+    append(record(CHECKPOINT, db, ""), db);
+    force();
+    pending.remove(db);
+    checkpoints++;
+    if(pending.isEmpty()) truncate();
+  }
+
+  /**
+   * Returns information on the journal.
+   * @return info string
+   */
+  public synchronized String info() {
+    if(channel == null) return "disabled";
+    final TokenBuilder tb = new TokenBuilder().add("size: ").add(Performance.format(size));
+    tb.add(", commits: ").addLong(commits);
+    synchronized(sync) {
+      tb.add(", syncs: ").addLong(syncs);
+    }
+    return tb.add(", checkpoints: ").addLong(checkpoints).toString();
+  }
+
+  /**
+   * Closes the journal. The journal file will be deleted if no database has pending changes.
+   */
+  @Override
+  public synchronized void close() {
+    if(channel == null) return;
+    try {
+      if(pending.isEmpty()) {
+        release();
+        new IOFile(dbpath, FILE).delete();
+      } else {
+        channel.force(false);
+      }
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Syncs the specified file.
+   * @param file file
+   * @throws IOException I/O exception
+   */
+  public static void sync(final IOFile file) throws IOException {
+    try(FileChannel fc = FileChannel.open(file.file().toPath(), WRITE)) {
+      fc.force(true);
+    }
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Waits until the journal has been synced up to the specified offset.
+   * If no other thread is syncing the journal, the current thread will sync all records that
+   * have been appended so far.
+   * @param lsn logical offset
+   * @throws IOException I/O exception
+   */
+  private void sync(final long lsn) throws IOException {
+    synchronized(sync) {
+      while(synced < lsn) {
+        if(!syncing) break;
+        try {
+          sync.wait();
+        } catch(final InterruptedException ex) {
+          throw new IOException(ex);
+        }
+      }
+      if(synced >= lsn) return;
+      syncing = true;
+    }
+
+    long end = -1;
+    try {
+      final FileChannel fc;
+      synchronized(this) {
+        fc = channel;
+        end = base + size;
+      }
+      if(fc != null) fc.force(false);
+    } finally {
+      synchronized(sync) {
+        syncing = false;
+        if(end != -1) {
+          synced = Math.max(synced, end);
+          syncs++;
+        }
+        sync.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Appends a record.
+   * @param bb record (including space for the header)
+   * @param db name of database
+   * @return position of the record
+   * @throws IOException I/O exception
+   */
+  private synchronized long append(final ByteBuffer bb, final String db) throws IOException {
+    if(channel == null) throw new IOException("Journal is closed.");
+
+    final byte[] array = bb.array();
+    final int len = array.length - HEADER;
+    final CRC32 crc = new CRC32();
+    crc.update(array, HEADER, len);
+    bb.putInt(0, len).putInt(4, (int) crc.getValue());
+    bb.rewind();
+
+    final long pos = size;
+    while(bb.hasRemaining()) channel.write(bb, pos + bb.position());
+    size += array.length;
+    pending.add(db);
+    return pos;
+  }
+
+  /**
+   * Truncates the journal.
+   * @throws IOException I/O exception
+   */
+  private void truncate() throws IOException {
+    channel.truncate(0);
+    base += size;
+    size = 0;
+    force();
+  }
+
+  /**
+   * Syncs all records that have been appended so far.
+   * @throws IOException I/O exception
+   */
+  private void force() throws IOException {
+    channel.force(false);
+    synchronized(sync) {
+      synced = Math.max(synced, base + size);
+    }
+  }
+
+  /**
+   * Releases the journal.
+   */
+  private void release() {
+    try {
+      if(lock != null) lock.release();
+      if(channel != null) channel.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+    lock = null;
+    channel = null;
+  }
+
+  /**
+   * Replays all committed changes that have not been checkpointed yet.
+   * @throws IOException I/O exception
+   */
+  private void recover() throws IOException {
+    final long end = channel.size();
+    if(end == 0) return;
+
+    // find last checkpoints and commits of all databases
+    final HashMap<String, long[]> dbs = new HashMap<>();
+    for(Record rec = record(0, end); rec != null; rec = record(rec.next, end)) {
+      final long[] marks = dbs.computeIfAbsent(rec.db, k -> new long[] { -1, -1 });
+      if(rec.type == CHECKPOINT) marks[0] = rec.pos;
+      else if(rec.type == COMMIT) marks[1] = rec.pos;
+    }
+
+    // apply committed changes
+    final HashMap<String, RandomAccessFile> files = new HashMap<>();
+    try {
+      for(Record rec = record(0, end); rec != null; rec = record(rec.next, end)) {
+        final long[] marks = dbs.get(rec.db);
+        if(rec.type > LENGTH || rec.pos < marks[0] || rec.pos > marks[1]) continue;
+
+        final String path = rec.db + '/' + rec.name;
+        RandomAccessFile raf = files.get(path);
+        if(raf == null) {
+          // skip databases that have been deleted
+          final IOFile dir = new IOFile(dbpath, rec.db);
+          if(!dir.isDir()) continue;
+          raf = new RandomAccessFile(new IOFile(dir, rec.name).file(), "rw");
+          files.put(path, raf);
+        }
+        if(rec.type == PAGE) {
+          raf.seek(rec.value);
+          raf.write(rec.data);
+        } else if(rec.type == CONTENTS) {
+          raf.setLength(0);
+          raf.write(rec.data);
+        } else {
+          raf.setLength(rec.value);
+        }
+      }
+      for(final RandomAccessFile raf : files.values()) raf.getChannel().force(true);
+    } finally {
+      for(final RandomAccessFile raf : files.values()) raf.close();
+    }
+    channel.truncate(0);
+    channel.force(false);
+  }
+
+  /**
+   * Reads a record.
+   * @param pos position of the record
+   * @param end end of the journal
+   * @return record, or {@code null} if no complete record exists at the specified position
+   * @throws IOException I/O exception
+   */
+  private Record record(final long pos, final long end) throws IOException {
+    if(pos + HEADER > end) return null;
+    final ByteBuffer header = ByteBuffer.allocate(HEADER);
+    read(header, pos);
+    final int len = header.getInt(0);
+    if(len <= 0 || pos + HEADER + len > end) return null;
+
+    final byte[] payload = new byte[len];
+    read(ByteBuffer.wrap(payload), pos + HEADER);
+    final CRC32 crc = new CRC32();
+    crc.update(payload);
+    if((int) crc.getValue() != header.getInt(4)) return null;
+
+    final ByteBuffer bb = ByteBuffer.wrap(payload);
+    final Record rec = new Record();
+    rec.pos = pos;
+    rec.next = pos + HEADER + len;
+    rec.type = bb.get();
+    rec.db = string(bb);
+    rec.name = string(bb);
+    if(rec.type == PAGE || rec.type == LENGTH) rec.value = bb.getLong();
+    rec.data = Arrays.copyOfRange(payload, bb.position(), len);
+    return rec;
+  }
+
+  /**
+   * Fills a buffer with bytes from the journal.
+   * @param bb byte buffer
+   * @param pos position in the journal
+   * @throws IOException I/O exception
+   */
+  private void read(final ByteBuffer bb, final long pos) throws IOException {
+    final FileChannel fc;
+    synchronized(this) {
+      fc = channel;
+    }
+    if(fc == null) throw new IOException("Journal is closed.");
+    final int start = bb.position();
+    while(bb.hasRemaining()) {
+      if(fc.read(bb, pos + bb.position() - start) == -1) throw new EOFException();
+    }
+  }
+
+  /**
+   * Creates a record for a database file.
+   * @param type record type
+   * @param file database file
+   * @param data size of the data
+   * @return record, positioned after the file name
+   */
+  private static ByteBuffer record(final byte type, final IOFile file, final int data) {
+    return record(type, db(file), file.name(), data);
+  }
+
+  /**
+   * Creates a record for a database.
+   * @param type record type
+   * @param db name of database
+   * @param name name of the file
+   * @return record
+   */
+  private static ByteBuffer record(final byte type, final String db, final String name) {
+    return record(type, db, name, 0);
+  }
+
+  /**
+   * Creates a record.
+   * @param type record type
+   * @param db name of database
+   * @param name name of the file
+   * @param data size of the data
+   * @return record, positioned after the file name
+   */
+  private static ByteBuffer record(final byte type, final String db, final String name,
+      final int data) {
+    final byte[] d = Token.token(db), n = Token.token(name);
+    final ByteBuffer bb = ByteBuffer.allocate(HEADER + 5 + d.length + n.length + data);
+    bb.position(HEADER);
+    bb.put(type).putShort((short) d.length).put(d).putShort((short) n.length).put(n);
+    return bb;
+  }
+
+  /**
+   * Reads a string from the specified buffer.
+   * @param bb byte buffer
+   * @return string
+   */
+  private static String string(final ByteBuffer bb) {
+    final byte[] token = new byte[bb.getShort() & 0xFFFF];
+    bb.get(token);
+    return Token.string(token);
+  }
+
+  /**
+   * Returns the name of the database of a database file.
+   * @param file database file
+   * @return name of database
+   */
+  private static String db(final IOFile file) {
+    return file.parent().name();
+  }
+
+  /** Journal record. */
+  private static final class Record {
+    /** Position of the record. */
+    long pos;
+    /** Position of the next record. */
+    long next;
+    /** Record type. */
+    byte type;
+    /** Name of database. */
+    String db;
+    /** Name of the file. */
+    String name;
+    /** Page position or file length. */
+    long value;
+    /** Page or file contents. */
+    byte[] data;
+  }
+}
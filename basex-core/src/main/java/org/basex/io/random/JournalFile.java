@@ -0,0 +1,106 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+import org.basex.io.*;
+
+/**
+ * Journaled database file. Remembers the pages that have been written to the {@link Journal},
+ * and copies them back to the database file when the file is checkpointed.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class JournalFile {
+  /** Number of bits used for storing the length of a page. */
+  private static final int BITS = Integer.numberOfTrailingZeros(IO.BLOCKSIZE);
+
+  /** Journal. */
+  private final Journal journal;
+  /** Database file. */
+  private final IOFile file;
+  /** Pages in the journal (page position, journal position and page length). */
+  private final HashMap<Long, Long> pages = new HashMap<>();
+  /** File length ({@code -1}: unchanged). */
+  private long length = -1;
+
+  /**
+   * Constructor.
+   * @param journal journal
+   * @param file database file
+   */
+  JournalFile(final Journal journal, final IOFile file) {
+    this.journal = journal;
+    this.file = file;
+  }
+
+  /**
+   * Writes a page to the journal.
+   * @param pos file position of the page
+   * @param data page contents
+   * @param len number of bytes to write
+   * @throws IOException I/O exception
+   */
+  synchronized void write(final long pos, final byte[] data, final int len) throws IOException {
+    if(len <= 0) return;
+    final long jpos = journal.page(file, pos, data, len);
+    pages.put(pos, jpos << BITS | len - 1);
+  }
+
+  /**
+   * Reads a page from the journal.
+   * @param pos file position of the page
+   * @param data target array
+   * @return {@code true} if the page was found in the journal
+   * @throws IOException I/O exception
+   */
+  synchronized boolean read(final long pos, final byte[] data) throws IOException {
+    final Long page = pages.get(pos);
+    if(page == null) return false;
+    journal.read(page >>> BITS, data, (int) (page & IO.BLOCKSIZE - 1) + 1);
+    return true;
+  }
+
+  /**
+   * Writes the file length to the journal.
+   * @param len file length
+   * @throws IOException I/O exception
+   */
+  synchronized void length(final long len) throws IOException {
+    journal.length(file, len);
+    length = len;
+  }
+
+  /**
+   * Writes the contents of another file of the same database to the journal.
+   * @param target database file
+   * @param data file contents
+   * @throws IOException I/O exception
+   */
+  void contents(final IOFile target, final byte[] data) throws IOException {
+    journal.contents(target, data);
+  }
+
+  /**
+   * Copies all journaled pages to the database file and syncs the file.
+   * @param channel channel of the database file
+   * @throws IOException I/O exception
+   */
+  synchronized void checkpoint(final FileChannel channel) throws IOException {
+    final byte[] data = new byte[IO.BLOCKSIZE];
+    for(final Map.Entry<Long, Long> entry : pages.entrySet()) {
+      final long pos = entry.getKey(), page = entry.getValue();
+      final int len = (int) (page & IO.BLOCKSIZE - 1) + 1;
+      journal.read(page >>> BITS, data, len);
+      final ByteBuffer bb = ByteBuffer.wrap(data, 0, len);
+      while(bb.hasRemaining()) channel.write(bb, pos + bb.position());
+    }
+    if(length != -1 && channel.size() > length) channel.truncate(length);
+    channel.force(true);
+    pages.clear();
+    length = -1;
+  }
+}
@@ -0,0 +1,179 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.*;
+
+import org.basex.util.*;
+
+/**
+ * This class provides read-only access to a memory-mapped file.
+ * Files are mapped in segments of 1 GB, so files larger than 2 GB can be mapped as well.
+ * Since segment boundaries are multiples of the block size, table entries will never
+ * span two segments.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class MappedFile {
+  /** Number of bits addressing an offset in a segment. */
+  private static final int BITS = 30;
+  /** Segment mask. */
+  private static final long MASK = (1L << BITS) - 1;
+  /** Function for releasing a mapped buffer ({@code null} if not supported). */
+  private static final Consumer<ByteBuffer> CLEANER = cleaner();
+
+  /** Mapped segments. */
+  private final MappedByteBuffer[] segments;
+
+  /**
+   * Constructor.
+   * @param segments mapped segments
+   */
+  private MappedFile(final MappedByteBuffer[] segments) {
+    this.segments = segments;
+  }
+
+  /**
+   * Maps the specified file.
+   * @param channel file channel
+   * @param length number of bytes to map
+   * @return mapped file, or {@code null} if the file is empty or cannot be mapped
+   */
+  static MappedFile map(final FileChannel channel, final long length) {
+    if(length <= 0) return null;
+    final int sl = (int) (length - 1 >>> BITS) + 1;
+    final MappedByteBuffer[] segments = new MappedByteBuffer[sl];
+    try {
+      for(int s = 0; s < sl; s++) {
+        final long pos = (long) s << BITS;
+        segments[s] = channel.map(MapMode.READ_ONLY, pos, Math.min(MASK + 1, length - pos));
+      }
+      return new MappedFile(segments);
+    } catch(final IOException | RuntimeException ex) {
+      // address space exhausted, or mapping is not supported: use buffered access
+      Util.debug(ex);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a byte.
+   * @param pos file position
+   * @return byte
+   */
+  byte read1(final long pos) {
+    return segments[(int) (pos >>> BITS)].get((int) (pos & MASK));
+  }
+
+  /**
+   * Returns a short value. The value must not span two segments.
+   * @param pos file position
+   * @return unsigned short value
+   */
+  int read2(final long pos) {
+    return segments[(int) (pos >>> BITS)].getShort((int) (pos & MASK)) & 0xFFFF;
+  }
+
+  /**
+   * Returns an integer value. The value must not span two segments.
+   * @param pos file position
+   * @return integer value
+   */
+  int read4(final long pos) {
+    return segments[(int) (pos >>> BITS)].getInt((int) (pos & MASK));
+  }
+
+  /**
+   * Returns a 5-byte value. The value must not span two segments.
+   * @param pos file position
+   * @return long value
+   */
+  long read5(final long pos) {
+    final MappedByteBuffer bb = segments[(int) (pos >>> BITS)];
+    final int o = (int) (pos & MASK);
+    return ((long) (bb.get(o) & 0xFF) << 32) + (bb.getInt(o + 1) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Copies bytes to the specified array.
+   * @param pos file position
+   * @param bytes target array
+   * @param len number of bytes to copy
+   */
+  void read(final long pos, final byte[] bytes, final int len) {
+    long p = pos;
+    int o = 0;
+    while(o < len) {
+      final ByteBuffer bb = segments[(int) (p >>> BITS)].duplicate();
+      final int s = (int) (p & MASK), l = Math.min(len - o, bb.limit() - s);
+      bb.position(s);
+      bb.get(bytes, o, l);
+      o += l;
+      p += l;
+    }
+  }
+
+  /**
+   * Releases the mapped segments. Otherwise, they will only be released by the garbage
+   * collector, and the file cannot be deleted, renamed or truncated on some operating systems.
+   * The mapped contents must not be accessed anymore after this call.
+   */
+  void unmap() {
+    if(CLEANER == null) return;
+    final int sl = segments.length;
+    for(int s = 0; s < sl; s++) {
+      final MappedByteBuffer segment = segments[s];
+      if(segment != null) {
+        segments[s] = null;
+        CLEANER.accept(segment);
+      }
+    }
+  }
+
+  /**
+   * Returns a function for releasing mapped buffers.
+   * @return function, or {@code null} if no function is available
+   */
+  private static Consumer<ByteBuffer> cleaner() {
+    try {
+      // Java 9 and later
+      final Class<?> clazz = Class.forName("sun.misc.Unsafe");
+      final Field field = clazz.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      final Object unsafe = field.get(null);
+      final Method clean = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+      return bb -> invoke(clean, unsafe, bb);
+    } catch(final Exception ex) {
+      Util.debug(ex);
+    }
+    try {
+      // Java 8
+      final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return bb -> invoke(clean, invoke(cleaner, bb));
+    } catch(final Exception ex) {
+      Util.debug(ex);
+    }
+    return null;
+  }
+
+  /**
+   * Invokes a method.
+   * @param method method
+   * @param object object
+   * @param args arguments
+   * @return result (or {@code null} if the method could not be invoked)
+   */
+  private static Object invoke(final Method method, final Object object, final Object... args) {
+    try {
+      return method.invoke(object, args);
+    } catch(final Exception ex) {
+      Util.debug(ex);
+      return null;
+    }
+  }
+}
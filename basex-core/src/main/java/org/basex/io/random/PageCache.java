@@ -0,0 +1,259 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import org.basex.io.*;
+
+/**
+ * This class provides a sharded page cache for the database table.
+ *
+ * Pages are assigned to shards by their position. Each shard is guarded by its own monitor,
+ * and buffers are allocated on demand. If a shard is full, a page is evicted via the clock
+ * (second chance) algorithm. Pinned pages will never be evicted.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class PageCache {
+  /** Minimum number of buffers. */
+  private static final int MIN = 1 << 4;
+  /** Maximum number of shards (must be 1 << n). */
+  private static final int SHARDS = 1 << 4;
+
+  /** Shards. */
+  private final Shard[] shards;
+  /** Bits used for addressing a shard. */
+  private final int bits;
+  /** File channel. */
+  private final FileChannel channel;
+  /** Current (pinned) buffer, used by the updating thread. */
+  private Buffer current;
+  /** Journaled file (if not {@code null}, pages will be written to the journal). */
+  private volatile JournalFile journal;
+
+  /**
+   * Constructor.
+   * @param channel file channel
+   * @param size cache size in megabytes
+   */
+  PageCache(final FileChannel channel, final int size) {
+    this.channel = channel;
+    // choose number of buffers, and number of shards (each shard will have at least 4 buffers)
+    final int buffers = Math.max(MIN, (int) Math.min(Integer.MAX_VALUE,
+        ((long) size << 20) / IO.BLOCKSIZE));
+    final int sh = Math.min(SHARDS, Integer.highestOneBit(buffers >>> 2));
+    bits = Integer.numberOfTrailingZeros(sh);
+    shards = new Shard[sh];
+    for(int s = 0; s < sh; s++) shards[s] = new Shard((buffers + sh - 1) / sh);
+  }
+
+  /**
+   * Returns the shard responsible for the specified page.
+   * @param pos page position
+   * @return shard
+   */
+  Shard shard(final long pos) {
+    return shards[(int) pos & shards.length - 1];
+  }
+
+  /**
+   * Returns the current buffer.
+   * @return current buffer (can be {@code null})
+   */
+  Buffer current() {
+    return current;
+  }
+
+  /**
+   * Pins the specified page, assigns it as current buffer, and unpins the previous buffer.
+   * @param pos page position
+   * @param load load page from disk
+   * @throws IOException I/O exception
+   */
+  void cursor(final long pos, final boolean load) throws IOException {
+    final Shard shard = shard(pos);
+    final Buffer bf;
+    synchronized(shard) {
+      bf = shard.get(pos, load);
+      bf.pins++;
+    }
+    final Buffer old = current;
+    current = bf;
+    if(old != null) {
+      synchronized(shard(old.pos)) {
+        old.pins--;
+      }
+    }
+  }
+
+  /**
+   * Assigns a journaled file.
+   * @param jf journaled file (can be {@code null})
+   */
+  void journal(final JournalFile jf) {
+    journal = jf;
+  }
+
+  /**
+   * Writes all dirty buffers to disk.
+   * @throws IOException I/O exception
+   */
+  void flush() throws IOException {
+    for(final Shard shard : shards) {
+      synchronized(shard) {
+        for(int s = 0; s < shard.size; s++) {
+          final Buffer bf = shard.buffers[s];
+          if(bf.dirty) write(bf);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the specified buffer to disk and resets the dirty flag.
+   * @param bf buffer to write
+   * @throws IOException I/O exception
+   */
+  private void write(final Buffer bf) throws IOException {
+    final long pos = bf.pos * IO.BLOCKSIZE;
+    final JournalFile jf = journal;
+    if(jf != null) {
+      jf.write(pos, bf.data, IO.BLOCKSIZE);
+    } else {
+      final ByteBuffer bb = ByteBuffer.wrap(bf.data);
+      while(bb.hasRemaining()) channel.write(bb, pos + bb.position());
+    }
+    bf.dirty = false;
+  }
+
+  /**
+   * Reads the specified buffer from disk.
+   * @param bf buffer to read
+   * @throws IOException I/O exception
+   */
+  private void read(final Buffer bf) throws IOException {
+    final long pos = bf.pos * IO.BLOCKSIZE;
+    final JournalFile jf = journal;
+    if(jf != null && jf.read(pos, bf.data)) return;
+
+    final ByteBuffer bb = ByteBuffer.wrap(bf.data);
+    while(bb.hasRemaining()) {
+      if(channel.read(bb, pos + bb.position()) == -1) throw new EOFException();
+    }
+  }
+
+  /**
+   * Cache shard. All methods must be called while holding the monitor of the shard.
+   */
+  final class Shard {
+    /** Buffers. */
+    private final Buffer[] buffers;
+    /** Hash buckets, referencing the first buffer offset + 1 (0: empty). */
+    private final int[] buckets;
+    /** Hash chains, referencing the next buffer offset + 1 (0: none). */
+    private final int[] next;
+    /** Number of allocated buffers. */
+    private int size;
+    /** Clock hand. */
+    private int hand;
+
+    /**
+     * Constructor.
+     * @param capacity maximum number of buffers
+     */
+    private Shard(final int capacity) {
+      buffers = new Buffer[capacity];
+      next = new int[capacity];
+      buckets = new int[Integer.highestOneBit(capacity) << 1];
+    }
+
+    /**
+     * Returns the buffer for the specified page.
+     * @param pos page position
+     * @param load load page from disk if it is not cached yet
+     * @return buffer
+     * @throws IOException I/O exception
+     */
+    Buffer get(final long pos, final boolean load) throws IOException {
+      final int b = bucket(pos);
+      for(int s = buckets[b]; s != 0; s = next[s - 1]) {
+        final Buffer bf = buffers[s - 1];
+        if(bf.pos == pos) {
+          bf.used = true;
+          return bf;
+        }
+      }
+
+      // choose buffer, write back evicted page, and assign new page
+      final int s = victim();
+      final Buffer bf = buffers[s];
+      if(bf.pos != -1) {
+        if(bf.dirty) write(bf);
+        unlink(s);
+      }
+      bf.pos = pos;
+      bf.used = true;
+      next[s] = buckets[b];
+      buckets[b] = s + 1;
+      if(load) {
+        try {
+          read(bf);
+        } catch(final IOException ex) {
+          unlink(s);
+          bf.pos = -1;
+          throw ex;
+        }
+      }
+      return bf;
+    }
+
+    /**
+     * Returns the offset of a new or evictable buffer.
+     * @return buffer offset
+     */
+    private int victim() {
+      final int sz = size, cap = buffers.length;
+      if(sz < cap) {
+        buffers[sz] = new Buffer();
+        size++;
+        return sz;
+      }
+      // clock algorithm: skip pinned and recently used buffers
+      while(true) {
+        final int s = hand;
+        hand = s + 1 == cap ? 0 : s + 1;
+        final Buffer bf = buffers[s];
+        if(bf.pins > 0) continue;
+        if(!bf.used) return s;
+        bf.used = false;
+      }
+    }
+
+    /**
+     * Removes the specified buffer from its hash chain.
+     * @param s buffer offset
+     */
+    private void unlink(final int s) {
+      final int b = bucket(buffers[s].pos);
+      int p = buckets[b];
+      if(p == s + 1) {
+        buckets[b] = next[s];
+      } else {
+        while(next[p - 1] != s + 1) p = next[p - 1];
+        next[p - 1] = next[s];
+      }
+      next[s] = 0;
+    }
+
+    /**
+     * Returns the hash bucket of the specified page.
+     * @param pos page position
+     * @return bucket
+     */
+    private int bucket(final long pos) {
+      return (int) (pos >>> bits) & buckets.length - 1;
+    }
+  }
+}
@@ -10,27 +10,40 @@ import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.DataInput;
+import org.basex.io.out.ArrayOutput;
 import org.basex.io.out.DataOutput;
 import org.basex.util.*;
 
 /**
  * This class stores the table on disk and reads it page-wise.
  *
- * NOTE: this class is not thread-safe.
+ * Pages are cached in a sharded {@link PageCache}. Read operations can be performed
+ * concurrently, whereas updates must be performed by a single thread.
+ * If memory mapping is enabled, pages will be read from a {@link MappedFile} until the first
+ * update takes place. As concurrent readers may still access the mapped pages, the mapping is
+ * only released when the table is closed.
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  * @author Tim Petrowsky
  */
 public final class TableDiskAccess extends TableAccess {
-  /** Buffer manager. */
-  private final Buffers bm = new Buffers();
+  /** Page cache. */
+  private final PageCache bm;
   /** File storing all pages. */
   private final RandomAccessFile file;
+  /** Memory-mapped pages (can be {@code null}). */
+  private MappedFile mapped;
+  /** Memory-mapped file, which will be released when the table is closed. */
+  private MappedFile mapping;
   /** Bitmap storing free (=0) and used (=1) pages. */
   private BitArray usedPages;
   /** File lock. */
   private FileLock fl;
+  /** Journaled file (if not {@code null}, updates will be written to the journal). */
+  private JournalFile journal;
+  /** Indicates if the page index has been written to the journal. */
+  private boolean logged;
 
   /** First pre values (ascending order); will be initialized with the first update. */
   private int[] fpres;
@@ -83,7 +96,12 @@ public final class TableDiskAccess extends TableAccess {
 
     // initialize data file
     file = new RandomAccessFile(meta.dbfile(DATATBL).file(), "rw");
+    bm = new PageCache(file.getChannel(), meta.tablecache);
     if(!lock(write)) throw new BaseXException(Text.DB_PINNED_X, md.name);
+    if(meta.memorymap && !write) {
+      mapping = MappedFile.map(file.getChannel(), file.length());
+      mapped = mapping;
+    }
   }
 
   /**
@@ -106,34 +124,89 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public synchronized void flush(final boolean all) throws IOException {
-    for(final Buffer b : bm.all()) {
-      if(b.dirty) write(b);
-    }
+    bm.flush();
     if(!dirty || !all) return;
 
-    try(DataOutput out = new DataOutput(meta.dbfile(DATATBL + 'i'))) {
-      final int sz = size;
-      out.writeNum(sz);
-      out.writeNum(used);
-      // due to legacy issues, number of pages is written several times
-      out.writeNum(sz);
-      for(int s = 0; s < sz; s++) out.writeNum(fpres[s]);
-      out.writeNum(sz);
-      for(int s = 0; s < sz; s++) out.writeNum(pages[s]);
-
-      out.writeLongs(usedPages.toArray());
+    final IOFile index = meta.dbfile(DATATBL + 'i');
+    if(journal != null) {
+      final ArrayOutput ao = new ArrayOutput();
+      try(DataOutput out = new DataOutput(ao)) {
+        write(out);
+      }
+      journal.contents(index, ao.finish());
+      logged = true;
+    } else {
+      try(DataOutput out = new DataOutput(index)) {
+        write(out);
+      }
     }
     dirty = false;
   }
 
+  /**
+   * Writes subsequent updates to the specified journal.
+   * @param jrnl journal
+   */
+  public synchronized void journal(final Journal jrnl) {
+    if(journal != null) return;
+    journal = new JournalFile(jrnl, meta.dbfile(DATATBL));
+    bm.journal(journal);
+  }
+
+  /**
+   * Copies journaled updates to the database files and stops journaling.
+   * All updates must have been committed before this function is called.
+   * @throws IOException I/O exception
+   */
+  public synchronized void checkpoint() throws IOException {
+    if(journal == null) return;
+    bm.flush();
+    journal.checkpoint(file.getChannel());
+    bm.journal(null);
+    journal = null;
+    if(logged) {
+      final IOFile index = meta.dbfile(DATATBL + 'i');
+      try(DataOutput out = new DataOutput(index)) {
+        write(out);
+      }
+      Journal.sync(index);
+      logged = false;
+    }
+  }
+
+  /**
+   * Writes the page index.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  private void write(final DataOutput out) throws IOException {
+    final int sz = size;
+    out.writeNum(sz);
+    out.writeNum(used);
+    // due to legacy issues, number of pages is written several times
+    out.writeNum(sz);
+    for(int s = 0; s < sz; s++) out.writeNum(fpres[s]);
+    out.writeNum(sz);
+    for(int s = 0; s < sz; s++) out.writeNum(pages[s]);
+
+    out.writeLongs(usedPages.toArray());
+  }
+
   @Override
   public synchronized void close() throws IOException {
     flush(true);
+    mapped = null;
+    if(mapping != null) {
+      mapping.unmap();
+      mapping = null;
+    }
     file.close();
   }
 
   @Override
   public boolean lock(final boolean write) {
+    // mapped pages will get outdated by updates
+    if(write) mapped = null;
     try {
       if(fl != null) {
         if(write != fl.isShared()) return true;
@@ -147,33 +220,65 @@ public final class TableDiskAccess extends TableAccess {
   }
 
   @Override
-  public synchronized int read1(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return b[o] & 0xFF;
+  public int read1(final int pre, final int off) {
+    final int i = index(pre), p = page(i), o = off + (pre - fpre(i) << IO.NODEPOWER);
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      final long pos = (long) p * IO.BLOCKSIZE + o;
+      return mf.read1(pos) & 0xFF;
+    }
+    final PageCache.Shard shard = bm.shard(p);
+    synchronized(shard) {
+      final byte[] b = buffer(shard, p).data;
+      return b[o] & 0xFF;
+    }
   }
 
   @Override
-  public synchronized int read2(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((b[o] & 0xFF) << 8) + (b[o + 1] & 0xFF);
+  public int read2(final int pre, final int off) {
+    final int i = index(pre), p = page(i), o = off + (pre - fpre(i) << IO.NODEPOWER);
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      final long pos = (long) p * IO.BLOCKSIZE + o;
+      return mf.read2(pos);
+    }
+    final PageCache.Shard shard = bm.shard(p);
+    synchronized(shard) {
+      final byte[] b = buffer(shard, p).data;
+      return ((b[o] & 0xFF) << 8) + (b[o + 1] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized int read4(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((b[o] & 0xFF) << 24) + ((b[o + 1] & 0xFF) << 16) +
-      ((b[o + 2] & 0xFF) << 8) + (b[o + 3] & 0xFF);
+  public int read4(final int pre, final int off) {
+    final int i = index(pre), p = page(i), o = off + (pre - fpre(i) << IO.NODEPOWER);
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      final long pos = (long) p * IO.BLOCKSIZE + o;
+      return mf.read4(pos);
+    }
+    final PageCache.Shard shard = bm.shard(p);
+    synchronized(shard) {
+      final byte[] b = buffer(shard, p).data;
+      return ((b[o] & 0xFF) << 24) + ((b[o + 1] & 0xFF) << 16) +
+        ((b[o + 2] & 0xFF) << 8) + (b[o + 3] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized long read5(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((long) (b[o] & 0xFF) << 32) + ((long) (b[o + 1] & 0xFF) << 24) +
-      ((b[o + 2] & 0xFF) << 16) + ((b[o + 3] & 0xFF) << 8) + (b[o + 4] & 0xFF);
+  public long read5(final int pre, final int off) {
+    final int i = index(pre), p = page(i), o = off + (pre - fpre(i) << IO.NODEPOWER);
+    final MappedFile mf = mapped;
+    if(mf != null) {
+      final long pos = (long) p * IO.BLOCKSIZE + o;
+      return mf.read5(pos);
+    }
+    final PageCache.Shard shard = bm.shard(p);
+    synchronized(shard) {
+      final byte[] b = buffer(shard, p).data;
+      return ((long) (b[o] & 0xFF) << 32) + ((long) (b[o + 1] & 0xFF) << 24) +
+        ((b[o + 2] & 0xFF) << 16) + ((b[o + 3] & 0xFF) << 8) + (b[o + 4] & 0xFF);
+    }
   }
 
   @Override
@@ -418,6 +523,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   protected void dirty() {
+    mapped = null;
     // initialize data structures required for performing updates
     if(fpres == null) {
       final int b = size;
@@ -434,6 +540,45 @@ public final class TableDiskAccess extends TableAccess {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Returns the index of the page containing the entry for the specified pre value.
+   * This method does not change the page pointers and can be called by concurrent readers.
+   * @param pre pre value
+   * @return page index
+   */
+  private int index(final int pre) {
+    final int last = used - 1;
+    int l = 0, h = last;
+    if(pre >= 0 && pre < meta.size) {
+      if(fpres == null) return pre / IO.ENTRIES;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        if(pre < fpres[m]) h = m - 1;
+        else if(m < last && pre >= fpres[m + 1]) l = m + 1;
+        else return m;
+      }
+    }
+    throw Util.notExpected(
+        "Data Access out of bounds:" +
+        "\n- pre value: " + pre +
+        "\n- table size: " + meta.size +
+        "\n- #total/used pages: " + size + '/' + used);
+  }
+
+  /**
+   * Returns the buffer for the specified page. Must be called while holding the shard monitor.
+   * @param shard shard
+   * @param p page
+   * @return buffer
+   */
+  private static Buffer buffer(final PageCache.Shard shard, final int p) {
+    try {
+      return shard.get(p, true);
+    } catch(final IOException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
   /**
    * Searches for the page containing the entry for the specified pre value.
    * Reads the page and returns its offset inside the page.
@@ -441,6 +586,7 @@ public final class TableDiskAccess extends TableAccess {
    * @return offset of the entry in the page
    */
   private synchronized int cursor(final int pre) {
+    mapped = null;
     int fp = firstPre, np = nextPre;
     if(pre < fp || pre >= np) {
       final int last = used - 1;
@@ -489,7 +635,7 @@ public final class TableDiskAccess extends TableAccess {
    * @param p index of the page to fetch
    * @return pre value
    */
-  private synchronized int page(final int p) {
+  private int page(final int p) {
     return pages == null ? p : pages[p];
   }
 
@@ -498,7 +644,7 @@ public final class TableDiskAccess extends TableAccess {
    * @param p index of the page to fetch
    * @return pre value
    */
-  private synchronized int fpre(final int p) {
+  private int fpre(final int p) {
     return fpres == null ? p * IO.ENTRIES : fpres[p];
   }
 
@@ -507,18 +653,13 @@ public final class TableDiskAccess extends TableAccess {
    * @param p page to fetch
    */
   private synchronized void read(final int p) {
-    if(!bm.cursor(p)) return;
-
     final Buffer bf = bm.current();
+    if(bf != null && bf.pos == p) return;
+
     try {
-      if(bf.dirty) write(bf);
-      bf.pos = p;
-      if(p >= size) {
-        size = p + 1;
-      } else {
-        file.seek(bf.pos * IO.BLOCKSIZE);
-        file.readFully(bf.data);
-      }
+      final boolean load = p < size;
+      if(!load) size = p + 1;
+      bm.cursor(p, load);
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -535,17 +676,6 @@ public final class TableDiskAccess extends TableAccess {
     ++page;
   }
 
-  /**
-   * Writes the specified buffer disk and resets the dirty flag.
-   * @param bf buffer to write
-   * @throws IOException I/O exception
-   */
-  private void write(final Buffer bf) throws IOException {
-    file.seek(bf.pos * IO.BLOCKSIZE);
-    file.write(bf.data);
-    bf.dirty = false;
-  }
-
   /**
    * Updates the firstPre index entries.
    * @param nr number of entries to move
@@ -18,6 +18,7 @@ import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.parse.json.*;
 import org.basex.io.serial.*;
+import org.basex.query.expr.Profile;
 import org.basex.query.func.*;
 import org.basex.query.func.java.*;
 import org.basex.query.iter.*;
@@ -127,6 +128,8 @@ public final class QueryContext extends Job implements Closeable {
   /** Indicates if the default serialization parameters are used. */
   private boolean defaultOutput;
 
+  /** Indicates if the compiled query will be instrumented for profiling. */
+  public boolean profile;
   /** Indicates if the query has been compiled. */
   private boolean compiled;
   /** Indicates if the query context has been closed. */
@@ -309,9 +312,14 @@ public final class QueryContext extends Job implements Closeable {
 
       try {
         // compile the expression
-        if(root != null) QueryCompiler.compile(cc, root);
-        // compile global functions.
-        else funcs.compile(cc);
+        if(root != null) {
+          QueryCompiler.compile(cc, root);
+          // instrument compiled expressions
+          if(profile || mopts.get(MainOptions.PROFILE)) profile();
+        } else {
+          // compile global functions.
+          funcs.compile(cc);
+        }
       } catch(final StackOverflowError ex) {
         Util.debug(ex);
         throw BASEX_OVERFLOW.get(null, ex);
@@ -322,6 +330,17 @@ public final class QueryContext extends Job implements Closeable {
     }
   }
 
+  /**
+   * Instruments the compiled query and the referenced static declarations for profiling.
+   * The measured values will be added to the {@link #plan() query plan}.
+   */
+  private void profile() {
+    for(final StaticDecl decl : QueryCompiler.usedDecls(root)) {
+      if(decl.expr != null) decl.expr = Profile.get(decl.expr);
+    }
+    root.expr = Profile.get(root.expr);
+  }
+
   /**
    * Returns a result iterator.
    * @return result iterator
@@ -346,7 +365,8 @@ public final class QueryContext extends Job implements Closeable {
         materialize(items, datas, dbs);
         materialize(items2, datas, dbs);
 
-        // invalidate current node set in context, apply updates
+        // acquire deferred locks, invalidate current node set in context, apply updates
+        context.locking.update();
         if(context.data() != null) context.invalidate();
         updates.apply(this);
 
@@ -412,6 +432,7 @@ public final class QueryContext extends Job implements Closeable {
   @Override
   public void addLocks() {
     final Locks locks = jc().locks;
+    locks.snapshot = updating && context.soptions.get(StaticOptions.LOCKSNAPSHOT);
     final LockList read = locks.reads, write = locks.writes;
     read.add(readLocks);
     write.add(writeLocks);
@@ -587,7 +608,7 @@ public final class QueryContext extends Job implements Closeable {
     } else {
       // otherwise, adopt update reference (may have been initialized by sub query)
       parent.updates = updates;
-      parent.popJob();
+      parent.popJob(this);
     }
     options.close();
   }
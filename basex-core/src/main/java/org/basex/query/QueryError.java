@@ -326,12 +326,15 @@ public enum QueryError {
   /** Error code. */
   JOBS_ID_INVALID_X(JOBS, "id", "Invalid job name: %."),
   /** Error code. */
-  JOBS_OPTIONS(JOBS, "options", "Either 'cache' or 'interval' option is allowed."),
+  JOBS_OPTIONS(JOBS, "options",
+      "Only one of the options 'cache', 'interval' and 'cron' is allowed."),
   /** Error code. */
   JOBS_OVERFLOW(JOBS, "overflow", "Too many queries queued."),
   /** Error code. */
   JOBS_RANGE_X(JOBS, "range", "Value out of range: %."),
   /** Error code. */
+  JOBS_REJECTED_X(JOBS, "rejected", "Job was rejected: %"),
+  /** Error code. */
   JOBS_RUNNING_X(JOBS, "running", "Result is not available yet: %."),
   /** Error code. */
   JOBS_SELF_X(JOBS, "self", "Cannot wait for own job: %"),
@@ -396,6 +396,10 @@ public interface QueryText {
   /** Query Info. */ String ENTRIES = "entries";
   /** Query Info. */ String PROMOTE = "promote";
   /** Query Info. */ String DATABASE = "database";
+  /** Query Info. */ String PARALLEL = "parallel";
+  /** Query Info. */ String PROFCALLS = "calls";
+  /** Query Info. */ String PROFITEMS = "items";
+  /** Query Info. */ String PROFTIME = "time";
 
   /** Query Info. */ String MAPASG = ": ";
   /** Query Info. */ String SEP = ", ";
@@ -423,8 +427,10 @@ public interface QueryText {
   /** Optimization info. */ String OPTPATH_X = "remove non-existing path %";
   /** Optimization info. */ String OPTINDEX_X_X = "apply % index for %";
   /** Optimization info. */ String OPTNORESULTS_X = "no index results: %";
+  /** Optimization info. */ String OPTORDER_X = "order predicates by selectivity: %";
   /** Optimization info. */ String OPTCHILD_X = "convert to child steps: %";
   /** Optimization info. */ String OPTUNROLL_X = "unroll: %";
+  /** Optimization info. */ String OPTPARALLEL_X = "evaluate in parallel: %";
 
   // MISCELLANEOUS ================================================================================
 
@@ -115,20 +115,29 @@ public final class And extends Logical {
   @Override
   public boolean indexAccessible(final IndexInfo ii) throws QueryException {
     IndexCosts costs = IndexCosts.ZERO;
-    final ExprList list = new ExprList(exprs.length);
-    for(final Expr expr : exprs) {
+    final int el = exprs.length;
+    final Expr[] list = new Expr[el];
+    final IndexCosts[] ics = new IndexCosts[el];
+    for(int e = 0; e < el; e++) {
       // check if expression can be rewritten, and if access is not sequential
-      if(!expr.indexAccessible(ii)) return false;
+      if(!exprs[e].indexAccessible(ii)) return false;
       // skip queries with no results
       if(ii.costs.results() == 0) return true;
       // summarize costs
       costs = IndexCosts.add(costs, ii.costs);
-      list.add(ii.expr);
+      // order index requests by their number of results (smallest first)
+      int i = e;
+      for(; i > 0 && ics[i - 1].compareTo(ii.costs) > 0; i--) {
+        list[i] = list[i - 1];
+        ics[i] = ics[i - 1];
+      }
+      list[i] = ii.expr;
+      ics[i] = ii.costs;
     }
     // use summarized costs for estimation
     ii.costs = costs;
     // create intersection of all index requests
-    ii.expr = new Intersect(info, list.finish());
+    ii.expr = new Intersect(info, list);
     return true;
   }
 
@@ -114,6 +114,11 @@ public abstract class Arr extends ParseExpr {
     return this;
   }
 
+  @Override
+  public void profile() {
+    Profile.get(exprs);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return visitAll(visitor, exprs);
@@ -9,6 +9,7 @@ import org.basex.index.*;
 import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.index.value.*;
 import org.basex.query.*;
 import org.basex.query.expr.CmpV.*;
 import org.basex.query.expr.index.*;
@@ -216,14 +217,18 @@ public final class CmpR extends Single {
     ii.costs = ii.costs(data, nr);
     if(ii.costs == null) return false;
 
-    // skip if numbers are negative, doubles, or of different string length
-    final int mnl = min >= 0 && (long) min == min ? token(min).length : -1;
-    final int mxl = max >= 0 && (long) max == max ? token(max).length : -1;
-    if(mnl != mxl || mnl == -1) return false;
-
-    // don't use index if min/max values are infinite
-    if(min == NEGATIVE_INFINITY && max == POSITIVE_INFINITY ||
-        token((int) nr.min).length != token((int) nr.max).length) return false;
+    // without numeric keys, the index is traversed until the maximum value is found
+    final Index index = data.index(type);
+    if(!(index instanceof ValueIndex && ((ValueIndex) index).numeric())) {
+      // skip if numbers are negative, doubles, or of different string length
+      final int mnl = min >= 0 && (long) min == min ? token(min).length : -1;
+      final int mxl = max >= 0 && (long) max == max ? token(max).length : -1;
+      if(mnl != mxl || mnl == -1) return false;
+
+      // don't use index if min/max values are infinite
+      if(min == NEGATIVE_INFINITY && max == POSITIVE_INFINITY ||
+          token((int) nr.min).length != token((int) nr.max).length) return false;
+    }
 
     final TokenBuilder tb = new TokenBuilder();
     tb.add('[').add(min).add(',').add(max).add(']');
@@ -404,6 +404,13 @@ public abstract class Expr extends ExprInfo {
   @SuppressWarnings("unused")
   public void markTailCalls(final CompileContext cc) { }
 
+  /**
+   * Instruments the subexpressions of this expression for profiling.
+   * Called after the compilation if {@link org.basex.core.MainOptions#PROFILE} is enabled.
+   * @see Profile
+   */
+  public void profile() { }
+
   /**
    * Traverses this expression, notifying the visitor of declared and used variables,
    * and checking the tree for other recursive properties.
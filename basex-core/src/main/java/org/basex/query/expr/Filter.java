@@ -262,6 +262,12 @@ public abstract class Filter extends Preds {
     return changed ? optimize(cc) : null;
   }
 
+  @Override
+  public void profile() {
+    root = Profile.get(root);
+    super.profile();
+  }
+
   @Override
   public final boolean accept(final ASTVisitor visitor) {
     for(final Expr expr : exprs) {
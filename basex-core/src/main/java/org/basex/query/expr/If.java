@@ -200,6 +200,12 @@ public final class If extends Arr {
     for(final Expr expr : exprs) expr.markTailCalls(cc);
   }
 
+  @Override
+  public void profile() {
+    cond = Profile.get(cond);
+    super.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return cond.accept(visitor) && super.accept(visitor);
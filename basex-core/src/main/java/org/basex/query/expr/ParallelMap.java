@@ -0,0 +1,76 @@
+package org.basex.query.expr;
+
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * Simple map expression: parallel evaluation of side-effect free operands.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class ParallelMap extends SimpleMap {
+  /**
+   * Constructor.
+   * @param info input info
+   * @param exprs expressions
+   */
+  ParallelMap(final InputInfo info, final Expr... exprs) {
+    super(info, exprs);
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    return value(qc).iter();
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    return Parallel.eval(exprs[0].value(qc), this::map, qc, info);
+  }
+
+  /**
+   * Evaluates the remaining operands for the specified items.
+   * @param items items
+   * @param qc query context
+   * @return result
+   * @throws QueryException query exception
+   */
+  private Value map(final Value items, final QueryContext qc) throws QueryException {
+    Value result = items;
+    final QueryFocus qf = qc.focus, focus = new QueryFocus();
+    qc.focus = focus;
+    try {
+      final int el = exprs.length;
+      for(int e = 1; e < el; e++) {
+        final Expr expr = exprs[e];
+        final ValueBuilder vb = new ValueBuilder(qc);
+        final Iter iter = result.iter();
+        for(Item item; (item = qc.next(iter)) != null;) {
+          focus.value = item;
+          vb.add(expr.value(qc));
+        }
+        result = vb.value();
+      }
+      return result;
+    } finally {
+      qc.focus = qf;
+    }
+  }
+
+  @Override
+  public ParallelMap copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return copyType(new ParallelMap(info, Arr.copyAll(cc, vm, exprs)));
+  }
+
+  @Override
+  public String description() {
+    return "parallel " + super.description();
+  }
+}
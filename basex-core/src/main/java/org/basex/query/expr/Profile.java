@@ -0,0 +1,194 @@
+package org.basex.query.expr;
+
+import static org.basex.query.QueryText.*;
+
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * Profiling wrapper of an expression. Counts the number of invocations, the number of
+ * returned items and the evaluation time of the wrapped expression. The time includes
+ * the evaluation of all subexpressions and, for iterative evaluation, the time spent in
+ * the returned iterators. The measured values are added as attributes to the query plan.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Profile extends Single {
+  /** Number of invocations. */
+  private long calls;
+  /** Number of returned items. */
+  private long items;
+  /** Evaluation time (nano seconds). */
+  private long time;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param expr expression to be profiled
+   */
+  private Profile(final InputInfo info, final Expr expr) {
+    super(info, expr, expr.seqType());
+    exprType.assign(expr);
+  }
+
+  /**
+   * Returns a profiling wrapper for the specified expression and instruments its
+   * subexpressions. Values and other trivial expressions are returned unchanged.
+   * @param expr expression
+   * @return profiled expression
+   */
+  public static Expr get(final Expr expr) {
+    expr.profile();
+    return expr instanceof Value || expr instanceof VarRef || expr instanceof ContextValue ||
+      expr instanceof ItrPos || expr instanceof Profile ? expr :
+      new Profile(expr instanceof ParseExpr ? ((ParseExpr) expr).info : null, expr);
+  }
+
+  /**
+   * Instruments the specified expressions. Expressions will only be wrapped if the array
+   * is not typed more specifically; otherwise, only their subexpressions are instrumented.
+   * @param exprs expressions
+   */
+  public static void get(final Expr[] exprs) {
+    final boolean wrap = exprs.getClass() == Expr[].class;
+    final int el = exprs.length;
+    for(int e = 0; e < el; e++) {
+      final Expr expr = exprs[e];
+      if(wrap) exprs[e] = get(expr);
+      else expr.profile();
+    }
+  }
+
+  @Override
+  public void profile() {
+    // subexpressions have already been instrumented
+  }
+
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final long start = System.nanoTime();
+    final Item item = expr.item(qc, ii);
+    record(1, item == null ? 0 : 1, start);
+    return item;
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    final long start = System.nanoTime();
+    final Value value = expr.value(qc);
+    record(1, value.size(), start);
+    return value;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final long start = System.nanoTime();
+    final Iter iter = expr.iter(qc);
+    record(1, 0, start);
+
+    // path expressions rely on node iterators
+    if(iter instanceof NodeIter) {
+      final NodeIter ni = (NodeIter) iter;
+      return new NodeIter() {
+        @Override
+        public ANode next() throws QueryException {
+          final long s = System.nanoTime();
+          final ANode node = ni.next();
+          record(0, node == null ? 0 : 1, s);
+          return node;
+        }
+        @Override
+        public ANode get(final long i) {
+          final long s = System.nanoTime();
+          final ANode node = ni.get(i);
+          record(0, 1, s);
+          return node;
+        }
+        @Override
+        public long size() {
+          return ni.size();
+        }
+      };
+    }
+    return new Iter() {
+      @Override
+      public Item next() throws QueryException {
+        final long s = System.nanoTime();
+        final Item item = iter.next();
+        record(0, item == null ? 0 : 1, s);
+        return item;
+      }
+      @Override
+      public Item get(final long i) throws QueryException {
+        final long s = System.nanoTime();
+        final Item item = iter.get(i);
+        record(0, 1, s);
+        return item;
+      }
+      @Override
+      public long size() throws QueryException {
+        return iter.size();
+      }
+    };
+  }
+
+  /**
+   * Records measured values. Synchronized, as expressions may be evaluated in parallel.
+   * @param c number of invocations
+   * @param i number of returned items
+   * @param start start time
+   */
+  private synchronized void record(final long c, final long i, final long start) {
+    time += System.nanoTime() - start;
+    calls += c;
+    items += i;
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return new Profile(info, expr.copy(cc, vm));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj || obj instanceof Profile && super.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    // combine the hash codes of the class and the profiled expression
+    final int h = Profile.class.hashCode();
+    return (h << 5) - h + expr.hashCode();
+  }
+
+  @Override
+  public void plan(final FElem plan) {
+    final FElem elem = planElem();
+    expr.plan(elem);
+    final BasicNodeIter iter = elem.children();
+    for(ANode node; (node = iter.next()) != null;) {
+      if(node instanceof FElem) {
+        final FElem child = (FElem) node;
+        synchronized(this) {
+          child.add(planAttr(PROFCALLS, calls));
+          child.add(planAttr(PROFITEMS, items));
+          child.add(planAttr(PROFTIME, Performance.getTime(time, 1)));
+        }
+      }
+      plan.add(node);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expr.toString();
+  }
+}
@@ -143,10 +143,26 @@ public abstract class SimpleMap extends Arr {
       size() == 0 && !has(Flag.NDT) ? cc.emptySeq(this) :
       // item-based iteration
       it ? copyType(new ItemMap(info, exprs)) :
+      // parallel evaluation of side-effect free operands
+      parallel(cc) ? copyType(new ParallelMap(info, exprs)) :
       // default evaluation
       this;
   }
 
+  /**
+   * Checks if the operands can be evaluated in parallel.
+   * @param cc compilation context
+   * @return result of check
+   */
+  private boolean parallel(final CompileContext cc) {
+    if(this instanceof ParallelMap ||
+      !Parallel.enabled(cc.qc, exprs[0].size(), Arrays.copyOfRange(exprs, 1, exprs.length))) {
+      return false;
+    }
+    cc.info(OPTPARALLEL_X, this);
+    return true;
+  }
+
   @Override
   public final boolean has(final Flag... flags) {
     /* Context dependency: Only check first expression.
@@ -68,6 +68,11 @@ public abstract class Single extends ParseExpr {
     return optimize(cc);
   }
 
+  @Override
+  public void profile() {
+    expr = Profile.get(expr);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return expr.accept(visitor);
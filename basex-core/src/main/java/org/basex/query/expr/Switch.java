@@ -217,6 +217,12 @@ public final class Switch extends ParseExpr {
     for(final SwitchGroup group : groups) group.markTailCalls(cc);
   }
 
+  @Override
+  public void profile() {
+    cond = Profile.get(cond);
+    for(final SwitchGroup group : groups) group.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return cond.accept(visitor) && visitAll(visitor, groups);
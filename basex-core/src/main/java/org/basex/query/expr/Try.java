@@ -147,6 +147,12 @@ public final class Try extends Single {
     for(final Catch ctch : catches) ctch.markTailCalls(cc);
   }
 
+  @Override
+  public void profile() {
+    super.profile();
+    for(final Catch ctch : catches) ctch.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return super.accept(visitor) && visitAll(visitor, catches);
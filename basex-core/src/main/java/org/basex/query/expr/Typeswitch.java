@@ -147,6 +147,12 @@ public final class Typeswitch extends ParseExpr {
     for(final TypeswitchGroup tg : groups) tg.markTailCalls(cc);
   }
 
+  @Override
+  public void profile() {
+    cond = Profile.get(cond);
+    for(final TypeswitchGroup tg : groups) tg.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return cond.accept(visitor) && visitAll(visitor, groups);
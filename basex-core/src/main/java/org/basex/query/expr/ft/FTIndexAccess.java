@@ -39,7 +39,16 @@ public final class FTIndexAccess extends Simple {
 
   @Override
   public NodeIter iter(final QueryContext qc) throws QueryException {
-    final FTIter iter = ftexpr.iter(qc);
+    return iter(ftexpr.iter(qc), qc);
+  }
+
+  /**
+   * Returns an iterator for the results of a full-text iterator.
+   * @param iter full-text iterator
+   * @param qc query context
+   * @return node iterator
+   */
+  public static NodeIter iter(final FTIter iter, final QueryContext qc) {
     return new NodeIter() {
       @Override
       public ANode next() throws QueryException {
@@ -102,17 +102,18 @@ public final class FTWildcard {
   }
 
   /**
-   * Returns the maximum length of a potential match.
-   * @return {@code true} if a match is found
+   * Returns the maximum length of a potential match in bytes.
+   * @return maximum length
    */
   public int max() {
-    int c = 0;
+    long c = 0;
     for(int s = 0; s < size; s++) {
-      final int m = max[s];
+      final int m = max[s], w = wc[s];
       if(m == Integer.MAX_VALUE) return Integer.MAX_VALUE;
-      c += m;
+      // wildcards may match characters with up to 4 bytes
+      c += (long) m * (w == DOT ? 4 : w <= 0x7F ? 1 : w <= 0x7FF ? 2 : w <= 0xFFFF ? 3 : 4);
     }
-    return c;
+    return (int) Math.min(Integer.MAX_VALUE, c);
   }
 
   /**
@@ -134,6 +135,26 @@ public final class FTWildcard {
     return match(cps(t), 0, 0);
   }
 
+  /**
+   * Returns the length of the longest prefix of the specified token that may be extended to
+   * a match. If a prefix cannot be extended, all tokens starting with it can be skipped.
+   * @param t token
+   * @return length of the prefix in bytes
+   */
+  public int viable(final byte[] t) {
+    final int[] cps = cps(t);
+    // binary search: all prefixes of a viable prefix are viable as well
+    int l = 0, h = cps.length;
+    while(l < h) {
+      final int m = l + h + 1 >>> 1;
+      if(viable(cps, m, 0, 0)) l = m;
+      else h = m - 1;
+    }
+    int b = 0;
+    for(int c = 0; c < l; c++) b += cl(t, b);
+    return b;
+  }
+
   /**
    * Indicates if the input contains no wildcard characters.
    * @return result of check
@@ -142,6 +163,32 @@ public final class FTWildcard {
     return simple;
   }
 
+  /**
+   * Checks if the wildcard can match a string starting with the specified characters.
+   * @param token characters
+   * @param tl number of characters to be checked
+   * @param tp input position
+   * @param qp query position
+   * @return result of check
+   */
+  private boolean viable(final int[] token, final int tl, final int tp, final int qp) {
+    int qi = qp, ti = tp;
+    while(qi < size) {
+      if(ti == tl) return true;
+      if(wc[qi] == DOT) {
+        final int n = min[qi], m = Math.min(max[qi++], tl - ti);
+        // input ends before the minimum number of characters has been consumed
+        if(n > m) return true;
+        for(int c = n; c <= m; c++) {
+          if(viable(token, tl, ti + c, qi)) return true;
+        }
+        return false;
+      }
+      if(token[ti++] != wc[qi++]) return false;
+    }
+    return ti == tl;
+  }
+
   /**
    * Checks if the wildcard can match a sub-string in a string.
    * @param token token to search for match
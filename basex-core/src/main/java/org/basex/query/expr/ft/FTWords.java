@@ -48,6 +48,8 @@ public final class FTWords extends FTExpr {
   private TokenList tokens;
   /** Full-text options. */
   private FTOpt ftOpt;
+  /** Assign BM25 scores to results of index-based evaluations. */
+  private boolean bm25;
 
   /**
    * Constructor for scan-based evaluation.
@@ -137,61 +139,134 @@ public final class FTWords extends FTExpr {
       @Override
       public FTNode next() throws QueryException {
         if(ftiter == null) {
-          final FTTokenizer ftt = FTWords.this.get(qc);
-          final FTLexer lexer = new FTLexer(ftOpt).
-              lserror(qc.context.options.get(MainOptions.LSERROR));
-
-          // length distinct tokens
-          int len = 0;
-          // loop through unique tokens
-          for(final byte[] txt : unique(tokens != null ? tokens : tokens(qc))) {
-            lexer.init(txt);
-            if(!lexer.hasNext()) return null;
-
-            int d = 0;
-            FTIndexIterator ii = null;
-            final StopWords sw = ftOpt.sw;
-            do {
-              final byte[] tok = lexer.nextToken();
-              len += tok.length;
-              if(sw != null && sw.contains(tok)) {
-                ++d;
-              } else {
-                final FTIndexIterator iter = lexer.get().length > data.meta.maxlen ?
-                  scan(lexer, ftt, data) : (FTIndexIterator) data.iter(lexer);
-                iter.pos(++qc.ftPos);
-                if(ii == null) {
-                  ii = iter;
-                } else {
-                  ii = FTIndexIterator.intersect(ii, iter, ++d);
-                  d = 0;
-                }
-              }
-            } while(lexer.hasNext());
-
-            if(ii != null) {
-              // create or combine iterator
-              if(ftiter == null) {
-                length = len;
-                ftiter = ii;
-              } else if(mode == FTMode.ALL || mode == FTMode.ALL_WORDS) {
-                if(ii.size() == 0) return null;
-                length += len;
-                ftiter = FTIndexIterator.intersect(ftiter, ii, 0);
-              } else {
-                if(ii.size() == 0) continue;
-                length = Math.max(len, length);
-                ftiter = FTIndexIterator.union(ftiter, ii);
-              }
+          final ArrayList<FTIndexIterator> iters = new ArrayList<>();
+          final IntList lengths = new IntList();
+          if(!iterators(qc, data, iters, lengths)) return null;
+
+          final int is = iters.size();
+          for(int i = 0; i < is; i++) {
+            // create or combine iterator
+            final FTIndexIterator ii = iters.get(i);
+            final int len = lengths.get(i);
+            if(ftiter == null) {
+              length = len;
+              ftiter = ii;
+            } else if(mode == FTMode.ALL || mode == FTMode.ALL_WORDS) {
+              if(ii.size() == 0) return null;
+              length += len;
+              ftiter = FTIndexIterator.intersect(ftiter, ii, 0);
+            } else {
+              if(ii.size() == 0) continue;
+              length = Math.max(len, length);
+              ftiter = FTIndexIterator.union(ftiter, ii);
             }
           }
         }
-        return ftiter == null || !ftiter.more() ? null :
-          new FTNode(ftiter.matches(), data, ftiter.pre(), length, ftiter.size());
+        if(ftiter == null || !ftiter.more()) return null;
+        final FTNode node = new FTNode(ftiter.matches(), data, ftiter.pre(), length,
+            ftiter.size());
+        if(bm25) node.score(ftiter.score());
+        return node;
       }
     };
   }
 
+  /**
+   * Returns an iterator for the best-ranked results of an index-based evaluation.
+   * The results are ordered by their BM25 scores.
+   * @param qc query context
+   * @param limit maximum number of results
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  public FTIter iter(final QueryContext qc, final int limit) throws QueryException {
+    final Data data = db.data(qc, IndexType.FULLTEXT);
+    final ArrayList<FTIndexIterator> iters = new ArrayList<>();
+    if(!iterators(qc, data, iters, new IntList())) iters.clear();
+
+    if((mode == FTMode.ALL || mode == FTMode.ALL_WORDS) && !iters.isEmpty()) {
+      // conjunctive query: combine all iterators
+      FTIndexIterator ftiter = null;
+      for(final FTIndexIterator ii : iters) {
+        ftiter = ftiter == null ? ii : FTIndexIterator.intersect(ftiter, ii, 0);
+      }
+      iters.clear();
+      iters.add(ftiter);
+    }
+    final FTTopK top = new FTTopK(iters, limit);
+    return new FTIter() {
+      int i;
+
+      @Override
+      public FTNode next() {
+        if(i == top.size()) return null;
+        final FTNode node = new FTNode(top.matches(i), data, top.pre(i), 0, top.size());
+        node.score(top.score(i++));
+        return node;
+      }
+    };
+  }
+
+  /**
+   * Assigns BM25 scores to the results of an index-based evaluation.
+   * @return self reference
+   */
+  public FTWords bm25() {
+    bm25 = true;
+    return this;
+  }
+
+  /**
+   * Creates index iterators for all query terms.
+   * @param qc query context
+   * @param data data reference
+   * @param iters index iterators
+   * @param lengths accumulated lengths of the query tokens
+   * @return {@code false} if a query term contains no tokens
+   * @throws QueryException query exception
+   */
+  private boolean iterators(final QueryContext qc, final Data data,
+      final ArrayList<FTIndexIterator> iters, final IntList lengths) throws QueryException {
+
+    final FTTokenizer ftt = get(qc);
+    final FTLexer lexer = new FTLexer(ftOpt).lserror(qc.context.options.get(MainOptions.LSERROR));
+
+    // length distinct tokens
+    int len = 0;
+    // loop through unique tokens
+    for(final byte[] txt : unique(tokens != null ? tokens : tokens(qc))) {
+      lexer.init(txt);
+      if(!lexer.hasNext()) return false;
+
+      int d = 0;
+      FTIndexIterator ii = null;
+      final StopWords sw = ftOpt.sw;
+      do {
+        final byte[] tok = lexer.nextToken();
+        len += tok.length;
+        if(sw != null && sw.contains(tok)) {
+          ++d;
+        } else {
+          final FTIndexIterator iter = lexer.get().length > data.meta.maxlen ?
+            scan(lexer, ftt, data) : (FTIndexIterator) data.iter(lexer);
+          iter.pos(++qc.ftPos);
+          if(ii == null) {
+            ii = iter;
+          } else {
+            ii = FTIndexIterator.intersect(ii, iter, ++d);
+            d = 0;
+          }
+        }
+      } while(lexer.hasNext());
+
+      if(ii != null) {
+        iters.add(ii);
+        lengths.add(len);
+      }
+    }
+    return true;
+  }
+
   /**
    * Returns a scan-based index iterator.
    * @param lexer lexer, including the queried value
@@ -408,14 +483,10 @@ public final class FTWords extends FTExpr {
           if(sw != null && sw.contains(tok)) continue;
 
           if(ftOpt.is(WC)) {
-            // don't use index if one of the terms starts with a wildcard
+            // don't use index if one of the terms starts with a wildcard,
+            // or if escaped characters are found
             token = lexer.get();
-            if(token[0] == '.') return false;
-            // don't use index if certain characters or more than 1 dot are found
-            int d = 0;
-            for(final byte b : token) {
-              if(b == '{' || b == '\\' || b == '.' && ++d > 1) return false;
-            }
+            if(token[0] == '.' || Token.contains(token, '\\')) return false;
           }
           // favor full-text index requests over exact queries
           final IndexCosts c = ii.costs(data, lexer);
@@ -75,6 +75,11 @@ abstract class ForLet extends Clause {
     checkNoUp(expr);
   }
 
+  @Override
+  public void profile() {
+    expr = Profile.get(expr);
+  }
+
   @Override
   public final int exprSize() {
     return expr.exprSize();
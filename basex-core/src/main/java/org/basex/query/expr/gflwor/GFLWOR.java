@@ -30,6 +30,8 @@ public final class GFLWOR extends ParseExpr {
   public final LinkedList<Clause> clauses;
   /** Return expression. */
   public Expr rtrn;
+  /** Indicates if the first 'for' clause will be evaluated in parallel. */
+  private boolean parallel;
 
   /**
    * Constructor.
@@ -48,8 +50,20 @@ public final class GFLWOR extends ParseExpr {
    * @return the evaluator
    */
   private Eval newEval() {
+    return newEval(Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a new evaluator for this FLWOR expression.
+   * @param limit maximum number of tuples that will be requested from the last clause
+   * @return the evaluator
+   */
+  private Eval newEval(final long limit) {
     Eval eval = new StartEval();
-    for(final Clause clause : clauses) eval = clause.eval(eval);
+    for(final Clause clause : clauses) {
+      eval = limit != Long.MAX_VALUE && clause == clauses.getLast() && clause instanceof OrderBy ?
+        ((OrderBy) clause).eval(eval, limit) : clause.eval(eval);
+    }
     return eval;
   }
 
@@ -68,6 +82,8 @@ public final class GFLWOR extends ParseExpr {
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
+    if(parallel) return parallel(qc);
+
     final Eval eval = newEval();
     final ValueBuilder vb = new ValueBuilder(qc);
     while(eval.next(qc)) vb.add(rtrn.value(qc));
@@ -75,9 +91,25 @@ public final class GFLWOR extends ParseExpr {
   }
 
   @Override
-  public Iter iter(final QueryContext qc) {
+  public Iter iter(final QueryContext qc) throws QueryException {
+    return iter(qc, Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns an iterator, the results of which will only be requested up to the specified
+   * number of items. If the last clause is an 'order by' clause and if each tuple yields a
+   * single item, only the smallest tuples will be sorted.
+   * @param qc query context
+   * @param limit maximum number of requested items
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  public Iter iter(final QueryContext qc, final long limit) throws QueryException {
+    if(parallel) return parallel(qc).iter();
+
+    final long max = rtrn.seqType().one() ? limit : Long.MAX_VALUE;
     return new Iter() {
-      private final Eval ev = newEval();
+      private final Eval ev = newEval(max);
       private Iter sub = Empty.ITER;
 
       @Override
@@ -95,6 +127,34 @@ public final class GFLWOR extends ParseExpr {
     };
   }
 
+  /**
+   * Evaluates the first 'for' clause in parallel.
+   * @param qc query context
+   * @return result
+   * @throws QueryException query exception
+   */
+  private Value parallel(final QueryContext qc) throws QueryException {
+    final For fr = (For) clauses.getFirst();
+    return Parallel.eval(fr.expr.value(qc), (items, q) -> {
+      final Iter iter = items.iter();
+      Eval eval = new Eval() {
+        @Override
+        boolean next(final QueryContext ctx) throws QueryException {
+          final Item item = ctx.next(iter);
+          if(item == null) return false;
+          ctx.set(fr.var, item);
+          return true;
+        }
+      };
+      final Iterator<Clause> cls = clauses.listIterator(1);
+      while(cls.hasNext()) eval = cls.next().eval(eval);
+
+      final ValueBuilder vb = new ValueBuilder(q);
+      while(eval.next(q)) vb.add(rtrn.value(q));
+      return vb.value();
+    }, qc, info);
+  }
+
   @Override
   public Expr compile(final CompileContext cc) throws QueryException {
     final ListIterator<Clause> iter = clauses.listIterator();
@@ -131,10 +191,12 @@ public final class GFLWOR extends ParseExpr {
       // replace with 'if' expression if FLWOR starts with 'where'
       final Where where = (Where) clauses.removeFirst();
       final Expr branch = clauses.isEmpty() ? rtrn : this;
+      if(branch == this) parallel = parallel(cc);
       expr = new If(info, where.expr, branch).optimize(cc);
     } else {
       calcType();
       expr = simplify(cc);
+      if(expr == this) parallel = parallel(cc);
     }
 
     if(expr == rtrn) {
@@ -144,6 +206,25 @@ public final class GFLWOR extends ParseExpr {
     return cc.replaceWith(this, expr);
   }
 
+  /**
+   * Checks if the first 'for' clause can be evaluated in parallel.
+   * @param cc compilation context
+   * @return result of check
+   */
+  private boolean parallel(final CompileContext cc) {
+    final Clause first = clauses.getFirst();
+    if(!(first instanceof For) || !isFLW()) return false;
+    final For fr = (For) first;
+    if(fr.pos != null || fr.score != null || fr.empty) return false;
+
+    final ExprList list = new ExprList(clauses.size()).add(rtrn);
+    final Iterator<Clause> cls = clauses.listIterator(1);
+    while(cls.hasNext()) list.add(cls.next());
+    if(!Parallel.enabled(cc.qc, fr.expr.size(), list.finish())) return false;
+    if(!parallel) cc.info(QueryText.OPTPARALLEL_X, fr);
+    return true;
+  }
+
   /**
    * Simplifies a FLWOR expression.
    * @param cc compilation context
@@ -860,7 +941,9 @@ public final class GFLWOR extends ParseExpr {
   public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
     final LinkedList<Clause> cls = new LinkedList<>();
     for(final Clause clause : clauses) cls.add(clause.copy(cc, vm));
-    return copyType(new GFLWOR(info, cls, rtrn.copy(cc, vm)));
+    final GFLWOR flwor = new GFLWOR(info, cls, rtrn.copy(cc, vm));
+    flwor.parallel = parallel;
+    return copyType(flwor);
   }
 
   /**
@@ -873,6 +956,12 @@ public final class GFLWOR extends ParseExpr {
     return true;
   }
 
+  @Override
+  public void profile() {
+    for(final Clause clause : clauses) clause.profile();
+    rtrn = Profile.get(rtrn);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     for(final Clause clause : clauses) {
@@ -921,7 +1010,7 @@ public final class GFLWOR extends ParseExpr {
 
   @Override
   public void plan(final FElem plan) {
-    final FElem elem = planElem();
+    final FElem elem = planElem(QueryText.PARALLEL, parallel ? Boolean.TRUE : null);
     for(final Clause clause : clauses) clause.plan(elem);
     rtrn.plan(elem);
     plan.add(elem);
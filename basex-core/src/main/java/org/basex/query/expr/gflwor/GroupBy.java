@@ -1,9 +1,14 @@
 package org.basex.query.expr.gflwor;
 
+import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
-import java.util.*;
+import java.io.*;
 
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.util.*;
@@ -24,6 +29,12 @@ import org.basex.util.hash.*;
  * @author Leo Woerteler
  */
 public final class GroupBy extends Clause {
+  /** Number of bits used for choosing a partition. */
+  private static final int BITS = 4;
+  /** Number of partitions. */
+  private static final int PARTS = 1 << BITS;
+  /** Maximum recursion depth for partitioning tuples. */
+  private static final int DEPTH = Integer.SIZE / BITS;
   /** Grouping specs. */
   private final GroupSpec[] specs;
   /** Non-grouping variable expressions. */
@@ -89,18 +100,30 @@ public final class GroupBy extends Clause {
   Eval eval(final Eval sub) {
     return new Eval() {
       /** Groups to iterate over. */
-      private Group[] groups;
-      /** Current position. */
-      private int pos;
+      private Groups groups;
 
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
-        if(groups == null) groups = init(qc);
-        if(pos == groups.length) return false;
+        if(groups == null) groups = new Groups(new Tuples() {
+          @Override
+          boolean next() throws QueryException {
+            if(!sub.next(qc)) return false;
+            key = new Item[nonOcc];
+            int p = 0;
+            for(final GroupSpec spec : specs) {
+              final Item atom = spec.atomItem(qc, info);
+              if(!spec.occluded) key[p++] = atom;
+              qc.set(spec.var, atom == null ? Empty.SEQ : atom);
+            }
+            final int pl = preExpr.length;
+            values = new Value[pl];
+            for(int g = 0; g < pl; g++) values[g] = preExpr[g].value(qc);
+            return true;
+          }
+        }, 0, qc);
 
-        final Group curr = groups[pos];
-        // be nice to the garbage collector
-        groups[pos++] = null;
+        final Group curr = groups.next();
+        if(curr == null) return false;
 
         int p = 0;
         for(final GroupSpec spec : specs) {
@@ -113,96 +136,9 @@ public final class GroupBy extends Clause {
         for(int i = 0; i < pl; i++) qc.set(post[i], curr.ngv[i].value());
         return true;
       }
-
-      /**
-       * Builds up the groups.
-       * @param qc query context
-       * @throws QueryException query exception
-       */
-      private Group[] init(final QueryContext qc) throws QueryException {
-        final ArrayList<Group> grps = new ArrayList<>();
-        final IntObjMap<Group> map = new IntObjMap<>();
-        final Collation[] colls = new Collation[nonOcc];
-        int c = 0;
-        for(final GroupSpec spec : specs) {
-          if(!spec.occluded) colls[c++] = spec.coll;
-        }
-
-        while(sub.next(qc)) {
-          final Item[] key = new Item[nonOcc];
-          int p = 0, hash = 1;
-          for(final GroupSpec spec : specs) {
-            final Item atom = spec.atomItem(qc, info);
-            if(!spec.occluded) {
-              key[p++] = atom;
-              // If the values are compared using a special collation, we let them collide
-              // here and let the comparison do all the work later.
-              // This enables other non-collation specs to avoid the collision.
-              hash = 31 * hash + (atom == null || spec.coll != null ? 0 : atom.hash(info));
-            }
-            qc.set(spec.var, atom == null ? Empty.SEQ : atom);
-          }
-
-          // find the group for this key
-          final Group fst;
-          Group grp = null;
-          // no collations, so we can use hashing
-          for(Group g = fst = map.get(hash); g != null; g = g.next) {
-            if(eq(key, g.key, colls)) {
-              grp = g;
-              break;
-            }
-          }
-
-          final int pl = preExpr.length;
-          if(grp == null) {
-            // new group, add it to the list
-            final ValueBuilder[] ngs = new ValueBuilder[pl];
-            final int nl = ngs.length;
-            for(int n = 0; n < nl; n++) ngs[n] = new ValueBuilder(qc);
-            grp = new Group(key, ngs);
-            grps.add(grp);
-
-            // insert the group into the hash table
-            if(fst == null) {
-              map.put(hash, grp);
-            } else {
-              final Group nxt = fst.next;
-              fst.next = grp;
-              grp.next = nxt;
-            }
-          }
-
-          // add values of non-grouping variables to the group
-          for(int g = 0; g < pl; g++) grp.ngv[g].add(preExpr[g].value(qc));
-        }
-
-        // we're finished, copy the array so the list can be garbage-collected
-        return grps.toArray(new Group[0]);
-      }
     };
   }
 
-  /**
-   * Checks two keys for equality.
-   * @param its1 first keys
-   * @param its2 second keys
-   * @param coll collations
-   * @return {@code true} if the compare as equal, {@code false} otherwise
-   * @throws QueryException query exception
-   */
-  private boolean eq(final Item[] its1, final Item[] its2, final Collation[] coll)
-      throws QueryException {
-
-    final int il = its1.length;
-    for(int i = 0; i < il; i++) {
-      final Item item1 = its1[i], item2 = its2[i];
-      if(item1 == null ^ item2 == null || item1 != null && !item1.equiv(item2, coll[i], info))
-        return false;
-    }
-    return true;
-  }
-
   @Override
   public boolean has(final Flag... flags) {
     for(final GroupSpec spec : specs) {
@@ -267,6 +203,12 @@ public final class GroupBy extends Clause {
     return new GroupBy(Arr.copyAll(cc, vm, specs), pEx, ps, nonOcc, info);
   }
 
+  @Override
+  public void profile() {
+    for(final GroupSpec spec : specs) spec.profile();
+    Profile.get(preExpr);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     if(!visitAll(visitor, specs)) return false;
@@ -345,4 +287,231 @@ public final class GroupBy extends Clause {
     for(int s = 0; s < sl; s++) sb.append(s == 0 ? " " : SEP).append(specs[s]);
     return sb.toString();
   }
+
+  /**
+   * Tuples with grouping keys and values of non-grouping variables.
+   */
+  private abstract static class Tuples {
+    /** Grouping key of the current tuple. */
+    Item[] key;
+    /** Values of the current tuple. */
+    Value[] values;
+
+    /**
+     * Moves to the next tuple.
+     * @return {@code false} if no tuples are left
+     * @throws QueryException query exception
+     */
+    abstract boolean next() throws QueryException;
+  }
+
+  /**
+   * Groups of tuples. If the number of groups exceeds the limit assigned via
+   * {@link MainOptions#GROUPLIMIT}, the tuples of all new groups are hash-partitioned and
+   * written to disk. The groups of each partition will be built and returned after the
+   * groups in main memory.
+   */
+  private final class Groups {
+    /** Groups in main memory. */
+    private final Group[] groups;
+    /** Partitions (can be {@code null}). */
+    private final IOFile[] parts;
+    /** Number of tuples in each partition. */
+    private final int[] sizes = new int[PARTS];
+    /** Recursion depth. */
+    private final int depth;
+    /** Query context. */
+    private final QueryContext qc;
+
+    /** Current position in main memory groups. */
+    private int pos;
+    /** Current partition. */
+    private int part;
+    /** Groups of the current partition (can be {@code null}). */
+    private Groups sub;
+
+    /**
+     * Constructor.
+     * @param tuples tuples
+     * @param depth recursion depth
+     * @param qc query context
+     * @throws QueryException query exception
+     */
+    private Groups(final Tuples tuples, final int depth, final QueryContext qc)
+        throws QueryException {
+      this.depth = depth;
+      this.qc = qc;
+
+      final Collation[] colls = new Collation[nonOcc];
+      int c = 0;
+      for(final GroupSpec spec : specs) {
+        if(!spec.occluded) colls[c++] = spec.coll;
+      }
+      final GroupMap map = new GroupMap(colls, info);
+      final int limit = depth < DEPTH ? qc.context.options.get(MainOptions.GROUPLIMIT) : 0;
+      final SortRuns sr = limit > 0 ? qc.resources.index(SortRuns.class) : null;
+      final DataOutput[] outs = new DataOutput[PARTS];
+      boolean spill = limit > 0;
+      parts = spill ? new IOFile[PARTS] : null;
+
+      try {
+        while(tuples.next()) {
+          final Item[] key = tuples.key;
+          final Value[] values = tuples.values;
+          if(spill && map.groups.size() >= limit && map.get(key) == null) {
+            if(spillable(key, values)) {
+              // write tuple to a partition, chosen by the next bits of the hash value
+              final int p = map.hash(key) >>> depth * BITS & PARTS - 1;
+              if(outs[p] == null) {
+                parts[p] = sr.file();
+                outs[p] = new DataOutput(parts[p]);
+              }
+              for(final Item item : key) sr.write(outs[p], item);
+              for(final Value value : values) sr.write(outs[p], value);
+              sizes[p]++;
+              continue;
+            }
+            // tuple cannot be written: group all partitioned tuples in main memory
+            close(outs);
+            for(int p = 0; p < PARTS; p++) {
+              if(parts[p] != null) {
+                for(final Tuples tpls = read(p); tpls.next();) add(tpls.key, tpls.values, map);
+                parts[p] = null;
+              }
+            }
+            spill = false;
+          }
+          add(key, values, map);
+        }
+        close(outs);
+      } catch(final IOException ex) {
+        throw IOERR_X.get(info, ex);
+      } finally {
+        try {
+          close(outs);
+        } catch(final IOException ex) {
+          Util.debug(ex);
+        }
+      }
+      // we're finished, copy the array so the list can be garbage-collected
+      groups = map.groups.toArray(new Group[0]);
+    }
+
+    /**
+     * Adds a tuple to its group.
+     * @param key grouping key
+     * @param values values of non-grouping variables
+     * @param map group map
+     * @throws QueryException query exception
+     */
+    private void add(final Item[] key, final Value[] values, final GroupMap map)
+        throws QueryException {
+      final int pl = values.length;
+      Group grp = map.get(key);
+      if(grp == null) {
+        // new group, add it to the list
+        final ValueBuilder[] ngs = new ValueBuilder[pl];
+        for(int n = 0; n < pl; n++) ngs[n] = new ValueBuilder(qc);
+        grp = new Group(key, ngs);
+        map.add(grp);
+      }
+      // add values of non-grouping variables to the group
+      for(int g = 0; g < pl; g++) grp.ngv[g].add(values[g]);
+    }
+
+    /**
+     * Closes the output streams of all partitions.
+     * @param outs output streams
+     * @throws IOException I/O exception
+     */
+    private void close(final DataOutput[] outs) throws IOException {
+      final int ol = outs.length;
+      for(int o = 0; o < ol; o++) {
+        final DataOutput out = outs[o];
+        if(out != null) {
+          outs[o] = null;
+          out.close();
+        }
+      }
+    }
+
+    /**
+     * Returns the next group.
+     * @return group or {@code null}
+     * @throws QueryException query exception
+     */
+    private Group next() throws QueryException {
+      while(true) {
+        if(pos < groups.length) {
+          final Group grp = groups[pos];
+          // be nice to the garbage collector
+          groups[pos++] = null;
+          return grp;
+        }
+        if(sub != null) {
+          final Group grp = sub.next();
+          if(grp != null) return grp;
+          sub = null;
+        }
+        if(parts == null || part == PARTS) return null;
+        if(parts[part] != null) sub = new Groups(read(part), depth + 1, qc);
+        part++;
+      }
+    }
+
+    /**
+     * Returns the tuples of a partition. The file will be deleted after the last tuple
+     * has been read.
+     * @param p partition
+     * @return tuples
+     */
+    private Tuples read(final int p) {
+      final IOFile file = parts[p];
+      final SortRuns sr = qc.resources.index(SortRuns.class);
+      return new Tuples() {
+        private DataInput in;
+        private int size = sizes[p];
+
+        @Override
+        boolean next() throws QueryException {
+          try {
+            if(size == 0) {
+              if(in != null) {
+                in.close();
+                in = null;
+                file.delete();
+              }
+              return false;
+            }
+            if(in == null) in = new DataInput(file);
+            key = new Item[nonOcc];
+            for(int k = 0; k < nonOcc; k++) key[k] = sr.read(in);
+            final int pl = preExpr.length;
+            values = new Value[pl];
+            for(int v = 0; v < pl; v++) values[v] = sr.read(in, qc);
+            size--;
+            return true;
+          } catch(final IOException ex) {
+            throw IOERR_X.get(info, ex);
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Checks if the specified tuple can be written to disk.
+   * @param key grouping key
+   * @param values values of non-grouping variables
+   * @return result of check
+   */
+  private static boolean spillable(final Item[] key, final Value[] values) {
+    for(final Item item : key) {
+      if(!SortRuns.spillable(item)) return false;
+    }
+    for(final Value value : values) {
+      if(!SortRuns.spillable(value)) return false;
+    }
+    return true;
+  }
 }
@@ -0,0 +1,152 @@
+package org.basex.query.expr.gflwor;
+
+import java.util.*;
+
+import org.basex.query.*;
+import org.basex.query.util.collation.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * Hash map for finding the group of a grouping key.
+ * Single keys without collation are stored in maps with primitive keys as long as all
+ * keys are integers or strings. Otherwise, all groups are hashed by their item hashes.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class GroupMap {
+  /** Groups in the order of their creation. */
+  final ArrayList<Group> groups = new ArrayList<>();
+  /** Collations. */
+  private final Collation[] colls;
+  /** Input info. */
+  private final InputInfo info;
+
+  /** Groups with integer keys (only assigned if specialized maps are used). */
+  private LongObjMap<Group> ints;
+  /** Groups with string keys (only assigned if specialized maps are used). */
+  private TokenObjMap<Group> strings;
+  /** Group with empty key (only assigned if specialized maps are used). */
+  private Group empty;
+  /** Groups, hashed by their key (only assigned if specialized maps are not used). */
+  private IntObjMap<Group> map;
+
+  /**
+   * Constructor.
+   * @param colls collations of the non-occluded grouping specs
+   * @param info input info
+   */
+  GroupMap(final Collation[] colls, final InputInfo info) {
+    this.colls = colls;
+    this.info = info;
+    if(colls.length == 1 && colls[0] == null) {
+      ints = new LongObjMap<>();
+      strings = new TokenObjMap<>();
+    } else {
+      map = new IntObjMap<>();
+    }
+  }
+
+  /**
+   * Returns the group for the specified key.
+   * @param key grouping key
+   * @return group or {@code null}
+   * @throws QueryException query exception
+   */
+  Group get(final Item[] key) throws QueryException {
+    if(map == null) {
+      final Item item = key[0];
+      if(item == null) return empty;
+      if(item instanceof Int) return ints.get(((Int) item).itr());
+      if(item.type.isStringOrUntyped()) return strings.get(item.string(info));
+      generic();
+    }
+    for(Group g = map.get(hash(key)); g != null; g = g.next) {
+      if(eq(key, g.key)) return g;
+    }
+    return null;
+  }
+
+  /**
+   * Adds a new group. {@link #get(Item[])} must have been called before with the same key.
+   * @param group group
+   * @throws QueryException query exception
+   */
+  void add(final Group group) throws QueryException {
+    groups.add(group);
+    final Item[] key = group.key;
+    if(map == null) {
+      final Item item = key[0];
+      if(item == null) empty = group;
+      else if(item instanceof Int) ints.put(((Int) item).itr(), group);
+      else strings.put(item.string(info), group);
+    } else {
+      put(group, hash(key));
+    }
+  }
+
+  /**
+   * Computes the hash value of a key. If the values are compared using a special collation,
+   * we let them collide here and let the comparison do all the work later.
+   * This enables other non-collation specs to avoid the collision.
+   * @param key grouping key
+   * @return hash value
+   * @throws QueryException query exception
+   */
+  int hash(final Item[] key) throws QueryException {
+    int hash = 1;
+    final int kl = key.length;
+    for(int k = 0; k < kl; k++) {
+      final Item item = key[k];
+      hash = 31 * hash + (item == null || colls[k] != null ? 0 : item.hash(info));
+    }
+    return hash;
+  }
+
+  /**
+   * Switches to a generic map and rehashes all groups.
+   * @throws QueryException query exception
+   */
+  private void generic() throws QueryException {
+    map = new IntObjMap<>();
+    for(final Group group : groups) put(group, hash(group.key));
+    ints = null;
+    strings = null;
+    empty = null;
+  }
+
+  /**
+   * Inserts a group into the generic hash map.
+   * @param group group
+   * @param hash hash value
+   */
+  private void put(final Group group, final int hash) {
+    final Group fst = map.get(hash);
+    if(fst == null) {
+      map.put(hash, group);
+    } else {
+      final Group nxt = fst.next;
+      fst.next = group;
+      group.next = nxt;
+    }
+  }
+
+  /**
+   * Checks two keys for equality.
+   * @param its1 first keys
+   * @param its2 second keys
+   * @return {@code true} if the compare as equal, {@code false} otherwise
+   * @throws QueryException query exception
+   */
+  private boolean eq(final Item[] its1, final Item[] its2) throws QueryException {
+    final int il = its1.length;
+    for(int i = 0; i < il; i++) {
+      final Item item1 = its1[i], item2 = its2[i];
+      if(item1 == null ^ item2 == null || item1 != null && !item1.equiv(item2, colls[i], info))
+        return false;
+    }
+    return true;
+  }
+}
@@ -3,9 +3,13 @@ package org.basex.query.expr.gflwor;
 import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
+import java.io.*;
 import java.util.*;
-import java.util.List;
 
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.util.*;
@@ -43,83 +47,369 @@ public final class OrderBy extends Clause {
 
   @Override
   Eval eval(final Eval sub) {
+    return eval(sub, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates an evaluator for this clause, the results of which will only be requested
+   * up to the specified number of tuples.
+   * @param sub wrapped evaluator
+   * @param limit maximum number of tuples to be returned
+   * @return evaluator
+   */
+  Eval eval(final Eval sub, final long limit) {
     return new Eval() {
-      private Value[][] tpls;
-      private Integer[] perm;
-      int pos;
+      /** Sorted tuples. */
+      private Tuples tuples;
 
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
-        if(tpls == null) sort(qc);
-        if(pos == tpls.length) return false;
-        final int p = perm[pos++];
-        final Value[] tuple = tpls[p];
-        // free the space occupied by the tuple
-        tpls[p] = null;
+        if(tuples == null) tuples = sort(sub, limit, qc);
+        if(!tuples.next()) return false;
+        final Value[] tuple = tuples.values;
         final int rl = refs.length;
         for(int r = 0; r < rl; r++) qc.set(refs[r].var, tuple[r]);
         return true;
       }
+    };
+  }
+
+  /**
+   * Caches and sorts all incoming tuples. If the number of tuples exceeds the limit assigned
+   * via {@link MainOptions#SORTLIMIT}, sorted runs are written to disk and merged lazily.
+   * @param sub clause evaluator
+   * @param max maximum number of tuples to be returned
+   * @param qc query context
+   * @return sorted tuples
+   * @throws QueryException evaluation exception
+   */
+  private Tuples sort(final Eval sub, final long max, final QueryContext qc)
+      throws QueryException {
+    final int limit = qc.context.options.get(MainOptions.SORTLIMIT);
+    if(max < Integer.MAX_VALUE && (limit == 0 || max <= limit)) return topK(sub, (int) max, qc);
+
+    final ArrayList<Tuples> runs = new ArrayList<>();
+    boolean spill = limit > 0;
 
-      /**
-       * Caches and sorts all incoming tuples.
-       * @param qc query context
-       * @throws QueryException evaluation exception
-       */
-      private void sort(final QueryContext qc) throws QueryException {
-        // keys are stored at odd positions, values at even ones
-        List<Value[]> tuples = new ArrayList<>();
-        while(sub.next(qc)) {
-          final int kl = keys.length;
-          final Item[] key = new Item[kl];
-          for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info);
-          tuples.add(key);
-
-          final int rl = refs.length;
-          final Value[] vals = new Value[rl];
-          for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
-          tuples.add(vals);
+    final ArrayList<Item[]> ks = new ArrayList<>();
+    final ArrayList<Value[]> vs = new ArrayList<>();
+    while(sub.next(qc)) {
+      final int kl = keys.length;
+      final Item[] key = new Item[kl];
+      for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info);
+      ks.add(key);
+
+      final int rl = refs.length;
+      final Value[] vals = new Value[rl];
+      for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
+      vs.add(vals);
+
+      if(spill && ks.size() == limit) {
+        // write sorted run to disk, or continue in main memory if tuples cannot be written
+        spill = spillable(ks, vs);
+        if(spill) {
+          runs.add(spill(new MemTuples(ks, vs), qc));
+          ks.clear();
+          vs.clear();
         }
+      }
+    }
+    final Tuples mem = new MemTuples(ks, vs);
+    if(runs.isEmpty()) return mem;
+    runs.add(mem);
+    return new MergedTuples(runs.toArray(new Tuples[0]));
+  }
+
+  /**
+   * Caches the smallest tuples in a bounded heap and sorts them.
+   * @param sub clause evaluator
+   * @param max maximum number of tuples to be returned
+   * @param qc query context
+   * @return sorted tuples
+   * @throws QueryException evaluation exception
+   */
+  private Tuples topK(final Eval sub, final int max, final QueryContext qc)
+      throws QueryException {
+    // reverse order: the largest tuple will be removed first. The input position is stored
+    // after the keys and used for stable sorting, the keys are also stored after the values
+    final int kl = keys.length, rl = refs.length;
+    final MinHeap<Item[], Value[]> heap = new MinHeap<>((a, b) -> {
+      try {
+        final int c = compare(b, a);
+        return c != 0 ? c : Long.compare(((Int) b[kl]).itr(), ((Int) a[kl]).itr());
+      } catch(final QueryException ex) {
+        throw new QueryRTException(ex);
+      }
+    });
+    try {
+      for(long p = 0; max > 0 && sub.next(qc); p++) {
+        final Item[] key = new Item[kl + 1];
+        for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info);
+        key[kl] = Int.get(p);
+
+        final Value[] vals = new Value[rl + kl];
+        for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
+        System.arraycopy(key, 0, vals, rl, kl);
+        heap.insert(key, vals);
+        if(heap.size() > max) heap.removeMin();
+      }
+    } catch(final QueryRTException ex) {
+      throw ex.getCause();
+    }
+
+    // the heap returns the tuples in descending order
+    final int hs = heap.size();
+    final Item[][] ks = new Item[hs][];
+    final Value[][] vs = new Value[hs][];
+    for(int h = hs - 1; h >= 0; h--) {
+      final Value[] vals = heap.removeMin();
+      ks[h] = new Item[kl];
+      System.arraycopy(vals, rl, ks[h], 0, kl);
+      vs[h] = Arrays.copyOf(vals, rl);
+    }
+    return new MemTuples(new ArrayList<>(Arrays.asList(ks)), new ArrayList<>(Arrays.asList(vs)));
+  }
+
+  /**
+   * Checks if the specified tuples can be written to disk.
+   * @param ks keys
+   * @param vs values
+   * @return result of check
+   */
+  private static boolean spillable(final ArrayList<Item[]> ks, final ArrayList<Value[]> vs) {
+    for(final Item[] key : ks) {
+      for(final Item item : key) {
+        if(!SortRuns.spillable(item)) return false;
+      }
+    }
+    for(final Value[] vals : vs) {
+      for(final Value value : vals) {
+        if(!SortRuns.spillable(value)) return false;
+      }
+    }
+    return true;
+  }
 
-        final int len = tuples.size() >>> 1;
-        final Item[][] ks = new Item[len][];
-        perm = new Integer[len];
-        tpls = new Value[len][];
-        for(int i = 0; i < len; i++) {
-          perm[i] = i;
-          tpls[i] = tuples.get(i << 1 | 1);
-          ks[i] = (Item[]) tuples.get(i << 1);
+  /**
+   * Writes sorted tuples to a temporary file.
+   * @param tuples sorted tuples
+   * @param qc query context
+   * @return tuples of the written run
+   * @throws QueryException query exception
+   */
+  private Tuples spill(final Tuples tuples, final QueryContext qc) throws QueryException {
+    final SortRuns sr = qc.resources.index(SortRuns.class);
+    try {
+      final IOFile file = sr.file();
+      int size = 0;
+      try(DataOutput out = new DataOutput(file)) {
+        while(tuples.next()) {
+          for(final Item key : tuples.keys) sr.write(out, key);
+          for(final Value value : tuples.values) sr.write(out, value);
+          size++;
         }
-        // be nice to the garbage collector
-        tuples = null;
-        try {
-          Arrays.sort(perm, (x, y) -> {
-            try {
-              final Item[] a = ks[x], b = ks[y];
-              final int kl = keys.length;
-              for(int k = 0; k < kl; k++) {
-                final OrderKey key = keys[k];
-                Item m = a[k], n = b[k];
-                if(m == Dbl.NAN || m == Flt.NAN) m = null;
-                if(n == Dbl.NAN || n == Flt.NAN) n = null;
-                if(m != null && n != null && !m.comparable(n))
-                  throw typeError(n, m.type, key.info);
-
-                final int c = m == null
-                    ? n == null ? 0                 : key.least ? -1 : 1
-                    : n == null ? key.least ? 1 : -1 : m.diff(n, key.coll, key.info);
-                if(c != 0) return key.desc ? -c : c;
-              }
-              return 0;
-            } catch(final QueryException ex) {
-              throw new QueryRTException(ex);
-            }
-          });
-        } catch(final QueryRTException ex) {
-          throw ex.getCause();
+      }
+      return new FileTuples(file, size, sr, qc);
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
+  }
+
+  /**
+   * Compares two sort keys.
+   * @param a first key
+   * @param b second key
+   * @return result of comparison
+   * @throws QueryException query exception
+   */
+  private int compare(final Item[] a, final Item[] b) throws QueryException {
+    final int kl = keys.length;
+    for(int k = 0; k < kl; k++) {
+      final OrderKey key = keys[k];
+      Item m = a[k], n = b[k];
+      if(m == Dbl.NAN || m == Flt.NAN) m = null;
+      if(n == Dbl.NAN || n == Flt.NAN) n = null;
+      if(m != null && n != null && !m.comparable(n))
+        throw typeError(n, m.type, key.info);
+
+      final int c = m == null
+          ? n == null ? 0                 : key.least ? -1 : 1
+          : n == null ? key.least ? 1 : -1 : m.diff(n, key.coll, key.info);
+      if(c != 0) return key.desc ? -c : c;
+    }
+    return 0;
+  }
+
+  /**
+   * Iterator over sorted tuples.
+   */
+  private abstract static class Tuples {
+    /** Keys of the current tuple. */
+    Item[] keys;
+    /** Values of the current tuple. */
+    Value[] values;
+
+    /**
+     * Assigns the next tuple.
+     * @return {@code true} if another tuple was found
+     * @throws QueryException query exception
+     */
+    abstract boolean next() throws QueryException;
+  }
+
+  /**
+   * Tuples sorted in main memory.
+   */
+  private final class MemTuples extends Tuples {
+    /** Keys. */
+    private final Item[][] ks;
+    /** Values. */
+    private final Value[][] vs;
+    /** Sort order. */
+    private final Integer[] perm;
+    /** Current position. */
+    private int pos;
+
+    /**
+     * Constructor.
+     * @param kl keys
+     * @param vl values
+     * @throws QueryException query exception
+     */
+    private MemTuples(final ArrayList<Item[]> kl, final ArrayList<Value[]> vl)
+        throws QueryException {
+      final int len = kl.size();
+      ks = kl.toArray(new Item[len][]);
+      vs = vl.toArray(new Value[len][]);
+      perm = new Integer[len];
+      for(int i = 0; i < len; i++) perm[i] = i;
+      try {
+        Arrays.sort(perm, (x, y) -> {
+          try {
+            return compare(ks[x], ks[y]);
+          } catch(final QueryException ex) {
+            throw new QueryRTException(ex);
+          }
+        });
+      } catch(final QueryRTException ex) {
+        throw ex.getCause();
+      }
+    }
+
+    @Override
+    boolean next() {
+      if(pos == perm.length) return false;
+      final int p = perm[pos++];
+      keys = ks[p];
+      values = vs[p];
+      // free the space occupied by the tuple
+      ks[p] = null;
+      vs[p] = null;
+      return true;
+    }
+  }
+
+  /**
+   * Tuples of a sorted run, which are lazily read from disk.
+   */
+  private final class FileTuples extends Tuples {
+    /** File. */
+    private final IOFile file;
+    /** Sort runs. */
+    private final SortRuns sr;
+    /** Query context. */
+    private final QueryContext qc;
+    /** Input stream (opened on first access). */
+    private DataInput in;
+    /** Number of remaining tuples. */
+    private int size;
+
+    /**
+     * Constructor.
+     * @param file file
+     * @param size number of tuples
+     * @param sr sort runs
+     * @param qc query context
+     */
+    private FileTuples(final IOFile file, final int size, final SortRuns sr,
+        final QueryContext qc) {
+      this.file = file;
+      this.size = size;
+      this.sr = sr;
+      this.qc = qc;
+    }
+
+    @Override
+    boolean next() throws QueryException {
+      try {
+        if(size == 0) {
+          if(in != null) {
+            in.close();
+            in = null;
+            file.delete();
+          }
+          return false;
         }
+        if(in == null) in = new DataInput(file);
+        final int kl = OrderBy.this.keys.length, rl = refs.length;
+        keys = new Item[kl];
+        for(int k = 0; k < kl; k++) keys[k] = sr.read(in);
+        values = new Value[rl];
+        for(int r = 0; r < rl; r++) values[r] = sr.read(in, qc);
+        size--;
+        return true;
+      } catch(final IOException ex) {
+        throw IOERR_X.get(info, ex);
       }
-    };
+    }
+  }
+
+  /**
+   * Lazily merged tuples of multiple runs.
+   */
+  private final class MergedTuples extends Tuples {
+    /** Runs (the current tuple of an exhausted run is {@code null}). */
+    private final Tuples[] runs;
+    /** Indicates if the runs have been initialized. */
+    private boolean init;
+
+    /**
+     * Constructor.
+     * @param runs runs
+     */
+    private MergedTuples(final Tuples[] runs) {
+      this.runs = runs;
+    }
+
+    @Override
+    boolean next() throws QueryException {
+      if(!init) {
+        for(final Tuples run : runs) advance(run);
+        init = true;
+      }
+      // choose smallest tuple; prefer earlier runs to keep the sort stable
+      Tuples min = null;
+      for(final Tuples run : runs) {
+        if(run.keys != null && (min == null || compare(run.keys, min.keys) < 0)) min = run;
+      }
+      if(min == null) return false;
+      keys = min.keys;
+      values = min.values;
+      advance(min);
+      return true;
+    }
+
+    /**
+     * Advances the specified run.
+     * @param run run
+     * @throws QueryException query exception
+     */
+    private void advance(final Tuples run) throws QueryException {
+      if(!run.next()) {
+        run.keys = null;
+        run.values = null;
+      }
+    }
   }
 
   @Override
@@ -168,6 +458,11 @@ public final class OrderBy extends Clause {
     return copyType(new OrderBy(Arr.copyAll(cc, vm, refs), Arr.copyAll(cc, vm, keys), info));
   }
 
+  @Override
+  public void profile() {
+    for(final OrderKey key : keys) key.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return visitAll(visitor, keys);
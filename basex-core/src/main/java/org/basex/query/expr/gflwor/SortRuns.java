@@ -0,0 +1,200 @@
+package org.basex.query.expr.gflwor;
+
+import java.io.*;
+import java.math.*;
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Temporary files with sorted runs or partitioned groups of tuples. Atomic items of the most
+ * common types and database nodes can be written to disk; database nodes are represented
+ * by a reference to their database and their pre value. All files will be deleted when the
+ * query is closed.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class SortRuns implements QueryResource {
+  /** Item kinds. */
+  private static final int NULL = 0, STR = 1, ATM = 2, URI = 3, INT = 4, DBL = 5, FLT = 6,
+      DEC = 7, BLN = 8, NODE = 9;
+  /** Atomic types. */
+  private static final AtomType[] TYPES = AtomType.values();
+
+  /** Temporary files. */
+  private final ArrayList<IOFile> files = new ArrayList<>();
+  /** Referenced databases. */
+  private final ArrayList<Data> datas = new ArrayList<>();
+
+  /**
+   * Checks if the specified item can be written to disk.
+   * @param item item (can be {@code null})
+   * @return result of check
+   */
+  static boolean spillable(final Item item) {
+    if(item == null) return true;
+    final Class<?> c = item.getClass();
+    return c == Str.class || c == Atm.class || c == Uri.class || c == Int.class ||
+      c == Dbl.class || c == Flt.class || c == Bln.class || c == DBNode.class ||
+      c == Dec.class && item.type == AtomType.DEC;
+  }
+
+  /**
+   * Checks if the specified value can be written to disk.
+   * @param value value
+   * @return result of check
+   */
+  static boolean spillable(final Value value) {
+    for(final Item item : value) {
+      if(!spillable(item)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Creates a new temporary file.
+   * @return file
+   * @throws IOException I/O exception
+   */
+  synchronized IOFile file() throws IOException {
+    final IOFile file = new IOFile(File.createTempFile(Prop.NAME + '-', IO.TMPSUFFIX));
+    files.add(file);
+    return file;
+  }
+
+  /**
+   * Writes a value.
+   * @param out output stream
+   * @param value value
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out, final Value value) throws IOException {
+    out.writeNum((int) value.size());
+    for(final Item item : value) write(out, item);
+  }
+
+  /**
+   * Writes an item.
+   * @param out output stream
+   * @param item item (can be {@code null})
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out, final Item item) throws IOException {
+    if(item == null) {
+      out.write1(NULL);
+    } else if(item instanceof Str) {
+      out.write1(STR);
+      out.write1(((AtomType) item.type).ordinal());
+      out.writeToken(((Str) item).string());
+    } else if(item instanceof Atm) {
+      out.write1(ATM);
+      out.writeToken(((Atm) item).string(null));
+    } else if(item instanceof Uri) {
+      out.write1(URI);
+      out.writeToken(((Uri) item).string());
+    } else if(item instanceof Int) {
+      out.write1(INT);
+      out.write1(((AtomType) item.type).ordinal());
+      out.write8(((Int) item).itr());
+    } else if(item instanceof Dbl) {
+      out.write1(DBL);
+      out.write8(Double.doubleToRawLongBits(((Dbl) item).dbl()));
+    } else if(item instanceof Flt) {
+      out.write1(FLT);
+      out.write8(Double.doubleToRawLongBits(((Flt) item).flt()));
+    } else if(item instanceof Dec) {
+      out.write1(DEC);
+      out.writeToken(Token.token(((Dec) item).dec(null).toString()));
+    } else if(item instanceof Bln) {
+      out.write1(BLN);
+      out.writeBool(((Bln) item).bool(null));
+    } else {
+      final DBNode node = (DBNode) item;
+      out.write1(NODE);
+      out.writeNum(data(node.data()));
+      out.writeNum(node.pre());
+    }
+  }
+
+  /**
+   * Reads a value.
+   * @param in input stream
+   * @param qc query context
+   * @return value
+   * @throws IOException I/O exception
+   */
+  Value read(final DataInput in, final QueryContext qc) throws IOException {
+    final int size = in.readNum();
+    if(size == 1) return read(in);
+    final ValueBuilder vb = new ValueBuilder(qc);
+    for(int s = 0; s < size; s++) vb.add(read(in));
+    return vb.value();
+  }
+
+  /**
+   * Reads an item.
+   * @param in input stream
+   * @return item (can be {@code null})
+   * @throws IOException I/O exception
+   */
+  Item read(final DataInput in) throws IOException {
+    switch(in.read()) {
+      case NULL: return null;
+      case STR:
+        final AtomType st = TYPES[in.read()];
+        final byte[] value = in.readToken();
+        return st == AtomType.STR ? Str.get(value) : new Str(value, st);
+      case ATM: return new Atm(in.readToken());
+      case URI: return Uri.uri(in.readToken(), false);
+      case INT:
+        final AtomType it = TYPES[in.read()];
+        return Int.get(in.read8(), it);
+      case DBL: return Dbl.get(Double.longBitsToDouble(in.read8()));
+      case FLT: return Flt.get((float) Double.longBitsToDouble(in.read8()));
+      case DEC: return Dec.get(new BigDecimal(Token.string(in.readToken())));
+      case BLN: return Bln.get(in.readBool());
+      case NODE: return new DBNode(data(in.readNum()), in.readNum());
+      default: throw new IOException("Invalid item kind.");
+    }
+  }
+
+  /**
+   * Returns the id of the specified database.
+   * @param data data reference
+   * @return id
+   */
+  private synchronized int data(final Data data) {
+    final int ds = datas.size();
+    for(int d = 0; d < ds; d++) {
+      if(datas.get(d) == data) return d;
+    }
+    datas.add(data);
+    return ds;
+  }
+
+  /**
+   * Returns the database with the specified id.
+   * @param id id
+   * @return data reference
+   */
+  private synchronized Data data(final int id) {
+    return datas.get(id);
+  }
+
+  @Override
+  public synchronized void close() {
+    for(final IOFile file : files) file.delete();
+    files.clear();
+    datas.clear();
+  }
+}
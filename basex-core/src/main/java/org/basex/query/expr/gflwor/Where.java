@@ -88,6 +88,11 @@ public final class Where extends Clause {
     return copyType(new Where(expr.copy(cc, vm), info));
   }
 
+  @Override
+  public void profile() {
+    expr = Profile.get(expr);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return expr.accept(visitor);
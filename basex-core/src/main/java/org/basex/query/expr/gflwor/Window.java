@@ -301,6 +301,13 @@ public final class Window extends Clause {
     }
   }
 
+  @Override
+  public void profile() {
+    expr = Profile.get(expr);
+    start.profile();
+    if(end != null) end.profile();
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return expr.accept(visitor) && start.accept(visitor) &&
@@ -679,6 +679,8 @@ public abstract class Path extends ParseExpr {
     // check if path can be converted to an index access
     final Data data = rt != null ? rt.data() : null;
     final int sl = steps.length;
+    // costs of all predicates that can be rewritten for index access
+    final IndexCosts[][] costs = new IndexCosts[sl][];
     for(int s = 0; s < sl; s++) {
       // only accept descendant steps without positional predicates
       // Example for position predicate: child:x[1] != parent::x[1]
@@ -693,9 +695,11 @@ public abstract class Path extends ParseExpr {
           new IndexDynDb(info, iter, root == null ? new ContextValue(info) : root);
 
         // choose cheapest index access
+        costs[s] = new IndexCosts[el];
         for(int e = 0; e < el; e++) {
           final IndexInfo ii = new IndexInfo(db, cc.qc, step);
           if(!step.exprs[e].indexAccessible(ii)) continue;
+          costs[s][e] = ii.costs;
 
           if(ii.costs.results() == 0) {
             // no results...
@@ -712,8 +716,9 @@ public abstract class Path extends ParseExpr {
       }
     }
 
-    // skip rewriting if no index access is possible, or if it is too expensive
-    if(index == null || data != null && index.costs.tooExpensive(data)) return this;
+    // skip rewriting if no index access is possible, or if a sequential scan is cheaper
+    if(index == null || data != null && index.costs.tooExpensive(nodes(data, indexStep)))
+      return order(data, costs, cc);
     // skip optimization if it is not enforced
     if(rt instanceof Dummy && !index.enforce()) return this;
 
@@ -741,10 +746,9 @@ public abstract class Path extends ParseExpr {
     }
     if(!invSteps.isEmpty()) newPreds.add(get(info, null, invSteps.finish()));
 
-    // add remaining predicates
+    // add remaining predicates, ordered by their selectivity
     final Expr[] preds = index.step.exprs;
-    final int pl = preds.length;
-    for(int p = 0; p < pl; p++) {
+    for(final int p : order(data, preds, costs[indexStep])) {
       if(p != indexPred) newPreds.add(preds[p]);
     }
 
@@ -784,6 +788,93 @@ public abstract class Path extends ParseExpr {
     return resultSteps.isEmpty() ? resultRoot : get(info, resultRoot, resultSteps.finish());
   }
 
+  /**
+   * Estimates the number of nodes that will be visited by a sequential evaluation
+   * of the specified step. The path index is consulted if it is up-to-date, and if
+   * the database contains no elements with different namespaces.
+   * @param data data reference
+   * @param s step
+   * @return number of nodes
+   */
+  private int nodes(final Data data, final int s) {
+    final ArrayList<PathNode> nodes = data.nspaces.globalUri() != null ? pathNodes(data, s) : null;
+    if(nodes == null) return data.meta.size;
+    long count = 0;
+    for(final PathNode node : nodes) count += node.stats.count;
+    return (int) Math.min(data.meta.size, count);
+  }
+
+  /**
+   * Orders the predicates of all steps by their selectivity.
+   * @param data data reference (can be {@code null})
+   * @param costs costs of the predicates (entries can be {@code null})
+   * @param cc compilation context
+   * @return original or new expression
+   */
+  private Expr order(final Data data, final IndexCosts[][] costs, final CompileContext cc) {
+    Expr[] stps = null;
+    final int sl = steps.length;
+    for(int s = 0; s < sl; s++) {
+      if(costs[s] == null) continue;
+      final Step step = axisStep(s);
+      final Expr[] preds = step.exprs;
+      final int[] order = order(data, preds, costs[s]);
+      final int pl = order.length;
+      int p = 0;
+      while(p < pl && order[p] == p) p++;
+      if(p == pl) continue;
+
+      final Expr[] prds = new Expr[pl];
+      for(p = 0; p < pl; p++) prds[p] = preds[order[p]];
+      if(stps == null) stps = steps.clone();
+      stps[s] = Step.get(info, step.axis, step.test, prds);
+    }
+    if(stps == null) return this;
+
+    final Expr path = get(info, root, stps);
+    cc.info(QueryText.OPTORDER_X, path);
+    return path;
+  }
+
+  /**
+   * Returns the positions of predicates, ordered by their selectivity. Predicates with the
+   * smallest number of expected index results are placed first, and predicates that cannot be
+   * rewritten for index access are placed last. The original order is preserved if costs
+   * are unknown or enforced, or if a predicate is non-deterministic.
+   * @param data data reference (can be {@code null})
+   * @param preds predicates
+   * @param costs costs of the predicates (entries can be {@code null})
+   * @return positions
+   */
+  private static int[] order(final Data data, final Expr[] preds, final IndexCosts[] costs) {
+    final int pl = preds.length;
+    final int[] order = new int[pl];
+    for(int p = 0; p < pl; p++) order[p] = p;
+    if(data == null) return order;
+    for(int p = 0; p < pl; p++) {
+      if(preds[p].has(Flag.NDT) || costs[p] != null && costs[p].results() < 0) return order;
+    }
+
+    // stable insertion sort (number of predicates is small)
+    for(int p = 1; p < pl; p++) {
+      final int o = order[p];
+      final long r = results(costs[o]);
+      int q = p;
+      for(; q > 0 && results(costs[order[q - 1]]) > r; q--) order[q] = order[q - 1];
+      order[q] = o;
+    }
+    return order;
+  }
+
+  /**
+   * Returns the number of expected results for the specified costs.
+   * @param costs costs (can be {@code null})
+   * @return number of results, or {@link Long#MAX_VALUE} if costs are unknown
+   */
+  private static long results(final IndexCosts costs) {
+    return costs == null ? Long.MAX_VALUE : costs.results();
+  }
+
   /**
    * Checks if steps before index step need to be inverted and traversed.
    * @param data data reference
@@ -947,6 +1038,12 @@ public abstract class Path extends ParseExpr {
     return changed ? optimize(cc) : null;
   }
 
+  @Override
+  public void profile() {
+    if(root != null) root = Profile.get(root);
+    Profile.get(steps);
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     if(root == null) {
@@ -660,6 +660,9 @@ public enum Function {
 
   // Client Module
 
+  /** XQuery function. */
+  _CLIENT_BATCH(ClientBatch.class, "batch(id,queries[,bindings])",
+      arg(URI_O, STR_ZM, MAP_ZO), ARRAY_O, flag(NDT), CLIENT_URI),
   /** XQuery function. */
   _CLIENT_CLOSE(ClientClose.class, "close(id)", arg(URI_O), EMP, flag(NDT), CLIENT_URI),
   /** XQuery function. */
@@ -1166,6 +1169,9 @@ public enum Function {
   /** XQuery function. */
   _PROF_SLEEP(ProfSleep.class, "sleep(ms)", arg(ITR_O), EMP, flag(NDT), PROF_URI),
   /** XQuery function. */
+  _PROF_PROFILE(ProfProfile.class, "profile(query[,bindings])",
+      arg(STR_O, MAP_ZO), ELM_O, flag(NDT), PROF_URI),
+  /** XQuery function. */
   _PROF_RUNTIME(ProfRuntime.class, "runtime(name)", arg(STR_O), ITEM_O, flag(NDT), PROF_URI),
   /** XQuery function. */
   _PROF_TIME(ProfTime.class, "time(value[,label])",
@@ -19,6 +19,7 @@ import org.basex.io.out.*;
 import org.basex.io.serial.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.gflwor.*;
 import org.basex.query.func.xquery.XQueryEval.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
@@ -216,6 +217,20 @@ public abstract class StandardFunc extends Arr {
     return exprs.length == i ? ctxValue(qc) : exprs[i];
   }
 
+  /**
+   * Returns an iterator for the specified expression, the results of which will only be
+   * requested up to the specified number of items.
+   * @param expr expression
+   * @param limit maximum number of requested items
+   * @param qc query context
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  protected static final Iter iter(final Expr expr, final long limit, final QueryContext qc)
+      throws QueryException {
+    return expr instanceof GFLWOR ? ((GFLWOR) expr).iter(qc, limit) : expr.iter(qc);
+  }
+
   /**
    * Checks if the specified expression is a database node.
    * Returns the node or an exception.
@@ -0,0 +1,68 @@
+package org.basex.query.func.client;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.Map.*;
+
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.basex.query.value.array.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientBatch extends ClientFn {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    checkCreate(qc);
+    final ClientSession cs = session(qc, false);
+    final Value queries = exprs[1].value(qc);
+    final HashMap<String, Value> bindings = toBindings(2, qc);
+    final org.basex.api.client.ClientBatch batch = cs.batch();
+    try {
+      // all queries are evaluated with the same bindings
+      for(final Item query : queries) {
+        batch.query(Token.string(toToken(query)), true);
+        for(final Entry<String, Value> binding : bindings.entrySet()) {
+          final String key = binding.getKey();
+          final Value value = binding.getValue();
+          if(key.isEmpty()) batch.context(value);
+          else batch.bind(key, value);
+        }
+      }
+      // evaluate queries with a single request
+      batch.execute();
+
+      final ArrayBuilder builder = new ArrayBuilder();
+      final int bs = batch.size();
+      for(int b = 0; b < bs; b++) {
+        final String[] items = batch.items(b);
+        final Type[] types = batch.types(b);
+        final ValueBuilder vb = new ValueBuilder(qc);
+        final int il = items.length;
+        for(int i = 0; i < il; i++) {
+          if(types[i] instanceof FuncType) throw CLIENT_FITEM_X.get(info, items[i]);
+          vb.add(types[i].castString(items[i], qc, sc, info));
+        }
+        builder.append(vb.value());
+      }
+      return builder.freeze();
+    } catch(final QueryIOException ex) {
+      throw ex.getCause(info);
+    } catch(final BaseXException ex) {
+      throw error(ex);
+    } catch(final IOException ex) {
+      throw CLIENT_ERROR_X.get(info, ex);
+    }
+  }
+}
@@ -4,7 +4,6 @@ import static org.basex.query.QueryError.*;
 
 import java.io.*;
 import java.util.Map.*;
-import java.util.regex.*;
 
 import org.basex.api.client.*;
 import org.basex.core.*;
@@ -22,9 +21,6 @@ import org.basex.util.*;
  * @author Christian Gruen
  */
 public final class ClientQuery extends ClientFn {
-  /** Query pattern. */
-  private static final Pattern QUERYPAT = Pattern.compile("\\[(.*?)] (.*)", Pattern.MULTILINE);
-
   @Override
   public Iter iter(final QueryContext qc) throws QueryException {
     return value(qc).iter();
@@ -56,13 +52,7 @@ public final class ClientQuery extends ClientFn {
     } catch(final QueryIOException ex) {
       throw ex.getCause(info);
     } catch(final BaseXException ex) {
-      final Matcher m = QUERYPAT.matcher(ex.getMessage());
-      if(m.find()) {
-        final String name = m.group(1), msg = m.group(2);
-        final QueryException exc = get(name, msg, info);
-        throw exc == null ? new QueryException(info, new QNm(name), msg) : exc;
-      }
-      throw CLIENT_QUERY_X.get(info, ex);
+      throw error(ex);
     } catch(final IOException ex) {
       throw CLIENT_ERROR_X.get(info, ex);
     }
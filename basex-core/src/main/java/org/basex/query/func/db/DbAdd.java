@@ -1,11 +1,15 @@
 package org.basex.query.func.db;
 
+import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
+import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.up.primitives.*;
 import org.basex.query.up.primitives.db.*;
+import org.basex.query.up.primitives.name.*;
+import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.options.*;
@@ -19,11 +23,31 @@ import org.basex.util.options.*;
 public final class DbAdd extends DbNew {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final Data data = checkData(qc);
+    // deferred write lock: database must not be opened before the updates are applied
+    final String name = name();
+    final boolean defer = name != null && qc.jc().locks.updates.contains(name);
+    if(defer && !Databases.validName(name)) throw INVDB_X.get(info, name);
+    final Data data = defer ? null : checkData(qc);
+
     final byte[] path = exprs.length < 3 ? EMPTY : token(path(2, qc));
     final NewInput input = checkInput(toNodeOrAtomItem(1, qc), path);
     final Options opts = toOptions(3, new Options(), qc);
-    qc.updates().add(new DBAdd(data, input, opts, false, qc, info), qc);
+    qc.updates().add(defer ? new DBAppend(name, input, opts, qc, info) :
+      new DBAdd(data, input, opts, false, qc, info), qc);
     return null;
   }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    // the database will only be modified when the updates are applied
+    return visitor.lockUpdates(name()) && visitAll(visitor, exprs);
+  }
+
+  /**
+   * Returns the statically known name of the database.
+   * @return name or {@code null}
+   */
+  private String name() {
+    return exprs[0] instanceof Str ? string(((Str) exprs[0]).string()) : null;
+  }
 }
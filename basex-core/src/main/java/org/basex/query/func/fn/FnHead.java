@@ -18,8 +18,7 @@ import org.basex.util.*;
 public final class FnHead extends StandardFunc {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final Expr expr = exprs[0];
-    return expr.iter(qc).next();
+    return iter(exprs[0], 1, qc).next();
   }
 
   @Override
@@ -30,4 +30,6 @@ public class FtIndexOptions extends Options {
   /** Option: content. */
   public static final EnumOption<FTContents> CONTENT =
       new EnumOption<>("content", FTContents.class);
+  /** Option: maximum number of ranked results. */
+  public static final NumberOption LIMIT = new NumberOption("limit");
 }
@@ -3,6 +3,8 @@ package org.basex.query.func.ft;
 import static org.basex.query.QueryError.*;
 import static org.basex.util.ft.FTFlag.*;
 
+import java.util.*;
+
 import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.expr.ft.*;
@@ -10,6 +12,7 @@ import org.basex.query.expr.index.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.value.*;
+import org.basex.query.value.node.*;
 import org.basex.util.ft.*;
 
 /**
@@ -33,7 +36,50 @@ public final class FtSearch extends FtAccess {
     if(opt.is(FZ) && opt.is(WC)) throw FT_OPTIONS.get(info, this);
 
     final FTWords ftw = new FTWords(info, db, terms, mode).init(qc, opt);
-    return new FTIndexAccess(info, options(ftw, opts), db).iter(qc);
+    final FTExpr expr = options(ftw, opts);
+    if(!opts.contains(FtIndexOptions.LIMIT)) return new FTIndexAccess(info, expr, db).iter(qc);
+
+    // ranked results: choose best results of the index iterators, or of the filtered results
+    final int limit = opts.get(FtIndexOptions.LIMIT);
+    if(expr == ftw) return FTIndexAccess.iter(ftw.iter(qc, limit), qc);
+    ftw.bm25();
+    return FTIndexAccess.iter(best(expr.iter(qc), limit), qc);
+  }
+
+  /**
+   * Returns an iterator for the nodes with the highest scores.
+   * @param iter full-text iterator
+   * @param limit maximum number of results
+   * @return iterator, returning nodes in descending order of their scores
+   * @throws QueryException query exception
+   */
+  private static FTIter best(final FTIter iter, final int limit) throws QueryException {
+    // min-heap: nodes with lower scores and, for equal scores, larger pre values come first
+    final Comparator<FTNode> cmp = (n1, n2) -> {
+      final int c = Double.compare(n1.score(), n2.score());
+      return c != 0 ? c : Integer.compare(n2.pre(), n1.pre());
+    };
+    final PriorityQueue<FTNode> heap = new PriorityQueue<>(cmp);
+    if(limit > 0) {
+      for(FTNode node; (node = iter.next()) != null;) {
+        if(heap.size() < limit) {
+          heap.add(node);
+        } else if(cmp.compare(node, heap.peek()) > 0) {
+          heap.poll();
+          heap.add(node);
+        }
+      }
+    }
+    final ArrayList<FTNode> nodes = new ArrayList<>(heap);
+    nodes.sort(cmp.reversed());
+    return new FTIter() {
+      int i;
+
+      @Override
+      public FTNode next() {
+        return i < nodes.size() ? nodes.get(i++) : null;
+      }
+    };
   }
 
   @Override
@@ -9,7 +9,9 @@ import org.basex.query.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.*;
+import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
+import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
@@ -42,6 +44,19 @@ public final class JobsListDetails extends StandardFunc {
         final byte[] value = entry.get(a);
         if(value.length != 0) elem.add(atts[a], value);
       }
+      final Job job = JobsList.job(Token.string(key), jobs);
+      if(job != null) {
+        final long locking = job.jc().locking();
+        if(locking >= 0) elem.add(LOCKING, DTDur.get(locking).string(null));
+      }
+      // metrics of scheduled queries
+      if(job instanceof QueryJob) {
+        final QueryJob qj = (QueryJob) job;
+        elem.add(PRIORITY, Token.token(qj.priority()));
+        elem.add(RUNS, Token.token(qj.runs()));
+        final long wait = qj.waited();
+        if(wait >= 0) elem.add(WAIT, DTDur.get(wait / 1000000).string(null));
+      }
       elem.add(entry.get(entry.size() - 1));
       vb.add(elem);
     }
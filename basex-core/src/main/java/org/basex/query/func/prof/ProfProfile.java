@@ -0,0 +1,55 @@
+package org.basex.query.func.prof;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.util.Token.*;
+
+import java.util.*;
+import java.util.Map.*;
+
+import org.basex.io.*;
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ProfProfile extends StandardFunc {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final IOContent query = toQuery(0, qc);
+    final HashMap<String, Value> bindings = toBindings(1, qc);
+
+    try(QueryContext qctx = new QueryContext(qc)) {
+      final StaticContext sctx = new StaticContext(qctx);
+      sctx.baseURI(query.url());
+      for(final Entry<String, Value> it : bindings.entrySet()) {
+        final String key = it.getKey();
+        final Value value = it.getValue();
+        if(key.isEmpty()) qctx.context(value, sctx);
+        else qctx.bind(key, value, sctx);
+      }
+      qctx.parseMain(string(query.read()), null, sctx);
+      if(qctx.updating) throw XQUERY_UPDATE1.get(info);
+
+      // evaluate the instrumented query and discard the results
+      qctx.profile = true;
+      final Iter iter = qctx.iter();
+      while(qctx.next(iter) != null) qc.checkStop();
+      return qctx.plan();
+    }
+  }
+
+  @Override
+  public boolean accept(final ASTVisitor visitor) {
+    // locked resources cannot be detected statically
+    return visitor.lock(null, false) && super.accept(visitor);
+  }
+}
@@ -4,6 +4,7 @@ import static org.basex.query.QueryError.*;
 
 import java.util.concurrent.*;
 
+import org.basex.core.*;
 import org.basex.core.jobs.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
@@ -31,19 +32,20 @@ public final class XQueryForkJoin extends StandardFunc {
     // single function: invoke directly
     if(funcs.size() == 1) return ((FItem) funcs.itemAt(0)).invokeValue(qc, info);
 
-    final ForkJoinPool pool = new ForkJoinPool();
-    final XQueryTask task = new XQueryTask(funcs, qc, info);
+    // shared pool: limit number of tasks that will be evaluated in parallel
+    final ForkJoinPool pool = qc.context.jobs.forkJoin();
+    final int limit = qc.context.options.get(MainOptions.FORKJOINTASKS);
+    final int size = (int) funcs.size(), tasks = limit > 0 ? limit : pool.getParallelism();
+    final XQueryTask task = new XQueryTask(funcs, qc, info, (size + tasks - 1) / tasks);
     try {
-      return pool.invoke(task);
+      // nested call: evaluate task in current worker thread
+      return ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
     } catch(final Exception ex) {
       // pass on query and job exceptions
       final Throwable e = Util.rootException(ex);
       if(e instanceof QueryException) throw (QueryException) e;
       if(e instanceof JobException) throw (JobException) e;
       throw XQUERY_UNEXPECTED_X.get(info, e);
-    } finally {
-      // required?
-      pool.shutdown();
     }
   }
 
@@ -9,6 +9,7 @@ import org.basex.util.*;
 
 /**
  * Forks a set of tasks, performing their computation in parallel followed by rejoining the results.
+ * Functions are split into chunks, which are evaluated sequentially by a single task.
  *
  * @author James Wright
  */
@@ -19,6 +20,8 @@ final class XQueryTask extends RecursiveTask<Value> {
   private final QueryContext qc;
   /** Input info. */
   private final InputInfo ii;
+  /** Number of functions evaluated by a single task. */
+  private final int chunk;
   /** First function to evaluate. */
   private final int start;
   /** Last function to evaluate. */
@@ -29,9 +32,10 @@ final class XQueryTask extends RecursiveTask<Value> {
    * @param funcs functions to evaluate
    * @param qc query context
    * @param ii input info
+   * @param chunk number of functions evaluated by a single task
    */
-  XQueryTask(final Value funcs, final QueryContext qc, final InputInfo ii) {
-    this(funcs, qc, ii, 0, (int) funcs.size());
+  XQueryTask(final Value funcs, final QueryContext qc, final InputInfo ii, final int chunk) {
+    this(funcs, qc, ii, chunk, 0, (int) funcs.size());
   }
 
   /**
@@ -39,14 +43,16 @@ final class XQueryTask extends RecursiveTask<Value> {
    * @param funcs functions to evaluate
    * @param qc query context
    * @param ii input info
+   * @param chunk number of functions evaluated by a single task
    * @param start first function to evaluate
    * @param end last function to evaluate
    */
   private XQueryTask(final Value funcs, final QueryContext qc, final InputInfo ii,
-      final int start, final int end) {
+      final int chunk, final int start, final int end) {
     this.funcs = funcs;
-    this.qc = new QueryContext(qc);
+    this.qc = qc;
     this.ii = ii;
+    this.chunk = chunk;
     this.start = start;
     this.end = end;
   }
@@ -55,22 +61,25 @@ final class XQueryTask extends RecursiveTask<Value> {
   protected Value compute() {
     final ValueBuilder vb = new ValueBuilder(qc);
     final int s = start, e = end, l = e - s;
-    if(l == 1) {
-      // perform the work
+    if(l <= chunk) {
+      // perform the work; the child context will be stopped if the parent query is stopped
+      final QueryContext child = new QueryContext(qc);
       try {
-        vb.add(((FItem) funcs.itemAt(s)).invokeValue(qc, ii));
+        for(int f = s; f < e; f++) {
+          child.checkStop();
+          vb.add(((FItem) funcs.itemAt(f)).invokeValue(child, ii));
+        }
       } catch(final QueryException ex) {
         completeExceptionally(ex);
-        cancel(true);
       } finally {
-        qc.close();
+        child.close();
       }
-    } else if(l > 1) {
-      // split the work and join the results in the correct order
-      final int m = s + l / 2;
-      final XQueryTask task2 = new XQueryTask(funcs, qc, ii, m, e);
+    } else {
+      // split the work at a chunk boundary and join the results in the correct order
+      final int m = s + (l / chunk + 1) / 2 * chunk;
+      final XQueryTask task2 = new XQueryTask(funcs, qc, ii, chunk, m, e);
       task2.fork();
-      final XQueryTask task1  = new XQueryTask(funcs, qc, ii, s, m);
+      final XQueryTask task1 = new XQueryTask(funcs, qc, ii, chunk, s, m);
       vb.add(task1.invoke()).add(task2.join());
     }
     return vb.value();
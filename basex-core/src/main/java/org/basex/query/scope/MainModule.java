@@ -2,6 +2,7 @@ package org.basex.query.scope;
 
 import java.util.*;
 
+import org.basex.core.*;
 import org.basex.core.locks.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
@@ -174,6 +175,8 @@ public final class MainModule extends AModule {
     private final Locks locks;
     /** Updating flag. */
     private final boolean updating;
+    /** Defer write locks until updates are applied. */
+    private final boolean defer;
     /** Focus level. */
     private int level;
 
@@ -185,6 +188,7 @@ public final class MainModule extends AModule {
     private LockVisitor(final Locks locks, final QueryContext qc) {
       this.locks = locks;
       updating = qc.updating;
+      defer = qc.context.soptions.get(StaticOptions.LOCKDEFER);
       level = qc.ctxItem == null ? 0 : 1;
     }
 
@@ -199,6 +203,13 @@ public final class MainModule extends AModule {
       return true;
     }
 
+    @Override
+    public boolean lockUpdates(final String db) {
+      if(!defer || db == null) return lock(db, true);
+      locks.updates.add(db);
+      return true;
+    }
+
     @Override
     public void enterFocus() {
       level++;
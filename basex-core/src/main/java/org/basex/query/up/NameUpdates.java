@@ -28,7 +28,11 @@ final class NameUpdates {
     final boolean alter = up.type == UpdateType.DBALTER;
     final boolean drop = up.type == UpdateType.DBDROP;
     for(final NameUpdate o : nameUpdates) {
-      if(o.type == up.type) o.merge(up);
+      if(o.type == up.type) {
+        // updates of the same type are either merged or rejected
+        o.merge(up);
+        return;
+      }
       if(drop && o.type == UpdateType.DBALTER || alter && o.type == UpdateType.DBDROP) {
         throw DB_CONFLICT3_X.get(o.info(), o.name());
       }
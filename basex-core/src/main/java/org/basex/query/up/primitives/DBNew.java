@@ -6,11 +6,13 @@ import static org.basex.util.Token.*;
 import java.io.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
 
 import org.basex.build.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.data.*;
+import org.basex.index.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.value.node.*;
@@ -69,47 +71,88 @@ public final class DBNew {
 
   /**
    * Inserts all documents to be added to a temporary database.
+   * If multiple threads are specified, contiguous ranges of inputs will be parsed concurrently
+   * and appended in their original order.
    * @param name name of database
    * @throws QueryException query exception
    */
   public void prepare(final String name) throws QueryException {
     if(inputs.isEmpty()) return;
 
-    // cache data if at least one input needs to be cached
+    // choose first options instance (relevant options are the same)
+    final Context ctx = qc.context;
+    final MainOptions mopts = ctx.options;
+    final StaticOptions sopts = ctx.soptions;
+
+    // cache data if at least one input needs to be cached, choose maximum number of threads
     boolean cache = false;
+    int threads = mopts.get(MainOptions.ADDTHREADS);
     for(final DBOptions dbopts : dboptions) {
       final Object obj = dbopts.get(MainOptions.ADDCACHE);
-      if(obj instanceof Boolean && (Boolean) obj) {
-        cache = true;
-        break;
-      }
+      if(obj instanceof Boolean && (Boolean) obj) cache = true;
+      final Object thr = dbopts.get(MainOptions.ADDTHREADS);
+      if(thr instanceof Integer) threads = Math.max(threads, (Integer) thr);
     }
 
-    // choose first options instance (relevant options are the same)
-    final Context ctx = qc.context;
-    final MainOptions mopts = ctx.options;
-    final StaticOptions sopts = ctx.soptions;
     try {
-      data = cache ? CreateDB.create(sopts.randomDbName(name),
-          Parser.emptyParser(mopts), ctx, mopts) : new MemData(mopts);
-      data.startUpdate(mopts);
-      final long is = inputs.size();
-      for(int i = 0; i < is; i++) {
-        final DataClip clip = data(name, i);
-        // clear list to recover memory
-        inputs.set(i, null);
-        try {
-          data.insert(data.meta.size, -1, clip);
-        } finally {
-          DropDB.drop(clip.data, sopts);
+      final int is = inputs.size(), cpus = Runtime.getRuntime().availableProcessors();
+      final int parts = cache ? 1 : Math.min(Math.min(threads, cpus), is);
+      if(parts < 2) {
+        data = cache ? CreateDB.create(sopts.randomDbName(name),
+            Parser.emptyParser(mopts), ctx, mopts) : new MemData(mopts);
+        add(data, name, 0, is, true);
+      } else {
+        final MemData[] datas = new MemData[parts];
+        final List<Callable<Void>> tasks = new ArrayList<>(parts);
+        for(int p = 0; p < parts; p++) {
+          final int part = p, first = (int) ((long) is * p / parts);
+          final int last = (int) ((long) is * (p + 1) / parts);
+          tasks.add(() -> {
+            datas[part] = new MemData(mopts);
+            add(datas[part], name, first, last, false);
+            return null;
+          });
         }
+        IndexBuilder.parallel(parts, tasks);
+
+        // append partial instances in their original order
+        final MemData mdata = datas[0];
+        for(int p = 1; p < parts; p++) mdata.insert(mdata.meta.size, -1, new DataClip(datas[p]));
+        data = mdata;
       }
-      data.finishUpdate(mopts);
     } catch(final IOException ex) {
       throw IOERR_X.get(info, ex);
     }
   }
 
+  /**
+   * Inserts a range of documents to the specified database.
+   * @param target target database
+   * @param name name of database
+   * @param first index of first input
+   * @param last index of the input after the last input
+   * @param parallel parse directories in parallel
+   * @throws IOException I/O exception
+   */
+  private void add(final Data target, final String name, final int first, final int last,
+      final boolean parallel) throws IOException {
+
+    final MainOptions mopts = qc.context.options;
+    final StaticOptions sopts = qc.context.soptions;
+    target.startUpdate(mopts);
+    for(int i = first; i < last; i++) {
+      final DataClip clip = data(name, i, parallel);
+      // clear list to recover memory
+      inputs.set(i, null);
+      try {
+        target.insert(target.meta.size, -1, clip);
+      } finally {
+        DropDB.drop(clip.data, sopts);
+      }
+    }
+    target.finishUpdate(mopts);
+  }
+
   /**
    * Drops a temporary database instance (on disk or in main-memory).
    */
@@ -121,10 +164,12 @@ public final class DBNew {
    * Creates a {@link DataClip} instance for the specified document.
    * @param name name of database
    * @param i index of current input
+   * @param parallel parse directories in parallel
    * @return database clip
    * @throws IOException I/O exception
    */
-  private DataClip data(final String name, final int i) throws IOException {
+  private DataClip data(final String name, final int i, final boolean parallel)
+      throws IOException {
     // add document node
     final Context ctx = qc.context;
     final StaticOptions soptions = ctx.soptions;
@@ -142,8 +187,11 @@ public final class DBNew {
 
     // add input
     final String dbpath = soptions.randomDbName(name);
+    if(!addcache) {
+      return new DataClip(MemBuilder.build(name, input.io, input.path, mopts, new IOFile(dbpath),
+          parallel ? mopts.get(MainOptions.ADDTHREADS) : 1));
+    }
     final Parser parser = new DirParser(input.io, mopts, new IOFile(dbpath)).target(input.path);
-    return (addcache ? new DiskBuilder(dbpath, parser, soptions, mopts)
-                     : new MemBuilder(name, parser)).dataClip();
+    return new DiskBuilder(dbpath, parser, soptions, mopts).dataClip();
   }
 }
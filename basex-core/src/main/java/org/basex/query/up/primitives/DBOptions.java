@@ -20,9 +20,9 @@ public final class DBOptions {
   /** Parsing options. */
   public static final Option<?>[] PARSING = { MainOptions.CREATEFILTER, MainOptions.ADDARCHIVES,
     MainOptions.ARCHIVENAME, MainOptions.SKIPCORRUPT, MainOptions.ADDRAW, MainOptions.ADDCACHE,
-    MainOptions.CSVPARSER, MainOptions.TEXTPARSER, MainOptions.JSONPARSER, MainOptions.HTMLPARSER,
-    MainOptions.PARSER, MainOptions.CHOP, MainOptions.INTPARSE, MainOptions.STRIPNS,
-    MainOptions.DTD, MainOptions.CATFILE, MainOptions.XINCLUDE };
+    MainOptions.ADDTHREADS, MainOptions.CSVPARSER, MainOptions.TEXTPARSER, MainOptions.JSONPARSER,
+    MainOptions.HTMLPARSER, MainOptions.PARSER, MainOptions.CHOP, MainOptions.INTPARSE,
+    MainOptions.STRIPNS, MainOptions.DTD, MainOptions.CATFILE, MainOptions.XINCLUDE };
   /** Indexing options. */
   public static final Option<?>[] INDEXING = { MainOptions.MAXCATS, MainOptions.MAXLEN,
     MainOptions.SPLITSIZE, MainOptions.LANGUAGE, MainOptions.STOPWORDS, MainOptions.TEXTINDEX,
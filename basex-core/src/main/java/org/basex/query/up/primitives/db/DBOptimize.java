@@ -86,6 +86,7 @@ public final class DBOptimize extends DBUpdate {
     meta.updindex = opts.get(MainOptions.UPDINDEX);
     meta.autooptimize = opts.get(MainOptions.AUTOOPTIMIZE);
     meta.splitsize = opts.get(MainOptions.SPLITSIZE);
+    meta.indexthreads = opts.get(MainOptions.INDEXTHREADS);
 
     // check if other indexing options have changed
     final int maxcats = opts.get(MainOptions.MAXCATS);
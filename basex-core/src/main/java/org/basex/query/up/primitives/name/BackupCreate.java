@@ -30,6 +30,7 @@ public final class BackupCreate extends NameUpdate {
   @Override
   public void apply() throws QueryException {
     try {
+      qc.context.datas.checkpoint(name);
       CreateBackup.backup(name, qc.context.soptions, null);
     } catch(final IOException ex) {
       throw UPDBOPTERR_X.get(info, ex);
@@ -0,0 +1,88 @@
+package org.basex.query.up.primitives.name;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.up.primitives.*;
+import org.basex.util.*;
+import org.basex.util.options.*;
+
+/**
+ * Update primitive for the {@link Function#_DB_ADD} function if the write lock of the
+ * database has been deferred (see {@link StaticOptions#LOCKDEFER}). The documents are parsed
+ * before the lock is acquired, and the database is only opened when the updates are applied.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DBAppend extends NameUpdate {
+  /** Container for new database documents. */
+  private final DBNew newDocs;
+
+  /**
+   * Constructor.
+   * @param name name of database
+   * @param input document to add (IO or ANode instance)
+   * @param opts database options
+   * @param qc query context
+   * @param info input info
+   * @throws QueryException query exception
+   */
+  public DBAppend(final String name, final NewInput input, final Options opts,
+      final QueryContext qc, final InputInfo info) throws QueryException {
+
+    super(UpdateType.DBADD, name, info, qc);
+    final DBOptions options = new DBOptions(opts, DBOptions.PARSING, info);
+    newDocs = new DBNew(qc, options, info, input);
+  }
+
+  @Override
+  public void merge(final Update update) {
+    newDocs.merge(((DBAppend) update).newDocs);
+  }
+
+  @Override
+  public void prepare() throws QueryException {
+    newDocs.prepare(name);
+  }
+
+  @Override
+  public void apply() throws QueryException {
+    try {
+      // the deferred write lock has been acquired: open database
+      final Data data = qc.resources.database(name, info);
+      final MainOptions mopts = qc.context.options;
+      try {
+        data.startUpdate(mopts);
+      } catch(final IOException ex) {
+        throw DB_LOCK2_X.get(info, ex);
+      }
+      try {
+        data.insert(data.meta.size, -1, new DataClip(newDocs.data));
+        Optimize.finish(data);
+      } catch(final IOException ex) {
+        throw UPDBOPTERR_X.get(info, ex);
+      } finally {
+        data.finishUpdate(mopts);
+      }
+    } finally {
+      newDocs.finish();
+    }
+  }
+
+  @Override
+  protected String operation() {
+    return "added";
+  }
+
+  @Override
+  public String toString() {
+    return Util.className(this) + '[' + newDocs.inputs + ']';
+  }
+}
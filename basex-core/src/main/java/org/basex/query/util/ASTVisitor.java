@@ -96,6 +96,16 @@ public abstract class ASTVisitor {
     return true;
   }
 
+  /**
+   * Notifies the visitor of a database that will only be accessed when updates are applied.
+   * Overwritten by {@link MainModule}.
+   * @param db database to be locked ({@code null} if unknown)
+   * @return if more expressions should be visited ({@code true} by default)
+   */
+  public boolean lockUpdates(final String db) {
+    return lock(db, true);
+  }
+
   /**
    * Notifies the visitor of an expression entering a focus. Overwritten by {@link MainModule}.
    */
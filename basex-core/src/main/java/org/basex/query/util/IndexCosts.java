@@ -1,6 +1,5 @@
 package org.basex.query.util;
 
-import org.basex.data.*;
 import org.basex.util.*;
 
 /**
@@ -65,12 +64,12 @@ public final class IndexCosts implements Comparable<IndexCosts> {
   }
 
   /**
-   * Checks if index access is too expensive.
-   * @param data data reference (can be {@code null})
+   * Checks if index access is more expensive than a sequential scan.
+   * @param nodes number of nodes that will be visited by a sequential scan
    * @return result of check
    */
-  public boolean tooExpensive(final Data data) {
-    return results > data.meta.size;
+  public boolean tooExpensive(final int nodes) {
+    return results > nodes;
   }
 
   @Override
@@ -7,6 +7,7 @@ import org.basex.data.*;
 import org.basex.index.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.index.value.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.index.*;
@@ -159,9 +160,9 @@ public final class IndexInfo {
       if(!search.seqType().type.isStringOrUntyped() || search.has(Flag.CTX, Flag.NDT))
         return false;
 
-      // estimate costs (tend to worst case)
+      // estimate costs (average number of results per index entry)
       if(data != null) costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC :
-        IndexCosts.get(Math.max(1, data.meta.size / 10));
+        IndexCosts.get(Math.max(1, ((ValueIndex) data.index(type)).average()));
       root = new ValueAccess(info, search, type, test, db);
     }
 
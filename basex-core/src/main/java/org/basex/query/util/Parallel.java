@@ -0,0 +1,133 @@
+package org.basex.query.util;
+
+import static org.basex.query.QueryError.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.core.jobs.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.value.*;
+import org.basex.util.*;
+
+/**
+ * Evaluates side-effect free expressions for chunks of an input sequence in parallel.
+ * Chunks are evaluated by the shared fork/join pool, and the results are concatenated in the
+ * original order. Each chunk is evaluated with its own query context, which inherits the
+ * focus and the variable bindings of the current stack frame.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Parallel {
+  /** Number of chunks created per thread. */
+  private static final int CHUNKS = 4;
+
+  /** Private constructor. */
+  private Parallel() { }
+
+  /**
+   * Evaluator for a single chunk.
+   */
+  public interface Chunk {
+    /**
+     * Evaluates the specified items.
+     * @param items items of the chunk
+     * @param qc query context
+     * @return result
+     * @throws QueryException query exception
+     */
+    Value eval(Value items, QueryContext qc) throws QueryException;
+  }
+
+  /**
+   * Checks if the specified expressions can be evaluated in parallel for the items of an input.
+   * @param qc query context
+   * @param size size of input ({@code -1} if unknown)
+   * @param exprs expressions
+   * @return result of check
+   */
+  public static boolean enabled(final QueryContext qc, final long size, final Expr... exprs) {
+    final int min = qc.context.options.get(MainOptions.PARALLELIZE);
+    if(min <= 0 || size != -1 && size < min) return false;
+    for(final Expr expr : exprs) {
+      if(expr.has(Flag.NDT, Flag.UPD, Flag.CNS, Flag.POS)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Evaluates the specified input. The input will be evaluated sequentially if it is smaller
+   * than the threshold assigned via {@link MainOptions#PARALLELIZE}.
+   * @param input input sequence
+   * @param chunk chunk evaluator
+   * @param qc query context
+   * @param info input info
+   * @return result
+   * @throws QueryException query exception
+   */
+  public static Value eval(final Value input, final Chunk chunk, final QueryContext qc,
+      final InputInfo info) throws QueryException {
+
+    final long size = input.size(), min = qc.context.options.get(MainOptions.PARALLELIZE);
+    if(min <= 0 || size < min) return chunk.eval(input, qc);
+
+    final ForkJoinPool pool = qc.context.jobs.forkJoin();
+    final long cs = Math.max(1, (size + pool.getParallelism() * CHUNKS - 1) /
+        (pool.getParallelism() * CHUNKS));
+    final QueryDateTime dateTime = qc.dateTime();
+    final ArrayList<ForkJoinTask<Value>> tasks = new ArrayList<>();
+    for(long s = 0; s < size; s += cs) {
+      final Value items = input.subSequence(s, Math.min(cs, size - s), qc);
+      tasks.add(ForkJoinTask.adapt(() -> {
+        final QueryContext child = child(qc, dateTime);
+        try {
+          return chunk.eval(items, child);
+        } finally {
+          child.close();
+        }
+      }));
+    }
+
+    try {
+      if(ForkJoinTask.inForkJoinPool()) {
+        // nested call: fork tasks in current worker thread
+        ForkJoinTask.invokeAll(tasks);
+      } else {
+        pool.invoke(new RecursiveAction() {
+          @Override
+          protected void compute() {
+            invokeAll(tasks);
+          }
+        });
+      }
+    } catch(final Exception ex) {
+      // pass on query and job exceptions
+      final Throwable e = Util.rootException(ex);
+      if(e instanceof QueryException) throw (QueryException) e;
+      if(e instanceof JobException) throw (JobException) e;
+      throw XQUERY_UNEXPECTED_X.get(info, e);
+    }
+
+    final ValueBuilder vb = new ValueBuilder(qc);
+    for(final ForkJoinTask<Value> task : tasks) vb.add(task.join());
+    return vb.value();
+  }
+
+  /**
+   * Creates a child query context.
+   * @param qc query context
+   * @param dateTime date/time values
+   * @return child context
+   */
+  private static QueryContext child(final QueryContext qc, final QueryDateTime dateTime) {
+    final QueryContext child = new QueryContext(qc);
+    child.focus = qc.focus.copy();
+    child.stack.assign(qc.stack);
+    child.dateTime = dateTime;
+    child.maxCalls = qc.maxCalls;
+    return child;
+  }
+}
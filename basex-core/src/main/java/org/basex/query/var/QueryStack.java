@@ -65,6 +65,20 @@ public final class QueryStack {
     if(len != sl) resize(len);
   }
 
+  /**
+   * Assigns the variable bindings of the current stack frame of the specified stack.
+   * Required if expressions are evaluated by other threads.
+   * @param qs query stack
+   */
+  public void assign(final QueryStack qs) {
+    final int s = qs.start, size = qs.end - s;
+    ensureCapacity(size);
+    System.arraycopy(qs.stack, s, stack, 0, size);
+    System.arraycopy(qs.vars, s, vars, 0, size);
+    start = 0;
+    end = size;
+  }
+
   /**
    * Ensures that the query stack has at least the given size.
    * @param newSize required size of the stack
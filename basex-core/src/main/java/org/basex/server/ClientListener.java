@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 
 import org.basex.*;
@@ -25,11 +26,9 @@ import org.basex.util.list.*;
  * @author Andreas Weiler
  * @author Christian Gruen
  */
-public final class ClientListener extends Thread implements ClientInfo {
-  /** Timer for authentication time out. */
-  public final Timer timeout = new Timer();
+public final class ClientListener implements ClientInfo, Runnable {
   /** Timestamp of last interaction. */
-  public long last;
+  public volatile long last;
 
   /** Active queries. */
   private final HashMap<String, ServerQuery> queries = new HashMap<>();
@@ -50,10 +49,12 @@ public final class ClientListener extends Thread implements ClientInfo {
   private Command command;
   /** Query id counter. */
   private int id;
-  /** Indicates if the server thread is running. */
+  /** Timestamp sent for authentication. */
+  private String nonce;
+  /** Indicates if the client has been authenticated. */
   private volatile boolean authenticated;
   /** Indicates if the server has been closed. */
-  private boolean closed;
+  private volatile boolean closed;
 
   /**
    * Constructor.
@@ -66,121 +67,45 @@ public final class ClientListener extends Thread implements ClientInfo {
     this.socket = socket;
     this.server = server;
     last = System.currentTimeMillis();
-    setDaemon(true);
   }
 
   @Override
   public void run() {
-    if(!authenticate()) return;
+    if(!greet() || !login()) return;
+    while(process());
+  }
 
+  /**
+   * Sends the authentication challenge to the client.
+   * @return success flag
+   */
+  public boolean greet() {
     try {
-      while(authenticated) {
-        command = null;
-        String cmd;
-        final ServerCmd sc;
-        try {
-          final int b = in.read();
-          if(b == -1) {
-            // end of stream: exit session
-            close();
-            break;
-          }
-
-          last = System.currentTimeMillis();
-          perf.ns();
-          sc = ServerCmd.get(b);
-          cmd = null;
-          if(sc == ServerCmd.CREATE) {
-            create();
-          } else if(sc == ServerCmd.ADD) {
-            add();
-          } else if(sc == ServerCmd.REPLACE) {
-            replace();
-          } else if(sc == ServerCmd.STORE) {
-            store();
-          } else if(sc != ServerCmd.COMMAND) {
-            query(sc);
-          } else {
-            // database command
-            cmd = new ByteList().add(b).add(in.readBytes()).toString();
-          }
-        } catch(final IOException ex) {
-          // this exception may be thrown if a session is stopped
-          Util.debug(ex);
-          close();
-          break;
-        }
-        if(sc != ServerCmd.COMMAND) continue;
-
-        // parse input and create command instance
-        try {
-          command = CommandParser.get(cmd, context).parseSingle();
-          command.jc().tracer = QueryTracer.EVALINFO;
-          log(LogType.REQUEST, command.toString(true));
-        } catch(final QueryException ex) {
-          // log invalid command
-          final String msg = ex.getMessage();
-          log(LogType.REQUEST, cmd);
-          log(LogType.ERROR, msg);
-          // send 0 to mark end of potential result
-          out.write(0);
-          // send {INFO}0
-          out.print(msg);
-          out.write(0);
-          // send 1 to mark error
-          send(false);
-          continue;
-        }
-
-        // execute command and send {RESULT}
-        boolean ok = true;
-        String info;
-        try {
-          // run command
-          command.execute(context, new ServerOutput(out));
-          info = command.info();
-        } catch(final BaseXException ex) {
-          Util.debug(ex);
-          ok = false;
-          info = ex.getMessage();
-        }
-
-        // send 0 to mark end of result
-        out.write(0);
-        // send info
-        info(info, ok);
-
-        // stop console
-        if(command instanceof Exit) {
-          command = null;
-          close();
-        }
-      }
+      nonce = Long.toString(System.nanoTime());
+      // send {REALM:TIMESTAMP}0
+      out = PrintOutput.get(socket.getOutputStream());
+      out.print(Prop.NAME + ':' + nonce);
+      send(true);
+      in = BufferInput.get(socket.getInputStream());
+      return true;
     } catch(final IOException ex) {
-      log(LogType.ERROR, Util.message(ex));
-      command = null;
+      Util.debug(ex);
+      server.remove(this);
       close();
+      return false;
     }
-    command = null;
   }
 
   /**
-   * Initializes a session via digest authentication.
+   * Authenticates the client via digest authentication. Must be called after {@link #greet()}.
    * @return success flag
    */
-  private boolean authenticate() {
+  public boolean login() {
     boolean auth = false;
     try {
-      final String nonce = Long.toString(System.nanoTime());
       final byte[] address = socket.getInetAddress().getAddress();
 
-      // send {REALM:TIMESTAMP}0
-      out = PrintOutput.get(socket.getOutputStream());
-      out.print(Prop.NAME + ':' + nonce);
-      send(true);
-
       // evaluate login data
-      in = BufferInput.get(socket.getInputStream());
       // receive {USER}0{DIGEST-HASH}0
       final String name = in.readString(), hash = in.readString();
       final User user = context.users.get(name);
@@ -210,9 +135,91 @@ public final class ClientListener extends Thread implements ClientInfo {
 
     server.remove(this);
     authenticated = auth;
+    if(!auth) close();
     return auth;
   }
 
+  /**
+   * Processes a single client request.
+   * @return {@code true} if the session is still active
+   */
+  public boolean process() {
+    try {
+      command = null;
+      String cmd;
+      final ServerCmd sc;
+      try {
+        final int b = in.read();
+        if(b == -1) {
+          // end of stream: exit session
+          close();
+          return false;
+        }
+
+        last = System.currentTimeMillis();
+        perf.ns();
+        timeout(true);
+        sc = ServerCmd.get(b);
+        cmd = null;
+        if(sc == ServerCmd.CREATE) {
+          create();
+        } else if(sc == ServerCmd.ADD) {
+          add();
+        } else if(sc == ServerCmd.REPLACE) {
+          replace();
+        } else if(sc == ServerCmd.STORE) {
+          store();
+        } else if(sc == ServerCmd.BATCH) {
+          batch();
+        } else if(sc != ServerCmd.COMMAND) {
+          query(sc);
+        } else {
+          // database command
+          cmd = new ByteList().add(b).add(in.readBytes()).toString();
+        }
+      } catch(final IOException ex) {
+        // this exception may be thrown if a session is stopped
+        Util.debug(ex);
+        close();
+        return false;
+      }
+      if(sc != ServerCmd.COMMAND) return !closed;
+      return execute(cmd);
+    } catch(final IOException ex) {
+      log(LogType.ERROR, Util.message(ex));
+      command = null;
+      close();
+      return false;
+    } finally {
+      command = null;
+      if(!closed) timeout(false);
+    }
+  }
+
+  /**
+   * Indicates if the client has been authenticated.
+   * @return result of check
+   */
+  public boolean authenticated() {
+    return authenticated;
+  }
+
+  /**
+   * Indicates if the next request has already been buffered.
+   * @return result of check
+   */
+  public boolean buffered() {
+    return in.buffered() > 0;
+  }
+
+  /**
+   * Returns the socket channel of this session.
+   * @return channel, or {@code null} if the socket was not created by a channel
+   */
+  public SocketChannel channel() {
+    return socket.getChannel();
+  }
+
   /**
    * Closes the session.
    */
@@ -229,7 +236,8 @@ public final class ClientListener extends Thread implements ClientInfo {
     context.sessions.remove(this);
 
     try {
-      Close.close(context);
+      // sessions that failed to log in have no user and no opened database
+      if(authenticated) Close.close(context);
       socket.close();
     } catch(final Throwable ex) {
       log(LogType.ERROR, Util.message(ex));
@@ -348,6 +356,137 @@ public final class ClientListener extends Thread implements ClientInfo {
     }
   }
 
+  /**
+   * Parses and executes a database command and sends the result.
+   * @param cmd command string
+   * @return {@code true} if the session is still active
+   * @throws IOException I/O exception
+   */
+  private boolean execute(final String cmd) throws IOException {
+    // parse input and create command instance
+    try {
+      command = CommandParser.get(cmd, context).parseSingle();
+      command.jc().tracer = QueryTracer.EVALINFO;
+      log(LogType.REQUEST, command.toString(true));
+    } catch(final QueryException ex) {
+      // log invalid command
+      final String msg = ex.getMessage();
+      log(LogType.REQUEST, cmd);
+      log(LogType.ERROR, msg);
+      // send 0 to mark end of potential result
+      out.write(0);
+      // send {INFO}0
+      out.print(msg);
+      out.write(0);
+      // send 1 to mark error
+      send(false);
+      return !closed;
+    }
+
+    // execute command and send {RESULT}
+    boolean ok = true;
+    String info;
+    try {
+      // run command
+      command.execute(context, new ServerOutput(out));
+      info = command.info();
+    } catch(final BaseXException ex) {
+      Util.debug(ex);
+      ok = false;
+      info = ex.getMessage();
+    }
+
+    // send 0 to mark end of result
+    out.write(0);
+    // send info
+    info(info, ok);
+
+    // stop console
+    if(command instanceof Exit) {
+      command = null;
+      close();
+      return false;
+    }
+    command = null;
+    return !closed;
+  }
+
+  /**
+   * Processes several queries and commands. The requests are completely read before
+   * they are evaluated, and the results are sent in the order of the requests.
+   * @throws IOException I/O exception
+   */
+  private void batch() throws IOException {
+    final int count = Strings.toInt(in.readString());
+    final ArrayList<String[]> requests = new ArrayList<>(Math.max(0, count));
+    for(int r = 0; r < count; r++) {
+      final int b = in.read();
+      final ServerCmd sc = ServerCmd.get(b);
+      final StringList request = new StringList();
+      if(sc == ServerCmd.EXEC || sc == ServerCmd.FULL) {
+        // query: {query}0{count}0, followed by {name}0{val}0{type}0 for each binding
+        request.add(sc.name()).add(in.readString());
+        final int bindings = Strings.toInt(in.readString());
+        for(int i = 0; i < bindings * 3; i++) request.add(in.readString());
+      } else {
+        // database command (an empty command only consists of the terminating byte)
+        if(b == -1) throw new EOFException();
+        final ByteList bl = new ByteList();
+        if(b != 0) bl.add(b).add(in.readBytes());
+        request.add(bl.toString());
+      }
+      requests.add(request.finish());
+    }
+
+    for(final String[] request : requests) {
+      perf.ns();
+      if(request.length == 1) {
+        if(!execute(request[0])) return;
+      } else {
+        batchQuery(request);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Evaluates a query of a batch request.
+   * @param request server command, query string and bindings
+   * @throws IOException I/O exception
+   */
+  private void batchQuery(final String[] request) throws IOException {
+    final boolean full = request[0].equals(ServerCmd.FULL.name());
+    final String query = request[1];
+    String error = null;
+    try {
+      final ServerQuery qp = new ServerQuery(query, context);
+      qp.jc().tracer = QueryTracer.EVALINFO;
+      final int rl = request.length;
+      for(int r = 2; r < rl; r += 3) {
+        final String name = request[r], value = request[r + 1], type = request[r + 2];
+        if(name.isEmpty()) qp.context(value, type);
+        else qp.bind(name, value, type);
+      }
+      qp.execute(out, full, true, full);
+      // send 0 as end marker and success flag
+      out.write(0);
+      out.write(0);
+      log(LogType.OK, ServerCmd.BATCH.toString() + ' ' + query);
+    } catch(final Throwable ex) {
+      // log exception (static or runtime)
+      error = ex instanceof RuntimeException ? Util.bug(ex) : Util.message(ex);
+      log(LogType.REQUEST, ServerCmd.BATCH.toString() + ' ' + query);
+      log(LogType.ERROR, error);
+    }
+    if(error != null) {
+      // send 0 as end marker, 1 as error flag, and {MSG}0
+      out.write(0);
+      out.write(1);
+      out.print(error);
+      out.write(0);
+    }
+  }
+
   /**
    * Processes the query iterator.
    * @param sc server command
@@ -397,6 +536,11 @@ public final class ClientListener extends Thread implements ClientInfo {
           qp.execute(out, false, true, false);
         } else if(sc == ServerCmd.FULL) {
           qp.execute(out, true, true, true);
+        } else if(sc == ServerCmd.CURSOR) {
+          final int size = Strings.toInt(in.readString());
+          final boolean full = Boolean.parseBoolean(in.readString());
+          qp.cursor(out, in, size, full);
+          info.append("size=").append(size);
         } else if(sc == ServerCmd.INFO) {
           out.print(qp.info());
         } else if(sc == ServerCmd.OPTIONS) {
@@ -416,6 +560,12 @@ public final class ClientListener extends Thread implements ClientInfo {
       // write log file
       log(LogType.OK, sc.toString() + '[' + arg + "] " + info);
 
+    } catch(final SocketTimeoutException | EOFException ex) {
+      // client did not respond in time, or connection was lost: close session
+      log(LogType.REQUEST, sc + "[" + arg + ']');
+      log(LogType.ERROR, Util.message(ex));
+      queries.remove(arg);
+      throw ex;
     } catch(final Throwable ex) {
       // log exception (static or runtime)
       error = ex instanceof RuntimeException ? Util.bug(ex) : Util.message(ex);
@@ -433,6 +583,25 @@ public final class ClientListener extends Thread implements ClientInfo {
     out.flush();
   }
 
+  /**
+   * Limits the time for waiting for data from the client while a request is processed.
+   * Only applies to sessions that are processed by a bounded number of threads
+   * (see {@link StaticOptions#SERVERTHREADS}): a client that stops sending data, or that does
+   * not request the next results of a cursor, must not block a thread (and the locks of its
+   * query) forever. Sessions with a dedicated thread wait without limit.
+   * @param limit limit time to {@link StaticOptions#KEEPALIVE}, or wait without limit
+   */
+  private void timeout(final boolean limit) {
+    // sockets are only created by channels if sessions are processed by the selector
+    if(channel() == null) return;
+    final int keepalive = Math.max(0, context.soptions.get(StaticOptions.KEEPALIVE));
+    try {
+      socket.setSoTimeout(limit ? keepalive * 1000 : 0);
+    } catch(final SocketException ex) {
+      Util.debug(ex);
+    }
+  }
+
   /**
    * Sends a success flag to the client (0: true, 1: false).
    * @param ok success flag
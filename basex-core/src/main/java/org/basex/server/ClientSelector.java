@@ -0,0 +1,149 @@
+package org.basex.server;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.util.*;
+
+/**
+ * <p>Selector-driven processing of client sessions. Idle sessions are registered with a
+ * selector and do not occupy any thread. As soon as a client sends a request, its session
+ * is passed on to a bounded pool of worker threads, which process the request with
+ * blocking I/O and hand back the session to the selector.</p>
+ *
+ * <p>A worker remains occupied if a client stops sending the remaining data of a request,
+ * does not request the next results of a cursor, or does not read its results. If all
+ * workers are occupied, the requests of other sessions are delayed. The time for waiting for
+ * data from a client is therefore limited by the {@code KEEPALIVE} option: the session is
+ * closed if no data arrives in time.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelector implements Runnable {
+  /** Sessions that wait to be registered with the selector. */
+  private final Queue<ClientListener> pending = new ConcurrentLinkedQueue<>();
+  /** Worker threads. */
+  private final ExecutorService workers;
+  /** Selector. */
+  private final Selector selector;
+  /** Indicates if the selector is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @param threads maximum number of worker threads
+   * @throws IOException I/O exception
+   */
+  public ClientSelector(final int threads) throws IOException {
+    selector = Selector.open();
+    workers = Executors.newFixedThreadPool(threads, r -> {
+      final Thread thread = new Thread(r);
+      thread.setDaemon(true);
+      return thread;
+    });
+    final Thread thread = new Thread(this);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Adds a new session. The authentication challenge is sent, and the session will be
+   * registered with the selector.
+   * @param client client session
+   */
+  public void add(final ClientListener client) {
+    workers.execute(() -> {
+      if(client.greet()) register(client);
+    });
+  }
+
+  @Override
+  public void run() {
+    final ArrayList<ClientListener> ready = new ArrayList<>();
+    while(running) {
+      try {
+        selector.select();
+        if(!running) break;
+
+        // cancel keys of sessions with incoming requests
+        final Set<SelectionKey> keys = selector.selectedKeys();
+        for(final SelectionKey key : keys) {
+          key.cancel();
+          ready.add((ClientListener) key.attachment());
+        }
+        keys.clear();
+
+        if(!ready.isEmpty()) {
+          // deregister cancelled keys and pass on sessions to worker threads
+          selector.selectNow();
+          for(final ClientListener client : ready) {
+            try {
+              client.channel().configureBlocking(true);
+              workers.execute(() -> process(client));
+            } catch(final IOException ex) {
+              Util.debug(ex);
+              client.close();
+            }
+          }
+          ready.clear();
+        }
+
+        // register sessions that wait for new requests
+        for(ClientListener client; (client = pending.poll()) != null;) {
+          final SocketChannel channel = client.channel();
+          try {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, client);
+          } catch(final IOException ex) {
+            // session may have been closed in the meantime
+            Util.debug(ex);
+            client.close();
+          }
+        }
+      } catch(final ClosedSelectorException ex) {
+        Util.debug(ex);
+        break;
+      } catch(final IOException ex) {
+        Util.errln(ex);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Processes a request of the specified session.
+   * @param client client session
+   */
+  private void process(final ClientListener client) {
+    // authenticate client or process request
+    boolean active = client.authenticated() ? client.process() : client.login();
+    // process pipelined requests that have already been received
+    while(active && client.buffered()) active = client.process();
+    if(active) register(client);
+  }
+
+  /**
+   * Schedules a session for being registered with the selector.
+   * @param client client session
+   */
+  private void register(final ClientListener client) {
+    pending.add(client);
+    selector.wakeup();
+  }
+
+  /**
+   * Stops the selector and the worker threads.
+   */
+  public void close() {
+    running = false;
+    workers.shutdownNow();
+    try {
+      selector.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+  }
+}
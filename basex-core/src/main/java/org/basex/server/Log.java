@@ -41,6 +41,8 @@ public final class Log {
 
   /** Current log file. */
   private LogFile file;
+  /** Asynchronous writer (can be {@code null}). */
+  private volatile LogWriter writer;
 
   /**
    * Constructor.
@@ -56,6 +58,10 @@ public final class Log {
    * @return log file, or {@code null} if it does not exist
    */
   public LogFile file(final String name) {
+    // write queued entries
+    final LogWriter lw = writer;
+    if(lw != null) lw.flush();
+
     LogFile lf = file;
     if(lf == null || !lf.valid(name)) lf = new LogFile(name, dir());
     return lf.exists() ? lf : null;
@@ -108,8 +114,30 @@ public final class Log {
     // check if logging is disabled
     if(!sopts.get(StaticOptions.LOG)) return;
 
-    // construct log text
     final Date date = new Date();
+    final String name = DateTime.format(date, DateTime.DATE);
+    final byte[] line = line(date, type, info, perf, address, user);
+    final LogWriter lw = writer();
+    if(lw != null) {
+      lw.add(name, line);
+    } else {
+      write(name, line, true);
+    }
+  }
+
+  /**
+   * Creates a log entry.
+   * @param date date
+   * @param type type (ERROR, OK, REQUEST, INFO, HTTP status code)
+   * @param info info string (can be {@code null})
+   * @param perf performance string (can be {@code null})
+   * @param address address string ({@code SERVER} is written if value is {@code null})
+   * @param user user ({@code admin} is written if value is {@code null})
+   * @return log entry
+   */
+  byte[] line(final Date date, final String type, final String info, final Performance perf,
+      final String address, final String user) {
+
     final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
     final TokenBuilder tb = new TokenBuilder();
     tb.add(DateTime.format(date, DateTime.TIME));
@@ -119,15 +147,23 @@ public final class Log {
     tb.add('\t').add(info != null ? chop(normalize(token(info)), ml) : EMPTY);
     if(perf != null) tb.add('\t').add(perf);
     tb.add(Prop.NL);
+    return tb.finish();
+  }
 
+  /**
+   * Writes an entry to the log file.
+   * @param name name of log file
+   * @param line log entry
+   * @param flush flush the log file
+   */
+  void write(final String name, final byte[] line, final boolean flush) {
     try {
       synchronized(sopts) {
         // create new log file and write log entry
-        final String name = DateTime.format(date, DateTime.DATE);
-        if(file != null && !file.valid(name)) close();
+        if(file != null && !file.valid(name)) closeFile();
         if(file == null) file = LogFile.create(name, dir());
         // write log entry
-        file.write(tb.finish());
+        file.write(line, flush);
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -135,21 +171,69 @@ public final class Log {
   }
 
   /**
-   * Closes the log file.
+   * Flushes the log file.
+   */
+  void flush() {
+    try {
+      synchronized(sopts) {
+        if(file != null) file.flush();
+      }
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
+  /**
+   * Writes all queued entries and closes the log file.
    */
   public void close() {
+    final LogWriter lw = writer;
+    if(lw != null) {
+      writer = null;
+      lw.close();
+    }
     try {
       synchronized(sopts) {
-        if(file != null) {
-          file.close();
-          file = null;
-        }
+        closeFile();
       }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Closes the log file.
+   * @throws IOException I/O exception
+   */
+  private void closeFile() throws IOException {
+    if(file != null) {
+      file.close();
+      file = null;
+    }
+  }
+
+  /**
+   * Returns the asynchronous writer, or {@code null} if entries are written synchronously.
+   * @return writer or {@code null}
+   */
+  private LogWriter writer() {
+    final int size = sopts.get(StaticOptions.LOGBUFFER);
+    if(size <= 0) return null;
+
+    LogWriter lw = writer;
+    if(lw == null) {
+      synchronized(sopts) {
+        lw = writer;
+        if(lw == null) {
+          lw = new LogWriter(this, size, sopts.get(StaticOptions.LOGFLUSH),
+              sopts.get(StaticOptions.LOGDROP));
+          writer = lw;
+        }
+      }
+    }
+    return lw;
+  }
+
   /**
    * Returns all log files.
    * @return log directory
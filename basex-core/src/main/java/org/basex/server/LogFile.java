@@ -16,7 +16,7 @@ public final class LogFile {
   /** File reference. */
   final IOFile file;
   /** Output stream. */
-  FileOutputStream fos;
+  OutputStream fos;
 
   /**
    * Creates a new writable log file for the specified date.
@@ -28,7 +28,7 @@ public final class LogFile {
   public static LogFile create(final String name, final IOFile dir) throws IOException {
     final LogFile lf = new LogFile(name, dir);
     dir.md();
-    lf.fos = new FileOutputStream(lf.file.file(), true);
+    lf.fos = new BufferedOutputStream(new FileOutputStream(lf.file.file(), true));
     return lf;
   }
 
@@ -87,11 +87,22 @@ public final class LogFile {
   /**
    * Writes new line to the log file.
    * @param line line to be written
+   * @param flush flush buffered lines
    * @throws IOException I/O exception
    */
-  void write(final byte[] line) throws IOException {
+  void write(final byte[] line, final boolean flush) throws IOException {
     synchronized(file) {
       fos.write(line);
+      if(flush) fos.flush();
+    }
+  }
+
+  /**
+   * Flushes buffered lines.
+   * @throws IOException I/O exception
+   */
+  void flush() throws IOException {
+    synchronized(file) {
       fos.flush();
     }
   }
@@ -0,0 +1,170 @@
+package org.basex.server;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+import org.basex.server.Log.LogType;
+import org.basex.util.*;
+
+/**
+ * Asynchronous writer for log entries. Entries are added to a bounded lock-free queue and
+ * written to disk by a background thread. The log file is flushed if the queue is empty, or
+ * if the maximum delay has been reached. If the queue is full, new entries will either
+ * be discarded, or the requesting thread will be blocked until entries have been written.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class LogWriter implements Runnable {
+  /** Queued entries. */
+  private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+  /** Number of queued entries. */
+  private final AtomicInteger size = new AtomicInteger();
+  /** Number of discarded entries. */
+  private final AtomicLong dropped = new AtomicLong();
+  /** Number of added entries. */
+  private final AtomicLong added = new AtomicLong();
+
+  /** Log. */
+  private final Log log;
+  /** Maximum number of queued entries. */
+  private final int capacity;
+  /** Maximum delay (nano seconds) before written entries are flushed. */
+  private final long delay;
+  /** Discard entries if the queue is full. */
+  private final boolean drop;
+  /** Writer thread. */
+  private final Thread thread;
+
+  /** Number of written and flushed entries. */
+  private long flushed;
+  /** Indicates if the writer thread is idle. */
+  private volatile boolean idle;
+  /** Indicates if the writer is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @param log log
+   * @param capacity maximum number of queued entries
+   * @param delay maximum delay (ms) before written entries are flushed
+   * @param drop discard entries if the queue is full
+   */
+  LogWriter(final Log log, final int capacity, final int delay, final boolean drop) {
+    this.log = log;
+    this.capacity = capacity;
+    this.delay = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+    this.drop = drop;
+    thread = new Thread(this);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Adds an entry to the queue.
+   * @param name name of log file
+   * @param line log entry
+   */
+  void add(final String name, final byte[] line) {
+    // reserve a slot in the queue
+    for(int s; (s = size.get()) >= capacity || !size.compareAndSet(s, s + 1);) {
+      if(s < capacity) continue;
+      if(drop || !running) {
+        dropped.incrementAndGet();
+        return;
+      }
+      // queue is full: wait until the writer has made room
+      LockSupport.unpark(thread);
+      LockSupport.parkNanos(100000);
+    }
+    queue.add(new Entry(name, line));
+    added.incrementAndGet();
+    if(idle) LockSupport.unpark(thread);
+  }
+
+  /**
+   * Waits until all entries that have been added so far have been written and flushed.
+   */
+  void flush() {
+    final long target = added.get();
+    synchronized(this) {
+      while(flushed < target && thread.isAlive()) {
+        LockSupport.unpark(thread);
+        try {
+          wait(10);
+        } catch(final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all queued entries and stops the writer thread.
+   */
+  void close() {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch(final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    long written = 0, first = 0;
+    while(true) {
+      final Entry entry = queue.poll();
+      if(entry != null) {
+        size.decrementAndGet();
+        log.write(entry.name, entry.line, false);
+        if(written++ == flushed) first = System.nanoTime();
+        // flush entries if the maximum delay has been reached
+        if(System.nanoTime() - first < delay) continue;
+      } else if(written == flushed) {
+        // queue is empty, and all entries have been flushed
+        if(!running && queue.isEmpty()) break;
+        idle = true;
+        if(queue.isEmpty() && running) LockSupport.parkNanos(delay == 0 ? 1000000 : delay);
+        idle = false;
+        continue;
+      }
+
+      // report discarded entries, flush file
+      final long d = dropped.getAndSet(0);
+      if(d > 0) {
+        final Date date = new Date();
+        log.write(DateTime.format(date, DateTime.DATE), log.line(date, LogType.INFO.toString(),
+            d + " log entries were discarded.", null, null, null), false);
+      }
+      log.flush();
+      synchronized(this) {
+        flushed = written;
+        notifyAll();
+      }
+    }
+  }
+
+  /** Queued entry. */
+  private static final class Entry {
+    /** Name of log file. */
+    private final String name;
+    /** Log entry. */
+    private final byte[] line;
+
+    /**
+     * Constructor.
+     * @param name name of log file
+     * @param line log entry
+     */
+    private Entry(final String name, final byte[] line) {
+      this.name = name;
+      this.line = line;
+    }
+  }
+}
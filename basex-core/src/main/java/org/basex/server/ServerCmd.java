@@ -33,6 +33,18 @@ public enum ServerCmd {
   STORE(13),
   /** Code for binding a context value: {id}0{val}0{type}0. */
   CONTEXT(14),
+  /**
+   * Code for running several requests at once: {count}0, followed by queries
+   * ({EXEC|FULL}{query}0{count}0, followed by {name}0{val}0{type}0 for each binding)
+   * or database commands ({command}0). Results are returned in the order of the requests.
+   */
+  BATCH(15),
+  /**
+   * Code for retrieving query results in chunks: {id}0{size}0{full}0. Each chunk is
+   * followed by 0 and 2 if further results may be available; the client then sends 1 for
+   * requesting the next chunk or 0 for cancelling the query.
+   */
+  CURSOR(16),
   /** Code for returning the update flag: {id}0. */
   UPDATING(30),
   /** Code for executing a query and returning all information relevant for XQJ: {id}0. */
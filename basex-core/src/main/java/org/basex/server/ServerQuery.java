@@ -111,6 +111,37 @@ public final class ServerQuery extends Job {
    */
   public void execute(final OutputStream out, final boolean iterative, final boolean encode,
       final boolean full) throws IOException {
+    execute(out, iterative, encode, full, null, 0);
+  }
+
+  /**
+   * Executes the query and sends the results in chunks of the specified size.
+   * After each chunk, {@code 0} and {@code 2} are sent, and the evaluation is suspended until
+   * the client requests the next chunk ({@code 1}) or cancels the query ({@code 0}).
+   * The query will be aborted if the connection to the client is lost.
+   * @param out output stream
+   * @param in input stream
+   * @param size number of items per chunk
+   * @param full return full type information
+   * @throws IOException I/O Exception
+   */
+  public void cursor(final OutputStream out, final InputStream in, final int size,
+      final boolean full) throws IOException {
+    execute(out, true, true, full, in, Math.max(1, size));
+  }
+
+  /**
+   * Executes the query.
+   * @param out output stream
+   * @param iterative iterative evaluation
+   * @param encode encode results (client/server communication, iterative processing)
+   * @param full return full type information (only applicable to iterative evaluation)
+   * @param in input stream for requesting further results (only applicable to chunks)
+   * @param size number of items per chunk ({@code 0}: send all items at once)
+   * @throws IOException I/O Exception
+   */
+  private void execute(final OutputStream out, final boolean iterative, final boolean encode,
+      final boolean full, final InputStream in, final int size) throws IOException {
 
     try {
       // parses the query and registers the process
@@ -138,6 +169,18 @@ public final class ServerQuery extends Job {
             ser.serialize(item);
             po.flush();
             out.write(0);
+            if(size > 0 && (c + 1) % size == 0) {
+              // end of chunk: wait until client requests more results or cancels the query
+              out.write(0);
+              out.write(2);
+              out.flush();
+              final int b = in.read();
+              if(b == -1) throw new EOFException("Connection to client was lost.");
+              if(b == 0) {
+                c++;
+                break;
+              }
+            }
           } else {
             ser.serialize(item);
           }
@@ -149,8 +192,11 @@ public final class ServerQuery extends Job {
       // generate query info
       info = qi.toString(qp, po.size(), c, ctx.options.get(MainOptions.QUERYINFO));
 
-    } catch(final QueryException | JobException ex) {
+    } catch(final QueryException ex) {
       throw new BaseXException(ex);
+    } catch(final JobException ex) {
+      // query was interrupted or rejected
+      throw new BaseXException(ex.getMessage());
     } catch(final StackOverflowError ex) {
       Util.debug(ex);
       throw new BaseXException(BASEX_OVERFLOW.desc);
@@ -11,6 +11,10 @@ import static java.lang.StrictMath.*;
 public final class Scoring {
   /** Logarithmic base for calculating the score value. */
   private static final double LOG = Math.E - 1;
+  /** BM25: saturation of term frequencies. */
+  private static final double K1 = 1.2;
+  /** BM25: impact of text lengths. */
+  private static final double B = 0.75;
 
   /** Private constructor. */
   private Scoring() { }
@@ -58,4 +62,38 @@ public final class Scoring {
       final int length) {
     return max((double) number / size, log(token * number + 1) / log(length + 1));
   }
+
+  /**
+   * Calculates the BM25 score of a token in a text node.
+   * @param tf number of occurrences of the token in the text
+   * @param df number of texts containing the token
+   * @param texts total number of texts
+   * @param length text length
+   * @param avg average text length
+   * @return score
+   */
+  public static double bm25(final int tf, final int df, final int texts, final int length,
+      final double avg) {
+    return idf(df, texts) * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avg));
+  }
+
+  /**
+   * Returns the maximum BM25 score of a token.
+   * @param df number of texts containing the token
+   * @param texts total number of texts
+   * @return score
+   */
+  public static double bm25(final int df, final int texts) {
+    return idf(df, texts) * (K1 + 1);
+  }
+
+  /**
+   * Calculates the inverse document frequency of a token.
+   * @param df number of texts containing the token
+   * @param texts total number of texts
+   * @return idf
+   */
+  private static double idf(final int df, final int texts) {
+    return log(1 + (texts - df + 0.5) / (df + 0.5));
+  }
 }
@@ -0,0 +1,136 @@
+package org.basex.util.hash;
+
+import java.util.*;
+
+import org.basex.util.*;
+
+/**
+ * This is an efficient and memory-saving hash set for storing primitive longs.
+ * It is related to the {@link IntSet} class.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public class LongSet extends ASet {
+  /** Hashed keys. */
+  long[] keys;
+
+  /**
+   * Default constructor.
+   */
+  public LongSet() {
+    this(Array.CAPACITY);
+  }
+
+  /**
+   * Default constructor.
+   * @param capacity initial array capacity (will be resized to a power of two)
+   */
+  public LongSet(final int capacity) {
+    super(capacity);
+    keys = new long[buckets.length];
+  }
+
+  /**
+   * Stores the specified key if it has not been stored before.
+   * @param key key to be added
+   * @return {@code true} if the key did not exist yet and was stored
+   */
+  public final boolean add(final long key) {
+    return index(key) > 0;
+  }
+
+  /**
+   * Stores the specified key and returns its id.
+   * @param key key to be added
+   * @return unique id of stored key (larger than zero)
+   */
+  final int put(final long key) {
+    final int i = index(key);
+    return Math.abs(i);
+  }
+
+  /**
+   * Checks if the set contains the specified key.
+   * @param key key to be looked up
+   * @return result of check
+   */
+  public final boolean contains(final long key) {
+    return id(key) > 0;
+  }
+
+  /**
+   * Returns the id of the specified key, or {@code 0} if the key does not exist.
+   * @param key key to be looked up
+   * @return id, or {@code 0} if key does not exist
+   */
+  final int id(final long key) {
+    final int p = keyHash(key) & buckets.length - 1;
+    for(int id = buckets[p]; id != 0; id = next[id]) {
+      if(key == keys[id]) return id;
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the key with the specified id.
+   * All ids starts with {@code 1} instead of {@code 0}.
+   * @param id id of the key to return
+   * @return key
+   */
+  public final long key(final int id) {
+    return keys[id];
+  }
+
+  /**
+   * Stores the specified key and returns its id, or returns the negative id if the
+   * key has already been stored.
+   * @param key key to be found
+   * @return id, or negative id if key has already been stored
+   */
+  private int index(final long key) {
+    checkSize();
+    final int b = keyHash(key) & buckets.length - 1;
+    for(int r = buckets[b]; r != 0; r = next[r]) {
+      if(key == keys[r]) return -r;
+    }
+    next[size] = buckets[b];
+    keys[size] = key;
+    buckets[b] = size;
+    return size++;
+  }
+
+  @Override
+  protected int hash(final int id) {
+    return keyHash(keys[id]);
+  }
+
+  /**
+   * Returns the hash value of the specified key.
+   * @param key key
+   * @return hash value
+   */
+  private static int keyHash(final long key) {
+    return (int) (key ^ key >>> 32);
+  }
+
+  @Override
+  protected void rehash(final int newSize) {
+    keys = Arrays.copyOf(keys, newSize);
+  }
+
+  /**
+   * Returns an array with all elements.
+   * @return array
+   */
+  public final long[] toArray() {
+    return Arrays.copyOfRange(keys, 1, size);
+  }
+
+  @Override
+  public String toString() {
+    final List<Object> k = new ArrayList<>();
+    for(final long key : keys) k.add(Long.valueOf(key));
+    return toString(k.toArray());
+  }
+}
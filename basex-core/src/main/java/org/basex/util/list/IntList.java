@@ -494,7 +494,7 @@ public class IntList extends ElementList {
     if(e < 7) {
       for(int i = s; i < e + s; ++i) {
         for(int j = i; j > s; j--) {
-          final long h = t[j - 1] - t[j];
+          final int h = Long.compare(t[j - 1], t[j]);
           if(f ? h < 0 : h > 0) break;
           s(j, j - 1, t);
         }
@@ -519,13 +519,13 @@ public class IntList extends ElementList {
     int a = s, b = a, c = s + e - 1, d = c;
     while(true) {
       while(b <= c) {
-        final long h = t[b] - v;
+        final int h = Long.compare(t[b], v);
         if(f ? h > 0 : h < 0) break;
         if(h == 0) s(a++, b, t);
         ++b;
       }
       while(c >= b) {
-        final long h = t[c] - v;
+        final int h = Long.compare(t[c], v);
         if(f ? h < 0 : h > 0) break;
         if(h == 0) s(c, d--, t);
         --c;
@@ -17,12 +17,18 @@ import org.basex.util.list.*;
  */
 public final class Levenshtein {
   /** Maximum token size. */
-  private static final int MAX = 50;
+  public static final int MAX = 50;
 
   /** Default number of allowed errors; dynamic calculation if value is 0. */
   private final int error;
   /** Matrix for calculating Levenshtein distance. */
   private int[][] matrix;
+  /** Normalized characters of the prepared token. */
+  private final int[] chars = new int[MAX];
+  /** Number of characters of the prepared token. */
+  private int size;
+  /** Normalized characters of the compared token. */
+  private final int[] prefix = new int[MAX];
 
   /**
    * Constructor.
@@ -75,33 +81,34 @@ public final class Levenshtein {
    * @return true if the arrays are similar
    */
   public boolean similar(final byte[] token, final byte[] sub, final int err) {
-    final int sl = sub.length, tl = token.length;
-    int slen = 0, tlen = 0;
-    for(int s = 0; s < sl; s += cl(sub, s)) ++slen;
+    final int tl = token.length;
+    int tlen = 0;
     for(int t = 0; t < tl; t += cl(token, t)) ++tlen;
     if(tlen == 0) return false;
 
     // use exact search for too short and too long values
-    if(err == 0 && slen < 4 || tlen > MAX || slen > MAX) return slen == tlen && same(token, sub);
+    final int k = prepare(sub, err);
+    if(k == -1 || tlen > MAX) return size == tlen && same(token, sub);
 
     // skip different tokens with too different lengths
-    final int k = err == 0 ? Math.max(1, slen >> 2) : err;
-    return Math.abs(slen - tlen) <= k && ls(token, tlen, sub, slen, k);
+    return Math.abs(size - tlen) <= k && ls(token, k);
   }
 
   /**
-   * Calculates a Levenshtein distance.
-   * @param tk token to be compared
-   * @param tl token length
-   * @param sb sub token to be compared
-   * @param sl string length
-   * @param k maximum number of accepted errors
-   * @return true if the arrays are similar
+   * Prepares the incremental comparison of tokens with the specified token.
+   * @param sub token to be compared
+   * @param err number of allowed errors; dynamic calculation if value is 0
+   * @return number of allowed errors, or {@code -1} if tokens must be compared as a whole
    */
-  private boolean ls(final byte[] tk, final int tl, final byte[] sb, final int sl, final int k) {
-    int[][] mx = matrix;
-    if(mx == null) {
-      mx = new int[MAX + 2][MAX + 2];
+  public int prepare(final byte[] sub, final int err) {
+    final int sl = sub.length;
+    int slen = 0;
+    for(int s = 0; s < sl; s += cl(sub, s)) ++slen;
+    size = slen;
+    if(err == 0 && slen < 4 || slen > MAX) return -1;
+
+    if(matrix == null) {
+      final int[][] mx = new int[MAX + 2][MAX + 2];
       final int ml = mx.length;
       for(int m = 0; m < ml; ++m) {
         mx[0][m] = m;
@@ -109,23 +116,61 @@ public final class Levenshtein {
       }
       matrix = mx;
     }
+    for(int s = 0, c = 0; s < sl; s += cl(sub, s)) chars[c++] = noDiacritics(lc(cp(sub, s)));
+    return err == 0 ? Math.max(1, slen >> 2) : err;
+  }
+
+  /**
+   * Adds a character to a compared token, which has been prepared via {@link #prepare}.
+   * The distances computed for the preceding characters are reused. As the minimum distance
+   * will never decrease for subsequent characters, all tokens starting with the current
+   * prefix can be skipped if the returned value exceeds the number of allowed errors.
+   * @param pos position of the character (counted in characters, must be smaller than
+   *   {@link #MAX})
+   * @param cp codepoint
+   * @return minimum distance of all tokens starting with the current prefix
+   */
+  public int next(final int pos, final int cp) {
+    final int[][] mx = matrix;
+    final int[] prev = mx[pos], row = mx[pos + 1];
+    final int e = noDiacritics(lc(cp)), e2 = pos == 0 ? -1 : prefix[pos - 1];
+    prefix[pos] = e;
+
+    int d = Integer.MAX_VALUE, f2 = -1;
+    for(int s = 0; s < size; s++) {
+      final int f = chars[s];
+      int c = m(prev[s + 1] + 1, row[s] + 1, prev[s] + (e == f ? 0 : 1));
+      if(e == f2 && f == e2) c = prev[s];
+      row[s + 1] = c;
+      d = Math.min(d, c);
+      f2 = f;
+    }
+    return d;
+  }
 
-    int e2 = -1, f2 = -1;
+  /**
+   * Checks if the prepared token and a compared token are similar.
+   * @param length length of the compared token (counted in characters)
+   * @param k maximum number of accepted errors
+   * @return result of check
+   */
+  public boolean similar(final int length, final int k) {
+    return Math.abs(size - length) <= k && matrix[length][size] <= k;
+  }
+
+  /**
+   * Calculates a Levenshtein distance.
+   * @param tk token to be compared
+   * @param k maximum number of accepted errors
+   * @return true if the arrays are similar
+   */
+  private boolean ls(final byte[] tk, final int k) {
+    final int tl = tk.length;
+    int c = 0;
     for(int t = 0; t < tl; t += cl(tk, t)) {
-      final int e = noDiacritics(lc(cp(tk, t)));
-      int d = Integer.MAX_VALUE;
-      for(int s = 0; s < sl; s += cl(sb, s)) {
-        final int f = noDiacritics(lc(cp(sb, s)));
-        int c = m(mx[t][s + 1] + 1, mx[t + 1][s] + 1, mx[t][s] + (e == f ? 0 : 1));
-        if(e == f2 && f == e2) c = mx[t][s];
-        mx[t + 1][s + 1] = c;
-        d = Math.min(d, c);
-        f2 = f;
-      }
-      if(d > k) return false;
-      e2 = e;
+      if(next(c++, cp(tk, t)) > k) return false;
     }
-    return mx[tl][sl] <= k;
+    return similar(c, k);
   }
 
   /**
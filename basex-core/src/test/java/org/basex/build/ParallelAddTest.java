@@ -0,0 +1,103 @@
+package org.basex.build;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for adding documents with multiple threads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ParallelAddTest extends SandboxTest {
+  /** Directory with input files. */
+  private static final IOFile DIR = new IOFile(sandbox(), "input");
+  /** Number of input files. */
+  private static final int FILES = 50;
+  /** Query for summarizing the contents of the database. */
+  private static final String CONTENTS = "string-join(" + _DB_OPEN.args(NAME) +
+      " ! (db:path(.) || '=' || string-join(.//text(), ',')), ' ')";
+
+  /**
+   * Creates the input files.
+   * @throws Exception exception
+   */
+  @BeforeClass public static void init() throws Exception {
+    for(int f = 0; f < FILES; f++) {
+      final IOFile file = new IOFile(DIR, "d" + f % 7 + "/f" + f + IO.XMLSUFFIX);
+      file.parent().md();
+      file.write(Token.token("<x><y>" + f + "</y><z>" + f % 3 + "</z></x>"));
+    }
+  }
+
+  /**
+   * Deletes the input files.
+   */
+  @AfterClass public static void finish() {
+    set(MainOptions.ADDTHREADS, 1);
+    execute(new DropDB(NAME));
+    DIR.delete();
+  }
+
+  /**
+   * Adds a directory with the ADD command.
+   */
+  @Test public void add() {
+    final String expected = add(1);
+    assertEquals(expected, add(4));
+    assertEquals(expected, add(FILES + 1));
+
+    // report number of added documents
+    final Add cmd = new Add("", DIR.path());
+    execute(cmd);
+    assertTrue(cmd.info(), cmd.info().startsWith(FILES + " resource(s)"));
+  }
+
+  /**
+   * Adds documents with db:add.
+   */
+  @Test public void dbAdd() {
+    final String nodes = "for $i in 1 to " + FILES + " return " +
+        _DB_ADD.args(NAME, " <x><y>{ $i }</y></x>", " $i || '.xml'");
+    final String dir = _DB_ADD.args(NAME, DIR.path(), "dir");
+
+    set(MainOptions.ADDTHREADS, 1);
+    execute(new CreateDB(NAME));
+    query(nodes);
+    query(dir);
+    final String expected = query(CONTENTS);
+
+    set(MainOptions.ADDTHREADS, 3);
+    execute(new CreateDB(NAME));
+    query(nodes);
+    query(dir);
+    assertEquals(expected, query(CONTENTS));
+
+    // assign number of threads via options
+    set(MainOptions.ADDTHREADS, 1);
+    execute(new CreateDB(NAME));
+    query(nodes);
+    query(_DB_ADD.args(NAME, DIR.path(), "dir", " map { 'addthreads': 4 }"));
+    assertEquals(expected, query(CONTENTS));
+  }
+
+  /**
+   * Adds the input directory and returns a summary of the database contents.
+   * @param threads number of threads
+   * @return summary
+   */
+  private static String add(final int threads) {
+    set(MainOptions.ADDTHREADS, threads);
+    execute(new CreateDB(NAME));
+    execute(new Add("", DIR.path()));
+    return query(CONTENTS);
+  }
+}
@@ -0,0 +1,70 @@
+package org.basex.core.jobs;
+
+import static org.junit.Assert.*;
+
+import java.time.*;
+
+import org.junit.*;
+
+/**
+ * This class tests cron schedules.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class CronTest {
+  /** Tests valid and invalid expressions. */
+  @Test public void parse() {
+    for(final String cron : new String[] { "* * * * *", "*/15 0-6,22-23 1 */2 1-5",
+        "0 12 * * 7", " 5  4 * * * " }) {
+      assertNotNull(cron, Cron.get(cron));
+    }
+    for(final String cron : new String[] { "", "* * * *", "* * * * * *", "60 * * * *",
+        "* 24 * * *", "* * 0 * *", "* * * 13 *", "* * * * 8", "*/0 * * * *", "5-1 * * * *",
+        "a * * * *", "1, * * * *" }) {
+      assertNull(cron, Cron.get(cron));
+    }
+  }
+
+  /** Computes the next matching times. */
+  @Test public void next() {
+    // Wednesday, 2019-01-02 10:17:30
+    final long time = time(2019, 1, 2, 10, 17, 30);
+    assertEquals(time(2019, 1, 2, 10, 18, 0), Cron.get("* * * * *").next(time));
+    assertEquals(time(2019, 1, 2, 10, 30, 0), Cron.get("*/15 * * * *").next(time));
+    assertEquals(time(2019, 1, 3, 2, 30, 0), Cron.get("30 2 * * *").next(time));
+    assertEquals(time(2019, 1, 6, 0, 0, 0), Cron.get("0 0 * * 0").next(time));
+    assertEquals(time(2019, 1, 6, 0, 0, 0), Cron.get("0 0 * * 7").next(time));
+    assertEquals(time(2019, 3, 1, 0, 0, 0), Cron.get("0 0 1 3 *").next(time));
+    // day of month or day of week
+    assertEquals(time(2019, 1, 4, 0, 0, 0), Cron.get("0 0 15 * 5").next(time));
+    assertEquals(time(2019, 1, 7, 0, 0, 0), Cron.get("0 0 15 * 1").next(time));
+    assertEquals(time(2019, 1, 15, 0, 0, 0),
+        Cron.get("0 0 15 * 2").next(time(2019, 1, 14, 1, 0, 0)));
+    // fields covering all values are unrestricted, as with asterisks
+    assertEquals(time(2019, 1, 7, 0, 0, 0), Cron.get("0 0 */1 * 1").next(time));
+    assertEquals(time(2019, 1, 7, 0, 0, 0), Cron.get("0 0 1-31 * 1").next(time));
+    assertEquals(time(2019, 1, 15, 0, 0, 0), Cron.get("0 0 15 * 0-6").next(time));
+    assertEquals(time(2019, 1, 15, 0, 0, 0), Cron.get("0 0 15 * 1-7").next(time));
+    // leap day
+    assertEquals(time(2020, 2, 29, 0, 0, 0), Cron.get("0 0 29 2 *").next(time));
+    // no matching date
+    assertEquals(Long.MAX_VALUE, Cron.get("0 0 31 2 *").next(time));
+  }
+
+  /**
+   * Returns the milliseconds of a local date and time.
+   * @param year year
+   * @param month month
+   * @param day day
+   * @param hour hour
+   * @param minute minute
+   * @param second second
+   * @return milliseconds since 01/01/1970
+   */
+  private static long time(final int year, final int month, final int day, final int hour,
+      final int minute, final int second) {
+    return LocalDateTime.of(year, month, day, hour, minute, second).
+        atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,87 @@
+package org.basex.core.jobs;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the evaluation of jobs with a bounded number of threads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class JobPoolTest extends SandboxTest {
+  /** Database context with a single job thread. */
+  private static Context ctx;
+
+  /** Creates the database context. */
+  @BeforeClass public static void init() {
+    Prop.put(StaticOptions.JOBSTHREADS, "1");
+    try {
+      ctx = new Context();
+    } finally {
+      Prop.put(StaticOptions.JOBSTHREADS, StaticOptions.JOBSTHREADS.value().toString());
+    }
+  }
+
+  /** Closes the database context. */
+  @AfterClass public static void finish() {
+    ctx.close();
+  }
+
+  /**
+   * Queued jobs are evaluated by their priority.
+   * @throws BaseXException database exception
+   */
+  @Test public void priority() throws BaseXException {
+    // warm up: the first query takes longer to compile
+    new XQuery(_JOBS_WAIT.args(eval("prof:current-ns()", 0))).execute(ctx);
+
+    // block the only job thread
+    final String blocker = eval("prof:sleep(1000)", 0);
+    while(new XQuery(_JOBS_LIST_DETAILS.args(blocker) + "/@state = ('scheduled', 'queued')").
+        execute(ctx).equals("true")) Performance.sleep(1);
+    final String low = eval("prof:current-ns()", 1);
+    final String high = eval("prof:current-ns()", 3);
+    final String middle = eval("prof:current-ns()", 2);
+    for(final String id : new String[] { blocker, low, high, middle }) {
+      new XQuery(_JOBS_WAIT.args(id)).execute(ctx);
+    }
+    // jobs have been evaluated and waited for their evaluation
+    assertEquals("true", new XQuery(_JOBS_LIST_DETAILS.args(low) + "/(@priority = 1 and " +
+        "@runs = 1 and xs:dayTimeDuration(@wait) > xs:dayTimeDuration('PT0S'))").execute(ctx));
+    assertTrue(ctx.jobs.info().startsWith("threads: 1"));
+
+    final long h = result(high), m = result(middle), l = result(low);
+    assertTrue(h + " < " + m, h < m);
+    assertTrue(m + " < " + l, m < l);
+  }
+
+  /**
+   * Evaluates a job with the specified priority.
+   * @param query query
+   * @param priority priority
+   * @return job id
+   * @throws BaseXException database exception
+   */
+  private static String eval(final String query, final int priority) throws BaseXException {
+    return new XQuery(_JOBS_EVAL.args(query, " ()",
+        " map { 'cache': true(), 'priority': " + priority + " }")).execute(ctx);
+  }
+
+  /**
+   * Returns the integer result of a job.
+   * @param id job id
+   * @return result
+   * @throws BaseXException database exception
+   */
+  private static long result(final String id) throws BaseXException {
+    return Long.parseLong(new XQuery(_JOBS_RESULT.args(id)).execute(ctx));
+  }
+}
@@ -0,0 +1,131 @@
+package org.basex.core.locks;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the deferred write locks of queries that add documents.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LockDeferTest extends SandboxTest {
+  /** Database context with deferred locking. */
+  private static Context ctx;
+
+  /** Creates the database context. */
+  @BeforeClass public static void init() {
+    Prop.put(StaticOptions.LOCKDEFER, "true");
+    try {
+      ctx = new Context();
+    } finally {
+      Prop.put(StaticOptions.LOCKDEFER, StaticOptions.LOCKDEFER.value().toString());
+    }
+  }
+
+  /** Closes the database context. */
+  @AfterClass public static void close() {
+    ctx.close();
+  }
+
+  /**
+   * Creates the test database.
+   * @throws BaseXException database exception
+   */
+  @Before public void create() throws BaseXException {
+    new CreateDB(NAME).execute(ctx);
+    new Close().execute(ctx);
+  }
+
+  /**
+   * Drops the test database.
+   * @throws BaseXException database exception
+   */
+  @After public void drop() throws BaseXException {
+    new DropDB(NAME).execute(ctx);
+  }
+
+  /**
+   * Checks which locks are deferred.
+   */
+  @Test public void locks() {
+    Locks locks = locks(_DB_ADD.args(NAME, " <a/>", "a.xml"));
+    assertFalse(locks.writes.locking());
+    assertEquals(1, locks.updates.size());
+
+    // no deferral if other databases are accessed
+    locks = locks(_DB_ADD.args(NAME, _DB_OPEN.args(NAME + '2'), "a.xml"));
+    assertFalse(locks.updates.locking());
+    assertEquals(2, locks.writes.size());
+
+    // no deferral if database name is dynamic
+    locks = locks(_DB_ADD.args(" string(<_>" + NAME + "</_>)", " <a/>", "a.xml"));
+    assertFalse(locks.updates.locking());
+    assertTrue(locks.writes.global());
+
+    // no deferral for other updates
+    locks = locks(_DB_DELETE.args(NAME, "a.xml"));
+    assertFalse(locks.updates.locking());
+    assertEquals(1, locks.writes.size());
+  }
+
+  /**
+   * Evaluates queries that add documents while another one is still being evaluated.
+   * @throws Exception exception
+   */
+  @Test public void parallel() throws Exception {
+    final String id = new XQuery(_JOBS_EVAL.args('(' + _PROF_SLEEP.args(1000) + ", " +
+        _DB_ADD.args(NAME, " <a/>", "a.xml") + ')')).execute(ctx);
+    while(!new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state = 'running'").execute(ctx).
+        equals("true")) Performance.sleep(1);
+
+    // database can be read and extended while the first query is running
+    assertEquals("0", new XQuery("count(" + _DB_OPEN.args(NAME) + ')').execute(ctx));
+    new XQuery(_DB_ADD.args(NAME, " <b/>", "b.xml") + ", " +
+        _DB_ADD.args(NAME, " <c/>", "c.xml")).execute(ctx);
+    assertEquals("true", new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state = 'running'").
+        execute(ctx));
+
+    new XQuery(_JOBS_WAIT.args(id)).execute(ctx);
+    assertEquals("a.xml b.xml c.xml", new XQuery("string-join(sort(" +
+        _DB_OPEN.args(NAME) + "! db:path(.)), ' ')").execute(ctx));
+  }
+
+  /**
+   * Drops a database while a query that adds documents is still being evaluated.
+   * @throws Exception exception
+   */
+  @Test public void dropWhileAdding() throws Exception {
+    final String id = new XQuery(_JOBS_EVAL.args('(' + _DB_ADD.args(NAME, " <a/>", "a.xml") +
+        ", " + _PROF_SLEEP.args(1000) + ')')).execute(ctx);
+    while(!new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state = 'running'").execute(ctx).
+        equals("true")) Performance.sleep(1);
+
+    // database is not opened (and pinned) before the updates are applied
+    new DropDB(NAME).execute(ctx);
+    // updates cannot be applied to the dropped database
+    new XQuery(_JOBS_WAIT.args(id)).execute(ctx);
+    assertFalse(ctx.soptions.dbPath(NAME).exists());
+  }
+
+  /**
+   * Returns the finalized locks of a query.
+   * @param query query
+   * @return locks
+   */
+  private static Locks locks(final String query) {
+    final XQuery cmd = new XQuery(query);
+    cmd.updating(ctx);
+    cmd.addLocks();
+    final Locks locks = cmd.jc().locks;
+    locks.finish(ctx);
+    return locks;
+  }
+}
@@ -0,0 +1,299 @@
+package org.basex.core.locks;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.StaticOptions.LockPriority;
+import org.basex.core.cmd.*;
+import org.basex.core.jobs.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the admission control of the lock queue.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LockQueueTest extends SandboxTest {
+  /** Query with a write lock. */
+  private static final String WRITE = "declare option basex:write-lock 'queue'; ";
+
+  /** Resets the options. */
+  @After public void reset() {
+    final StaticOptions sopts = context.soptions;
+    sopts.set(StaticOptions.PARALLEL, StaticOptions.PARALLEL.value());
+    sopts.set(StaticOptions.LOCKQUEUE, StaticOptions.LOCKQUEUE.value());
+    sopts.set(StaticOptions.LOCKWAIT, StaticOptions.LOCKWAIT.value());
+    sopts.set(StaticOptions.LOCKPRIORITY, StaticOptions.LOCKPRIORITY.value());
+  }
+
+  /**
+   * Rejects jobs if the queue is full.
+   * @throws Exception exception
+   */
+  @Test public void size() throws Exception {
+    context.soptions.set(StaticOptions.PARALLEL, 1);
+    context.soptions.set(StaticOptions.LOCKQUEUE, 1);
+    final Locking locking = new Locking(context.soptions);
+
+    final Locker running = new Locker(locking, false), queued = new Locker(locking, false);
+    running.start();
+    running.await();
+    queued.start();
+    await(locking::info, "queued: 1");
+
+    // third job is rejected
+    try {
+      locking.acquire(locks(false));
+      fail("Job should have been rejected.");
+    } catch(final JobException ex) {
+      assertEquals(Text.QUEUE_FULL, ex.getMessage());
+    }
+    // thread holds no locks
+    locking.release();
+
+    running.finish();
+    queued.await();
+    queued.finish();
+    assertTrue(locking.info().contains("rejected: 1"));
+  }
+
+  /**
+   * Rejects jobs that have been queued too long.
+   * @throws Exception exception
+   */
+  @Test public void timeout() throws Exception {
+    context.soptions.set(StaticOptions.PARALLEL, 1);
+    context.soptions.set(StaticOptions.LOCKWAIT, 100);
+    final Locking locking = new Locking(context.soptions);
+
+    final Locker running = new Locker(locking, true);
+    running.start();
+    running.await();
+    final Performance perf = new Performance();
+    try {
+      locking.acquire(locks(true));
+      fail("Job should have been rejected.");
+    } catch(final JobException ex) {
+      assertEquals(Text.QUEUE_TIMEOUT, ex.getMessage());
+    }
+    assertTrue(perf.ns() >= 100000000);
+    running.finish();
+
+    // queue accepts new jobs
+    final Locker next = new Locker(locking, true);
+    next.start();
+    next.await();
+    next.finish();
+  }
+
+  /**
+   * Prefers queued writers.
+   * @throws Exception exception
+   */
+  @Test public void writePriority() throws Exception {
+    context.soptions.set(StaticOptions.PARALLEL, 1);
+    context.soptions.set(StaticOptions.LOCKPRIORITY, LockPriority.WRITE);
+    final Locking locking = new Locking(context.soptions);
+
+    final Locker running = new Locker(locking, false);
+    running.start();
+    running.await();
+    final Locker reader = new Locker(locking, false);
+    reader.start();
+    await(locking::info, "queued: 1");
+    final Locker writer = new Locker(locking, true);
+    writer.start();
+    await(locking::info, "queued: 2");
+
+    // writer is started first
+    running.finish();
+    writer.await();
+    assertFalse(reader.acquired.await(100, TimeUnit.MILLISECONDS));
+    writer.finish();
+    reader.await();
+    reader.finish();
+  }
+
+  /**
+   * Reports rejected jobs and the time spent waiting for locks.
+   * @throws Exception exception
+   */
+  @Test public void jobs() throws Exception {
+    Prop.put(StaticOptions.PARALLEL, "1");
+    Prop.put(StaticOptions.LOCKQUEUE, "1");
+    final Context ctx;
+    try {
+      ctx = new Context();
+    } finally {
+      Prop.put(StaticOptions.PARALLEL, StaticOptions.PARALLEL.value().toString());
+      Prop.put(StaticOptions.LOCKQUEUE, StaticOptions.LOCKQUEUE.value().toString());
+    }
+    try {
+      final String running = eval(WRITE + _PROF_SLEEP.args(60000), ctx);
+      await(() -> state(running, ctx), "running");
+      final String queued = eval(WRITE + "1", ctx);
+      await(() -> state(queued, ctx), "queued");
+      assertEquals("true", new XQuery(_JOBS_LIST_DETAILS.args(queued) +
+          "/@locking castable as xs:dayTimeDuration").execute(ctx));
+
+      // queue is full: reject command
+      try {
+        new XQuery(WRITE + "2").execute(ctx);
+        fail("Command should have been rejected.");
+      } catch(final BaseXException ex) {
+        assertEquals(Text.QUEUE_FULL, ex.getMessage());
+      }
+      new XQuery(_JOBS_STOP.args(running)).execute(ctx);
+
+      // poll state (a waiting query would occupy the only job slot)
+      await(() -> state(queued, ctx), "cached");
+      assertEquals("1", new XQuery(_JOBS_RESULT.args(queued)).execute(ctx));
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Reports the rejection of a scheduled job as its result.
+   * @throws Exception exception
+   */
+  @Test public void rejectedJob() throws Exception {
+    Prop.put(StaticOptions.PARALLEL, "1");
+    Prop.put(StaticOptions.LOCKWAIT, "50");
+    final Context ctx;
+    try {
+      ctx = new Context();
+    } finally {
+      Prop.put(StaticOptions.PARALLEL, StaticOptions.PARALLEL.value().toString());
+      Prop.put(StaticOptions.LOCKWAIT, StaticOptions.LOCKWAIT.value().toString());
+    }
+    try {
+      final String running = eval(WRITE + _PROF_SLEEP.args(60000), ctx);
+      await(() -> state(running, ctx), "running");
+      final String rejected = eval(WRITE + "1", ctx);
+      await(() -> state(rejected, ctx), "cached");
+      // rejected job has been unregistered, and its query has been removed
+      final Job job = ctx.jobs.results.get(rejected).job;
+      assertFalse(ctx.jobs.active.containsKey(rejected));
+      assertSame(job, job.active());
+      try {
+        new XQuery(_JOBS_RESULT.args(rejected)).execute(ctx);
+        fail("Rejection should have been reported.");
+      } catch(final BaseXException ex) {
+        assertTrue(ex.getMessage(), ex.getMessage().contains(Text.QUEUE_TIMEOUT));
+      }
+      new XQuery(_JOBS_STOP.args(running)).execute(ctx);
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Evaluates a job.
+   * @param query query
+   * @param ctx database context
+   * @return job id
+   * @throws BaseXException database exception
+   */
+  private static String eval(final String query, final Context ctx) throws BaseXException {
+    return new XQuery(_JOBS_EVAL.args(query, " ()", " map { 'cache': true() }")).execute(ctx);
+  }
+
+  /**
+   * Returns the state of a job.
+   * @param id job id
+   * @param ctx database context
+   * @return state
+   * @throws BaseXException database exception
+   */
+  private static String state(final String id, final Context ctx) throws BaseXException {
+    return new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state/string()").execute(ctx);
+  }
+
+  /**
+   * Waits until the specified string is returned by the supplier.
+   * @param supplier supplier of the current state
+   * @param string expected string
+   * @throws Exception exception
+   */
+  private static void await(final Callable<String> supplier, final String string)
+      throws Exception {
+    final long end = System.nanoTime() + 5000000000L;
+    String state = supplier.call();
+    while(!state.contains(string)) {
+      if(System.nanoTime() > end) fail("Expected '" + string + "', found: " + state);
+      Performance.sleep(1);
+      state = supplier.call();
+    }
+  }
+
+  /**
+   * Returns locks.
+   * @param write write flag
+   * @return locks
+   */
+  private static Locks locks(final boolean write) {
+    final Locks locks = new Locks();
+    (write ? locks.writes : locks.reads).add(write ? "w" : "r");
+    locks.finish(context);
+    return locks;
+  }
+
+  /** Thread that acquires and releases locks. */
+  private static final class Locker extends Thread {
+    /** Latch for acquired locks. */
+    private final CountDownLatch acquired = new CountDownLatch(1);
+    /** Latch for releasing locks. */
+    private final CountDownLatch release = new CountDownLatch(1);
+    /** Locking. */
+    private final Locking locking;
+    /** Locks. */
+    private final Locks locks;
+
+    /**
+     * Constructor.
+     * @param locking locking
+     * @param write write flag
+     */
+    private Locker(final Locking locking, final boolean write) {
+      this.locking = locking;
+      locks = locks(write);
+    }
+
+    @Override
+    public void run() {
+      try {
+        locking.acquire(locks);
+        acquired.countDown();
+        release.await();
+        locking.release();
+      } catch(final InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+
+    /**
+     * Waits until the locks have been acquired.
+     * @throws InterruptedException interrupted exception
+     */
+    private void await() throws InterruptedException {
+      assertTrue("Locks were not acquired.", acquired.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Releases the locks and waits for the thread to finish.
+     * @throws InterruptedException interrupted exception
+     */
+    private void finish() throws InterruptedException {
+      release.countDown();
+      join();
+    }
+  }
+}
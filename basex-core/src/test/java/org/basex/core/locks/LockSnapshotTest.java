@@ -0,0 +1,236 @@
+package org.basex.core.locks;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the shared database locks of updating queries.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LockSnapshotTest extends SandboxTest {
+  /** Database. */
+  private static final String DB = "db";
+
+  /**
+   * Readers are only blocked while updates are applied.
+   * @throws Exception exception
+   */
+  @Test public void readers() throws Exception {
+    final Locking locking = new Locking(context.soptions);
+    final Locker writer = new Locker(locking, locks(true, DB)).go();
+    writer.await();
+
+    // reader is not blocked by evaluation of updating query
+    final Locker reader = new Locker(locking, locks(false, DB)).go();
+    reader.await();
+
+    // updates are applied after completion of the reader
+    writer.update();
+    assertFalse(writer.updated.await(100, TimeUnit.MILLISECONDS));
+    reader.finish();
+    assertTrue(writer.updated.await(5, TimeUnit.SECONDS));
+
+    // reader is blocked while updates are applied
+    final Locker blocked = new Locker(locking, locks(false, DB)).go();
+    assertFalse(blocked.acquired.await(100, TimeUnit.MILLISECONDS));
+    writer.finish();
+    blocked.await();
+    blocked.finish();
+  }
+
+  /**
+   * Writers are not evaluated in parallel.
+   * @throws Exception exception
+   */
+  @Test public void writers() throws Exception {
+    final Locking locking = new Locking(context.soptions);
+    final Locker writer = new Locker(locking, locks(true, DB)).go();
+    writer.await();
+
+    final Locker next = new Locker(locking, locks(true, DB)).go();
+    assertFalse(next.acquired.await(100, TimeUnit.MILLISECONDS));
+    final Locker command = new Locker(locking, locks(null, DB)).go();
+    assertFalse(command.acquired.await(100, TimeUnit.MILLISECONDS));
+
+    writer.update();
+    writer.finish();
+    for(final Locker locker : new Locker[] { next, command }) {
+      locker.await();
+      locker.update();
+      locker.finish();
+    }
+  }
+
+  /**
+   * Mixes readers, writers and updating queries.
+   * @throws Exception exception
+   */
+  @Test public void fuzzing() throws Exception {
+    final Locking locking = new Locking(context.soptions);
+    final Random rnd = new Random(0);
+    final String[] strings = { "a", "b", "c", "d" };
+
+    final ArrayList<Locker> lockers = new ArrayList<>();
+    for(int l = 0; l < 200; l++) {
+      final int mode = rnd.nextInt(3);
+      final ArrayList<String> list = new ArrayList<>();
+      for(final String string : strings) {
+        if(rnd.nextBoolean()) list.add(string);
+      }
+      final Locks locks = locks(mode == 0 ? Boolean.FALSE : mode == 1 ? Boolean.TRUE : null,
+          list.toArray(new String[0]));
+      final Locker locker = new Locker(locking, locks).go();
+      locker.update();
+      locker.finish.countDown();
+      lockers.add(locker);
+    }
+    for(final Locker locker : lockers) {
+      locker.join(5000);
+      assertFalse("Deadlock: " + locking, locker.isAlive());
+    }
+  }
+
+  /**
+   * Evaluates queries while an updating query is evaluated.
+   * @throws Exception exception
+   */
+  @Test public void queries() throws Exception {
+    Prop.put(StaticOptions.LOCKSNAPSHOT, "true");
+    final Context ctx;
+    try {
+      ctx = new Context();
+    } finally {
+      Prop.put(StaticOptions.LOCKSNAPSHOT, StaticOptions.LOCKSNAPSHOT.value().toString());
+    }
+    try {
+      new CreateDB(NAME, "<a/>").execute(ctx);
+      new Close().execute(ctx);
+
+      final String insert = "insert node <b/> into " + _DB_OPEN.args(NAME) + "/a";
+      final String id = new XQuery(_JOBS_EVAL.args('(' + _PROF_SLEEP.args(1000) + ", " +
+          insert + ')')).execute(ctx);
+      while(!new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state = 'running'").execute(ctx).
+          equals("true")) Performance.sleep(1);
+
+      // database can be read while the updating query is evaluated
+      final String count = "count(" + _DB_OPEN.args(NAME) + "//b)";
+      assertEquals("0", new XQuery(count).execute(ctx));
+      assertEquals("true", new XQuery(_JOBS_LIST_DETAILS.args(id) + "/@state = 'running'").
+          execute(ctx));
+
+      // second update waits for completion of the first one
+      new XQuery(insert).execute(ctx);
+      new XQuery(_JOBS_WAIT.args(id)).execute(ctx);
+      assertEquals("2", new XQuery(count).execute(ctx));
+      new DropDB(NAME).execute(ctx);
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Returns locks.
+   * @param snapshot mode ({@code false}: read locks, {@code true}: shared write locks,
+   *   {@code null}: write locks)
+   * @param strings lock strings
+   * @return locks
+   */
+  private static Locks locks(final Boolean snapshot, final String... strings) {
+    final Locks locks = new Locks();
+    for(final String string : strings) {
+      (snapshot == Boolean.FALSE ? locks.reads : locks.writes).add(string);
+    }
+    locks.snapshot = snapshot == Boolean.TRUE;
+    locks.finish(context);
+    return locks;
+  }
+
+  /** Thread that acquires locks, applies updates and releases locks. */
+  private static final class Locker extends Thread {
+    /** Latch for acquired locks. */
+    private final CountDownLatch acquired = new CountDownLatch(1);
+    /** Latch for applying updates. */
+    private final CountDownLatch update = new CountDownLatch(1);
+    /** Latch for applied updates. */
+    private final CountDownLatch updated = new CountDownLatch(1);
+    /** Latch for releasing locks. */
+    private final CountDownLatch finish = new CountDownLatch(1);
+    /** Locking. */
+    private final Locking locking;
+    /** Locks. */
+    private final Locks locks;
+
+    /**
+     * Constructor.
+     * @param locking locking
+     * @param locks locks
+     */
+    private Locker(final Locking locking, final Locks locks) {
+      this.locking = locking;
+      this.locks = locks;
+      setDaemon(true);
+    }
+
+    /**
+     * Starts the thread.
+     * @return self reference
+     */
+    private Locker go() {
+      start();
+      return this;
+    }
+
+    @Override
+    public void run() {
+      try {
+        locking.acquire(locks);
+        acquired.countDown();
+        if(!locks.reads.locking() || locks.writes.locking()) {
+          update.await();
+          locking.update();
+          updated.countDown();
+        }
+        finish.await();
+        locking.release();
+      } catch(final InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
+
+    /**
+     * Waits until the locks have been acquired.
+     * @throws InterruptedException interrupted exception
+     */
+    private void await() throws InterruptedException {
+      assertTrue("Locks were not acquired.", acquired.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Applies updates.
+     */
+    private void update() {
+      update.countDown();
+    }
+
+    /**
+     * Releases the locks and waits for the thread to finish.
+     * @throws InterruptedException interrupted exception
+     */
+    private void finish() throws InterruptedException {
+      finish.countDown();
+      join();
+    }
+  }
+}
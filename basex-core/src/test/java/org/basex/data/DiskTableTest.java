@@ -313,6 +313,47 @@ public final class DiskTableTest extends SandboxTest {
     assertEntrysEqual(nodes, 2 * nodes, size - nodes);
   }
 
+  /**
+   * Tests concurrent reads with a minimal page cache.
+   * @throws Exception exception
+   */
+  @Test public void concurrentReads() throws Exception {
+    tda.insert(nodes, getTestEntries(nodes));
+    tda.close();
+    data.meta.tablecache = 0;
+    tda = new TableDiskAccess(data.meta, false);
+
+    final int threads = 8;
+    final Thread[] ts = new Thread[threads];
+    final Throwable[] errors = new Throwable[threads];
+    for(int t = 0; t < threads; t++) {
+      final int id = t;
+      ts[t] = new Thread(() -> {
+        try {
+          // traverse table in different directions to enforce evictions
+          for(int r = 0; r < 3; r++) {
+            if((id & 1) == 0) {
+              assertEntrysEqual(0, 0, nodes);
+              assertAreInserted(nodes, nodes);
+              assertEntrysEqual(nodes, 2 * nodes, size - nodes);
+            } else {
+              assertEntrysEqual(nodes, 2 * nodes, size - nodes);
+              assertAreInserted(nodes, nodes);
+              assertEntrysEqual(0, 0, nodes);
+            }
+          }
+        } catch(final Throwable th) {
+          errors[id] = th;
+        }
+      });
+      ts[t].start();
+    }
+    for(final Thread t : ts) t.join();
+    for(final Throwable th : errors) {
+      if(th != null) throw new AssertionError(th);
+    }
+  }
+
   /**
    * Asserts that the chosen entries are inserted by a test case.
    * @param startNum first entry
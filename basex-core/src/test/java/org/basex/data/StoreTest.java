@@ -98,6 +98,38 @@ public final class StoreTest extends SandboxTest {
     }
   }
 
+  /**
+   * Tests the {@link MainOptions#MEMORYMAP} option: reads and updates on a mapped database.
+   */
+  @Test public void memoryMap() {
+    try {
+      set(MainOptions.MEMORYMAP, true);
+      final String text = "text which is not inlined", attr = "attribute which is not inlined";
+      execute(new CreateDB(NAME, "<X a='" + attr + "'><A>" + text + "</A></X>"));
+      execute(new Close());
+      final String query = Function._DB_OPEN.args(NAME);
+      assertEquals(text, query(query + "//text()"));
+      assertEquals(attr, query(query + "//@a/string()"));
+      assertEquals(String.valueOf(text.length()), query("string-length(" + query + "//A)"));
+
+      query("replace value of node " + query + "//text() with 'new text which is not inlined'");
+      query("replace value of node " + query + "//@a with 'new attribute which is not inlined'");
+      assertEquals("new text which is not inlined", query(query + "//text()"));
+      assertEquals("new attribute which is not inlined", query(query + "//@a/string()"));
+      execute(new Close());
+      assertEquals("new text which is not inlined", query(query + "//text()"));
+
+      // mapped files are released, and can be renamed and deleted
+      execute(new Open(NAME));
+      assertEquals("new attribute which is not inlined", query(query + "//@a/string()"));
+      execute(new AlterDB(NAME, NAME + '2'));
+      execute(new DropDB(NAME + '2'));
+      assertFalse(context.soptions.dbPath(NAME + '2').exists());
+    } finally {
+      set(MainOptions.MEMORYMAP, false);
+    }
+  }
+
   /**
    * Tests if the size of the text store has not changed.
    * @param old old size
@@ -0,0 +1,68 @@
+package org.basex.index;
+
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for full-text queries with frequent and rare tokens.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTIndexTest extends SandboxTest {
+  /** Query for creating the test document. */
+  private static final String DOC = "<xml>{ for $i in 1 to 30000 return <t>{"
+      + "'a', if($i mod 3 = 0) then 'b' else (), if($i mod 7 = 0) then 'c' else (),"
+      + "if($i mod 1000 = 1) then 'd' else (), 'e' || $i mod 10, 'a' }</t> }</xml>";
+  /** Full-text selections. */
+  private static final String[] QUERIES = {
+    "'a'", "'b' ftand 'c'", "'c' ftand 'd'", "'d' ftand 'a'", "'a b'", "'b c e1'",
+    "'c' ftand 'e7' ftand 'b'", "'a a'", "'d' ftor 'c'", "'b' ftand 'x'"
+  };
+
+  /**
+   * Finishes the test.
+   */
+  @AfterClass public static void finish() {
+    set(MainOptions.FTINDEX, false);
+    set(MainOptions.SPLITSIZE, 0);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Compares the results of queries with and without index.
+   */
+  @Test public void queries() {
+    final String expected = results(false, 0);
+    assertEquals(expected, results(true, 0));
+    // enforce merging of partial indexes
+    assertEquals(expected, results(true, 10000));
+  }
+
+  /**
+   * Returns the results of all queries.
+   * @param ftindex create full-text index
+   * @param split split size
+   * @return results
+   */
+  private static String results(final boolean ftindex, final int split) {
+    set(MainOptions.FTINDEX, ftindex);
+    set(MainOptions.SPLITSIZE, split);
+    execute(new CreateDB(NAME));
+    query("db:replace('" + NAME + "', 'doc.xml', " + DOC + ')');
+    execute(new Optimize());
+
+    final StringBuilder sb = new StringBuilder();
+    for(final String query : QUERIES) {
+      final String path = "//t[text() contains text " + query + ']';
+      sb.append(query).append(": ").append(query("count(" + path + ')')).append(", ");
+      sb.append(query("sum(" + path + "/db:node-pre(.))")).append('\n');
+    }
+    return sb.toString();
+  }
+}
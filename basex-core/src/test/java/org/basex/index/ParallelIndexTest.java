@@ -0,0 +1,85 @@
+package org.basex.index;
+
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for building index structures with multiple threads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ParallelIndexTest extends SandboxTest {
+  /** Query for creating the test document (more than 4 partitions). */
+  private static final String DOC = "<xml>{ for $i in 1 to 150000 return "
+      + "<e a='{ $i mod 1000 }'>{ $i mod 777 } { $i mod 13 }</e> }</xml>";
+  /** Query for summarizing the contents of all indexes. */
+  private static final String INDEXES = "string-join((" +
+      "for $t in ('17 4', '500 6') return count(db:text('" + NAME + "', $t)), " +
+      "for $t in ('12', '999') return count(db:attribute('" + NAME + "', $t)), " +
+      "for $t in ('12', '999') return count(db:token('" + NAME + "', $t)), " +
+      "count(ft:search('" + NAME + "', '4')), " +
+      "count(index:texts('" + NAME + "')), count(index:attributes('" + NAME + "'))" +
+      "), ' ')";
+
+  /**
+   * Initializes the test.
+   */
+  @BeforeClass public static void init() {
+    set(MainOptions.TOKENINDEX, true);
+    set(MainOptions.FTINDEX, true);
+  }
+
+  /**
+   * Finishes the test.
+   */
+  @AfterClass public static void finish() {
+    set(MainOptions.TOKENINDEX, false);
+    set(MainOptions.FTINDEX, false);
+    set(MainOptions.INDEXTHREADS, 1);
+    set(MainOptions.SPLITSIZE, 0);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Compares indexes built with a single and multiple threads.
+   */
+  @Test public void create() {
+    final String expected = indexes(1, 0);
+    assertEquals(expected, indexes(4, 0));
+    assertEquals(expected, indexes(4, 1));
+    assertEquals(expected, indexes(3, 0));
+  }
+
+  /**
+   * Compares indexes rebuilt by the optimize command.
+   */
+  @Test public void optimize() {
+    final String expected = indexes(1, 0);
+    set(MainOptions.INDEXTHREADS, 4);
+    execute(new Open(NAME));
+    execute(new OptimizeAll());
+    assertEquals(expected, query(INDEXES));
+    execute(new DropIndex(MainOptions.TEXTINDEX.name().replace("INDEX", "")));
+    execute(new CreateIndex(MainOptions.TEXTINDEX.name().replace("INDEX", "")));
+    assertEquals(expected, query(INDEXES));
+  }
+
+  /**
+   * Creates a database and returns a summary of its indexes.
+   * @param threads number of index threads
+   * @param splitsize split size
+   * @return summary
+   */
+  private static String indexes(final int threads, final int splitsize) {
+    set(MainOptions.INDEXTHREADS, threads);
+    set(MainOptions.SPLITSIZE, splitsize);
+    execute(new CreateDB(NAME, query(DOC)));
+    return query(INDEXES);
+  }
+}
@@ -78,7 +78,15 @@ public class DataAccessTest {
     try(RandomAccessFile f = new RandomAccessFile(file.file(), "rw")) {
       initialContent(f);
     }
-    da = new DataAccess(file);
+    da = new DataAccess(file, map());
+  }
+
+  /**
+   * Indicates if the file will be memory-mapped.
+   * @return result of check
+   */
+  protected boolean map() {
+    return false;
   }
 
   /**
@@ -0,0 +1,252 @@
+package org.basex.io.random;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the journal for updates of disk-based databases.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class JournalTest extends SandboxTest {
+  /** Text that will be added to the database (not compressed). */
+  private static final String TEXT = "\u00e4\u00f6\u00fc\u00e4\u00f6\u00fc\u00e4\u00f6\u00fc";
+  /** Query for adding a text. */
+  private static final String INSERT = "insert node <b>" + TEXT + "</b> into " +
+      _DB_OPEN.args(NAME) + "/a";
+  /** Query for counting the added texts. */
+  private static final String COUNT = "count(" + _DB_OPEN.args(NAME) + "//b)";
+
+  /**
+   * Committed updates are written to the journal, and copied to the database files when the
+   * database is closed.
+   * @throws Exception exception
+   */
+  @Test public void checkpoint() throws Exception {
+    final Context ctx = context(null);
+    try {
+      new CreateDB(NAME, "<a/>").execute(ctx);
+      new Close().execute(ctx);
+
+      new XQuery(INSERT).execute(ctx);
+      assertTrue(journal(ctx).length() > 0);
+      assertFalse(texts(ctx).contains(TEXT));
+      assertEquals("1", new XQuery(COUNT).execute(ctx));
+      assertFalse(ctx.journal.info().contains("commits: 0"));
+
+      // database is kept open, and closed when it is accessed exclusively
+      assertEquals(0, ctx.datas.pins(NAME));
+      assertFalse(ctx.pinned(NAME));
+      assertEquals(0, journal(ctx).length());
+      assertTrue(texts(ctx).contains(TEXT));
+      assertEquals("1", new XQuery(COUNT).execute(ctx));
+      new DropDB(NAME).execute(ctx);
+    } finally {
+      ctx.close();
+    }
+    assertFalse(journal(ctx).exists());
+  }
+
+  /**
+   * Replays committed updates that have not been copied to the database files.
+   * @throws Exception exception
+   */
+  @Test public void recover() throws Exception {
+    final Context ctx = context(null);
+    final IOFile copy = new IOFile(sandbox(), "copy");
+    try {
+      new CreateDB(NAME, "<a/>").execute(ctx);
+      new Close().execute(ctx);
+      for(int i = 0; i < 3; i++) new XQuery(INSERT).execute(ctx);
+
+      // simulate crash: copy database and journal
+      final IOFile dbpath = ctx.soptions.dbPath();
+      for(final String file : dbpath.descendants()) {
+        if(file.startsWith(NAME) || file.equals(Journal.FILE)) {
+          new IOFile(dbpath, file).copyTo(new IOFile(copy, file));
+        }
+      }
+      new DropDB(NAME).execute(ctx);
+    } finally {
+      ctx.close();
+    }
+
+    final Context recovered = context(copy.path());
+    try {
+      assertEquals(0, journal(recovered).length());
+      assertTrue(texts(recovered).contains(TEXT));
+      assertEquals("3", new XQuery(COUNT).execute(recovered));
+      new DropDB(NAME).execute(recovered);
+    } finally {
+      recovered.close();
+      copy.delete();
+    }
+  }
+
+  /**
+   * Does not replay checkpointed changes if a file has been rewritten without journaling.
+   * @throws Exception exception
+   */
+  @Test public void recoverCheckpoint() throws Exception {
+    final Context ctx = context(null);
+    final IOFile copy = new IOFile(sandbox(), "copy");
+    final IOFile dbpath = ctx.soptions.dbPath();
+    final IOFile file1 = new IOFile(dbpath, NAME + "1/file");
+    final IOFile file2 = new IOFile(dbpath, NAME + "2/file");
+    final Journal journal = ctx.journal;
+    try {
+      file1.parent().md();
+      file2.parent().md();
+      file2.write("old");
+      journal.contents(file1, Token.token("old"));
+      journal.commit(NAME + '1');
+      journal.contents(file2, Token.token("new"));
+      journal.commit(NAME + '2');
+
+      // checkpoint first database (journal is not truncated), rewrite file without journaling
+      file1.write("old");
+      journal.checkpoint(NAME + '1');
+      file1.write("new");
+
+      // simulate crash before the journal is closed: copy database files and journal
+      for(final String file : dbpath.descendants()) {
+        if(file.startsWith(NAME) || file.equals(Journal.FILE)) {
+          new IOFile(dbpath, file).copyTo(new IOFile(copy, file));
+        }
+      }
+    } finally {
+      // checkpoint second database: journal is truncated and deleted
+      journal.checkpoint(NAME + '2');
+      ctx.close();
+      file1.parent().delete();
+      file2.parent().delete();
+    }
+
+    final Context recovered = context(copy.path());
+    try {
+      assertEquals(0, journal(recovered).length());
+      assertEquals("new", Token.string(new IOFile(copy, NAME + "1/file").read()));
+      assertEquals("new", Token.string(new IOFile(copy, NAME + "2/file").read()));
+    } finally {
+      recovered.close();
+      copy.delete();
+    }
+  }
+
+  /**
+   * Resumes journaling after indexes have been rebuilt in parallel.
+   * @throws Exception exception
+   */
+  @Test public void indexes() throws Exception {
+    final Context ctx = context(null);
+    try {
+      ctx.options.set(MainOptions.INDEXTHREADS, 4);
+      ctx.options.set(MainOptions.TOKENINDEX, true);
+      ctx.options.set(MainOptions.FTINDEX, true);
+      new CreateDB(NAME, "<a/>").execute(ctx);
+      new XQuery(INSERT).execute(ctx);
+      assertTrue(journal(ctx).length() > 0);
+
+      // journaled updates are copied to the database files before the indexes are rebuilt
+      new Optimize().execute(ctx);
+      assertTrue(texts(ctx).contains(TEXT));
+
+      // subsequent updates are journaled again
+      final long length = journal(ctx).length();
+      new XQuery(INSERT).execute(ctx);
+      assertTrue(journal(ctx).length() > length);
+      assertEquals("2", new XQuery(COUNT).execute(ctx));
+      new DropDB(NAME).execute(ctx);
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Commits updates of different databases in parallel.
+   * @throws Exception exception
+   */
+  @Test public void parallel() throws Exception {
+    final Context ctx = context(null);
+    final int dbs = 4, updates = 25;
+    try {
+      for(int d = 0; d < dbs; d++) new CreateDB(NAME + d, "<a/>").execute(ctx);
+      new Close().execute(ctx);
+
+      final ArrayList<Thread> threads = new ArrayList<>();
+      for(int d = 0; d < dbs; d++) {
+        final String query = INSERT.replace(NAME, NAME + d);
+        final Thread thread = new Thread(() -> {
+          final Context client = new Context(ctx);
+          client.user(ctx.user());
+          try {
+            for(int u = 0; u < updates; u++) new XQuery(query).execute(client);
+          } catch(final BaseXException ex) {
+            throw new RuntimeException(ex);
+          }
+        });
+        thread.start();
+        threads.add(thread);
+      }
+      for(final Thread thread : threads) thread.join();
+
+      for(int d = 0; d < dbs; d++) {
+        assertEquals(Integer.toString(updates),
+            new XQuery(COUNT.replace(NAME, NAME + d)).execute(ctx));
+        new DropDB(NAME + d).execute(ctx);
+      }
+      assertEquals(0, journal(ctx).length());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Returns the contents of the text file of the test database.
+   * @param ctx database context
+   * @return contents
+   * @throws Exception exception
+   */
+  private static String texts(final Context ctx) throws Exception {
+    return Token.string(new IOFile(ctx.soptions.dbPath(NAME), DataText.DATATXT +
+        IO.BASEXSUFFIX).read());
+  }
+
+  /**
+   * Returns the journal file.
+   * @param ctx database context
+   * @return journal file
+   */
+  private static IOFile journal(final Context ctx) {
+    return new IOFile(ctx.soptions.dbPath(), Journal.FILE);
+  }
+
+  /**
+   * Creates a database context with enabled journaling.
+   * @param dbpath database path (can be {@code null})
+   * @return database context
+   */
+  private static Context context(final String dbpath) {
+    final String path = Prop.get(StaticOptions.DBPATH);
+    Prop.put(StaticOptions.JOURNAL, "true");
+    if(dbpath != null) Prop.put(StaticOptions.DBPATH, dbpath);
+    try {
+      return new Context();
+    } finally {
+      Prop.put(StaticOptions.JOURNAL, StaticOptions.JOURNAL.value().toString());
+      Prop.put(StaticOptions.DBPATH, path);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package org.basex.io.random;
+
+/**
+ * Tests for class {@link DataAccess}, using a memory-mapped file.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class MappedDataAccessTest extends DataAccessTest {
+  @Override
+  protected boolean map() {
+    return true;
+  }
+}
@@ -4,11 +4,14 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 import static org.junit.Assert.*;
 
+import org.basex.core.*;
+import org.basex.core.cmd.*;
 import org.basex.query.ast.*;
 import org.basex.query.expr.gflwor.*;
 import org.basex.query.up.expr.*;
 import org.basex.util.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * Test cases for FLWOR expressions.
@@ -343,4 +346,114 @@ public final class GFLWORTest extends QueryPlanTest {
     check("let $x := <x>0</x> let $b := $x/text() return $b + 1", 1, count(Let.class, 1));
     error("let $x := <x>false</x> let $b as xs:boolean := $x/text() return $b", INVTYPE_X_X_X);
   }
+
+  /** Parallel evaluation. */
+  @Test public void parallel() {
+    set(MainOptions.PARALLELIZE, 10);
+    try {
+      final String par = exists("GFLWOR[@parallel = 'true']");
+      check("max(for $i in 1 to 1000 return $i * 2)", 2000, par);
+      check("sum(for $i in 1 to 1000 let $j := $i * 2 where $j mod 4 = 0 return $j)", 501000,
+          par);
+      check("for $x in 1 to 2 return sum(for $i in 1 to 100 return $i * $x)", "5050\n10100",
+          count("GFLWOR[@parallel = 'true']", 1));
+      check("string-join(for $i in 1 to 12 return $i || ',')", "1,2,3,4,5,6,7,8,9,10,11,12,",
+          par);
+      error("for $i in 1 to 100 return 1 div ($i - 50)", DIVZERO_X);
+      check("for $i in 1 to 100 return <a>{ $i }</a>", null, empty("GFLWOR[@parallel]"));
+    } finally {
+      set(MainOptions.PARALLELIZE, 0);
+    }
+  }
+
+  /** Sorting with runs written to disk. */
+  @Test public void orderBySpill() {
+    final StringBuilder xml = new StringBuilder("<x>");
+    for(int i = 0; i < 30; i++) xml.append("<a b='").append(i % 4).append("'/>");
+    execute(new CreateDB(NAME, xml.append("</x>").toString()));
+    final String[] queries = {
+      "for $i in 1 to 100 order by $i mod 7, $i descending return $i",
+      "for $i in 1 to 100 order by string($i) return $i",
+      "for $i in (1 to 50) ! (., -.) order by $i mod 3 return $i",
+      "for $d in (1 to 40) ! (. div 7, xs:double('NaN'), xs:float(.)) " +
+        "order by $d empty greatest return $d",
+      "for $i in 1 to 40 let $k := if($i mod 4) then $i else () " +
+        "order by $k descending empty least return $i",
+      "for $i in 1 to 40 order by $i mod 5 return <a>{ $i }</a>",
+      "for $i in 1 to 40 let $n := <a>{ $i }</a> order by $i mod 5 return $n",
+      "for $i in 1 to 40 order by -$i return ($i, $i * 2)",
+      "(for $i in 1 to 100 order by -$i return $i)[position() < 5]",
+      "for $a in //a order by $a/@b return $a",
+      "for $a in //a order by $a/@b descending return ($a, $a/@b)"
+    };
+    for(final String query : queries) {
+      final String expected = query(query);
+      set(MainOptions.SORTLIMIT, 7);
+      try {
+        query(query, expected);
+      } finally {
+        set(MainOptions.SORTLIMIT, 0);
+      }
+    }
+  }
+
+  /** Top-K sorting. */
+  @Test public void orderByTopK() {
+    final String flwor = "for $i in 1 to 20 order by $i mod 3 ";
+    query("head(" + flwor + "return $i)", 3);
+    query("(" + flwor + "return $i)[position() <= 5]", "3\n6\n9\n12\n15");
+    query("(" + flwor + "descending return $i)[3]", 8);
+    query("subsequence(" + flwor + "descending return $i, 3, 3)", "8\n11\n14");
+    query("(" + flwor + "empty greatest return $i)[position() = 7 to 9]", "1\n4\n7");
+    query("subsequence(" + flwor + "return ($i, -$i), 3, 3)", "6\n-6\n9");
+    query("(" + flwor + "return $i)[25]", "");
+    query("(for $i in () order by $i return $i)[1]", "");
+
+    // same results if tuples are spilled to disk
+    set(MainOptions.SORTLIMIT, 2);
+    try {
+      query("(" + flwor + "return $i)[position() <= 5]", "3\n6\n9\n12\n15");
+    } finally {
+      set(MainOptions.SORTLIMIT, 0);
+    }
+    error("head(for $i in (1, 'a', 2) order by $i return $i)", INVTYPE_X_X_X);
+    error("for $i in (1, 'a', 2) order by $i return $i", INVTYPE_X_X_X);
+  }
+
+  /** Grouping with primitive keys and partitions written to disk. */
+  @Test public void groupBySpill() {
+    query("for $i in (1, 1.0e0, '1', xs:untypedAtomic('1'), 2, 1.0) " +
+        "group by $k := $i return count($i)", "3\n2\n1");
+    query("for $i in ('a', 'b', 'A') group by $k := $i collation " +
+        "'http://www.w3.org/2005/xpath-functions/collation/html-ascii-case-insensitive' " +
+        "return count($i)", "2\n1");
+
+    final StringBuilder xml = new StringBuilder("<x>");
+    for(int i = 0; i < 30; i++) xml.append("<a b='").append(i % 4).append("'/>");
+    execute(new CreateDB(NAME, xml.append("</x>").toString()));
+    final String[] queries = {
+      "for $i in 1 to 100 group by $k := $i mod 13 return $k || ':' || string-join($i, ',')",
+      "for $i in (1 to 50) ! (., string(.), . div 2) group by $k := $i " +
+        "return $k || ':' || count($i)",
+      "for $i in 1 to 60 let $k := if($i mod 3) then $i mod 7 else () group by $k " +
+        "return $k || ':' || string-join($i, ',')",
+      "for $i in 1 to 60 group by $a := $i mod 3, $b := string($i mod 4) " +
+        "return $a || $b || ':' || string-join($i, ',')",
+      "for $i in 1 to 60 group by $k := string($i mod 9) collation " +
+        "'http://www.w3.org/2005/xpath-functions/collation/codepoint' " +
+        "return $k || ':' || string-join($i, ',')",
+      "for $i in 1 to 60 let $v := if($i < 40) then $i else <a>{ $i }</a> " +
+        "group by $k := $i mod 11 return $k || ':' || string-join($v, ',')",
+      "for $a in //a group by $b := $a/@b return $b || ':' || count($a)"
+    };
+    for(final String query : queries) {
+      final String expected = query("sort(" + query + ")");
+      set(MainOptions.GROUPLIMIT, 3);
+      try {
+        query("sort(" + query + ")", expected);
+      } finally {
+        set(MainOptions.GROUPLIMIT, 0);
+      }
+    }
+  }
 }
@@ -3,6 +3,7 @@ package org.basex.query.expr;
 import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 
+import org.basex.core.*;
 import org.basex.query.ast.*;
 import org.basex.query.expr.constr.*;
 import org.basex.query.value.item.*;
@@ -84,4 +85,26 @@ public final class SimpleMapTest extends QueryPlanTest {
     check("(1 to 2) ! util:replicate('a', 2) ! util:replicate('a', 2)", "a\na\na\na\na\na\na\na",
         exists(SingletonSeq.class) + " and .//@size = 8");
   }
+
+  /** Parallel evaluation. */
+  @Test public void parallel() {
+    set(MainOptions.PARALLELIZE, 10);
+    try {
+      check("max((1 to 1000) ! (. * 2))", 2000, exists(ParallelMap.class));
+      check("sum((1 to 1000) ! (. * 2))", 1001000, exists(ParallelMap.class));
+      check("string-join((1 to 12) ! string() ! (. || ','))", "1,2,3,4,5,6,7,8,9,10,11,12,",
+          exists(ParallelMap.class));
+      check("for $x in 1 to 2 return sum((1 to 100) ! (. * $x))", "5050\n10100",
+          exists(ParallelMap.class));
+      query("declare function local:f($n) { $n * $n }; sum((1 to 1000) ! local:f(.))",
+          333833500);
+      error("(1 to 100) ! (1 div (. - 50))", DIVZERO_X);
+
+      // small or non-deterministic input: sequential evaluation
+      check("(1 to 5) ! (. * 2)", "2\n4\n6\n8\n10", empty(ParallelMap.class));
+      check("count((1 to 100) ! random:double())", 100, empty(ParallelMap.class));
+    } finally {
+      set(MainOptions.PARALLELIZE, 0);
+    }
+  }
 }
@@ -0,0 +1,119 @@
+package org.basex.query.ft;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.ft.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests if fuzzy and wildcard queries return the same results with and without index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTFuzzyTest extends QueryPlanTest {
+  /** Characters used for generating tokens. */
+  private static final String CHARS = "abcdeä";
+
+  /**
+   * Creates two databases with a large number of similar tokens.
+   */
+  @BeforeClass public static void init() {
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    final int cl = CHARS.length();
+    for(int i = 0; i < 4000; i++) {
+      tb.add("<t>");
+      // tokens with 3 to 7 characters
+      for(int n = i, l = 3 + i % 5; l > 0; l--, n /= cl) tb.add(CHARS.charAt(n % cl));
+      tb.add("</t>");
+    }
+    final String doc = tb.add("<t>Abcdé</t></xml>").toString();
+    execute(new CreateDB(NAME, doc));
+    set(MainOptions.FTINDEX, true);
+    try {
+      execute(new CreateDB(NAME + "ix", doc));
+    } finally {
+      set(MainOptions.FTINDEX, false);
+    }
+  }
+
+  /**
+   * Drops the databases.
+   */
+  @AfterClass public static void finish() {
+    execute(new DropDB(NAME));
+    execute(new DropDB(NAME + "ix"));
+  }
+
+  /**
+   * Fuzzy queries.
+   */
+  @Test public void fuzzy() {
+    for(final String token : new String[] { "abc", "abcd", "badc", "abcde", "eeeee", "abcdea",
+        "cbadeb", "aaaaaaa", "äbcd", "abcdee", "xyz", "abcdefghi" }) {
+      assertQuery("'" + token + "' using fuzzy");
+    }
+    assertQuery("'abcdeb' using fuzzy", "declare option db:lserror '2';");
+  }
+
+  /**
+   * Wildcard queries.
+   */
+  @Test public void wildcards() {
+    for(final String token : new String[] { "a.c", "ab.*", "ab.*e", "a.+b.?c", "a.{1,2}d.*",
+        "c.c.{2,3}", "ä.*", "b.*a.*e", "x.*", "d.." }) {
+      assertQuery("'" + token + "' using wildcards");
+    }
+  }
+
+  /**
+   * Wildcard queries on tokens with multi-byte characters.
+   */
+  @Test public void wildcardsNonLatin() {
+    final String doc = "<xml><t>c\u0436c\u0436\u0436</t><t>cacaa</t>" +
+        "<t>a\u0436\u0436</t><t>ab</t></xml>";
+    execute(new CreateDB(NAME + "nl", doc));
+    set(MainOptions.FTINDEX, true);
+    try {
+      execute(new CreateDB(NAME + "nlix", doc));
+    } finally {
+      set(MainOptions.FTINDEX, false);
+    }
+    try {
+      for(final String token : new String[] { "c.c.{2,3}", "a.?.?" }) {
+        final String path = "count(//t[text() contains text '" + token + "' using wildcards])";
+        execute(new Open(NAME + "nl"));
+        check(path, 2, empty(FTIndexAccess.class));
+        execute(new Open(NAME + "nlix"));
+        check(path, 2, exists(FTIndexAccess.class));
+      }
+    } finally {
+      execute(new DropDB(NAME + "nl"));
+      execute(new DropDB(NAME + "nlix"));
+    }
+  }
+
+  /**
+   * Asserts that a query returns the same result with and without index.
+   * @param query full-text selection
+   */
+  private static void assertQuery(final String query) {
+    assertQuery(query, "");
+  }
+
+  /**
+   * Asserts that a query returns the same result with and without index.
+   * @param query full-text selection
+   * @param prolog query prolog
+   */
+  private static void assertQuery(final String query, final String prolog) {
+    final String path = prolog + "string-join(//t[text() contains text " + query + "], ' ')";
+    execute(new Open(NAME));
+    final String expected = query(path);
+    execute(new Open(NAME + "ix"));
+    check(path, expected, exists(FTIndexAccess.class));
+  }
+}
@@ -113,6 +113,23 @@ public final class ClientModuleTest extends SandboxTest {
     }
   }
 
+  /** Test method. */
+  @Test public void batch() {
+    final Function func = _CLIENT_BATCH;
+    // successful queries
+    query(func.args(connection(), " ()"), "[]");
+    query(func.args(connection(), " ('1', '2 to 3', '()')") + " ! array:size(.)", 3);
+    query(func.args(connection(), " ('1', '2 to 3', '()')") + "?*", "1\n2\n3");
+    query(func.args(connection(), " ('1', '<a/>')") + "?2 ! name()", "a");
+    // arguments
+    query(func.args(connection(), " ('declare variable $a external; $a*2', "
+        + "'declare variable $a external; $a+1')", " map { 'a': 1 }") + "?*", "2\n2");
+    // query errors: returning function items
+    error(func.args(connection(), " ('1', 'true#0')"), CLIENT_FITEM_X);
+    // query errors: server-side errors (first error is raised)
+    error(func.args(connection(), " ('1', 'x', '1+')"), NOCTX_X);
+  }
+
   /** Test method. */
   @Test public void close() {
     final Function func = _CLIENT_CLOSE;
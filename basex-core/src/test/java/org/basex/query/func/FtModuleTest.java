@@ -112,6 +112,36 @@ public final class FtModuleTest extends SandboxTest {
     error(func.args(NAME, "x", " 1"), MAP_X_X);
   }
 
+  /** Test method. */
+  @Test public void searchLimit() {
+    final Function func = _FT_SEARCH;
+    execute(new CreateDB(NAME, query("<xml>{ for $i in 1 to 3000 return <t>{ string-join((" +
+        "'a', if($i mod 3 = 0) then 'b' else (), if($i mod 7 = 0) then ('c', 'c') else ()," +
+        "if($i mod 100 = 1) then 'd' else (), if($i mod 5 = 0) then 'x x x' else ()), ' ')" +
+        "}</t> }</xml>")));
+    execute(new CreateIndex(CmdIndex.FULLTEXT));
+    final String query = "for $n in % return db:node-pre($n) || ':' || " + _FT_SCORE.args(" $n");
+
+    // best results must equal the first results of a complete ranking
+    final String terms = " ('b', 'c', 'd')";
+    final String all = query(query.replace("%", func.args(NAME, terms,
+        " map { 'limit': 10000 }")));
+    final String best = query(query.replace("%", func.args(NAME, terms,
+        " map { 'limit': 10 }")));
+    query("count(tokenize('" + all + "', '\n'))", 1303);
+    query("deep-equal(tokenize('" + best + "', '\n'), " +
+        "subsequence(tokenize('" + all + "', '\n'), 1, 10))", true);
+    // results of filtered queries
+    query(query.replace("%", func.args(NAME, terms, " map { 'limit': 10, 'ordered': true() }")),
+        best);
+    // ranked results are ordered by score
+    query(COUNT.args(func.args(NAME, " ('b', 'c')", " map { 'limit': 3, 'mode': 'all' }")), 3);
+    query("every $s in " + _FT_SCORE.args(func.args(NAME, "c", " map { 'limit': 100 }")) +
+        " satisfies $s > 0", true);
+    query(COUNT.args(func.args(NAME, "b", " map { 'limit': 0 }")), 0);
+    query(COUNT.args(func.args(NAME, "y", " map { 'limit': 5 }")), 0);
+  }
+
   /** Test method. */
   @Test public void count() {
     final Function func = _FT_COUNT;
@@ -137,6 +137,24 @@ public final class JobsModuleTest extends SandboxTest {
         JOBS_RANGE_X);
   }
 
+  /** Test method. */
+  @Test public void evalCron() {
+    final Function func = _JOBS_EVAL;
+    final String id = query(func.args("1", " ()", " map{'cron':'0 0 1 1 *'}"));
+    try {
+      query(_JOBS_LIST_DETAILS.args(id) + "/@start => xs:dateTime() => month-from-dateTime()", 1);
+      query(_JOBS_FINISHED.args(id), true);
+    } finally {
+      query(_JOBS_STOP.args(id));
+    }
+
+    // errors
+    error(func.args("1", " ()", " map{'cron':'* * *'}"), JOBS_RANGE_X);
+    error(func.args("1", " ()", " map{'cron':'0 0 31 2 *'}"), JOBS_RANGE_X);
+    error(func.args("1", " ()", " map{'cron':'* * * * *','interval':'PT1S'}"), JOBS_OPTIONS);
+    error(func.args("1", " ()", " map{'cron':'* * * * *','cache':true()}"), JOBS_OPTIONS);
+  }
+
   /** Test method. */
   @Test public void evalService() {
     final Function func = _JOBS_EVAL;
@@ -187,6 +205,8 @@ public final class JobsModuleTest extends SandboxTest {
       query(list + "/@user/string()", UserText.ADMIN);
       query(list + "/@state/string() = ('running', 'queued')", true);
       query(list + "/@duration/string() castable as xs:dayTimeDuration", true);
+      query(list + "/@priority/string()", 0);
+      query(list + "/@runs/string()", 0);
     } finally {
       query(_JOBS_STOP.args(id));
     }
@@ -1,5 +1,6 @@
 package org.basex.query.func;
 
+import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 
 import org.basex.*;
@@ -65,6 +66,18 @@ public final class ProfModuleTest extends SandboxTest {
     query(func.args("a"), "");
   }
 
+  /** Test method. */
+  @Test public void profile() {
+    final Function func = _PROF_PROFILE;
+    query(func.args("1") + "/name()", "QueryPlan");
+    query(func.args("for $i in 1 to 3 return $i * 2") + "//Arith/@calls/string()", 3);
+    query(func.args("declare variable $n external; (1 to $n)[. > 5]", " map { 'n': 10 }") +
+        "/*/@items/string()", 5);
+    query("exists(" + func.args("(1 to 100)[. > 5]") + "//@time)", true);
+    query(func.args("<a><b/><b/></a>/b") + "//IterStep/@items/string()", 2);
+    error(func.args("delete node <a/>"), XQUERY_UPDATE1);
+  }
+
   /** Test method. */
   @Test public void variables() {
     final Function func = _PROF_VARIABLES;
@@ -113,6 +113,14 @@ public final class XQueryModuleTest extends SandboxTest {
     query(func.args(" (true#0, function() { (1 to 10000000)[.=1] })"), "true\n1");
     query(func.args(" ()"), "");
 
+    // limit number of parallel tasks, nest calls
+    set(MainOptions.FORKJOINTASKS, 3);
+    query("string-join(" + func.args(" (for $i in 1 to 10 return function() { $i })") + ")",
+        "12345678910");
+    set(MainOptions.FORKJOINTASKS, 0);
+    query("count(" + func.args(" (1 to 10) ! function() { " +
+        func.args(" (1 to 10) ! function() { 1 }") + " }") + ')', 100);
+
     // errors
     error(func.args(" count#1"), ZEROFUNCS_X_X);
     error(func.args(" 123"), ZEROFUNCS_X_X);
@@ -0,0 +1,132 @@
+package org.basex.query.index;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.index.value.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the cost estimations of index requests.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexCostsTest extends QueryPlanTest {
+  /** Query for creating the test document. */
+  private static final String DOC = "<xml>{ for $i in 1 to 2000 return ("
+      + "<item id='{ $i }' cat='{ $i mod 2 }'>{ if($i mod 100 = 0) then 'common' else 'v' || $i"
+      + "}</item>, <b>common</b>, <b>common</b>) }</xml>";
+
+  /**
+   * Creates the database.
+   */
+  @BeforeClass public static void init() {
+    create(false);
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterClass public static void finish() {
+    set(MainOptions.UPDINDEX, false);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Chooses between index access and sequential scans.
+   */
+  @Test public void sequential() {
+    // more index results than item elements: scan items
+    check("count(//item[text() = 'common'])", 20, empty(ValueAccess.class));
+    check("count(//item[text() = 'v77'])", 1, exists(ValueAccess.class));
+    check("count(//item[@cat = '1'])", 1000, exists(ValueAccess.class));
+  }
+
+  /**
+   * Orders predicates by their selectivity.
+   */
+  @Test public void order() {
+    // the remaining predicates are ordered after index rewriting
+    check("//item[contains(text(), '1')][@cat = '1'][@id = '71']/@id/string()", 71,
+        exists(ValueAccess.class),
+        exists("IterStep[FnContains[preceding-sibling::* and empty(following-sibling::*)]]"));
+    // predicates are ordered without index rewriting
+    check("count(//item[contains(text(), 'o')][text() = 'common'])", 20,
+        empty(ValueAccess.class),
+        exists("IterStep[FnContains[preceding-sibling::* and empty(following-sibling::*)]]"));
+  }
+
+  /**
+   * Estimates the number of results of string range requests.
+   */
+  @Test public void ranges() {
+    assertRanges();
+    assertAverage();
+    // updated index: histogram is dropped, and recreated when the database is optimized
+    set(MainOptions.UPDINDEX, true);
+    create(true);
+    assertAverage();
+    final StringRange sr = new StringRange(IndexType.TEXT, token("w"), true, token("x"), false);
+    assertEquals(500 * ((ValueIndex) context.data().index(IndexType.TEXT)).average(),
+        context.data().costs(sr).results());
+    execute(new Optimize());
+    assertRanges();
+    assertAverage();
+    query("delete node //item[starts-with(., 'w')]");
+    assertAverage();
+    set(MainOptions.UPDINDEX, false);
+    create(false);
+  }
+
+  /**
+   * Creates the database.
+   * @param update update database after creation
+   */
+  private static void create(final boolean update) {
+    execute(new CreateDB(NAME));
+    query("db:replace('" + NAME + "', 'doc.xml', " + DOC + ')');
+    execute(new Optimize());
+    if(update) query("for $i in 1 to 500 return insert node <item>{ 'w' || $i }</item> into /xml");
+  }
+
+  /**
+   * Compares the average and actual number of ids per text index entry.
+   */
+  private static void assertAverage() {
+    final ValueIndex index = (ValueIndex) context.data().index(IndexType.TEXT);
+    final int texts = Integer.parseInt(query("count(//text())"));
+    final int keys = Integer.parseInt(query("count(distinct-values(//text()))"));
+    assertEquals(keys, index.size());
+    assertEquals(Math.max(1, texts / keys), index.average());
+  }
+
+  /**
+   * Compares the estimated and actual number of results of string range requests.
+   */
+  private static void assertRanges() {
+    final String[][] ranges = { { "v1", "v2" }, { "v", "w" }, { "c", "v" }, { "v55", "v7" },
+        { "a", "b" }, { "v1000", "v1000 " }, { "w", "x" }, { "", "z" } };
+    final Data data = context.data();
+    final int total = Integer.parseInt(query("count(//text())"));
+    for(final String[] range : ranges) {
+      final StringRange sr = new StringRange(IndexType.TEXT, token(range[0]), true,
+          token(range[1]), false);
+      final int costs = data.costs(sr).results();
+      final int count = Integer.parseInt(query("count(//text()[. >= '" + range[0] +
+          "' and . < '" + range[1] + "'])"));
+      // empty results must be exact; estimates must not differ by more than two buckets
+      if(count == 0) assertEquals(0, costs);
+      else assertTrue(range[0] + ": " + costs + " vs. " + count,
+          costs > 0 && Math.abs(costs - count) <= total / 64 + 1);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.basex.query.index;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if numeric range queries are correctly evaluated with(out) the index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class NumericRangeTest extends QueryPlanTest {
+  /** Index access. */
+  private static final String RANGE = Util.className(RangeAccess.class);
+  /** Test document. */
+  private static String doc;
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeClass public static void start() {
+    // create document with negative numbers, decimals and values of different lengths
+    final TokenBuilder tb = new TokenBuilder().add("<xml>");
+    for(int i = -500; i < 1500; i++) {
+      tb.add("<n p='").addInt(i % 100).add("'>").addInt(i).add("</n>");
+      tb.add("<d>").addInt(i).add(".5</d>");
+    }
+    doc = tb.add("<d>1e3</d><d>0001</d><d>-0</d><x>a</x></xml>").toString();
+    execute(new CreateDB(NAME, doc));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterClass public static void finish() {
+    set(MainOptions.UPDINDEX, false);
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Ranges of integers.
+   */
+  @Test public void integers() {
+    test("count(//n[text() >= 10 and text() <= 20])", 11);
+    test("count(//n[text() > 10 and text() < 20])", 9);
+    test("count(//n[text() >= 5 and text() <= 50])", 46);
+    test("count(//n[text() >= -20 and text() <= 20])", 41);
+    test("count(//n[text() >= 900])", 600);
+    test("count(//n[text() < -400])", 100);
+    test("count(//n[text() = 77])", 1);
+    test("count(//n[text() > 1498])", 1);
+  }
+
+  /**
+   * Ranges of decimals and numbers in other notations.
+   */
+  @Test public void doubles() {
+    test("count(//d[text() >= 10 and text() <= 20])", 10);
+    test("count(//d[text() >= -0.5 and text() <= 0.5])", 2);
+    test("count(//d[text() >= 0 and text() <= 1])", 3);
+    test("count(//d[text() = 1000])", 1);
+    test("count(//d[text() > 1400])", 100);
+  }
+
+  /**
+   * Ranges of attribute values.
+   */
+  @Test public void attributes() {
+    execute(new CreateIndex(CmdIndex.ATTRIBUTE));
+    check("count(//n[@p >= 10 and @p <= 19])", 150, exists(RANGE));
+    check("count(//n[@p < -90])", 45, exists(RANGE));
+    execute(new DropIndex(CmdIndex.ATTRIBUTE));
+    check("count(//n[@p >= 10 and @p <= 19])", 150, empty(RANGE));
+  }
+
+  /**
+   * Numeric keys of an updatable index are dropped when the index is updated.
+   */
+  @Test public void update() {
+    set(MainOptions.UPDINDEX, true);
+    try {
+      execute(new CreateIndex(CmdIndex.TEXT));
+      check("count(//n[text() >= 10 and text() <= 20])", 11, exists(RANGE));
+      query("insert node <n>15</n> into /xml");
+      query("delete node (//n[text() = 19])[1]");
+      check("count(//n[text() >= 10 and text() <= 20])", 11);
+      check("count(//n[text() >= 5 and text() <= 50])", 46);
+      execute(new OptimizeAll());
+      check("count(//n[text() >= 5 and text() <= 50])", 46, exists(RANGE));
+    } finally {
+      set(MainOptions.UPDINDEX, false);
+      execute(new CreateDB(NAME, doc));
+    }
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   */
+  private static void test(final String query, final Object result) {
+    execute(new CreateIndex(CmdIndex.TEXT));
+    check(query, result, exists(RANGE));
+    execute(new DropIndex(CmdIndex.TEXT));
+    check(query, result, empty(RANGE));
+  }
+}
@@ -0,0 +1,124 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.in.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the client/server session API with a selector and a bounded number of
+ * worker threads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelectorTest extends SessionTest {
+  /** Number of worker threads. */
+  private static final int THREADS = 2;
+  /** Server reference. */
+  private static BaseXServer server;
+
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass public static void startServer() throws IOException {
+    final String name = Prop.DBPREFIX + StaticOptions.SERVERTHREADS.name();
+    System.setProperty(name, Integer.toString(THREADS));
+    try {
+      server = createServer();
+    } finally {
+      System.clearProperty(name);
+    }
+  }
+
+  /**
+   * Stops the server.
+   */
+  @AfterClass public static void stop() {
+    stopServer(server);
+  }
+
+  /** Starts a session. */
+  @Before public void startSession() {
+    try {
+      session = createClient();
+      session.setOutputStream(out);
+    } catch(final IOException ex) {
+      fail(Util.message(ex));
+    }
+  }
+
+  /**
+   * Opens more sessions than worker threads are available.
+   * @throws IOException I/O exception
+   */
+  @Test public void sessions() throws IOException {
+    final ArrayList<ClientSession> sessions = new ArrayList<>();
+    try {
+      for(int s = 0; s < THREADS * 10; s++) sessions.add(createClient());
+      int s = 0;
+      for(final ClientSession cs : sessions) {
+        assertEquals(Integer.toString(s), cs.execute(new XQuery(Integer.toString(s))));
+        s++;
+      }
+    } finally {
+      for(final ClientSession cs : sessions) cs.close();
+    }
+  }
+
+  /**
+   * Releases the locks of a query if the client does not request further results in time.
+   * @throws IOException I/O exception
+   */
+  @Test public void cursorTimeout() throws IOException {
+    final StaticOptions sopts = server.context.soptions;
+    final int keepalive = sopts.get(StaticOptions.KEEPALIVE);
+    sopts.set(StaticOptions.KEEPALIVE, 1);
+    session.create(NAME, new ArrayInput("<a/>"));
+    try(ClientSession cs = createClient()) {
+      final ClientQuery query = cs.query("for $i in 1 to 100000 return db:open('" + NAME + "')");
+      query.fetch(1);
+      assertEquals("<a/>", query.next());
+      // database can only be dropped if the read lock has been released
+      session.execute(new DropDB(NAME));
+    } finally {
+      sopts.set(StaticOptions.KEEPALIVE, keepalive);
+    }
+  }
+
+  /**
+   * Processes the requests of other sessions if all worker threads are occupied by clients
+   * that do not request further results.
+   * @throws IOException I/O exception
+   */
+  @Test public void occupiedWorkers() throws IOException {
+    final StaticOptions sopts = server.context.soptions;
+    final int keepalive = sopts.get(StaticOptions.KEEPALIVE);
+    sopts.set(StaticOptions.KEEPALIVE, 1);
+    final ArrayList<ClientSession> sessions = new ArrayList<>();
+    try {
+      for(int s = 0; s < THREADS; s++) {
+        final ClientSession cs = createClient();
+        sessions.add(cs);
+        final ClientQuery query = cs.query("1 to 100000");
+        query.fetch(1);
+        assertEquals("1", query.next());
+      }
+      // request is processed as soon as the idle cursors have timed out
+      assertEquals("1", session.execute(new XQuery("1")));
+    } finally {
+      for(final ClientSession cs : sessions) cs.close();
+      sopts.set(StaticOptions.KEEPALIVE, keepalive);
+    }
+  }
+}
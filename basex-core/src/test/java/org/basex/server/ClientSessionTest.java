@@ -5,8 +5,14 @@ import static org.junit.Assert.*;
 import java.io.*;
 
 import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.in.*;
+import org.basex.query.value.type.*;
 import org.basex.util.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the client/server session API.
@@ -42,4 +48,128 @@ public class ClientSessionTest extends SessionTest {
       fail(Util.message(ex));
     }
   }
+
+  /**
+   * Runs several queries and commands in a single request.
+   * @throws IOException I/O exception
+   */
+  @Test public void batch() throws IOException {
+    final ClientBatch batch = ((ClientSession) session).batch();
+    batch.command("set serializer indent=no");
+    batch.query("declare variable $a external; $a * 2").bind("a", "21", "xs:integer");
+    batch.query("declare context item external; (., <a/>)", true).context("x");
+    batch.command("xquery 1 to 3");
+    batch.execute();
+
+    assertEquals(4, batch.size());
+    assertEquals("", batch.result(0));
+    assertEquals("42", batch.result(1));
+    assertArrayEquals(new String[] { "x", "<a/>" }, batch.items(2));
+    assertArrayEquals(new Type[] { AtomType.STR, NodeType.ELM }, batch.types(2));
+    assertEquals("1 2 3", batch.result(3).replace('\n', ' '));
+    assertNotNull(batch.info(3));
+
+    // failing requests: all requests are evaluated, the first error is raised
+    final ClientBatch errors = ((ClientSession) session).batch();
+    errors.query("1+").command("unknown").query("2");
+    try {
+      errors.execute();
+      fail("Error expected.");
+    } catch(final BaseXException ex) {
+      assertEquals(errors.error(0), ex.getMessage());
+    }
+    assertNotNull(errors.error(1));
+    assertNull(errors.error(2));
+    assertEquals("2", errors.result(2));
+
+    // session is still usable
+    final ClientBatch next = ((ClientSession) session).batch().query("3");
+    next.execute();
+    assertEquals("3", next.result(0));
+  }
+
+  /**
+   * Retrieves query results in chunks.
+   * @throws IOException I/O exception
+   */
+  @Test public void cursor() throws IOException {
+    // return results as strings
+    session.setOutputStream(null);
+    try(ClientQuery query = (ClientQuery) session.query("1 to 10")) {
+      query.fetch(3);
+      final StringBuilder sb = new StringBuilder();
+      while(query.more()) sb.append(query.next());
+      assertEquals("12345678910", sb.toString());
+    }
+
+    // full type information, empty result, evaluation error
+    try(ClientQuery query = (ClientQuery) session.query("(1, 'a')")) {
+      query.fetch(1);
+      query.cache(true);
+      assertEquals("1", query.next());
+      assertEquals(AtomType.ITR, query.type());
+      assertEquals("a", query.next());
+      assertEquals(AtomType.STR, query.type());
+      assertNull(query.next());
+    }
+    try(ClientQuery query = (ClientQuery) session.query("()")) {
+      query.fetch(1);
+      assertFalse(query.more());
+    }
+    try(ClientQuery query = (ClientQuery) session.query("(1, error())")) {
+      query.fetch(1);
+      assertEquals("1", query.next());
+      query.next();
+      fail("Error expected.");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage().contains("FOER0000"));
+    }
+
+    // cancel query by sending another request
+    final ClientQuery query = (ClientQuery) session.query("1 to 1000000000");
+    query.fetch(2);
+    assertEquals("1", query.next());
+    assertEquals("2", query.next());
+    assertEquals("3", query.next());
+    final ClientQuery next = (ClientQuery) session.query("'x'");
+    assertEquals("x", next.next());
+    next.close();
+    query.close();
+  }
+
+  /**
+   * Releases the locks of a query if the client disconnects.
+   * @throws IOException I/O exception
+   */
+  @Test public void cursorDisconnect() throws IOException {
+    session.create(NAME, new ArrayInput("<a/>"));
+    final ClientSession cs = createClient();
+    final ClientQuery query = cs.query("for $i in 1 to 100000 return db:open('" + NAME + "')");
+    query.fetch(1);
+    assertEquals("<a/>", query.next());
+    // drop the connection without cancelling the query
+    cs.close();
+    // database can only be dropped if the read lock has been released
+    session.execute(new DropDB(NAME));
+  }
+
+  /**
+   * Keeps the cursor of a session with a dedicated thread if the client pauses.
+   * @throws IOException I/O exception
+   */
+  @Test public void cursorPause() throws IOException {
+    final StaticOptions sopts = server.context.soptions;
+    final int keepalive = sopts.get(StaticOptions.KEEPALIVE);
+    sopts.set(StaticOptions.KEEPALIVE, 1);
+    try(ClientSession cs = createClient()) {
+      final ClientQuery query = cs.query("1 to 100000");
+      query.fetch(1);
+      assertEquals("1", query.next());
+      Performance.sleep(1500);
+      assertEquals("2", query.next());
+      query.close();
+    } finally {
+      sopts.set(StaticOptions.KEEPALIVE, keepalive);
+    }
+  }
 }
@@ -0,0 +1,111 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.server.Log.LogType;
+import org.basex.util.*;
+import org.basex.util.list.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the asynchronous writing of log entries.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LogTest extends SandboxTest {
+  /** Number of threads. */
+  private static final int THREADS = 4;
+  /** Number of entries per thread. */
+  private static final int ENTRIES = 1000;
+
+  /** Resets the options and deletes the log file. */
+  @After public void reset() {
+    final StaticOptions sopts = context.soptions;
+    sopts.set(StaticOptions.LOGBUFFER, StaticOptions.LOGBUFFER.value());
+    sopts.set(StaticOptions.LOGFLUSH, StaticOptions.LOGFLUSH.value());
+    sopts.set(StaticOptions.LOGDROP, StaticOptions.LOGDROP.value());
+    final LogFile file = new Log(sopts).file(today());
+    if(file != null) assertTrue(file.delete());
+  }
+
+  /**
+   * Writes entries asynchronously; requests are blocked if the queue is full.
+   * @throws Exception exception
+   */
+  @Test public void block() throws Exception {
+    context.soptions.set(StaticOptions.LOGBUFFER, 16);
+    final Log log = new Log(context.soptions);
+    write(log);
+    // all entries must be visible before the log is closed
+    assertEquals(THREADS * ENTRIES, entries(log).size());
+    log.close();
+    assertEquals(THREADS * ENTRIES, entries(log).size());
+  }
+
+  /**
+   * Writes entries asynchronously; entries are discarded if the queue is full.
+   * @throws Exception exception
+   */
+  @Test public void drop() throws Exception {
+    context.soptions.set(StaticOptions.LOGBUFFER, 1);
+    context.soptions.set(StaticOptions.LOGFLUSH, 100000);
+    context.soptions.set(StaticOptions.LOGDROP, true);
+    final Log log = new Log(context.soptions);
+    write(log);
+    log.close();
+
+    // written and discarded entries must sum up to the number of all entries
+    final StringList entries = entries(log);
+    int discarded = 0;
+    for(final String line : log.file(today()).read()) {
+      final int i = line.indexOf(" log entries were discarded.");
+      if(i != -1) discarded += Integer.parseInt(line.substring(line.lastIndexOf('\t', i) + 1, i));
+    }
+    assertEquals(THREADS * ENTRIES, entries.size() + discarded);
+  }
+
+  /**
+   * Writes log entries in parallel.
+   * @param log log
+   * @throws InterruptedException interrupted exception
+   */
+  private static void write(final Log log) throws InterruptedException {
+    final ArrayList<Thread> threads = new ArrayList<>();
+    for(int t = 0; t < THREADS; t++) {
+      final int id = t;
+      threads.add(new Thread(() -> {
+        for(int e = 0; e < ENTRIES; e++) log.writeServer(LogType.INFO, "entry " + id + '/' + e);
+      }));
+    }
+    for(final Thread thread : threads) thread.start();
+    for(final Thread thread : threads) thread.join();
+  }
+
+  /**
+   * Returns the written test entries.
+   * @param log log
+   * @return entries
+   * @throws Exception exception
+   */
+  private static StringList entries(final Log log) throws Exception {
+    final StringList entries = new StringList();
+    for(final String line : log.file(today()).read()) {
+      if(line.contains("\tentry ")) entries.add(line);
+    }
+    return entries;
+  }
+
+  /**
+   * Returns the name of the current log file.
+   * @return name
+   */
+  private static String today() {
+    return DateTime.format(new Date(), DateTime.DATE);
+  }
+}